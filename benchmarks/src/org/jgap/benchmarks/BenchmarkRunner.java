@@ -0,0 +1,49 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.benchmarks;
+
+import org.openjdk.jmh.results.format.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Runs the JGAP benchmarks and writes the results as JSON, so that they can
+ * be compared across releases.
+ * <p>
+ * Usage: java -jar benchmarks.jar [result file] [benchmark regexp]
+ * <p>
+ * The result file defaults to jgap-benchmarks.json, all benchmarks are run
+ * if no regular expression is given. For the full set of JMH options, run
+ * org.openjdk.jmh.Main instead.
+ *
+ * @since 3.7
+ */
+public class BenchmarkRunner {
+  private BenchmarkRunner() {
+  }
+
+  public static void main(String[] args)
+      throws RunnerException {
+    String resultFile = "jgap-benchmarks.json";
+    String include = BenchmarkRunner.class.getPackage().getName() + ".*";
+    if (args.length > 0) {
+      resultFile = args[0];
+    }
+    if (args.length > 1) {
+      include = args[1];
+    }
+    Options opt = new OptionsBuilder()
+        .include(include)
+        .resultFormat(ResultFormatType.JSON)
+        .result(resultFile)
+        .build();
+    new Runner(opt).run();
+  }
+}
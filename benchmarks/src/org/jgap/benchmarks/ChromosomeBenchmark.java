@@ -0,0 +1,46 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.benchmarks;
+
+import java.util.concurrent.*;
+
+import org.jgap.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks Chromosome.clone.
+ *
+ * @since 3.7
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChromosomeBenchmark {
+  @Param({"10", "100", "1000"})
+  public int chromosomeLength;
+
+  private IChromosome m_chromosome;
+
+  @Setup
+  public void setUp()
+      throws InvalidConfigurationException {
+    Configuration conf = Problems.createConfiguration(Problems.ROSENBROCK, 1,
+        chromosomeLength);
+    m_chromosome = Chromosome.randomInitialChromosome(conf);
+  }
+
+  @Benchmark
+  public Object cloneChromosome() {
+    return m_chromosome.clone();
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.benchmarks;
+
+import java.util.concurrent.*;
+
+import org.jgap.*;
+import org.jgap.gp.*;
+import org.jgap.gp.impl.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks one generation of GPGenotype.evolve for the symbolic regression
+ * problem.
+ *
+ * @since 3.7
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GPGenotypeBenchmark {
+  @Param({"100", "500"})
+  public int populationSize;
+
+  @Param({"4", "6"})
+  public int treeDepth;
+
+  private GPGenotype m_genotype;
+
+  @Setup
+  public void setUp()
+      throws InvalidConfigurationException {
+    m_genotype = Problems.createSymbolicRegression(populationSize, treeDepth);
+  }
+
+  @Benchmark
+  public IGPProgram evolve() {
+    m_genotype.evolve();
+    return m_genotype.getFittestProgram();
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.benchmarks;
+
+import java.util.concurrent.*;
+
+import org.jgap.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks one generation of Genotype.evolve, including fitness
+ * evaluation, selection and the genetic operators of DefaultConfiguration.
+ *
+ * @since 3.7
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenotypeBenchmark {
+  @Param({Problems.ROSENBROCK, Problems.TRUTH_TABLE})
+  public String problem;
+
+  @Param({"100", "1000"})
+  public int populationSize;
+
+  @Param({"10", "50"})
+  public int chromosomeLength;
+
+  private Genotype m_genotype;
+
+  @Setup
+  public void setUp()
+      throws InvalidConfigurationException {
+    Configuration conf = Problems.createConfiguration(problem, populationSize,
+        chromosomeLength);
+    m_genotype = Genotype.randomInitialGenotype(conf);
+  }
+
+  @Benchmark
+  public IChromosome evolve() {
+    m_genotype.evolve();
+    return m_genotype.getFittestChromosome();
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.benchmarks;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.jgap.*;
+import org.jgap.impl.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks CrossoverOperator.operate and MutationOperator.operate on a
+ * whole population.
+ *
+ * @since 3.7
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperatorBenchmark {
+  @Param({"100", "1000"})
+  public int populationSize;
+
+  @Param({"10", "100"})
+  public int chromosomeLength;
+
+  private Population m_population;
+
+  private CrossoverOperator m_crossover;
+
+  private MutationOperator m_mutation;
+
+  @Setup
+  public void setUp()
+      throws InvalidConfigurationException {
+    Configuration conf = Problems.createConfiguration(Problems.ROSENBROCK,
+        populationSize, chromosomeLength);
+    m_population = Problems.createPopulation(conf);
+    m_crossover = new CrossoverOperator(conf);
+    m_mutation = new MutationOperator(conf);
+  }
+
+  @Benchmark
+  public List crossover() {
+    List result = new ArrayList(populationSize);
+    m_crossover.operate(m_population, result);
+    return result;
+  }
+
+  @Benchmark
+  public List mutation() {
+    List result = new ArrayList(populationSize);
+    m_mutation.operate(m_population, result);
+    return result;
+  }
+}
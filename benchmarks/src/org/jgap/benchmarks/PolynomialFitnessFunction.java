@@ -0,0 +1,54 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.benchmarks;
+
+import java.util.*;
+
+import org.jgap.*;
+import org.jgap.impl.fitness.*;
+
+/**
+ * Truth table fitness: the DoubleGene's of a chromosome are the coefficients
+ * of a polynomial, which should reproduce the table of x^3 - 2x + 1.
+ *
+ * @since 3.7
+ */
+public class PolynomialFitnessFunction
+    extends TruthTableFitnessFunction {
+  public PolynomialFitnessFunction(Configuration a_conf) {
+    super(a_conf, createTruthTable());
+  }
+
+  private static Map createTruthTable() {
+    Map table = new HashMap();
+    for (int i = -10; i <= 10; i++) {
+      double x = i / 2.0d;
+      table.put(new Double(x), new Double(x * x * x - 2 * x + 1));
+    }
+    return table;
+  }
+
+  protected double evaluate(IChromosome a_subject) {
+    int size = a_subject.size();
+    Map actual = new HashMap();
+    Iterator it = getTruthTable().keySet().iterator();
+    while (it.hasNext()) {
+      Double input = (Double) it.next();
+      double x = input.doubleValue();
+      double result = 0;
+      for (int i = size - 1; i >= 0; i--) {
+        result = result * x
+            + ( (Double) a_subject.getGene(i).getAllele()).doubleValue();
+      }
+      actual.put(input, new Double(result));
+    }
+    return MAX_FITNESS / (1 + calcFitness(actual));
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.benchmarks;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.jgap.*;
+import org.jgap.impl.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks Population.sortByFitness and the selection of chromosomes via
+ * WeightedRouletteSelector, in both the classic and the fast wheel mode.
+ *
+ * @since 3.7
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PopulationBenchmark {
+  @Param({"100", "1000", "10000"})
+  public int populationSize;
+
+  @Param({"20"})
+  public int chromosomeLength;
+
+  private Configuration m_conf;
+
+  private Population m_population;
+
+  private WeightedRouletteSelector m_roulette;
+
+  private WeightedRouletteSelector m_fastRoulette;
+
+  private Random m_random;
+
+  @Setup
+  public void setUp()
+      throws InvalidConfigurationException {
+    m_conf = Problems.createConfiguration(Problems.ROSENBROCK, populationSize,
+                                          chromosomeLength);
+    m_population = Problems.createPopulation(m_conf);
+    m_roulette = new WeightedRouletteSelector(m_conf);
+    m_fastRoulette = new WeightedRouletteSelector(m_conf);
+    m_fastRoulette.setFastWheel(true);
+    m_random = new Random(42);
+  }
+
+  /**
+   * Restores an unsorted order before each call of sortByFitness.
+   */
+  @Setup(Level.Invocation)
+  public void shuffle() {
+    Collections.shuffle(m_population.getChromosomes(), m_random);
+  }
+
+  @Benchmark
+  public Population sortByFitness() {
+    m_population.sortByFitness();
+    return m_population;
+  }
+
+  @Benchmark
+  public Population selectRoulette()
+      throws InvalidConfigurationException {
+    return select(m_roulette);
+  }
+
+  @Benchmark
+  public Population selectRouletteFastWheel()
+      throws InvalidConfigurationException {
+    return select(m_fastRoulette);
+  }
+
+  private Population select(WeightedRouletteSelector a_selector)
+      throws InvalidConfigurationException {
+    Population result = new Population(m_conf, populationSize / 2);
+    a_selector.select(populationSize / 2, m_population, result);
+    a_selector.empty();
+    return result;
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.benchmarks;
+
+import org.jgap.*;
+import org.jgap.gp.*;
+import org.jgap.gp.function.*;
+import org.jgap.gp.impl.*;
+import org.jgap.gp.terminal.*;
+import org.jgap.impl.*;
+
+/**
+ * Creates the configurations and populations the benchmarks operate on.
+ * Each configuration gets a unique id, as JGAP does not allow reconfiguring
+ * the fitness function of a configuration with the same id on one thread.
+ *
+ * @since 3.7
+ */
+public class Problems {
+  /**
+   * Generalized Rosenbrock function, see RosenbrockFitnessFunction.
+   */
+  public static final String ROSENBROCK = "rosenbrock";
+
+  /**
+   * Polynomial truth table, see PolynomialFitnessFunction.
+   */
+  public static final String TRUTH_TABLE = "truthtable";
+
+  private static int m_configCount;
+
+  private Problems() {
+  }
+
+  private static synchronized String nextId() {
+    return "benchmark" + (m_configCount++);
+  }
+
+  /**
+   * @param a_problem ROSENBROCK or TRUTH_TABLE
+   * @param a_populationSize size of the population
+   * @param a_chromosomeLength number of DoubleGene's per chromosome
+   * @return default configuration for the given problem
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public static Configuration createConfiguration(String a_problem,
+      int a_populationSize, int a_chromosomeLength)
+      throws InvalidConfigurationException {
+    Configuration conf = new DefaultConfiguration(nextId(), a_problem);
+    conf.setPreservFittestIndividual(true);
+    Gene sample;
+    if (ROSENBROCK.equals(a_problem)) {
+      conf.setFitnessFunction(new RosenbrockFitnessFunction());
+      sample = new DoubleGene(conf, -2.0d, 2.0d);
+    }
+    else if (TRUTH_TABLE.equals(a_problem)) {
+      conf.setFitnessFunction(new PolynomialFitnessFunction(conf));
+      sample = new DoubleGene(conf, -5.0d, 5.0d);
+    }
+    else {
+      throw new IllegalArgumentException("Unknown problem " + a_problem);
+    }
+    conf.setSampleChromosome(new Chromosome(conf, sample, a_chromosomeLength));
+    conf.setPopulationSize(a_populationSize);
+    return conf;
+  }
+
+  /**
+   * @param a_conf the configuration to use
+   * @return random initial population with fitness values computed
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public static Population createPopulation(Configuration a_conf)
+      throws InvalidConfigurationException {
+    Population pop = Genotype.randomInitialGenotype(a_conf).getPopulation();
+    for (int i = 0; i < pop.size(); i++) {
+      pop.getChromosome(i).getFitnessValue();
+    }
+    return pop;
+  }
+
+  /**
+   * Symbolic regression of x^4 + x^3 + x^2 - x, as in the MathProblem and
+   * SymbolicRegression examples.
+   *
+   * @param a_populationSize size of the GP population
+   * @param a_maxInitDepth maximum depth of initial programs
+   * @return random initial GP genotype
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public static GPGenotype createSymbolicRegression(int a_populationSize,
+      int a_maxInitDepth)
+      throws InvalidConfigurationException {
+    GPConfiguration conf = new GPConfiguration(nextId(), "regression");
+    conf.setGPFitnessEvaluator(new DeltaGPFitnessEvaluator());
+    conf.setMaxInitDepth(a_maxInitDepth);
+    conf.setMaxCrossoverDepth(a_maxInitDepth + 4);
+    conf.setPopulationSize(a_populationSize);
+    conf.setStrictProgramCreation(true);
+    conf.setRandomGenerator(new StockRandomGenerator());
+    Variable x = Variable.create(conf, "X", CommandGene.DoubleClass);
+    x.setColumn(0);
+    conf.setFitnessFunction(new RegressionFitnessFunction());
+    Class[] types = {CommandGene.DoubleClass};
+    Class[][] argTypes = { {}
+    };
+    CommandGene[][] nodeSets = { {
+        x,
+        new Add(conf, CommandGene.DoubleClass),
+        new Subtract(conf, CommandGene.DoubleClass),
+        new Multiply(conf, CommandGene.DoubleClass),
+        new Divide(conf, CommandGene.DoubleClass),
+        new Sine(conf, CommandGene.DoubleClass),
+        new Exp(conf, CommandGene.DoubleClass),
+        new Terminal(conf, CommandGene.DoubleClass, 2.0d, 10.0d, true),
+    }
+    };
+    return GPGenotype.randomInitialGenotype(conf, types, argTypes, nodeSets,
+        200, false);
+  }
+
+  /**
+   * Input column of the symbolic regression.
+   */
+  static final double[][] REGRESSION_INPUT = new double[1][50];
+
+  static final double[] REGRESSION_OUTPUT = new double[50];
+
+  static {
+    for (int i = 0; i < REGRESSION_OUTPUT.length; i++) {
+      double x = -2.0d + i * 0.1d;
+      REGRESSION_INPUT[0][i] = x;
+      REGRESSION_OUTPUT[i] = x * x * x * x + x * x * x + x * x - x;
+    }
+  }
+
+  /**
+   * Sum of absolute errors over all rows, computed via batch evaluation.
+   *
+   * @since 3.7
+   */
+  public static class RegressionFitnessFunction
+      extends GPFitnessFunction {
+    protected double evaluate(IGPProgram a_subject) {
+      double[] result = new double[REGRESSION_OUTPUT.length];
+      a_subject.execute_double_batch(0, REGRESSION_INPUT, result);
+      double error = 0;
+      for (int i = 0; i < result.length; i++) {
+        error += Math.abs(result[i] - REGRESSION_OUTPUT[i]);
+      }
+      if (Double.isInfinite(error) || Double.isNaN(error)) {
+        return Double.MAX_VALUE;
+      }
+      return error;
+    }
+  }
+}
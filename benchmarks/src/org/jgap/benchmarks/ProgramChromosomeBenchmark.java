@@ -0,0 +1,89 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.benchmarks;
+
+import java.util.concurrent.*;
+
+import org.jgap.*;
+import org.jgap.gp.*;
+import org.jgap.gp.impl.*;
+import org.jgap.gp.terminal.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks evaluating a GP program over all rows of the symbolic regression
+ * data: interpreted row by row, compiled row by row and column-wise in batch
+ * mode. The largest program of a random initial population is used.
+ *
+ * @since 3.7
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProgramChromosomeBenchmark {
+  @Param({"4", "6", "8"})
+  public int treeDepth;
+
+  private ProgramChromosome m_chromosome;
+
+  private Variable m_x;
+
+  private double[] m_out;
+
+  @Setup
+  public void setUp()
+      throws InvalidConfigurationException {
+    GPGenotype gp = Problems.createSymbolicRegression(50, treeDepth);
+    IGPProgram[] programs = gp.getGPPopulation().getGPPrograms();
+    ProgramChromosome largest = programs[0].getChromosome(0);
+    for (int i = 1; i < programs.length; i++) {
+      ProgramChromosome chrom = programs[i].getChromosome(0);
+      if (chrom.getSize(0) > largest.getSize(0)) {
+        largest = chrom;
+      }
+    }
+    m_chromosome = largest;
+    m_x = gp.getGPConfiguration().getVariable("X");
+    m_out = new double[Problems.REGRESSION_OUTPUT.length];
+  }
+
+  @Benchmark
+  public double interpreted() {
+    Object[] noargs = new Object[0];
+    double[] input = Problems.REGRESSION_INPUT[0];
+    double sum = 0;
+    for (int i = 0; i < input.length; i++) {
+      m_x.set(new Double(input[i]));
+      sum += m_chromosome.execute_double(noargs);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public double compiled() {
+    Object[] noargs = new Object[0];
+    double[] input = Problems.REGRESSION_INPUT[0];
+    double sum = 0;
+    for (int i = 0; i < input.length; i++) {
+      m_x.set(new Double(input[i]));
+      sum += m_chromosome.execute_double_compiled(noargs);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public double[] batch() {
+    m_chromosome.execute_double_batch(Problems.REGRESSION_INPUT, m_out);
+    return m_out;
+  }
+}
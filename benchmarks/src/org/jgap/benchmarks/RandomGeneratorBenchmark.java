@@ -0,0 +1,95 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.benchmarks;
+
+import java.util.concurrent.*;
+
+import org.jgap.*;
+import org.jgap.impl.*;
+import org.jgap.util.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks the random generators of JGAP: StockRandomGenerator, the
+ * splittable generators and the generators of org.jgap.util, as well as the
+ * bulk fill of the splittable generators.
+ *
+ * @since 3.7
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomGeneratorBenchmark {
+  @Param({"stock", "splitmix64", "xoshiro", "pcg"})
+  public String generator;
+
+  private RandomGenerator m_generator;
+
+  private randomX m_lcg;
+
+  private randomX m_lecuyer;
+
+  private double[] m_values;
+
+  @Setup
+  public void setUp() {
+    if (generator.equals("stock")) {
+      m_generator = new StockRandomGenerator();
+    }
+    else if (generator.equals("splitmix64")) {
+      m_generator = new SplitMix64RandomGenerator(4711);
+    }
+    else if (generator.equals("xoshiro")) {
+      m_generator = new XoshiroRandomGenerator(4711);
+    }
+    else {
+      m_generator = new PCGRandomGenerator(4711);
+    }
+    m_lcg = new randomLCG(4711);
+    m_lecuyer = new randomLEcuyer(4711);
+    m_values = new double[1024];
+  }
+
+  @Benchmark
+  public double nextDouble() {
+    return m_generator.nextDouble();
+  }
+
+  @Benchmark
+  public int nextIntCeiling() {
+    return m_generator.nextInt(1000);
+  }
+
+  @Benchmark
+  public double[] nextDoubles() {
+    if (m_generator instanceof ISplittableRandomGenerator) {
+      ( (ISplittableRandomGenerator) m_generator).nextDoubles(m_values);
+    }
+    else {
+      for (int i = 0; i < m_values.length; i++) {
+        m_values[i] = m_generator.nextDouble();
+      }
+    }
+    return m_values;
+  }
+
+  @Benchmark
+  public double lcgNextDouble() {
+    return m_lcg.nextDouble();
+  }
+
+  @Benchmark
+  public double lecuyerNextDouble() {
+    return m_lecuyer.nextDouble();
+  }
+}
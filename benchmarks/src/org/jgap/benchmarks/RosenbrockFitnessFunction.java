@@ -0,0 +1,34 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.benchmarks;
+
+import org.jgap.*;
+
+/**
+ * Generalized Rosenbrock function over all genes of a chromosome of
+ * DoubleGene's, as RosenbrocksBulkNegativeFunction computes it for two genes.
+ * Mapped to a positive fitness value to be maximized.
+ *
+ * @since 3.7
+ */
+public class RosenbrockFitnessFunction
+    extends FitnessFunction {
+  protected double evaluate(IChromosome a_subject) {
+    int size = a_subject.size();
+    double sum = 0;
+    double x = ( (Double) a_subject.getGene(0).getAllele()).doubleValue();
+    for (int i = 1; i < size; i++) {
+      double y = ( (Double) a_subject.getGene(i).getAllele()).doubleValue();
+      sum += 100 * (y - x * x) * (y - x * x) + (1 - x) * (1 - x);
+      x = y;
+    }
+    return 1 / (1 + sum);
+  }
+}
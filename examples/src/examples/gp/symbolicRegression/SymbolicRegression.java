@@ -88,6 +88,10 @@ public class SymbolicRegression
   // Note: the last row is the output variable per default
   protected static Double[][] data;
 
+  // the input data as columns for batch evaluation (without the output
+  // variable), the order corresponding to the variables
+  protected static double[][] inputColumns;
+
   // If we have found a perfect solution.
   public static boolean foundPerfect = false;
 
@@ -272,6 +276,7 @@ public class SymbolicRegression
         }
         variables[variableIndex] = Variable.create(conf, variableName,
             CommandGene.DoubleClass);
+        variables[variableIndex].setColumn(variableIndex);
         nodeSets[0][variableIndex] = variables[variableIndex];
         System.out.println("input variable: " + variables[variableIndex]);
         variableIndex++;
@@ -1105,6 +1110,27 @@ public class SymbolicRegression
     System.exit(0);
   }
 
+  /**
+   * @return the input data as columns for batch evaluation, in the order of
+   * the variables
+   */
+  protected static synchronized double[][] getInputColumns() {
+    if (inputColumns == null) {
+      double[][] columns = new double[numInputVariables][numRows];
+      int variableIndex = 0;
+      for (int i = 0; i < numInputVariables + 1; i++) {
+        if (i != outputVariable) {
+          for (int j = 0; j < numRows; j++) {
+            columns[variableIndex][j] = data[i][j].doubleValue();
+          }
+          variableIndex++;
+        }
+      }
+      inputColumns = columns;
+    }
+    return inputColumns;
+  }
+
   /**
    * Fitness function for evaluating the produced fomulas, represented as GP
    * programs. The fitness is computed by calculating the result (Y) of the
@@ -1120,47 +1146,32 @@ public class SymbolicRegression
 
     public double computeRawFitness(final IGPProgram ind) {
       double error = 0.0f;
-      Object[] noargs = new Object[0];
-      // Evaluate function for the input numbers
-      // --------------------------------------------
-      // double[] results  =  new double[numRows];
+      // Evaluate function for all input numbers at once. The variables are
+      // bound to the input columns, see method create().
+      // ------------------------------------------------------------------
+      double[] results = new double[numRows];
+      try {
+        ind.execute_double_batch(0, getInputColumns(), results);
+      } catch (ArithmeticException ex) {
+        // This should not happen, some illegal operation was executed.
+        // ------------------------------------------------------------
+        System.out.println(ind);
+        throw ex;
+      }
       for (int j = 0; j < numRows; j++) {
-        // Provide the variable X with the input number.
-        // See method create(), declaration of "nodeSets" for where X is
-        // defined.
-        // -------------------------------------------------------------
-
-        // set all the input variables
-        int variableIndex = 0;
-        for (int i = 0; i < numInputVariables + 1; i++) {
-          if (i != outputVariable) {
-            variables[variableIndex].set(data[i][j]);
-            variableIndex++;
-          }
-        }
-        try {
-          double result = ind.execute_double(0, noargs);
-          // results[j] = result;
-
-          // Sum up the error between actual and expected result to get a defect
-          // rate.
-          // -------------------------------------------------------------------
-
-          // hakank: TODO: test with different metrics...
-          error += Math.abs(result - data[outputVariable][j]); // original
-          // error += Math.pow(Math.abs(result - data[outputVariable][j]),2);
-
-          // If the error is too high, stop evaluation and return worst error
-          // possible.
-          // ----------------------------------------------------------------
-          if (Double.isInfinite(error)) {
-            return Double.MAX_VALUE;
-          }
-        } catch (ArithmeticException ex) {
-          // This should not happen, some illegal operation was executed.
-          // ------------------------------------------------------------
-          System.out.println(ind);
-          throw ex;
+        // Sum up the error between actual and expected result to get a defect
+        // rate.
+        // -------------------------------------------------------------------
+
+        // hakank: TODO: test with different metrics...
+        error += Math.abs(results[j] - data[outputVariable][j]); // original
+        // error += Math.pow(Math.abs(results[j] - data[outputVariable][j]),2);
+
+        // If the error is too high, stop evaluation and return worst error
+        // possible.
+        // ----------------------------------------------------------------
+        if (Double.isInfinite(error)) {
+          return Double.MAX_VALUE;
         }
       }
       /*
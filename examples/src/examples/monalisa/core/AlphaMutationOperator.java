@@ -110,7 +110,7 @@ public class AlphaMutationOperator
           a_candidateChromosomes.add(copyOfChromosome);
           // ...then mutate all its genes...
           // -------------------------------
-          genes = copyOfChromosome.getGenes();
+          genes = BaseChromosome.writableGenes(copyOfChromosome);
           // In case monitoring is active, support it.
           // -----------------------------------------
           if (m_monitorActive) {
@@ -113,7 +113,7 @@ public class PointMutationOperator
             a_candidateChromosomes.add(copyOfChromosome);
             // ...then mutate all its genes...
             // -------------------------------
-            genes = copyOfChromosome.getGenes();
+            genes = BaseChromosome.writableGenes(copyOfChromosome);
             // In case monitoring is active, support it.
             // -----------------------------------------
             if (m_monitorActive) {
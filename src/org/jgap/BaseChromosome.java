@@ -57,13 +57,31 @@ public abstract class BaseChromosome
    */
   private Gene[] m_genes;
 
+  /**
+   * Marks the loci whose genes may be shared with other chromosomes, see
+   * Configuration.setCopyOnWriteChromosomes. Null if no gene is shared.
+   */
+  private boolean[] m_sharedGenes;
+
   private int m_age;
 
   private int m_operatedOn;
 
+  /**
+   * Sequence number the unique ID of the chromosome is made of, see LineageID.
+   */
+  private long m_lineageID;
+
+  /**
+   * Prefix of the run the chromosome was created in, shared by all instances
+   * of the run.
+   */
+  private String m_lineageRun;
+
   /**
    * Unique ID of the chromosome that allows to distinct it from other
-   * chromosomes. In the best case, this ID is unique worldwide.
+   * chromosomes. In the best case, this ID is unique worldwide. Created from
+   * m_lineageID on demand.
    */
   private String m_uniqueID;
 
@@ -71,6 +89,11 @@ public abstract class BaseChromosome
    * In case mutation, crossing over etc. happened, this sequence gives evidence
    * about the parent(s) of the current chromosome.
    */
+  private long[] m_lineageTemplates;
+
+  /**
+   * Templates with IDs not created in the run of this chromosome.
+   */
   private Map<Integer,String> m_uniqueIDTemplates;
 
   /**
@@ -91,12 +114,8 @@ public abstract class BaseChromosome
     }
     m_configuration = a_configuration;
     if (m_configuration.isUniqueKeysActive()) {
-      m_uniqueIDTemplates = new HashMap();
-      IJGAPFactory factory = m_configuration.getJGAPFactory();
-      if (JGAPFactory.class.isAssignableFrom(factory.getClass())) {
-        m_uniqueID = ( (JGAPFactory) (m_configuration.getJGAPFactory())).
-            getUniqueKey(getClass().getName());
-      }
+      m_lineageID = LineageID.next();
+      m_lineageRun = LineageID.getRunPrefix();
     }
   }
   /**
@@ -107,9 +126,22 @@ public abstract class BaseChromosome
    * @since 3.5
    */
   public String getUniqueID() {
+    if (m_uniqueID == null && m_lineageID != LineageID.NONE) {
+      m_uniqueID = LineageID.toString(m_lineageRun, m_lineageID);
+    }
     return m_uniqueID;
   }
 
+  /**
+   * @return sequence number the unique ID is made of, LineageID.NONE if
+   * unique keys are not active
+   *
+   * @since 3.7
+   */
+  public long getLineageID() {
+    return m_lineageID;
+  }
+
   /**
    * A template is a chromosome that is the logical predecessor of the current
    * chromosome. A template can occur in mutation or crossing over. In the
@@ -124,7 +156,17 @@ public abstract class BaseChromosome
    * @since 3.5
    */
   public void setUniqueIDTemplate(String a_templateID, int a_index) {
-    m_uniqueIDTemplates.put(a_index, a_templateID);
+    long id = LineageID.parse(a_templateID, m_lineageRun);
+    m_lineageTemplates = LineageID.setTemplate(m_lineageTemplates, a_index, id);
+    if (id == LineageID.NONE && a_templateID != null) {
+      if (m_uniqueIDTemplates == null) {
+        m_uniqueIDTemplates = new HashMap();
+      }
+      m_uniqueIDTemplates.put(a_index, a_templateID);
+    }
+    else if (m_uniqueIDTemplates != null) {
+      m_uniqueIDTemplates.remove(a_index);
+    }
   }
 
   /**
@@ -135,6 +177,13 @@ public abstract class BaseChromosome
    * @since 3.5
    */
   public String getUniqueIDTemplate(int a_index) {
+    long id = LineageID.getTemplate(m_lineageTemplates, a_index);
+    if (id != LineageID.NONE) {
+      return LineageID.toString(m_lineageRun, id);
+    }
+    if (m_uniqueIDTemplates == null) {
+      return null;
+    }
     return m_uniqueIDTemplates.get(a_index);
   }
 
@@ -264,6 +313,11 @@ public abstract class BaseChromosome
   public void setGenes(Gene[] a_genes)
       throws InvalidConfigurationException {
     m_genes = a_genes;
+    if (m_sharedGenes != null) {
+      // The new genes could be the shared ones, only rearranged.
+      // --------------------------------------------------------
+      m_sharedGenes = allShared(a_genes == null ? 0 : a_genes.length);
+    }
   }
 
   /**
@@ -285,6 +339,162 @@ public abstract class BaseChromosome
     m_genes[a_index] = a_gene;
   }
 
+  /**
+   * Returns the gene at the given locus for changing it. If the gene is shared
+   * with another chromosome, it is replaced by a copy first.
+   *
+   * @param a_locus index of the gene to be returned
+   * @return Gene at the given index, not shared with any other chromosome
+   *
+   * @since 3.7
+   */
+  public synchronized Gene getWritableGene(int a_locus) {
+    if (m_sharedGenes != null && m_sharedGenes[a_locus]) {
+      m_genes[a_locus] = copyGene(m_genes[a_locus]);
+      m_sharedGenes[a_locus] = false;
+    }
+    return getGene(a_locus);
+  }
+
+  /**
+   * Replaces all genes shared with other chromosomes by copies.
+   *
+   * @return an array of the Genes contained within this Chromosome, none of
+   * them shared with any other chromosome
+   *
+   * @since 3.7
+   */
+  public synchronized Gene[] getWritableGenes() {
+    if (m_sharedGenes != null) {
+      for (int i = 0; i < m_sharedGenes.length; i++) {
+        if (m_sharedGenes[i]) {
+          m_genes[i] = copyGene(m_genes[i]);
+        }
+      }
+      m_sharedGenes = null;
+    }
+    return getGenes();
+  }
+
+  /**
+   * Returns the gene of the given chromosome at the given locus for changing
+   * it. Genetic operators must use this method instead of getGene(int) before
+   * changing a gene, see Configuration.setCopyOnWriteChromosomes. Chromosomes
+   * not derived from BaseChromosome never share genes, their gene is returned
+   * as is.
+   *
+   * @param a_chrom the chromosome to obtain the gene from
+   * @param a_locus index of the gene to be returned
+   * @return Gene at the given index, not shared with any other chromosome
+   *
+   * @since 3.7
+   */
+  public static Gene writableGene(IChromosome a_chrom, int a_locus) {
+    if (a_chrom instanceof BaseChromosome) {
+      return ( (BaseChromosome) a_chrom).getWritableGene(a_locus);
+    }
+    return a_chrom.getGene(a_locus);
+  }
+
+  /**
+   * Same as writableGene(IChromosome, int), but for all genes of the given
+   * chromosome.
+   *
+   * @param a_chrom the chromosome to obtain the genes from
+   * @return the genes of the chromosome, none of them shared with any other
+   * chromosome
+   *
+   * @since 3.7
+   */
+  public static Gene[] writableGenes(IChromosome a_chrom) {
+    if (a_chrom instanceof BaseChromosome) {
+      return ( (BaseChromosome) a_chrom).getWritableGenes();
+    }
+    return a_chrom.getGenes();
+  }
+
+  /**
+   * @param a_locus index of the gene to check
+   * @return true: the gene at the given locus may be shared with another
+   * chromosome
+   *
+   * @since 3.7
+   */
+  public synchronized boolean isGeneShared(int a_locus) {
+    return m_sharedGenes != null && m_sharedGenes[a_locus];
+  }
+
+  /**
+   * @return true: at least one gene may be shared with another chromosome
+   *
+   * @since 3.7
+   */
+  public synchronized boolean hasSharedGenes() {
+    if (m_sharedGenes != null) {
+      for (int i = 0; i < m_sharedGenes.length; i++) {
+        if (m_sharedGenes[i]) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Lets the given chromosome use the genes of this one instead of copies of
+   * them. Both chromosomes copy a gene before changing it, see
+   * getWritableGene(int).
+   *
+   * @param a_copy the chromosome to share the genes with
+   *
+   * @since 3.7
+   */
+  protected synchronized void shareGenes(BaseChromosome a_copy) {
+    int size = size();
+    a_copy.m_genes = new Gene[size];
+    System.arraycopy(m_genes, 0, a_copy.m_genes, 0, size);
+    a_copy.m_sharedGenes = allShared(size);
+    m_sharedGenes = allShared(size);
+  }
+
+  /**
+   * Creates a copy of a gene, including a clone of its allele if possible.
+   *
+   * @param a_gene the gene to copy
+   * @return the copy
+   *
+   * @since 3.7 (previously part of Chromosome.clone)
+   */
+  protected Gene copyGene(Gene a_gene) {
+    Gene copy = a_gene.newGene();
+    Object allele = a_gene.getAllele();
+    if (allele != null) {
+      IJGAPFactory factory = getConfiguration().getJGAPFactory();
+      if (factory != null) {
+        ICloneHandler cloner = factory.
+            getCloneHandlerFor(allele, allele.getClass());
+        if (cloner != null) {
+          try {
+            allele = cloner.perform(allele, null, this);
+          } catch (Exception ex) {
+            throw new RuntimeException(ex);
+          }
+        }
+        else {
+          /**@todo once output a warning: allele should be cloneable!*/
+        }
+      }
+    }
+    copy.setAllele(allele);
+    return copy;
+  }
+
+  private static boolean[] allShared(int a_size) {
+    boolean[] result = new boolean[a_size];
+    Arrays.fill(result, true);
+    return result;
+  }
+
   /**
    * Returns the size of this Chromosome (the number of genes it contains).
    * A Chromosome's size is constant and will not change, until setGenes(...)
@@ -56,9 +56,20 @@ public abstract class BaseGene
 
   private Configuration m_configuration;
 
+  /**
+   * Sequence number the unique ID of the gene is made of, see LineageID.
+   */
+  private long m_lineageID;
+
+  /**
+   * Prefix of the run the gene was created in, shared by all instances of the
+   * run.
+   */
+  private String m_lineageRun;
+
   /**
    * Unique ID of the gene that allows to distinct it from other genes. In the
-   * best case, this ID is unique worldwide.
+   * best case, this ID is unique worldwide. Created from m_lineageID on demand.
    */
   private String m_uniqueID;
 
@@ -66,6 +77,11 @@ public abstract class BaseGene
    * In case mutation, crossing over etc. happened, this sequence gives evidence
    * about the parent(s) of the current gene.
    */
+  private long[] m_lineageTemplates;
+
+  /**
+   * Templates with IDs not created in the run of this gene.
+   */
   private Map<Integer,String> m_uniqueIDTemplates;
 
   /**
@@ -83,12 +99,8 @@ public abstract class BaseGene
     }
     m_configuration = a_configuration;
     if (m_configuration.isUniqueKeysActive()) {
-      m_uniqueIDTemplates = new HashMap();
-      IJGAPFactory factory = m_configuration.getJGAPFactory();
-      if (JGAPFactory.class.isAssignableFrom(factory.getClass())) {
-        m_uniqueID = ( (JGAPFactory) (m_configuration.getJGAPFactory())).
-            getUniqueKey(getClass().getName());
-      }
+      m_lineageID = LineageID.next();
+      m_lineageRun = LineageID.getRunPrefix();
     }
   }
   /**
@@ -432,9 +444,22 @@ public abstract class BaseGene
    * @since 3.5
    */
   public String getUniqueID() {
+    if (m_uniqueID == null && m_lineageID != LineageID.NONE) {
+      m_uniqueID = LineageID.toString(m_lineageRun, m_lineageID);
+    }
     return m_uniqueID;
   }
 
+  /**
+   * @return sequence number the unique ID is made of, LineageID.NONE if
+   * unique keys are not active
+   *
+   * @since 3.7
+   */
+  public long getLineageID() {
+    return m_lineageID;
+  }
+
   /**
    * A template is a gene that is the logical predecessor of the current
    * gene. A template can occur in mutation or crossing over. In the
@@ -449,7 +474,17 @@ public abstract class BaseGene
    * @since 3.5
    */
   public void setUniqueIDTemplate(String a_templateID, int a_index) {
-    m_uniqueIDTemplates.put(a_index, a_templateID);
+    long id = LineageID.parse(a_templateID, m_lineageRun);
+    m_lineageTemplates = LineageID.setTemplate(m_lineageTemplates, a_index, id);
+    if (id == LineageID.NONE && a_templateID != null) {
+      if (m_uniqueIDTemplates == null) {
+        m_uniqueIDTemplates = new HashMap();
+      }
+      m_uniqueIDTemplates.put(a_index, a_templateID);
+    }
+    else if (m_uniqueIDTemplates != null) {
+      m_uniqueIDTemplates.remove(a_index);
+    }
   }
 
   /**
@@ -460,6 +495,13 @@ public abstract class BaseGene
    * @since 3.5
    */
   public String getUniqueIDTemplate(int a_index) {
+    long id = LineageID.getTemplate(m_lineageTemplates, a_index);
+    if (id != LineageID.NONE) {
+      return LineageID.toString(m_lineageRun, id);
+    }
+    if (m_uniqueIDTemplates == null) {
+      return null;
+    }
     return m_uniqueIDTemplates.get(a_index);
   }
 
@@ -10,9 +10,11 @@
 package org.jgap;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.jgap.audit.*;
 import org.jgap.event.*;
+import org.jgap.impl.*;
 
 /**
  * Abstract base class for breeders.
@@ -22,6 +24,22 @@ import org.jgap.event.*;
  */
 public abstract class BreederBase
     implements IBreeder {
+  /**
+   * Minimum number of chromosomes per part when applying a genetic operator
+   * concurrently, see getMinimumPartSize.
+   *
+   * @since 3.7
+   */
+  public static final int MINIMUM_PART_SIZE = 50;
+
+  /**
+   * Executor applying genetic operators concurrently, see
+   * Configuration.setOperatorThreads.
+   */
+  private transient ExecutorService m_executor;
+
+  private transient int m_executorThreads;
+
   public BreederBase() {
   }
 
@@ -135,7 +153,16 @@ public abstract class BreederBase
             a_config.getGenerationNr(),
             new Object[] {operator, a_pop, a_pop.getChromosomes()});
       }
-      operator.operate(a_pop, a_pop.getChromosomes());
+      int parts = Math.min(a_config.getOperatorThreads(),
+                           getOperatedSize(a_config, a_pop)
+                           / getMinimumPartSize());
+      if (parts > 1 && operator instanceof IConcurrentGeneticOperator
+          && ( (IConcurrentGeneticOperator) operator).isConcurrent()) {
+        operateConcurrently(a_config, a_pop, operator, parts);
+      }
+      else {
+        operator.operate(a_pop, a_pop.getChromosomes());
+      }
       if (monitorActive) {
         // Monitor that operator has been performed.
         // -----------------------------------------
@@ -152,6 +179,170 @@ public abstract class BreederBase
     }
   }
 
+  /**
+   * @param a_config the configuration to use
+   * @param a_pop the population the genetic operators are applied to
+   * @return number of chromosomes genetic operators choose from, i.e. the
+   * offspring added by operators applied before are not considered
+   *
+   * @since 3.7
+   */
+  protected int getOperatedSize(Configuration a_config, Population a_pop) {
+    return Math.min(a_config.getPopulationSize(), a_pop.size());
+  }
+
+  /**
+   * Operators like CrossoverOperator compute their number of operations from
+   * the size of the population passed, rounding down. Applied to a part, they
+   * lose up to one operation per part, and all of them if the part is too
+   * small. Thus, fewer parts than threads are used if needed to keep each part
+   * at least this large.
+   *
+   * @return minimum number of chromosomes per part when applying a genetic
+   * operator concurrently, MINIMUM_PART_SIZE by default
+   *
+   * @since 3.7
+   */
+  protected int getMinimumPartSize() {
+    return MINIMUM_PART_SIZE;
+  }
+
+  /**
+   * Applies a genetic operator to randomly chosen parts of the population
+   * concurrently. Only the chromosomes genetic operators choose from are
+   * partitioned, see getOperatedSize. Each task adds its offspring to a
+   * buffer of its own and takes random numbers from a stream of its own. The
+   * buffers are appended to the population in the order of the parts, so the
+   * result only depends on the seed and the number of threads, not on the
+   * scheduling of the tasks.
+   *
+   * @param a_config the configuration to use
+   * @param a_pop the population to use as input and to add the offspring to
+   * @param a_operator the operator to apply
+   * @param a_threads number of parts
+   *
+   * @since 3.7
+   */
+  protected void operateConcurrently(final Configuration a_config,
+                                     Population a_pop,
+                                     final GeneticOperator a_operator,
+                                     int a_threads) {
+    RandomGenerator random = a_config.getRandomGenerator();
+    int size = getOperatedSize(a_config, a_pop);
+    // Shuffle, so that crossing over is not restricted to neighbours.
+    // ---------------------------------------------------------------
+    IChromosome[] shuffled = new IChromosome[size];
+    for (int i = 0; i < size; i++) {
+      int j = random.nextInt(i + 1);
+      shuffled[i] = shuffled[j];
+      shuffled[j] = a_pop.getChromosome(i);
+    }
+    List<Callable<List>> tasks = new ArrayList<Callable<List>>(a_threads);
+    for (int t = 0; t < a_threads; t++) {
+      int from = (int) ( (long) size * t / a_threads);
+      int to = (int) ( (long) size * (t + 1) / a_threads);
+      final IChromosome[] part = new IChromosome[to - from];
+      System.arraycopy(shuffled, from, part, 0, part.length);
+      final RandomGenerator stream = createRandomStream(random.nextLong());
+      tasks.add(new Callable<List>() {
+        public List call()
+            throws Exception {
+          List offspring = new ArrayList(part.length);
+          a_config.setLocalRandomGenerator(stream);
+          try {
+            a_operator.operate(new Population(a_config, part), offspring);
+          } finally {
+            a_config.setLocalRandomGenerator(null);
+          }
+          return offspring;
+        }
+      });
+    }
+    List<Future<List>> futures;
+    try {
+      futures = getExecutor(a_threads).invokeAll(tasks);
+    } catch (InterruptedException iex) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Evolution interrupted", iex);
+    }
+    List candidates = a_pop.getChromosomes();
+    RuntimeException failure = null;
+    for (Future<List> future : futures) {
+      try {
+        candidates.addAll(future.get());
+      } catch (InterruptedException iex) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Evolution interrupted", iex);
+      } catch (ExecutionException eex) {
+        if (failure == null) {
+          Throwable cause = eex.getCause();
+          if (cause instanceof RuntimeException) {
+            failure = (RuntimeException) cause;
+          }
+          else {
+            failure = new RuntimeException(cause);
+          }
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Creates the random stream of a task applying a genetic operator
+   * concurrently.
+   *
+   * @param a_seed seed drawn from the random generator of the configuration
+   * @return new random generator seeded with the given seed, by default a
+   * XoshiroRandomGenerator
+   *
+   * @since 3.7
+   */
+  protected RandomGenerator createRandomStream(long a_seed) {
+    return new XoshiroRandomGenerator(a_seed);
+  }
+
+  /**
+   * @param a_threads number of threads needed
+   * @return executor with the given number of daemon threads
+   *
+   * @since 3.7
+   */
+  private synchronized ExecutorService getExecutor(int a_threads) {
+    if (m_executor == null || m_executorThreads != a_threads) {
+      if (m_executor != null) {
+        m_executor.shutdown();
+      }
+      m_executor = Executors.newFixedThreadPool(a_threads, new ThreadFactory() {
+        public Thread newThread(Runnable a_runnable) {
+          Thread t = new Thread(a_runnable, "JGAP genetic operator");
+          t.setDaemon(true);
+          return t;
+        }
+      });
+      m_executorThreads = a_threads;
+    }
+    return m_executor;
+  }
+
+  /**
+   * Stops the threads applying genetic operators concurrently. They are
+   * daemon threads, but an application creating many breeders, e.g. one per
+   * run, should call this when a breeder is not used anymore. A later
+   * evolution step creates new threads if needed.
+   *
+   * @since 3.7
+   */
+  public synchronized void shutdown() {
+    if (m_executor != null) {
+      m_executor.shutdown();
+      m_executor = null;
+      m_executorThreads = 0;
+    }
+  }
+
   /**
    * @return deep clone of this instance
    *
@@ -11,10 +11,15 @@ package org.jgap;
 
 import java.util.*;
 import gnu.trove.*;
+import org.jgap.impl.*;
+import org.jgap.util.*;
 
 /**
  * The cached fitness function extends the original FitnessFunction
- * functionality in order to reduce evaluating something twice.
+ * functionality in order to reduce evaluating something twice.<p>
+ * For long runs or for sharing the cache between several evaluation threads,
+ * use a bounded and thread-safe cache, see constructor
+ * CachedFitnessFunction(int).
  *
  * @author Dennis Fleurbaaij
  * @author Klaus Meffert
@@ -23,10 +28,34 @@ import gnu.trove.*;
  */
 public abstract class CachedFitnessFunction
     extends FitnessFunction {
-  /**@todo allow to restrict size of cache / age of entries*/
-  // Cache with the previous results
+  // Cache with the previous results, keyed by business key.
   private Map<String, Double> cachedFitnessValues;
 
+  /**
+   * Cache with the previous results, keyed by allele hash. Null unless
+   * setKeyByAlleleHash(true) has been called.
+   *
+   * @since 3.7
+   */
+  private Map<Long, Double> m_hashedFitnessValues;
+
+  /**
+   * True: key the cache with a 64 bit hash of the alleles instead of the
+   * business key of the chromosome.
+   *
+   * @since 3.7
+   */
+  private boolean m_keyByAlleleHash;
+
+  /**
+   * Maximum number of cached fitness values if the cache has been created by
+   * CachedFitnessFunction(int), 0 for an unbounded cache created by the
+   * default constructor, -1 for a cache supplied by the caller.
+   *
+   * @since 3.7
+   */
+  private int m_maxEntries;
+
   /**
    * Default Constructor ensuring downward compatibility.
    *
@@ -34,7 +63,7 @@ public abstract class CachedFitnessFunction
    * @since 3.3.2
    */
   public CachedFitnessFunction() {
-    this(new THashMap<String, Double> ());
+    cachedFitnessValues = new THashMap<String, Double> ();
   }
 
   /**
@@ -52,6 +81,22 @@ public abstract class CachedFitnessFunction
    */
   public CachedFitnessFunction(Map<String, Double> cache) {
     cachedFitnessValues = cache;
+    m_maxEntries = -1;
+  }
+
+  /**
+   * Constructor using a thread-safe cache holding at most the given number of
+   * fitness values. When the cache is full, the least recently used entry is
+   * evicted. One instance may be shared by several evaluation threads.
+   * Statistics about hits, misses and evictions are available via getCache().
+   *
+   * @param a_maxEntries maximum number of fitness values cached
+   *
+   * @since 3.7
+   */
+  public CachedFitnessFunction(int a_maxEntries) {
+    cachedFitnessValues = new StripedLRUCache<String, Double> (a_maxEntries);
+    m_maxEntries = a_maxEntries;
   }
 
   /**
@@ -67,15 +112,24 @@ public abstract class CachedFitnessFunction
   public final double getFitnessValue(final IChromosome a_subject) {
     // Retrieve business key of chromosome.
     // ------------------------------------
+    if (m_keyByAlleleHash) {
+      return getFitnessValue(a_subject, m_hashedFitnessValues,
+                             new Long(getAlleleHash(a_subject)));
+    }
     String businessKey = getBusinessKey(a_subject);
     if (businessKey == null) {
       // Caching not possible.
       // ---------------------
       return super.getFitnessValue(a_subject);
     }
+    return getFitnessValue(a_subject, cachedFitnessValues, businessKey);
+  }
+
+  private <K> double getFitnessValue(IChromosome a_subject,
+                                     Map<K, Double> a_cache, K a_key) {
     // Evaluate cache.
     // ---------------
-    Double fitnessValue = cachedFitnessValues.get(businessKey);
+    Double fitnessValue = a_cache.get(a_key);
     if (fitnessValue != null) {
       // Return cached result.
       // ---------------------
@@ -86,7 +140,7 @@ public abstract class CachedFitnessFunction
     double returnValue = super.getFitnessValue(a_subject);
     // Put result into cache.
     // ----------------------
-    cachedFitnessValues.put(businessKey, returnValue);
+    a_cache.put(a_key, returnValue);
     // Return result.
     // --------------
     return returnValue;
@@ -116,4 +170,73 @@ public abstract class CachedFitnessFunction
     }
     return result;
   }
+
+  /**
+   * Computes a 64 bit hash of the alleles of a chromosome, see
+   * DuplicateFilter.fingerprint(IChromosome).
+   *
+   * @param a_subject the chromosome to compute the hash for
+   * @return hash of the alleles
+   *
+   * @since 3.7
+   */
+  protected long getAlleleHash(IChromosome a_subject) {
+    return DuplicateFilter.fingerprint(a_subject);
+  }
+
+  /**
+   * Determines how cache entries are keyed. Keying by allele hash avoids
+   * building the persistent representation of each chromosome and saves
+   * memory, but two different chromosomes with the same hash (which is very
+   * unlikely) would share their fitness value. Further, the allele hash does
+   * not consider the gene types, only the allele values.
+   * <p>
+   * Entries keyed by allele hash are kept in a cache of their own, bounded
+   * like the one given to the constructor. A cache supplied by the caller
+   * holds String keys only, thus keying by allele hash is not possible then.
+   *
+   * @param a_keyByAlleleHash true: key the cache with a 64 bit hash of the
+   * alleles, false: key with the business key (default)
+   *
+   * @since 3.7
+   */
+  public synchronized void setKeyByAlleleHash(boolean a_keyByAlleleHash) {
+    if (a_keyByAlleleHash && m_hashedFitnessValues == null) {
+      if (m_maxEntries < 0) {
+        throw new IllegalStateException("Keying by allele hash is not"
+            + " possible with a cache supplied by the caller!");
+      }
+      if (m_maxEntries == 0) {
+        m_hashedFitnessValues = new THashMap<Long, Double> ();
+      }
+      else {
+        m_hashedFitnessValues = new StripedLRUCache<Long, Double> (
+            m_maxEntries);
+      }
+    }
+    m_keyByAlleleHash = a_keyByAlleleHash;
+  }
+
+  /**
+   * @return true: the cache is keyed by a 64 bit hash of the alleles
+   *
+   * @since 3.7
+   */
+  public boolean isKeyByAlleleHash() {
+    return m_keyByAlleleHash;
+  }
+
+  /**
+   * @return the cache currently used, keyed by allele hash (Long) or by
+   * business key (String), see setKeyByAlleleHash. In case of a
+   * StripedLRUCache it provides statistics about hits, misses and evictions
+   *
+   * @since 3.7
+   */
+  public Map<?, Double> getCache() {
+    if (m_keyByAlleleHash) {
+      return m_hashedFitnessValues;
+    }
+    return cachedFitnessValues;
+  }
 }
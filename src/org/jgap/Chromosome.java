@@ -320,6 +320,10 @@ public class Chromosome
    * ChromosomePool (if any) and set its value appropriately before
    * returning it. If that is not possible, then a new Chromosome instance
    * will be constructed and its value set appropriately before returning.
+   * <p>
+   * If copy-on-write is active (see Configuration.setCopyOnWriteChromosomes),
+   * the pool is not used. Instead, the copy shares the genes of this
+   * Chromosome until one of them is requested via getWritableGene(int).
    *
    * @return copy of this Chromosome
    * @throws IllegalStateException instead of CloneNotSupportedException
@@ -339,11 +343,16 @@ public class Chromosome
           "Chromosome prior to invocation of the clone() method.");
     }
     IChromosome copy = null;
+    // With copy-on-write, the copy uses the genes of this chromosome until
+    // one of them is changed.
+    // --------------------------------------------------------------------
+    boolean shareGenes = getConfiguration().isCopyOnWriteChromosomes()
+        && getClass() == Chromosome.class && size() > 0;
     // Now, first see if we can pull a Chromosome from the pool and just
     // set its gene values (alleles) appropriately.
     // ------------------------------------------------------------
     IChromosomePool pool = getConfiguration().getChromosomePool();
-    if (pool != null) {
+    if (pool != null && !shareGenes) {
       copy = pool.acquireChromosome();
       if (copy != null) {
         Gene[] genes = copy.getGenes();
@@ -360,29 +369,14 @@ public class Chromosome
         // new Gene that is to occupy that same locus in the new Chromosome.
         // -------------------------------------------------------------------
         int size = size();
-        if (size > 0) {
+        if (shareGenes) {
+          copy = new Chromosome(getConfiguration());
+          shareGenes( (Chromosome) copy);
+        }
+        else if (size > 0) {
           Gene[] copyOfGenes = new Gene[size];
           for (int i = 0; i < size; i++) {
-            copyOfGenes[i] = getGene(i).newGene();
-            Object allele = getGene(i).getAllele();
-            if (allele != null) {
-              IJGAPFactory factory = getConfiguration().getJGAPFactory();
-              if (factory != null) {
-                ICloneHandler cloner = factory.
-                    getCloneHandlerFor(allele, allele.getClass());
-                if (cloner != null) {
-                  try {
-                    allele = cloner.perform(allele, null, this);
-                  } catch (Exception ex) {
-                    throw new RuntimeException(ex);
-                  }
-                }
-                else {
-                  /**@todo once output a warning: allele should be cloneable!*/
-                }
-              }
-            }
-            copyOfGenes[i].setAllele(allele);
+            copyOfGenes[i] = copyGene(getGene(i));
           }
           // Now construct a new Chromosome with the copies of the genes and
           // return it. Also clone the IApplicationData object later on.
@@ -940,6 +934,12 @@ public class Chromosome
     // Now fetch the active ChromosomePool from the Configuration object
     // and, if the pool exists, release this Chromosome to it.
     // -----------------------------------------------------------------
+    if (hasSharedGenes()) {
+      // The genes may still be in use by other chromosomes, so neither
+      // release this chromosome to the pool nor clean up its genes.
+      // --------------------------------------------------------------
+      return;
+    }
     IChromosomePool pool = getConfiguration().getChromosomePool();
     if (pool != null) {
       // Note that the pool will take care of any gene cleanup for us,
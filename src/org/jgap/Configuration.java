@@ -179,7 +179,7 @@ public class Configuration
    * @author Neil Rotstan
    * @since 1.0
    */
-  private RandomGenerator m_randomGenerator;
+  private volatile RandomGenerator m_randomGenerator;
 
   /**
    * References the event manager that is to be used for the notification
@@ -336,6 +336,38 @@ public class Configuration
    */
   private IEvolutionMonitor m_monitor;
 
+  /**
+   * Optional strategy for computing the fitness values of a population, e.g.
+   * concurrently. If null, the fitness values are computed sequentially.
+   *
+   * @since 3.7
+   */
+  private transient IPopulationEvaluator m_populationEvaluator;
+
+  /**
+   * Number of threads genetic operators implementing
+   * IConcurrentGeneticOperator are applied with.
+   *
+   * @since 3.7
+   */
+  private int m_operatorThreads = 1;
+
+  /**
+   * Random generators used instead of m_randomGenerator on threads applying a
+   * genetic operator concurrently, created when needed.
+   *
+   * @since 3.7
+   */
+  private transient ThreadLocal<RandomGenerator> m_localRandomGenerator;
+
+  /**
+   * True: Chromosome.clone() shares the genes with the original chromosome
+   * until they are changed.
+   *
+   * @since 3.7
+   */
+  private boolean m_copyOnWriteChromosomes;
+
   public Configuration() {
     this("", null);
   }
@@ -872,16 +904,49 @@ public class Configuration
 
   /**
    * Retrieves the random generator setup in this Configuration instance.
+   * Not synchronized as this is called very often from all threads, the
+   * field is volatile instead.
    *
    * @return the random generator
    *
    * @author Neil Rotstan
    * @since 1.0
    */
-  public synchronized RandomGenerator getRandomGenerator() {
+  public RandomGenerator getRandomGenerator() {
+    ThreadLocal<RandomGenerator> local = m_localRandomGenerator;
+    if (local != null) {
+      RandomGenerator result = local.get();
+      if (result != null) {
+        return result;
+      }
+    }
     return m_randomGenerator;
   }
 
+  /**
+   * Sets the random generator returned by getRandomGenerator() on the
+   * current thread, see BreederBase.
+   *
+   * @param a_generator the generator to use on the current thread, null to use
+   * the random generator of the configuration again
+   *
+   * @since 3.7
+   */
+  synchronized void setLocalRandomGenerator(RandomGenerator a_generator) {
+    if (m_localRandomGenerator == null) {
+      if (a_generator == null) {
+        return;
+      }
+      m_localRandomGenerator = new ThreadLocal<RandomGenerator>();
+    }
+    if (a_generator == null) {
+      m_localRandomGenerator.remove();
+    }
+    else {
+      m_localRandomGenerator.set(a_generator);
+    }
+  }
+
   /**
    * Adds a genetic operator for use in this algorithm. Genetic operators
    * represent evolutionary steps that, when combined, make up the
@@ -1754,6 +1819,9 @@ public class Configuration
         result.m_sampleChromosome = (IChromosome) m_sampleChromosome.clone();
       }
       result.m_alwaysCalculateFitness = m_alwaysCalculateFitness;
+      result.m_populationEvaluator = m_populationEvaluator;
+      result.m_operatorThreads = m_operatorThreads;
+      result.m_copyOnWriteChromosomes = m_copyOnWriteChromosomes;
       result.m_settingsLocked = m_settingsLocked;
 //      result.m_propertyBag = (Map)doClone(m_propertyBag);
       // Configurable data.
@@ -1908,4 +1976,102 @@ public class Configuration
   public boolean isUniqueKeysActive() {
     return m_uniqueKeysActive;
   }
+
+  /**
+   * Sets the strategy for computing the fitness values of the chromosomes of
+   * a population during evolution. Use ParallelPopulationEvaluator to
+   * evaluate chromosomes concurrently. In that case the fitness function must
+   * be thread-safe.
+   *
+   * @param a_evaluator the evaluator to use, null: evaluate sequentially
+   *
+   * @since 3.7
+   */
+  public void setPopulationEvaluator(IPopulationEvaluator a_evaluator) {
+    m_populationEvaluator = a_evaluator;
+  }
+
+  /**
+   * @return the strategy for computing the fitness values of a population, or
+   * null if the fitness values are computed sequentially
+   *
+   * @since 3.7
+   */
+  public IPopulationEvaluator getPopulationEvaluator() {
+    return m_populationEvaluator;
+  }
+
+  /**
+   * Sets the number of threads to apply genetic operators with. With more than
+   * one thread, operators implementing IConcurrentGeneticOperator and
+   * confirming it via isConcurrent() (such as CrossoverOperator,
+   * MutationOperator and GaussianMutationOperator, but not their subclasses)
+   * are applied to as many randomly chosen parts of the population
+   * concurrently.
+   * Each thread writes its offspring into a buffer of its own and uses its own
+   * random stream split off the random generator of this configuration. The
+   * buffers are appended to the population afterwards. A run is reproducible
+   * for a given seed and number of threads.
+   * <p>
+   * Crossover then only mates chromosomes of the same part. Other operators
+   * are applied sequentially, as before. So are all operators if the
+   * population is too small for parts of BreederBase.MINIMUM_PART_SIZE
+   * chromosomes. Call BreederBase.shutdown() to stop the threads once the
+   * breeder is not used anymore.
+   *
+   * @param a_threads number of threads, 1 for sequential application
+   *
+   * @since 3.7
+   */
+  public void setOperatorThreads(int a_threads) {
+    if (a_threads < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive!");
+    }
+    m_operatorThreads = a_threads;
+  }
+
+  /**
+   * @return number of threads to apply genetic operators with
+   *
+   * @since 3.7
+   */
+  public int getOperatorThreads() {
+    return m_operatorThreads;
+  }
+
+  /**
+   * Sets whether chromosomes are copied on write. If so, a clone of a
+   * Chromosome shares the genes with the original until a gene is requested
+   * for changing it via BaseChromosome.writableGene(IChromosome, int) or
+   * writableGenes(IChromosome). Only then the gene is copied. This saves most
+   * of the copying of genes done by selectors cloning chromosomes and by
+   * operators changing only some genes of the chromosomes they clone, such as
+   * CrossoverOperator.
+   * <p>
+   * The genetic operators in org.jgap.impl request genes that way.
+   * <b>Warning:</b> with copy-on-write, changing a gene obtained via
+   * IChromosome.getGene(int) or getGenes() is unsafe. Custom operators and
+   * other code changing the genes of a chromosome obtained by cloning (or
+   * cloned afterwards) must use the methods mentioned above. Otherwise,
+   * changes made to a gene show up in the original chromosome and in all
+   * other clones sharing the gene.
+   *
+   * @param a_copyOnWrite true: share genes between clones of a Chromosome
+   * until they are changed
+   *
+   * @since 3.7
+   */
+  public void setCopyOnWriteChromosomes(boolean a_copyOnWrite) {
+    m_copyOnWriteChromosomes = a_copyOnWrite;
+  }
+
+  /**
+   * @return true: share genes between clones of a Chromosome until they are
+   * changed
+   *
+   * @since 3.7
+   */
+  public boolean isCopyOnWriteChromosomes() {
+    return m_copyOnWriteChromosomes;
+  }
 }
@@ -601,11 +601,10 @@ public class Genotype
     int popSize = a_pop.size();
     // See request  1213752.
     // ---------------------
-    while (popSize > a_maxSize) {
-      // Remove a chromosome.
-      // --------------------
-      a_pop.removeChromosome(0);
-      popSize--;
+    if (popSize > a_maxSize) {
+      // Remove the surplus chromosomes at once.
+      // ---------------------------------------
+      a_pop.removeChromosomes(0, popSize - a_maxSize);
     }
   }
 
@@ -0,0 +1,36 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap;
+
+/**
+ * Marks genetic operators that may be applied to parts of a population
+ * concurrently, see Configuration.setOperatorThreads. Such an operator must
+ * only read the population passed to operate, only add to the list of
+ * candidate chromosomes passed, keep no state changed by operate, and take
+ * its random numbers from Configuration.getRandomGenerator() of the
+ * configuration the breeder works with.
+ * <p>
+ * Implementing this interface is not enough, the operator must also confirm
+ * via isConcurrent(). As subclasses inherit the interface, but need not obey
+ * the rules, isConcurrent() should only return true for the concrete classes
+ * reviewed, e.g. by checking getClass().
+ *
+ * @since 3.7
+ */
+public interface IConcurrentGeneticOperator
+    extends GeneticOperator {
+  /**
+   * @return true: this operator obeys the rules above and may be applied to
+   * parts of a population concurrently
+   *
+   * @since 3.7
+   */
+  boolean isConcurrent();
+}
@@ -0,0 +1,33 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap;
+
+/**
+ * Interface for strategies that ensure the fitness value of every chromosome
+ * of a population is computed. Used by breeders (e.g. GABreeder) instead of
+ * iterating over the population and calling getFitnessValue() one by one.
+ * Implementations may evaluate chromosomes concurrently.
+ *
+ * @since 3.7
+ */
+public interface IPopulationEvaluator {
+  /**
+   * Computes the fitness value of all chromosomes of the given population
+   * that do not have a fitness value yet (or of all chromosomes in case the
+   * configuration demands to always calculate the fitness value).
+   * The method must not return before all fitness values have been set.
+   *
+   * @param a_pop the population to evaluate
+   * @param a_conf the configuration to use
+   *
+   * @since 3.7
+   */
+  void evaluate(Population a_pop, Configuration a_conf);
+}
@@ -0,0 +1,50 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap;
+
+/**
+ * Random generator that can be split into independent streams. Each worker
+ * thread or island can be given a stream of its own, so that no generator is
+ * shared between threads. Given the same seed, splitting the same way always
+ * yields the same streams, thus results remain reproducible.
+ *
+ * @since 3.7
+ */
+public interface ISplittableRandomGenerator
+    extends RandomGenerator {
+  /**
+   * Creates a new generator whose sequence is statistically independent of
+   * the one of this generator. The state of this generator is advanced.
+   *
+   * @return the new generator
+   *
+   * @since 3.7
+   */
+  ISplittableRandomGenerator split();
+
+  /**
+   * Fills the given array with values as returned by nextDouble().
+   *
+   * @param a_values the array to fill
+   *
+   * @since 3.7
+   */
+  void nextDoubles(double[] a_values);
+
+  /**
+   * Fills the given array with values as returned by nextInt(int).
+   *
+   * @param a_values the array to fill
+   * @param a_ceiling the upper boundary excluded
+   *
+   * @since 3.7
+   */
+  void nextInts(int[] a_values, int a_ceiling);
+}
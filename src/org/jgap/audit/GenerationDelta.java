@@ -0,0 +1,198 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.audit;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Compact record of a single generation, as kept by DeltaEvolutionMonitor.
+ * Instead of a copy of the population, it holds for each chromosome of the
+ * population at the end of the generation its unique ID, the unique IDs of
+ * its originators, the source it was produced by and its fitness value. All
+ * data is held in arrays indexed by the position of the chromosome within the
+ * population.
+ *
+ * @since 3.7
+ */
+public class GenerationDelta
+    implements Serializable {
+  private final int m_generation;
+
+  private final String[] m_ids;
+
+  private final double[] m_fitness;
+
+  private final short[] m_sources;
+
+  /**
+   * Originators of all chromosomes, those of chromosome i start at index
+   * m_parentStart[i].
+   */
+  private final String[] m_parents;
+
+  private final int[] m_parentStart;
+
+  private final int m_fittest;
+
+  private transient Map<String, Integer> m_index;
+
+  /**
+   * @param a_generation number of the generation
+   * @param a_ids unique IDs of the chromosomes, entries may be null
+   * @param a_fitness fitness values of the chromosomes
+   * @param a_sources sources of the chromosomes, see
+   * DeltaEvolutionMonitor.getSource
+   * @param a_parents unique IDs of the originators of all chromosomes
+   * @param a_parentStart index of the first originator of each chromosome in
+   * a_parents, followed by the number of originators in total
+   * @param a_fittest index of the fittest chromosome, -1 if unknown
+   *
+   * @since 3.7
+   */
+  public GenerationDelta(int a_generation, String[] a_ids, double[] a_fitness,
+                         short[] a_sources, String[] a_parents,
+                         int[] a_parentStart, int a_fittest) {
+    m_generation = a_generation;
+    m_ids = a_ids;
+    m_fitness = a_fitness;
+    m_sources = a_sources;
+    m_parents = a_parents;
+    m_parentStart = a_parentStart;
+    m_fittest = a_fittest;
+  }
+
+  public int getGeneration() {
+    return m_generation;
+  }
+
+  /**
+   * @return number of chromosomes recorded
+   *
+   * @since 3.7
+   */
+  public int size() {
+    return m_ids.length;
+  }
+
+  public String getUniqueID(int a_index) {
+    return m_ids[a_index];
+  }
+
+  public double getFitnessValue(int a_index) {
+    return m_fitness[a_index];
+  }
+
+  /**
+   * @param a_index index of the chromosome
+   * @return index of the genetic operator or natural selector that produced
+   * the chromosome, or one of the DeltaEvolutionMonitor.SOURCE_* constants
+   *
+   * @since 3.7
+   */
+  public int getSource(int a_index) {
+    return m_sources[a_index];
+  }
+
+  /**
+   * @param a_index index of the chromosome
+   * @return unique IDs of the originators of the chromosome, in the order of
+   * their template index, possibly empty
+   *
+   * @since 3.7
+   */
+  public String[] getOriginators(int a_index) {
+    int start = m_parentStart[a_index];
+    String[] result = new String[m_parentStart[a_index + 1] - start];
+    System.arraycopy(m_parents, start, result, 0, result.length);
+    return result;
+  }
+
+  /**
+   * @return index of the fittest chromosome, -1 if the generation is empty
+   *
+   * @since 3.7
+   */
+  public int getFittestIndex() {
+    return m_fittest;
+  }
+
+  /**
+   * @return fitness value of the fittest chromosome, NaN if the generation is
+   * empty
+   *
+   * @since 3.7
+   */
+  public double getBestFitnessValue() {
+    if (m_fittest < 0) {
+      return Double.NaN;
+    }
+    return m_fitness[m_fittest];
+  }
+
+  /**
+   * @return average fitness value, NaN if the generation is empty
+   *
+   * @since 3.7
+   */
+  public double getAverageFitnessValue() {
+    if (m_fitness.length == 0) {
+      return Double.NaN;
+    }
+    double sum = 0.0d;
+    for (int i = 0; i < m_fitness.length; i++) {
+      sum += m_fitness[i];
+    }
+    return sum / m_fitness.length;
+  }
+
+  /**
+   * @param a_source the source to count
+   * @return number of chromosomes produced by the given source
+   *
+   * @since 3.7
+   */
+  public int countSource(int a_source) {
+    int count = 0;
+    for (int i = 0; i < m_sources.length; i++) {
+      if (m_sources[i] == a_source) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @param a_uniqueID unique ID of a chromosome
+   * @return index of the chromosome with the given ID, -1 if not contained
+   *
+   * @since 3.7
+   */
+  public synchronized int indexOf(String a_uniqueID) {
+    if (a_uniqueID == null) {
+      return -1;
+    }
+    if (m_index == null) {
+      // Only built when queried, as most generations never are.
+      // -------------------------------------------------------
+      m_index = new HashMap<String, Integer>(m_ids.length * 2);
+      for (int i = 0; i < m_ids.length; i++) {
+        if (m_ids[i] != null) {
+          m_index.put(m_ids[i], Integer.valueOf(i));
+        }
+      }
+    }
+    Integer index = m_index.get(a_uniqueID);
+    if (index == null) {
+      return -1;
+    }
+    return index.intValue();
+  }
+}
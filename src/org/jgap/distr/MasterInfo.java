@@ -40,6 +40,10 @@ public class MasterInfo implements Serializable {
    */
   public String m_GUID;
 
+  private static MasterInfo m_localInfo;
+
+  private static boolean m_localInfoDetermined;
+
   public MasterInfo()
       throws Exception {
     this(false);
@@ -53,4 +57,22 @@ public class MasterInfo implements Serializable {
       m_GUID = StringKit.removeChar(NetworkKit.getMACAddress(), ':');
     }
   }
+
+  /**
+   * @return information about the local computer, determined only once, or
+   * null if it cannot be determined
+   *
+   * @since 3.7
+   */
+  public static synchronized MasterInfo getLocalInfo() {
+    if (!m_localInfoDetermined) {
+      m_localInfoDetermined = true;
+      try {
+        m_localInfo = new MasterInfo(true);
+      } catch (Exception ex) {
+        m_localInfo = null;
+      }
+    }
+    return m_localInfo;
+  }
 }
@@ -0,0 +1,59 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.grid;
+
+/**
+ * Client evolve strategy for asynchronous, steady-state evolution. Instead of
+ * sending all work requests of a generation and waiting for all of their
+ * results, the client keeps a fixed number of requests pending. Each result
+ * is merged via resultReceived and evolve as soon as it arrives, and a new
+ * request is sent right away. The server passes it on to the worker that just
+ * became free, so fast workers are not held back by slow ones.
+ * <p>
+ * In this mode generateWorkRequests and afterWorkRequestsSent are not called,
+ * and isEvolutionFinished receives the number of results merged so far.
+ * Results created from a state that is more than getMaxStaleness() merges old
+ * are discarded.
+ *
+ * @since 3.7
+ */
+public interface IAsyncClientEvolveStrategy
+    extends IClientEvolveStrategy {
+  /**
+   * @return number of requests to keep pending, usually the number of workers
+   *
+   * @since 3.7
+   */
+  int getMaxPendingRequests();
+
+  /**
+   * @return maximum number of merges between creating a request and merging
+   * its result
+   *
+   * @since 3.7
+   */
+  int getMaxStaleness();
+
+  /**
+   * Creates a single work request from the current state of the evolution.
+   *
+   * @param a_workReq the request to use as a template
+   * @param a_id the unique ID the request must have, e.g. obtained via
+   * a_workReq.newInstance(a_workReq.getSessionName(), a_id)
+   * @param a_genericData arbitrary data
+   * @return the request to send
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  JGAPRequest generateWorkRequest(JGAPRequest a_workReq, int a_id,
+                                  Object a_genericData)
+      throws Exception;
+}
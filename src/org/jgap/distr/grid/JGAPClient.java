@@ -9,6 +9,8 @@
  */
 package org.jgap.distr.grid;
 
+import java.util.*;
+
 import org.apache.log4j.*;
 import org.homedns.dade.jcgrid.client.*;
 import org.jgap.*;
@@ -41,6 +43,8 @@ public class JGAPClient
 
   private IGridConfiguration m_gridConfig;
 
+  private WorkTracker m_workTracker;
+
   public JGAPClient(GridNodeClientConfig a_gridconfig, String a_clientClassName)
       throws Exception {
     m_gridconfig = a_gridconfig;
@@ -169,6 +173,11 @@ public class JGAPClient
     IClientFeedback feedback = m_gridConfig.getClientFeedback();
     feedback.beginWork();
     IClientEvolveStrategy evolver = m_gridConfig.getClientEvolveStrategy();
+    if (evolver instanceof IAsyncClientEvolveStrategy) {
+      evolveAsync( (IAsyncClientEvolveStrategy) evolver);
+      feedback.endWork();
+      return;
+    }
     IRequestSplitStrategy splitter = m_gridConfig.getRequestSplitStrategy();
     int evolutionIndex = 0;
     do {
@@ -198,6 +207,94 @@ public class JGAPClient
     m_gridConfig.getClientFeedback().endWork();
   }
 
+  /**
+   * Asynchronous, steady-state evolution: keeps a number of work requests
+   * pending, merges each result as soon as it arrives and sends a new request
+   * right away. Results that are too stale are discarded. Once evolution is
+   * finished, no more requests are sent and the results of the requests still
+   * pending are awaited and discarded.
+   *
+   * @param a_evolver the strategy to use
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  protected void evolveAsync(IAsyncClientEvolveStrategy a_evolver)
+      throws Exception {
+    IClientFeedback feedback = m_gridConfig.getClientFeedback();
+    WorkTracker tracker = new WorkTracker(a_evolver.getMaxStaleness());
+    m_workTracker = tracker;
+    Map<Integer, JGAPRequest> pending = new HashMap<Integer, JGAPRequest>();
+    int nextID = 0;
+    int evolutionIndex = 0;
+    boolean finished = false;
+    // Fill the pipeline.
+    // ------------------
+    for (int i = 0; i < a_evolver.getMaxPendingRequests(); i++) {
+      sendWorkRequest(a_evolver, tracker, pending, nextID++);
+    }
+    while (tracker.getPendingCount() > 0 && !isInterrupted()) {
+      // Results arrive in the order the workers finish.
+      // -----------------------------------------------
+      GridMessageWorkResult gmwr = (GridMessageWorkResult) m_gc.recv(0);
+      JGAPResult workResult = (JGAPResult) gmwr.getWorkResult();
+      Integer id = new Integer(workResult.getRID());
+      int staleness = tracker.resultReceived(id, workResult.getWorkerInfo(),
+          workResult.getUnitDone());
+      if (staleness < 0) {
+        log.warn("Ignoring result of unknown request " + id);
+        continue;
+      }
+      JGAPRequest req = pending.remove(id);
+      if (finished) {
+        log.info("Discarding result " + id + " after end of evolution");
+        continue;
+      }
+      if (tracker.isStale(staleness)) {
+        log.info("Discarding result " + id + ", staleness " + staleness);
+      }
+      else {
+        a_evolver.resultReceived(workResult);
+        feedback.receivedFragmentResult(req, workResult, id.intValue());
+        a_evolver.evolve();
+        tracker.merged();
+        feedback.completeFrame(evolutionIndex);
+        evolutionIndex++;
+        if (a_evolver.isEvolutionFinished(evolutionIndex)) {
+          a_evolver.onFinished();
+          finished = true;
+          continue;
+        }
+      }
+      // The server passes the new request to the worker that just became
+      // free.
+      // -----------------------------------------------------------------
+      sendWorkRequest(a_evolver, tracker, pending, nextID++);
+    }
+  }
+
+  private void sendWorkRequest(IAsyncClientEvolveStrategy a_evolver,
+                               WorkTracker a_tracker,
+                               Map<Integer, JGAPRequest> a_pending, int a_id)
+      throws Exception {
+    JGAPRequest req = a_evolver.generateWorkRequest(m_workReq, a_id, null);
+    Integer id = new Integer(req.getRID());
+    a_pending.put(id, req);
+    a_tracker.requestSent(id);
+    m_gridConfig.getClientFeedback().sendingFragmentRequest(req);
+    m_gc.send(new GridMessageWorkRequest(req));
+  }
+
+  /**
+   * @return the tracker of the asynchronous evolution, holding the throughput
+   * of each worker, or null if evolution is not asynchronous
+   *
+   * @since 3.7
+   */
+  public WorkTracker getWorkTracker() {
+    return m_workTracker;
+  }
+
   public void start() {
     try {
       m_gridConfig.validate();
@@ -11,6 +11,7 @@ package org.jgap.distr.grid;
 
 import org.homedns.dade.jcgrid.*;
 import org.jgap.*;
+import org.jgap.distr.*;
 
 /**
  * Holds the result of a worker.
@@ -25,6 +26,8 @@ public class JGAPResult
 
   private long m_unitDone;
 
+  private MasterInfo m_workerInfo;
+
   /**
    *
    * @param name String
@@ -80,4 +83,22 @@ public class JGAPResult
   public long getUnitDone() {
     return m_unitDone;
   }
+
+  /**
+   * @return information about the worker, may be null
+   *
+   * @since 3.7
+   */
+  public MasterInfo getWorkerInfo() {
+    return m_workerInfo;
+  }
+
+  /**
+   * @param a_workerInfo information about the worker that computed the result
+   *
+   * @since 3.7
+   */
+  public void setWorkerInfo(MasterInfo a_workerInfo) {
+    m_workerInfo = a_workerInfo;
+  }
 }
@@ -63,7 +63,12 @@ public class JGAPWorker
     }
     // Assemble result according to registered strategy.
     // -------------------------------------------------
-    WorkResult res = req.getWorkerReturnStrategy().assembleResult(req, gen);
+    JGAPResult res = req.getWorkerReturnStrategy().assembleResult(req, gen);
+    if (res.getWorkerInfo() == null) {
+      // Let the client track the throughput of this worker.
+      // ---------------------------------------------------
+      res.setWorkerInfo(org.jgap.distr.MasterInfo.getLocalInfo());
+    }
     return res;
   }
 
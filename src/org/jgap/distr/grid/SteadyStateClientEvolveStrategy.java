@@ -0,0 +1,163 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.grid;
+
+import java.util.*;
+
+import org.homedns.dade.jcgrid.client.*;
+import org.jgap.*;
+
+/**
+ * Asynchronous client evolve strategy keeping a single population on the
+ * client. Each work request carries the current population, the chromosomes
+ * of each result are added to it, and the population is then cut back to the
+ * size given in the configuration, keeping the fittest chromosomes according
+ * to the fitness evaluator of the configuration. Results must carry their
+ * chromosomes as a population.
+ * <p>
+ * Also usable with the classic, generation-wise evolution of JGAPClient.
+ *
+ * @since 3.7
+ */
+public class SteadyStateClientEvolveStrategy
+    implements IAsyncClientEvolveStrategy {
+  private Configuration m_config;
+
+  private IClientFeedback m_clientFeedback;
+
+  private Population m_pop;
+
+  private int m_maxPendingRequests;
+
+  private int m_maxStaleness;
+
+  private int m_maxMerges;
+
+  /**
+   * Default constructor, necessary for dynamic instantiation. Keeps 4
+   * requests pending, accepts a staleness of 4 and stops after 100 merged
+   * results.
+   *
+   * @since 3.7
+   */
+  public SteadyStateClientEvolveStrategy() {
+    this(4, 4, 100);
+  }
+
+  /**
+   * @param a_maxPendingRequests number of requests to keep pending, usually
+   * the number of workers
+   * @param a_maxStaleness maximum number of merges between creating a request
+   * and merging its result
+   * @param a_maxMerges number of merged results after which evolution ends
+   *
+   * @since 3.7
+   */
+  public SteadyStateClientEvolveStrategy(int a_maxPendingRequests,
+                                         int a_maxStaleness, int a_maxMerges) {
+    if (a_maxPendingRequests < 1) {
+      throw new IllegalArgumentException(
+          "At least one request must be pending");
+    }
+    m_maxPendingRequests = a_maxPendingRequests;
+    m_maxStaleness = a_maxStaleness;
+    m_maxMerges = a_maxMerges;
+  }
+
+  public void initialize(GridClient a_gc, Configuration a_config,
+                         IClientFeedback a_clientFeedback)
+      throws Exception {
+    m_config = a_config;
+    m_clientFeedback = a_clientFeedback;
+    m_pop = new Population(m_config);
+  }
+
+  public int getMaxPendingRequests() {
+    return m_maxPendingRequests;
+  }
+
+  public int getMaxStaleness() {
+    return m_maxStaleness;
+  }
+
+  /**
+   * @return the population evolved on the client
+   *
+   * @since 3.7
+   */
+  public Population getPopulation() {
+    return m_pop;
+  }
+
+  public JGAPRequest generateWorkRequest(JGAPRequest a_workReq, int a_id,
+                                         Object a_genericData)
+      throws Exception {
+    JGAPRequest result = a_workReq.newInstance(a_workReq.getSessionName(),
+        a_id);
+    result.setWorkerFeedback(a_workReq.getWorkerFeedback());
+    result.setPopulation(copyPopulation());
+    return result;
+  }
+
+  public JGAPRequest[] generateWorkRequests(JGAPRequest a_workReq,
+      IRequestSplitStrategy a_splitStrategy, Object a_genericData)
+      throws Exception {
+    a_workReq.setPopulation(copyPopulation());
+    a_workReq.setConfiguration(m_config);
+    return a_splitStrategy.split(a_workReq);
+  }
+
+  /**
+   * The population of a request must not change while the request is
+   * pending, as the population of the client does.
+   *
+   * @return shallow copy of the current population
+   * @throws InvalidConfigurationException
+   */
+  private Population copyPopulation()
+      throws InvalidConfigurationException {
+    Population result = new Population(m_config, Math.max(m_pop.size(), 1));
+    result.addChromosomes(m_pop);
+    return result;
+  }
+
+  public void resultReceived(JGAPResult a_result)
+      throws Exception {
+    if (a_result.getPopulation() != null) {
+      m_pop.addChromosomes(a_result.getPopulation());
+    }
+  }
+
+  public void afterWorkRequestsSent()
+      throws Exception {
+  }
+
+  public void evolve()
+      throws Exception {
+    int popSize = m_config.getPopulationSize();
+    if (m_pop.size() > popSize) {
+      // Keep the fittest chromosomes, in the order of their fitness.
+      // ------------------------------------------------------------
+      m_pop.setChromosomes(new Vector(m_pop.determineFittestChromosomes(
+          popSize)));
+    }
+  }
+
+  public boolean isEvolutionFinished(int a_evolutionsDone) {
+    return a_evolutionsDone >= m_maxMerges;
+  }
+
+  public void onFinished() {
+    if (m_pop.size() > 0) {
+      m_clientFeedback.info("Best solution evolved: "
+                            + m_pop.determineFittestChromosome());
+    }
+  }
+}
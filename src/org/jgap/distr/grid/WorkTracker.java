@@ -0,0 +1,186 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.grid;
+
+import java.io.*;
+import java.util.*;
+
+import org.jgap.distr.*;
+
+/**
+ * Keeps track of the work requests in flight during asynchronous evolution,
+ * see IAsyncClientEvolveStrategy. Each merge of a result into the client's
+ * state increments the version of that state. The staleness of a result is
+ * the number of merges between sending its request and receiving it. Also
+ * collects the throughput of each worker.
+ *
+ * @since 3.7
+ */
+public class WorkTracker
+    implements Serializable {
+  /**
+   * Key of workers that did not report their identity.
+   */
+  public final static String UNKNOWN_WORKER = "unknown";
+
+  private final int m_maxStaleness;
+
+  private int m_version;
+
+  /**
+   * Per pending request: version of the state it was created from and the
+   * time it was sent.
+   */
+  private final Map<Object, long[]> m_pending = new HashMap<Object, long[]>();
+
+  private final Map<String, WorkerStatistics> m_workers =
+      new LinkedHashMap<String, WorkerStatistics>();
+
+  /**
+   * @param a_maxStaleness maximum number of merges between sending a request
+   * and merging its result, older results are discarded
+   *
+   * @since 3.7
+   */
+  public WorkTracker(int a_maxStaleness) {
+    if (a_maxStaleness < 0) {
+      throw new IllegalArgumentException("Staleness must not be negative");
+    }
+    m_maxStaleness = a_maxStaleness;
+  }
+
+  /**
+   * @param a_key identifies the request, e.g. its ID
+   *
+   * @since 3.7
+   */
+  public synchronized void requestSent(Object a_key) {
+    m_pending.put(a_key, new long[] {m_version, currentTimeMillis()});
+  }
+
+  /**
+   * Removes the request from the pending ones and records the result with the
+   * statistics of the worker.
+   *
+   * @param a_key identifies the request the result belongs to
+   * @param a_worker the worker that computed the result, may be null
+   * @param a_unitsDone units done as reported by the result
+   * @return staleness of the result, or -1 if the request is not pending
+   *
+   * @since 3.7
+   */
+  public synchronized int resultReceived(Object a_key, MasterInfo a_worker,
+                                         long a_unitsDone) {
+    long[] sent = m_pending.remove(a_key);
+    if (sent == null) {
+      return -1;
+    }
+    int staleness = m_version - (int) sent[0];
+    long now = currentTimeMillis();
+    String workerKey = getWorkerKey(a_worker);
+    WorkerStatistics stats = m_workers.get(workerKey);
+    if (stats == null) {
+      stats = new WorkerStatistics(workerKey);
+      m_workers.put(workerKey, stats);
+    }
+    stats.resultReceived(now - sent[1], a_unitsDone, isStale(staleness), now);
+    return staleness;
+  }
+
+  /**
+   * @param a_staleness staleness of a result
+   * @return true: the result must not be merged
+   *
+   * @since 3.7
+   */
+  public boolean isStale(int a_staleness) {
+    return a_staleness > m_maxStaleness;
+  }
+
+  /**
+   * Called after a result has been merged into the client's state.
+   *
+   * @since 3.7
+   */
+  public synchronized void merged() {
+    m_version++;
+  }
+
+  /**
+   * @return number of merges so far
+   *
+   * @since 3.7
+   */
+  public synchronized int getVersion() {
+    return m_version;
+  }
+
+  public int getMaxStaleness() {
+    return m_maxStaleness;
+  }
+
+  /**
+   * @return number of requests sent without a result received yet
+   *
+   * @since 3.7
+   */
+  public synchronized int getPendingCount() {
+    return m_pending.size();
+  }
+
+  /**
+   * @param a_worker the worker to look up
+   * @return statistics of the worker, or null if no result of it has been
+   * received
+   *
+   * @since 3.7
+   */
+  public synchronized WorkerStatistics getWorkerStatistics(MasterInfo
+      a_worker) {
+    return m_workers.get(getWorkerKey(a_worker));
+  }
+
+  /**
+   * @return statistics of all workers, in order of their first result
+   *
+   * @since 3.7
+   */
+  public synchronized WorkerStatistics[] getWorkerStatistics() {
+    return m_workers.values().toArray(new WorkerStatistics[m_workers.size()]);
+  }
+
+  /**
+   * @param a_worker the worker, may be null
+   * @return the unique ID of the worker if known, otherwise its address and
+   * host name
+   *
+   * @since 3.7
+   */
+  public static String getWorkerKey(MasterInfo a_worker) {
+    if (a_worker == null) {
+      return UNKNOWN_WORKER;
+    }
+    if (a_worker.m_GUID != null && a_worker.m_GUID.length() > 0) {
+      return a_worker.m_GUID;
+    }
+    return a_worker.m_IPAddress + "/" + a_worker.m_name;
+  }
+
+  /**
+   * Override to use another clock, e.g. in tests.
+   *
+   * @return current time in milliseconds
+   *
+   * @since 3.7
+   */
+  protected long currentTimeMillis() {
+    return System.currentTimeMillis();
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.grid;
+
+import java.io.*;
+
+/**
+ * Throughput of a single worker as seen by the client, maintained by
+ * WorkTracker.
+ *
+ * @since 3.7
+ */
+public class WorkerStatistics
+    implements Serializable {
+  /**
+   * Weight of the latest turnaround time within the moving average.
+   */
+  private final static double SMOOTHING = 0.2d;
+
+  private final String m_workerKey;
+
+  private int m_results;
+
+  private int m_discarded;
+
+  private long m_unitsDone;
+
+  private long m_totalTurnaround;
+
+  private double m_averageTurnaround;
+
+  private long m_lastResultMillis;
+
+  /**
+   * @param a_workerKey identifies the worker, see WorkTracker.getWorkerKey
+   *
+   * @since 3.7
+   */
+  public WorkerStatistics(String a_workerKey) {
+    m_workerKey = a_workerKey;
+  }
+
+  /**
+   * @param a_turnaround milliseconds between sending the request and
+   * receiving its result
+   * @param a_unitsDone units done as reported by the result
+   * @param a_discarded true: the result was too stale to be merged
+   * @param a_now current time in milliseconds
+   *
+   * @since 3.7
+   */
+  void resultReceived(long a_turnaround, long a_unitsDone, boolean a_discarded,
+                      long a_now) {
+    if (m_results == 0) {
+      m_averageTurnaround = a_turnaround;
+    }
+    else {
+      m_averageTurnaround += SMOOTHING * (a_turnaround - m_averageTurnaround);
+    }
+    m_results++;
+    if (a_discarded) {
+      m_discarded++;
+    }
+    m_unitsDone += a_unitsDone;
+    m_totalTurnaround += a_turnaround;
+    m_lastResultMillis = a_now;
+  }
+
+  public String getWorkerKey() {
+    return m_workerKey;
+  }
+
+  /**
+   * @return number of results received from the worker, including discarded
+   * ones
+   *
+   * @since 3.7
+   */
+  public int getResults() {
+    return m_results;
+  }
+
+  /**
+   * @return number of results discarded because they were too stale
+   *
+   * @since 3.7
+   */
+  public int getDiscarded() {
+    return m_discarded;
+  }
+
+  public long getUnitsDone() {
+    return m_unitsDone;
+  }
+
+  /**
+   * @return moving average of the turnaround time in milliseconds, weighting
+   * recent results higher
+   *
+   * @since 3.7
+   */
+  public double getAverageTurnaround() {
+    return m_averageTurnaround;
+  }
+
+  /**
+   * @return units done per second of turnaround time, 0 if unknown
+   *
+   * @since 3.7
+   */
+  public double getThroughput() {
+    if (m_totalTurnaround <= 0) {
+      return 0.0d;
+    }
+    return m_unitsDone * 1000.0d / m_totalTurnaround;
+  }
+
+  public long getLastResultMillis() {
+    return m_lastResultMillis;
+  }
+
+  public String toString() {
+    return m_workerKey + ": " + m_results + " results (" + m_discarded
+        + " discarded), " + getThroughput() + " units/s";
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.grid.common;
+
+import java.util.*;
+
+import org.jgap.util.*;
+
+/**
+ * A change to a ClientStatus, to be recorded in the journal of a
+ * JournaledObject. Use the static factory methods to create entries.
+ *
+ * @since 3.7
+ */
+public class ClientStatusEntry
+    implements IJournalEntry {
+  public final static int PUT_RESULT = 1;
+
+  public final static int REMOVE_RESULT = 2;
+
+  public final static int LAST_LISTING_REQUESTS = 3;
+
+  public final static int ADD_TOP_RESULT = 4;
+
+  public final static int REMOVE_TOP_RESULT = 5;
+
+  private int m_type;
+
+  private String m_key;
+
+  private Object m_value;
+
+  private long m_number;
+
+  /**
+   * Needed by XStream when reading the journal.
+   */
+  private ClientStatusEntry() {
+  }
+
+  private ClientStatusEntry(int a_type, String a_key, Object a_value,
+                            long a_number) {
+    m_type = a_type;
+    m_key = a_key;
+    m_value = a_value;
+    m_number = a_number;
+  }
+
+  /**
+   * @param a_key key of the result
+   * @param a_value state of the result, e.g. "received"
+   * @return entry putting the state of a result into ClientStatus.getResults()
+   *
+   * @since 3.7
+   */
+  public static ClientStatusEntry putResult(String a_key, String a_value) {
+    return new ClientStatusEntry(PUT_RESULT, a_key, a_value, 0);
+  }
+
+  /**
+   * @param a_key key of the result
+   * @return entry removing a result from ClientStatus.getResults()
+   *
+   * @since 3.7
+   */
+  public static ClientStatusEntry removeResult(String a_key) {
+    return new ClientStatusEntry(REMOVE_RESULT, a_key, null, 0);
+  }
+
+  /**
+   * @param a_millis time of the listing
+   * @return entry setting the time of the last requests listing
+   *
+   * @since 3.7
+   */
+  public static ClientStatusEntry setLastListingRequests(long a_millis) {
+    return new ClientStatusEntry(LAST_LISTING_REQUESTS, null, null, a_millis);
+  }
+
+  /**
+   * @param a_appId the application the result belongs to
+   * @param a_result the result, usually an IGPProgram
+   * @return entry appending a top result of an application
+   *
+   * @since 3.7
+   */
+  public static ClientStatusEntry addTopResult(String a_appId, Object a_result) {
+    return new ClientStatusEntry(ADD_TOP_RESULT, a_appId, a_result, 0);
+  }
+
+  /**
+   * @param a_appId the application the result belongs to
+   * @param a_index index of the result within the top results of the
+   * application
+   * @return entry removing a top result of an application
+   *
+   * @since 3.7
+   */
+  public static ClientStatusEntry removeTopResult(String a_appId, int a_index) {
+    return new ClientStatusEntry(REMOVE_TOP_RESULT, a_appId, null, a_index);
+  }
+
+  public void apply(Object a_object)
+      throws Exception {
+    ClientStatus status = (ClientStatus) a_object;
+    switch (m_type) {
+      case PUT_RESULT:
+        status.getResults().put(m_key, (String) m_value);
+        break;
+      case REMOVE_RESULT:
+        status.getResults().remove(m_key);
+        break;
+      case LAST_LISTING_REQUESTS:
+        status.setLastListingRequestsMillis(m_number);
+        break;
+      case ADD_TOP_RESULT:
+        Map<String, List> topAll = status.getTopResults();
+        List topApp = topAll.get(m_key);
+        if (topApp == null) {
+          topApp = new Vector();
+          topAll.put(m_key, topApp);
+        }
+        topApp.add(m_value);
+        break;
+      case REMOVE_TOP_RESULT:
+        topAll = status.getTopResults();
+        topApp = topAll.get(m_key);
+        if (topApp != null && m_number < topApp.size()) {
+          topApp.remove( (int) m_number);
+        }
+        break;
+      default:
+        throw new IllegalStateException("Unknown entry type " + m_type);
+    }
+  }
+
+  public int getType() {
+    return m_type;
+  }
+
+  public String toString() {
+    return "ClientStatusEntry[type " + m_type + ", key " + m_key + "]";
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.grid.gp;
+
+/**
+ * Client evolve strategy for asynchronous, steady-state evolution of GP's,
+ * see org.jgap.distr.grid.IAsyncClientEvolveStrategy. Only used by
+ * JGAPClientGP outside of WAN mode.
+ *
+ * @since 3.7
+ */
+public interface IAsyncClientEvolveStrategyGP
+    extends IClientEvolveStrategyGP {
+  /**
+   * @return number of requests to keep pending, usually the number of workers
+   *
+   * @since 3.7
+   */
+  int getMaxPendingRequests();
+
+  /**
+   * @return maximum number of merges between creating a request and merging
+   * its result
+   *
+   * @since 3.7
+   */
+  int getMaxStaleness();
+
+  /**
+   * Creates a single work request from the current state of the evolution.
+   *
+   * @param a_workReq the request to use as a template
+   * @param a_chunk the unique chunk index the request must have, e.g.
+   * obtained via a_workReq.newInstance(a_workReq.getSessionName(),
+   * a_workReq.getID(), a_chunk)
+   * @param a_genericData arbitrary data
+   * @return the request to send
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  JGAPRequestGP generateWorkRequest(JGAPRequestGP a_workReq, int a_chunk,
+                                    Object a_genericData)
+      throws Exception;
+}
@@ -105,6 +105,8 @@ public class JGAPClientGP
 
   private IGridConfigurationGP m_gridConfig;
 
+  private WorkTracker m_workTracker;
+
   /**
    * Is the client operating in a WAN or in a LAN?
    * TRUE:  WAN --> Do not use JCGrid architecture
@@ -132,11 +134,11 @@ public class JGAPClientGP
 
   private ClientStatus m_objects;
 
-  private PersistableObject m_persister;
+  private JournaledObject m_persister;
 
   private ResultVerification m_resultsVerified;
 
-  private PersistableObject m_resultsPersister;
+  private JournaledObject m_resultsPersister;
 
   private int m_requestIdx;
 
@@ -244,8 +246,8 @@ public class JGAPClientGP
     // Try to load previous object information.
     // ----------------------------------------
     File f = new File(getWorkDirectory(), CLIENT_DATABASE);
-    m_persister = new PersistableObject(f);
-    m_objects = (ClientStatus) m_persister.load();
+    m_persister = new JournaledObject(f);
+    m_objects = (ClientStatus) m_persister.load(new ClientStatus());
     if (m_objects == null) {
       m_objects = new ClientStatus();
       m_persister.setObject(m_objects);
@@ -253,8 +255,9 @@ public class JGAPClientGP
     // Try to load previous request information.
     // -----------------------------------------
     f = new File(getWorkDirectory(), RESULTS_DATABASE);
-    m_resultsPersister = new PersistableObject(f);
-    m_resultsVerified = (ResultVerification) m_resultsPersister.load();
+    m_resultsPersister = new JournaledObject(f);
+    m_resultsVerified = (ResultVerification) m_resultsPersister.load(new
+        ResultVerification());
     if (m_resultsVerified == null) {
       m_resultsVerified = new ResultVerification();
       m_resultsPersister.setObject(m_resultsVerified);
@@ -484,37 +487,27 @@ public class JGAPClientGP
             }
             // Do deferred deletion of results.
             // --------------------------------
-            Iterator<String> it = m_objects.getResults().keySet().iterator();
-            boolean modified = false;
-            try {
-              while (it.hasNext()) {
-                String key = it.next();
-                String value = (String) m_objects.getResults().get(key);
-                if (startsWith(value, "delete:")) {
-                  log.info("Delete result (deferred), key: " + key);
-                  try {
-                    m_gcmed.removeMessage(key);
-                  } catch (MalformedURLException mex) {
-                    log.warn("Invalid key", mex);
-                  } catch (Exception ex) {
-                    onDeleteError(ex);
-                    continue;
-                  }
-                  it.remove();
-//                  m_objects.getResults().remove(key);
-                  modified = true;
-                }
-                else {
-                  if (startsWith(value, "delete")) {
-                    it.remove();
-                    modified = true;
-                  }
+            Iterator<String> it = new ArrayList<String>(m_objects.getResults().
+                keySet()).iterator();
+            while (it.hasNext()) {
+              String key = it.next();
+              String value = (String) m_objects.getResults().get(key);
+              if (startsWith(value, "delete:")) {
+                log.info("Delete result (deferred), key: " + key);
+                try {
+                  m_gcmed.removeMessage(key);
+                } catch (MalformedURLException mex) {
+                  log.warn("Invalid key", mex);
+                } catch (Exception ex) {
+                  onDeleteError(ex);
+                  continue;
                 }
+                m_persister.record(ClientStatusEntry.removeResult(key));
               }
-            } finally {
-              if (modified) {
-                m_persister.save();
-                modified = false;
+              else {
+                if (startsWith(value, "delete")) {
+                  m_persister.record(ClientStatusEntry.removeResult(key));
+                }
               }
             }
             try {
@@ -727,37 +720,33 @@ public class JGAPClientGP
             if (best == null) {
               log.info("Empty result received!");
             }
-            m_objects.getResults().put(key, "received");
+            m_persister.record(ClientStatusEntry.putResult(key, "received"));
             // Work with the result.
             // ---------------------
             m_gridConfig.getClientEvolveStrategy().resultReceived(result);
+            // Remove result from online store.
+            // ---------------------------------
             try {
-              // Remove result from online store.
-              // ---------------------------------
-              try {
-                log.info("Removing result from online store");
-                if (false && result.getGenericData() != null &&
-                    WANData.class.isAssignableFrom(result.getGenericData().
-                    getClass())) {
-                  WANData wanData = (WANData) result.getGenericData();
-                  m_gcmed.removeMessage(wanData.getUri());
-                }
-                else {
-                  m_gcmed.removeMessage(resultStub);
-                }
-              } catch (Exception ex) {
-                log.warn("Deletion of result failed, deferring...", ex);
-                key = getKeyFromObject(resultStub);
-                if (key != null) {
-                  log.info(" Key for later deletion: " + key);
-                  m_objects.getResults().put(key, "delete:");
-                }
-                else {
-                  log.info("Deferred deletion not possible: key unknown");
-                }
+              log.info("Removing result from online store");
+              if (false && result.getGenericData() != null &&
+                  WANData.class.isAssignableFrom(result.getGenericData().
+                  getClass())) {
+                WANData wanData = (WANData) result.getGenericData();
+                m_gcmed.removeMessage(wanData.getUri());
+              }
+              else {
+                m_gcmed.removeMessage(resultStub);
+              }
+            } catch (Exception ex) {
+              log.warn("Deletion of result failed, deferring...", ex);
+              key = getKeyFromObject(resultStub);
+              if (key != null) {
+                log.info(" Key for later deletion: " + key);
+                m_persister.record(ClientStatusEntry.putResult(key, "delete:"));
+              }
+              else {
+                log.info("Deferred deletion not possible: key unknown");
               }
-            } finally {
-              m_persister.save();
             }
             i++;
             resultReceived(best);
@@ -900,6 +889,19 @@ public class JGAPClientGP
     IClientFeedbackGP feedback = m_gridConfig.getClientFeedback();
     feedback.beginWork();
     IClientEvolveStrategyGP evolver = m_gridConfig.getClientEvolveStrategy();
+    if (evolver instanceof IAsyncClientEvolveStrategyGP && !a_receiveOnly
+        && !m_WANMode && !m_no_comm && !m_no_evolution) {
+      // Steady-state evolution without waiting for whole generations.
+      // --------------------------------------------------------------
+      evolveAsync(a_gcmed, (IAsyncClientEvolveStrategyGP) evolver);
+      try {
+        a_gcmed.disconnect();
+      } catch (Exception ex) {
+        log.error("Disconnecting from server failed!", ex);
+      }
+      feedback.endWork();
+      return;
+    }
     IRequestSplitStrategyGP splitter = m_gridConfig.getRequestSplitStrategy();
     int evolutionIndex = 0;
     do {
@@ -919,8 +921,8 @@ public class JGAPClientGP
             MessageContext context = new MessageContext(MODULE_CS,
                 CONTEXT_WORK_REQUEST, CONTEXT_ID_EMPTY);
             List requests = a_gcmed.listRequests(context, null, null);
-            m_objects.setLastListingRequestsMillis(current);
-            m_persister.save();
+            m_persister.record(ClientStatusEntry.setLastListingRequests(
+                current));
             if (requests != null && requests.size() > 100) {
               deferRequests = true;
               log.info("Deferring creating and sending further requests"
@@ -1008,6 +1010,117 @@ public class JGAPClientGP
     m_gridConfig.getClientFeedback().endWork();
   }
 
+  /**
+   * Asynchronous, steady-state evolution: keeps a number of work requests
+   * pending, merges each result as soon as it arrives and sends a new request
+   * right away. Results that are too stale are discarded. Requests are
+   * identified by their chunk index. Once evolution is finished, no more
+   * requests are sent and the results of the requests still pending are
+   * awaited and discarded.
+   *
+   * @param a_gcmed the GridClient mediator
+   * @param a_evolver the strategy to use
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  protected void evolveAsync(IGridClientMediator a_gcmed,
+                             IAsyncClientEvolveStrategyGP a_evolver)
+      throws Exception {
+    IClientFeedbackGP feedback = m_gridConfig.getClientFeedback();
+    WorkTracker tracker = new WorkTracker(a_evolver.getMaxStaleness());
+    m_workTracker = tracker;
+    Map<Integer, JGAPRequestGP> pending = new HashMap<Integer,
+        JGAPRequestGP>();
+    int nextChunk = 0;
+    int evolutionIndex = 0;
+    boolean finished = false;
+    // Fill the pipeline.
+    // ------------------
+    for (int i = 0; i < a_evolver.getMaxPendingRequests(); i++) {
+      sendWorkRequest(a_evolver, tracker, pending, nextChunk++);
+    }
+    while (tracker.getPendingCount() > 0 && !isInterrupted()) {
+      // Results arrive in the order the workers finish.
+      // -----------------------------------------------
+      MessageContext context = new MessageContext(MODULE_WS,
+          CONTEXT_WORK_RESULT, CONTEXT_ID_EMPTY);
+      GridMessageWorkResult gmwr = (GridMessageWorkResult) a_gcmed.
+          getGridMessage(context, null, TIMEOUT_SECONDS, WAITTIME_SECONDS, true);
+      if (gmwr == null) {
+        if (finished) {
+          log.warn(tracker.getPendingCount()
+                   + " results still pending after end of evolution");
+          break;
+        }
+        throw new NoWorkResultsFoundException();
+      }
+      JGAPResultGP workResult = (JGAPResultGP) gmwr.getWorkResult();
+      Integer chunk = new Integer(workResult.getChunk());
+      int staleness = tracker.resultReceived(chunk, workResult.getWorkerInfo(),
+          workResult.getUnitDone());
+      if (staleness < 0) {
+        log.warn("Ignoring result of unknown request chunk " + chunk);
+        continue;
+      }
+      JGAPRequestGP req = pending.remove(chunk);
+      if (finished) {
+        log.info("Discarding result chunk " + chunk
+                 + " after end of evolution");
+        continue;
+      }
+      if (tracker.isStale(staleness)) {
+        log.info("Discarding result chunk " + chunk + ", staleness "
+                 + staleness);
+      }
+      else {
+        a_evolver.resultReceived(workResult);
+        feedback.receivedFragmentResult(req, workResult, chunk.intValue());
+        IGPProgram best = WANUtils.getFittest(workResult);
+        if (best != null) {
+          resultReceived(best);
+        }
+        a_evolver.evolve();
+        tracker.merged();
+        feedback.completeFrame(evolutionIndex);
+        evolutionIndex++;
+        if (a_evolver.isEvolutionFinished(evolutionIndex)) {
+          a_evolver.onFinished();
+          finished = true;
+          continue;
+        }
+      }
+      // The server passes the new request on to the worker that just became
+      // free.
+      // --------------------------------------------------------------------
+      sendWorkRequest(a_evolver, tracker, pending, nextChunk++);
+    }
+  }
+
+  private void sendWorkRequest(IAsyncClientEvolveStrategyGP a_evolver,
+                               WorkTracker a_tracker,
+                               Map<Integer, JGAPRequestGP> a_pending,
+                               int a_chunk)
+      throws Exception {
+    JGAPRequestGP req = a_evolver.generateWorkRequest(m_workReq, a_chunk,
+        null);
+    presetPopulation(req);
+    Integer chunk = new Integer(req.getChunk());
+    a_pending.put(chunk, req);
+    a_tracker.requestSent(chunk);
+    sendWorkRequests(new JGAPRequestGP[] {req});
+  }
+
+  /**
+   * @return tracker of the asynchronous evolution holding the throughput of
+   * each worker, or null if evolution is not asynchronous
+   *
+   * @since 3.7
+   */
+  public WorkTracker getWorkTracker() {
+    return m_workTracker;
+  }
+
   public void start() {
     try {
       m_gridConfig.validate();
@@ -1313,10 +1426,15 @@ public class JGAPClientGP
         // Remove worst result yet and add new fit result.
         // -----------------------------------------------
         if (worstEntry != null && count >= 3) {
-          /**@todo compare with toStringNorm(0), use remove(int) instead of remove(Object)*/
-          if (!topApp.remove(worstEntry)) {
+          /**@todo compare with toStringNorm(0)*/
+          int worstIndex = topApp.indexOf(worstEntry);
+          if (worstIndex < 0) {
             log.error("Removing of worst entry failed");
           }
+          else {
+            m_persister.record(ClientStatusEntry.removeTopResult(appid,
+                worstIndex));
+          }
         }
         if (fitter < 3) {
           try {
@@ -1331,7 +1449,8 @@ public class JGAPClientGP
               result = false;
             }
             else {
-              topApp.add(a_fittest);
+              m_persister.record(ClientStatusEntry.addTopResult(appid,
+                  a_fittest));
               log.info("Added fit program, fitness: " +
                        NumberKit.niceDecimalNumber(a_fitness, 2));
               log.info("Solution: " + a_fittest.toStringNorm(0));
@@ -1349,11 +1468,6 @@ public class JGAPClientGP
         log.info("Result not better than top results received");
         result = false;
       }
-      if (result) {
-        /**@todo skip unnecessary data, inject it after reload*/
-        //m_persister.save(true, JGAPClientGP.FIELDSTOSKIP);
-        m_persister.save();
-      }
       return result;
     } catch (Exception ex) {
       ex.printStackTrace();
@@ -1481,17 +1595,15 @@ public class JGAPClientGP
     if (topApp != null && topApp.size() > 0) {
       log.info("Top evolved results yet:");
       log.info("------------------------");
-      boolean changed = false;
-      Iterator<IGPProgram> it = topApp.iterator();
-      while (it.hasNext()) {
-        IGPProgram prog = it.next();
+      int i = 0;
+      while (i < topApp.size()) {
+        IGPProgram prog = topApp.get(i);
         try {
           GPGenotype.checkErroneousProg(prog, " as top result", false, true);
         } catch (Throwable t) {
           // Remove invalid program.
           // -----------------------
-          it.remove();
-          changed = true;
+          m_persister.record(ClientStatusEntry.removeTopResult(appid, i));
           continue;
         }
         double fitness = prog.getFitnessValue();
@@ -1500,12 +1612,11 @@ public class JGAPClientGP
         if (fitness < 1000) {
           log.info("Removing too bad result with fitness "
                    + NumberKit.niceDecimalNumber(fitness, 2));
-          it.remove();
-          changed = true;
+          m_persister.record(ClientStatusEntry.removeTopResult(appid, i));
+        }
+        else {
+          i++;
         }
-      }
-      if (changed) {
-        m_persister.save();
       }
       log.info("");
     }
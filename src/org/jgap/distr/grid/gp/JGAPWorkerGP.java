@@ -74,6 +74,9 @@ public class JGAPWorkerGP
     if (JGAPResultGP.class.isAssignableFrom(res.getClass())) {
       JGAPResultGP resJGAP = (JGAPResultGP)res;
       resJGAP.setDurationComputation(duration);
+      if (resJGAP.getWorkerInfo() == null) {
+        resJGAP.setWorkerInfo(org.jgap.distr.MasterInfo.getLocalInfo());
+      }
     }
     return res;
   }
@@ -0,0 +1,99 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.grid.wire;
+
+import java.io.*;
+
+/**
+ * Reads a message body written by ChunkedOutputStream. Reaches the end of
+ * stream at the terminating empty chunk and never reads beyond it.
+ *
+ * @since 3.7
+ */
+class ChunkedInputStream
+    extends InputStream {
+  private final DataInputStream m_in;
+
+  private final byte[] m_buffer = new byte[ChunkedOutputStream.CHUNK_SIZE];
+
+  private int m_pos;
+
+  private int m_count;
+
+  private boolean m_eof;
+
+  ChunkedInputStream(InputStream a_in) {
+    m_in = new DataInputStream(a_in);
+  }
+
+  public int read()
+      throws IOException {
+    if (!fill()) {
+      return -1;
+    }
+    return m_buffer[m_pos++] & 0xFF;
+  }
+
+  public int read(byte[] a_b, int a_off, int a_len)
+      throws IOException {
+    if (a_len == 0) {
+      return 0;
+    }
+    if (!fill()) {
+      return -1;
+    }
+    int len = Math.min(a_len, m_count - m_pos);
+    System.arraycopy(m_buffer, m_pos, a_b, a_off, len);
+    m_pos += len;
+    return len;
+  }
+
+  public int available() {
+    return m_count - m_pos;
+  }
+
+  /**
+   * Skips the rest of the message, without closing the underlying stream.
+   *
+   * @throws IOException
+   */
+  public void close()
+      throws IOException {
+    while (fill()) {
+      m_pos = m_count;
+    }
+  }
+
+  /**
+   * @return false: end of the message reached
+   * @throws IOException
+   */
+  private boolean fill()
+      throws IOException {
+    if (m_pos < m_count) {
+      return true;
+    }
+    if (m_eof) {
+      return false;
+    }
+    int len = PopulationCodec.readVarInt(m_in);
+    if (len == 0) {
+      m_eof = true;
+      return false;
+    }
+    if (len > m_buffer.length) {
+      throw new IOException("Chunk too large: " + len);
+    }
+    m_in.readFully(m_buffer, 0, len);
+    m_pos = 0;
+    m_count = len;
+    return true;
+  }
+}
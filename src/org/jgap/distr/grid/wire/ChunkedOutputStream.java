@@ -0,0 +1,97 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.grid.wire;
+
+import java.io.*;
+
+/**
+ * Writes the body of a message as chunks, each preceded by its length, and
+ * terminated by an empty chunk. This allows streaming a message of unknown
+ * length and reading it with ChunkedInputStream without reading beyond its
+ * end, which matters if further messages follow on the same stream.
+ *
+ * @since 3.7
+ */
+class ChunkedOutputStream
+    extends OutputStream {
+  final static int CHUNK_SIZE = 8192;
+
+  private final DataOutputStream m_out;
+
+  private final byte[] m_buffer = new byte[CHUNK_SIZE];
+
+  private int m_count;
+
+  private boolean m_finished;
+
+  ChunkedOutputStream(OutputStream a_out) {
+    m_out = new DataOutputStream(a_out);
+  }
+
+  public void write(int a_b)
+      throws IOException {
+    if (m_count == m_buffer.length) {
+      writeChunk();
+    }
+    m_buffer[m_count++] = (byte) a_b;
+  }
+
+  public void write(byte[] a_b, int a_off, int a_len)
+      throws IOException {
+    while (a_len > 0) {
+      if (m_count == m_buffer.length) {
+        writeChunk();
+      }
+      int len = Math.min(a_len, m_buffer.length - m_count);
+      System.arraycopy(a_b, a_off, m_buffer, m_count, len);
+      m_count += len;
+      a_off += len;
+      a_len -= len;
+    }
+  }
+
+  /**
+   * Writes the buffered bytes as a chunk.
+   *
+   * @throws IOException
+   */
+  public void flush()
+      throws IOException {
+    if (m_count > 0) {
+      writeChunk();
+    }
+    m_out.flush();
+  }
+
+  /**
+   * Writes the remaining bytes and the terminating empty chunk, without
+   * closing the underlying stream.
+   *
+   * @throws IOException
+   */
+  public void close()
+      throws IOException {
+    if (!m_finished) {
+      m_finished = true;
+      if (m_count > 0) {
+        writeChunk();
+      }
+      PopulationCodec.writeVarLong(m_out, 0);
+      m_out.flush();
+    }
+  }
+
+  private void writeChunk()
+      throws IOException {
+    PopulationCodec.writeVarLong(m_out, m_count);
+    m_out.write(m_buffer, 0, m_count);
+    m_count = 0;
+  }
+}
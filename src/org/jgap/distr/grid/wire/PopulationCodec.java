@@ -0,0 +1,845 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.grid.wire;
+
+import java.io.*;
+import java.util.*;
+
+import org.jgap.*;
+import org.jgap.gp.*;
+import org.jgap.gp.function.*;
+import org.jgap.gp.impl.*;
+import org.jgap.gp.terminal.*;
+import org.jgap.impl.*;
+import org.jgap.util.*;
+
+/**
+ * Compact binary encoding of populations for the grid.
+ * <p>
+ * A chromosome of class Chromosome whose genes have the classes of the sample
+ * chromosome is written as the plain alleles only. The genes are recreated
+ * from the sample chromosome when reading. Int, double and bit array
+ * chromosomes are written as their raw values. A GP program is written as the
+ * indices of its nodes within the function set of a template program, with
+ * the state of nodes like terminals appended (see
+ * CommandGene.writeNodeState). A node that is neither part of the function
+ * set nor writes its state cannot be encoded. Other chromosomes and programs
+ * are written with Java serialization.
+ * <p>
+ * Both sides must use the same sample chromosome or template program, which
+ * is why WireSession transfers the configuration along with the population.
+ *
+ * @since 3.7
+ */
+public class PopulationCodec {
+  final static int KIND_NULL = 0;
+
+  final static int KIND_SERIALIZED = 1;
+
+  final static int KIND_GENES = 2;
+
+  final static int KIND_INT_ARRAY = 3;
+
+  final static int KIND_DOUBLE_ARRAY = 4;
+
+  final static int KIND_BIT_ARRAY = 5;
+
+  final static int KIND_PROGRAM = 6;
+
+  final static int TAG_NULL = 0;
+
+  final static int TAG_INT = 1;
+
+  final static int TAG_DOUBLE = 2;
+
+  final static int TAG_FALSE = 3;
+
+  final static int TAG_TRUE = 4;
+
+  final static int TAG_PERSISTENT = 5;
+
+  private PopulationCodec() {
+  }
+
+  /**
+   * Writes a population of a genetic algorithm.
+   *
+   * @param a_out the stream to write to
+   * @param a_pop the population to write
+   * @param a_sample the sample chromosome the reader will use, may be null
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public static void writePopulation(DataOutput a_out, Population a_pop,
+                                     IChromosome a_sample)
+      throws IOException {
+    int size = a_pop.size();
+    writeVarLong(a_out, size);
+    for (int i = 0; i < size; i++) {
+      writeChromosome(a_out, a_pop.getChromosome(i), a_sample);
+    }
+  }
+
+  /**
+   * Reads a population written by writePopulation.
+   *
+   * @param a_in the stream to read from
+   * @param a_conf the configuration of the population
+   * @param a_sample the sample chromosome used when writing, may be null
+   * @return the population read
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public static Population readPopulation(DataInput a_in, Configuration a_conf,
+                                          IChromosome a_sample)
+      throws IOException {
+    int size = readVarInt(a_in);
+    try {
+      Population result = new Population(a_conf, size);
+      for (int i = 0; i < size; i++) {
+        result.addChromosome(readChromosomeOfKind(a_in, a_conf, a_sample));
+      }
+      return result;
+    } catch (InvalidConfigurationException iex) {
+      throw newIOException(iex);
+    }
+  }
+
+  /**
+   * Writes a single chromosome, e.g. the fittest one of a result, the same way
+   * writePopulation writes each chromosome.
+   *
+   * @param a_out the stream to write to
+   * @param a_chrom the chromosome to write, may be null
+   * @param a_sample the sample chromosome the reader will use, may be null
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public static void writeChromosome(DataOutput a_out, IChromosome a_chrom,
+                                     IChromosome a_sample)
+      throws IOException {
+    if (a_chrom == null) {
+      a_out.writeByte(KIND_NULL);
+      return;
+    }
+    Class clazz = a_chrom.getClass();
+    if (clazz == Chromosome.class && hasSchema(a_chrom, a_sample)) {
+      a_out.writeByte(KIND_GENES);
+      a_out.writeDouble(a_chrom.getFitnessValueDirectly());
+      Gene[] genes = a_chrom.getGenes();
+      for (int i = 0; i < genes.length; i++) {
+        writeAllele(a_out, genes[i]);
+      }
+    }
+    else if (clazz == IntArrayChromosome.class) {
+      IntArrayChromosome chrom = (IntArrayChromosome) a_chrom;
+      a_out.writeByte(KIND_INT_ARRAY);
+      a_out.writeDouble(chrom.getFitnessValueDirectly());
+      int lower = chrom.getLowerBounds();
+      writeSignedVarLong(a_out, lower);
+      writeVarLong(a_out, (long) chrom.getUpperBounds() - lower);
+      int[] values = chrom.toIntArray();
+      writeVarLong(a_out, values.length);
+      for (int i = 0; i < values.length; i++) {
+        writeVarLong(a_out, (long) values[i] - lower);
+      }
+    }
+    else if (clazz == DoubleArrayChromosome.class) {
+      DoubleArrayChromosome chrom = (DoubleArrayChromosome) a_chrom;
+      a_out.writeByte(KIND_DOUBLE_ARRAY);
+      a_out.writeDouble(chrom.getFitnessValueDirectly());
+      a_out.writeDouble(chrom.getLowerBound());
+      a_out.writeDouble(chrom.getUpperBound());
+      double[] values = chrom.toDoubleArray();
+      writeVarLong(a_out, values.length);
+      for (int i = 0; i < values.length; i++) {
+        a_out.writeDouble(values[i]);
+      }
+    }
+    else if (clazz == BitArrayChromosome.class) {
+      BitArrayChromosome chrom = (BitArrayChromosome) a_chrom;
+      a_out.writeByte(KIND_BIT_ARRAY);
+      a_out.writeDouble(chrom.getFitnessValueDirectly());
+      writeVarLong(a_out, chrom.size());
+      long[] bits = chrom.toLongArray();
+      for (int i = 0; i < bits.length; i++) {
+        a_out.writeLong(bits[i]);
+      }
+    }
+    else {
+      a_out.writeByte(KIND_SERIALIZED);
+      writeObject(a_out, a_chrom);
+    }
+  }
+
+  /**
+   * Reads a chromosome written by writeChromosome.
+   *
+   * @param a_in the stream to read from
+   * @param a_conf the configuration of the chromosome
+   * @param a_sample the sample chromosome used when writing, may be null
+   * @return the chromosome read, may be null
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public static IChromosome readChromosome(DataInput a_in,
+      Configuration a_conf, IChromosome a_sample)
+      throws IOException {
+    try {
+      return readChromosomeOfKind(a_in, a_conf, a_sample);
+    } catch (InvalidConfigurationException iex) {
+      throw newIOException(iex);
+    }
+  }
+
+  private static IChromosome readChromosomeOfKind(DataInput a_in,
+      Configuration a_conf, IChromosome a_sample)
+      throws IOException, InvalidConfigurationException {
+    int kind = a_in.readUnsignedByte();
+    switch (kind) {
+      case KIND_NULL:
+        return null;
+      case KIND_GENES: {
+        if (a_sample == null) {
+          throw new IOException("Sample chromosome needed for reading genes");
+        }
+        double fitness = a_in.readDouble();
+        Gene[] genes = new Gene[a_sample.size()];
+        for (int i = 0; i < genes.length; i++) {
+          genes[i] = a_sample.getGene(i).newGene();
+          readAllele(a_in, genes[i]);
+        }
+        Chromosome result = new Chromosome(a_conf, genes);
+        result.setFitnessValueDirectly(fitness);
+        return result;
+      }
+      case KIND_INT_ARRAY: {
+        double fitness = a_in.readDouble();
+        int lower = (int) readSignedVarLong(a_in);
+        int upper = (int) (lower + readVarLong(a_in));
+        int[] values = new int[readVarInt(a_in)];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = (int) (lower + readVarLong(a_in));
+        }
+        IntArrayChromosome result = new IntArrayChromosome(a_conf, values,
+            lower, upper);
+        result.setFitnessValueDirectly(fitness);
+        return result;
+      }
+      case KIND_DOUBLE_ARRAY: {
+        double fitness = a_in.readDouble();
+        double lower = a_in.readDouble();
+        double upper = a_in.readDouble();
+        double[] values = new double[readVarInt(a_in)];
+        for (int i = 0; i < values.length; i++) {
+          values[i] = a_in.readDouble();
+        }
+        DoubleArrayChromosome result = new DoubleArrayChromosome(a_conf,
+            values, lower, upper);
+        result.setFitnessValueDirectly(fitness);
+        return result;
+      }
+      case KIND_BIT_ARRAY: {
+        double fitness = a_in.readDouble();
+        int size = readVarInt(a_in);
+        BitArrayChromosome result = new BitArrayChromosome(a_conf, size);
+        for (int w = 0; w < (size + 63) >>> 6; w++) {
+          long bits = a_in.readLong();
+          while (bits != 0) {
+            int bit = Long.numberOfTrailingZeros(bits);
+            result.setBit( (w << 6) + bit, true);
+            bits &= bits - 1;
+          }
+        }
+        result.setFitnessValueDirectly(fitness);
+        return result;
+      }
+      case KIND_SERIALIZED:
+        return (IChromosome) readObject(a_in);
+      default:
+        throw new IOException("Unknown chromosome kind " + kind);
+    }
+  }
+
+  /**
+   * @param a_chrom the chromosome to check
+   * @param a_sample the sample chromosome
+   * @return true: the genes of the chromosome can be recreated from the
+   * sample chromosome
+   */
+  private static boolean hasSchema(IChromosome a_chrom, IChromosome a_sample) {
+    if (a_sample == null || a_chrom.size() != a_sample.size()
+        || a_chrom.getApplicationData() != null) {
+      return false;
+    }
+    for (int i = 0; i < a_chrom.size(); i++) {
+      if (a_chrom.getGene(i).getClass() != a_sample.getGene(i).getClass()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void writeAllele(DataOutput a_out, Gene a_gene)
+      throws IOException {
+    Object allele = a_gene.getAllele();
+    if (allele == null) {
+      a_out.writeByte(TAG_NULL);
+    }
+    else if (allele.getClass() == Integer.class) {
+      a_out.writeByte(TAG_INT);
+      writeSignedVarLong(a_out, ( (Integer) allele).intValue());
+    }
+    else if (allele.getClass() == Double.class) {
+      a_out.writeByte(TAG_DOUBLE);
+      a_out.writeDouble( ( (Double) allele).doubleValue());
+    }
+    else if (allele.getClass() == Boolean.class) {
+      a_out.writeByte( ( (Boolean) allele).booleanValue() ? TAG_TRUE
+                      : TAG_FALSE);
+    }
+    else {
+      a_out.writeByte(TAG_PERSISTENT);
+      writeString(a_out, a_gene.getPersistentRepresentation());
+    }
+  }
+
+  private static void readAllele(DataInput a_in, Gene a_gene)
+      throws IOException {
+    int tag = a_in.readUnsignedByte();
+    switch (tag) {
+      case TAG_NULL:
+        a_gene.setAllele(null);
+        break;
+      case TAG_INT:
+        a_gene.setAllele(Integer.valueOf( (int) readSignedVarLong(a_in)));
+        break;
+      case TAG_DOUBLE:
+        a_gene.setAllele(Double.valueOf(a_in.readDouble()));
+        break;
+      case TAG_FALSE:
+        a_gene.setAllele(Boolean.FALSE);
+        break;
+      case TAG_TRUE:
+        a_gene.setAllele(Boolean.TRUE);
+        break;
+      case TAG_PERSISTENT:
+        try {
+          a_gene.setValueFromPersistentRepresentation(readString(a_in));
+        } catch (UnsupportedRepresentationException uex) {
+          throw newIOException(uex);
+        }
+        break;
+      default:
+        throw new IOException("Unknown allele tag " + tag);
+    }
+  }
+
+  /**
+   * Writes a population of GP programs.
+   *
+   * @param a_out the stream to write to
+   * @param a_pop the population to write
+   * @param a_template the program providing types and node sets, the reader
+   * must use an equal template; null to serialize all programs
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public static void writeGPPopulation(DataOutput a_out, GPPopulation a_pop,
+                                       IGPProgram a_template)
+      throws IOException {
+    int size = a_pop.getPopSize();
+    writeVarLong(a_out, size);
+    ProgramWriter writer = null;
+    if (a_template != null) {
+      writer = new ProgramWriter(a_out, a_template);
+    }
+    for (int i = 0; i < size; i++) {
+      writeProgram(a_out, a_pop.getGPProgram(i), writer);
+    }
+  }
+
+  /**
+   * Writes a single program, e.g. the fittest one of a result, the same way
+   * writeGPPopulation writes each program.
+   *
+   * @param a_out the stream to write to
+   * @param a_prog the program to write, may be null
+   * @param a_template the program providing types and node sets, the reader
+   * must use an equal template; null to serialize the program
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public static void writeGPProgram(DataOutput a_out, IGPProgram a_prog,
+                                    IGPProgram a_template)
+      throws IOException {
+    ProgramWriter writer = null;
+    if (a_template != null && a_prog != null) {
+      writer = new ProgramWriter(a_out, a_template);
+    }
+    writeProgram(a_out, a_prog, writer);
+  }
+
+  private static void writeProgram(DataOutput a_out, IGPProgram a_prog,
+                                   ProgramWriter a_writer)
+      throws IOException {
+    if (a_prog == null) {
+      a_out.writeByte(KIND_NULL);
+    }
+    else if (a_writer != null && a_writer.accepts(a_prog)) {
+      a_out.writeByte(KIND_PROGRAM);
+      a_writer.write(a_prog);
+    }
+    else {
+      a_out.writeByte(KIND_SERIALIZED);
+      writeObject(a_out, a_prog);
+    }
+  }
+
+  /**
+   * Reads a population written by writeGPPopulation.
+   *
+   * @param a_in the stream to read from
+   * @param a_conf the configuration of the population
+   * @param a_template the program providing types and node sets, equal to the
+   * one used for writing
+   * @return the population read
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public static GPPopulation readGPPopulation(DataInput a_in,
+      GPConfiguration a_conf, IGPProgram a_template)
+      throws IOException {
+    int size = readVarInt(a_in);
+    try {
+      GPPopulation result = new GPPopulation(a_conf, Math.max(size, 1));
+      CommandGene[][] functionSets = a_template == null ? null
+          : createFunctionSets(a_template);
+      for (int i = 0; i < size; i++) {
+        IGPProgram prog = readProgramOfKind(a_in, a_template, functionSets);
+        if (prog != null) {
+          result.setGPProgram(i, prog);
+        }
+      }
+      return result;
+    } catch (InvalidConfigurationException iex) {
+      throw newIOException(iex);
+    }
+  }
+
+  /**
+   * Reads a program written by writeGPProgram.
+   *
+   * @param a_in the stream to read from
+   * @param a_template the program providing types and node sets, equal to the
+   * one used for writing
+   * @return the program read, may be null
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public static IGPProgram readGPProgram(DataInput a_in, IGPProgram a_template)
+      throws IOException {
+    try {
+      return readProgramOfKind(a_in, a_template, a_template == null ? null
+                               : createFunctionSets(a_template));
+    } catch (InvalidConfigurationException iex) {
+      throw newIOException(iex);
+    }
+  }
+
+  private static IGPProgram readProgramOfKind(DataInput a_in,
+      IGPProgram a_template, CommandGene[][] a_functionSets)
+      throws IOException, InvalidConfigurationException {
+    int kind = a_in.readUnsignedByte();
+    switch (kind) {
+      case KIND_NULL:
+        return null;
+      case KIND_PROGRAM:
+        if (a_template == null) {
+          throw new IOException("Template program needed for reading"
+                                + " programs");
+        }
+        return readProgram(a_in, a_template, a_functionSets);
+      case KIND_SERIALIZED:
+        return (IGPProgram) readObject(a_in);
+      default:
+        throw new IOException("Unknown program kind " + kind);
+    }
+  }
+
+  private static IGPProgram readProgram(DataInput a_in, IGPProgram a_template,
+                                        CommandGene[][] a_functionSets)
+      throws IOException, InvalidConfigurationException {
+    GPConfiguration conf = a_template.getGPConfiguration();
+    boolean cloneNodes = !conf.isNoCommandGeneCloning();
+    GPProgram result = new GPProgram(a_template);
+    result.setFitnessValue(a_in.readDouble());
+    for (int i = 0; i < a_functionSets.length; i++) {
+      CommandGene[] functionSet = a_functionSets[i];
+      int size = readVarInt(a_in);
+      ProgramChromosome chrom = new ProgramChromosome(conf,
+          Math.max(Math.max(size, a_template.getMaxNodes()), 1),
+          (CommandGene[]) functionSet.clone(), a_template.getArgTypes()[i],
+          result);
+      for (int j = 0; j < size; j++) {
+        int code = readVarInt(a_in);
+        int index = (code >>> 1) - 1;
+        if (index < 0 || index >= functionSet.length) {
+          throw new IOException("Invalid node code " + code);
+        }
+        CommandGene node = functionSet[index];
+        if ( (code & 1) != 0) {
+          node = (CommandGene) ( (ICloneable) node).clone();
+          node.readNodeState(a_in);
+        }
+        else if (cloneNodes && node instanceof ICloneable) {
+          // Do not share the nodes of the function set between programs, as
+          // ProgramChromosome does not.
+          // ----------------------------------------------------------------
+          node = (CommandGene) ( (ICloneable) node).clone();
+        }
+        chrom.setGene(j, node);
+      }
+      chrom.redepth();
+      result.setChromosome(i, chrom);
+    }
+    return result;
+  }
+
+  /**
+   * Builds the function set of each chromosome the way
+   * ProgramChromosome.growOrFull does: the node set followed by the
+   * arguments.
+   *
+   * @param a_template the program providing types and node sets
+   * @return the function set of each chromosome
+   */
+  static CommandGene[][] createFunctionSets(IGPProgram a_template) {
+    GPConfiguration conf = a_template.getGPConfiguration();
+    Class[] types = a_template.getTypes();
+    Class[][] argTypes = a_template.getArgTypes();
+    CommandGene[][] nodeSets = a_template.getNodeSets();
+    CommandGene[][] result = new CommandGene[types.length][];
+    for (int i = 0; i < types.length; i++) {
+      CommandGene[] nodeSet = nodeSets[i];
+      for (int j = 0; j < nodeSet.length; j++) {
+        if (nodeSet[j] instanceof ADF) {
+          ( (ADF) nodeSet[j]).setReturnType(types[ ( (ADF) nodeSet[j]).
+              getChromosomeNum()]);
+        }
+      }
+      result[i] = new CommandGene[nodeSet.length + argTypes[i].length];
+      System.arraycopy(nodeSet, 0, result[i], 0, nodeSet.length);
+      try {
+        for (int j = 0; j < argTypes[i].length; j++) {
+          result[i][nodeSet.length + j] = new Argument(conf, j, argTypes[i][j]);
+        }
+      } catch (InvalidConfigurationException iex) {
+        throw new IllegalStateException(iex);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Writes programs as node indices within the function sets of a template.
+   */
+  private static class ProgramWriter {
+    private final DataOutput m_out;
+
+    private final IGPProgram m_template;
+
+    private final CommandGene[][] m_functionSets;
+
+    /**
+     * Per chromosome: index of each node of the function set by identity.
+     */
+    private final Map<CommandGene, Integer>[] m_indices;
+
+    private final ByteArrayOutputStream m_state = new ByteArrayOutputStream();
+
+    private final DataOutputStream m_stateOut = new DataOutputStream(m_state);
+
+    ProgramWriter(DataOutput a_out, IGPProgram a_template) {
+      m_out = a_out;
+      m_template = a_template;
+      m_functionSets = createFunctionSets(a_template);
+      m_indices = new Map[m_functionSets.length];
+      for (int i = 0; i < m_functionSets.length; i++) {
+        m_indices[i] = new IdentityHashMap<CommandGene, Integer>();
+        for (int j = m_functionSets[i].length - 1; j >= 0; j--) {
+          m_indices[i].put(m_functionSets[i][j], Integer.valueOf(j));
+        }
+      }
+    }
+
+    /**
+     * @param a_prog the program to check
+     * @return true: the program can be written as node indices
+     */
+    boolean accepts(IGPProgram a_prog) {
+      if (a_prog.getClass() != GPProgram.class
+          || a_prog.getApplicationData() != null
+          || a_prog.size() != m_functionSets.length) {
+        return false;
+      }
+      for (int i = 0; i < m_functionSets.length; i++) {
+        ProgramChromosome chrom = a_prog.getChromosome(i);
+        if (chrom == null || chrom.getClass() != ProgramChromosome.class
+            || chrom.getArgTypes() == null
+            || chrom.getArgTypes().length
+            != m_template.getArgTypes()[i].length) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    void write(IGPProgram a_prog)
+        throws IOException {
+      m_out.writeDouble( ( (GPProgram) a_prog).getFitnessValueDirectly());
+      for (int i = 0; i < m_functionSets.length; i++) {
+        ProgramChromosome chrom = a_prog.getChromosome(i);
+        int size = chrom.size();
+        writeVarLong(m_out, size);
+        for (int j = 0; j < size; j++) {
+          writeNode(i, chrom.getGene(j));
+        }
+      }
+    }
+
+    private void writeNode(int a_chromNum, CommandGene a_node)
+        throws IOException {
+      Integer index = m_indices[a_chromNum].get(a_node);
+      if (index != null) {
+        writeVarLong(m_out, (index.intValue() + 1) << 1);
+        return;
+      }
+      CommandGene[] functionSet = m_functionSets[a_chromNum];
+      for (int i = 0; i < functionSet.length; i++) {
+        if (functionSet[i].isSameNode(a_node)) {
+          writeVarLong(m_out, (i + 1) << 1);
+          return;
+        }
+      }
+      // Same kind of node with a different state, e.g. another value.
+      // -------------------------------------------------------------
+      for (int i = 0; i < functionSet.length; i++) {
+        CommandGene candidate = functionSet[i];
+        if (candidate.getClass() == a_node.getClass()
+            && candidate.getReturnType() == a_node.getReturnType()
+            && candidate.getSubReturnType() == a_node.getSubReturnType()
+            && candidate instanceof ICloneable) {
+          m_state.reset();
+          if (a_node.writeNodeState(m_stateOut)) {
+            m_stateOut.flush();
+            writeVarLong(m_out, ( (i + 1) << 1) | 1);
+            m_out.write(m_state.toByteArray());
+            return;
+          }
+          break;
+        }
+      }
+      // Serializing the node would carry its configuration along.
+      // ---------------------------------------------------------
+      throw new IOException("Node " + a_node + " of class "
+                            + a_node.getClass().getName()
+                            + " is not part of the function set and does not"
+                            + " support writeNodeState");
+    }
+  }
+
+  /**
+   * Writes an unsigned variable length integer, 7 bits per byte.
+   *
+   * @param a_out the stream to write to
+   * @param a_value the value, interpreted as unsigned
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public static void writeVarLong(DataOutput a_out, long a_value)
+      throws IOException {
+    while ( (a_value & ~0x7FL) != 0) {
+      a_out.writeByte( (int) (a_value & 0x7F) | 0x80);
+      a_value >>>= 7;
+    }
+    a_out.writeByte( (int) a_value);
+  }
+
+  /**
+   * @param a_in the stream to read from
+   * @return value written by writeVarLong
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public static long readVarLong(DataInput a_in)
+      throws IOException {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = a_in.readUnsignedByte();
+      result |= (long) (b & 0x7F) << shift;
+      if ( (b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new IOException("Malformed variable length integer");
+  }
+
+  /**
+   * @param a_in the stream to read from
+   * @return non-negative int written by writeVarLong
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public static int readVarInt(DataInput a_in)
+      throws IOException {
+    long result = readVarLong(a_in);
+    if (result < 0 || result > Integer.MAX_VALUE) {
+      throw new IOException("Value out of range: " + result);
+    }
+    return (int) result;
+  }
+
+  /**
+   * Writes a signed variable length integer with zigzag encoding, so that
+   * values of small magnitude need few bytes.
+   *
+   * @param a_out the stream to write to
+   * @param a_value the value
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public static void writeSignedVarLong(DataOutput a_out, long a_value)
+      throws IOException {
+    writeVarLong(a_out, (a_value << 1) ^ (a_value >> 63));
+  }
+
+  /**
+   * @param a_in the stream to read from
+   * @return value written by writeSignedVarLong
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public static long readSignedVarLong(DataInput a_in)
+      throws IOException {
+    long value = readVarLong(a_in);
+    return (value >>> 1) ^ - (value & 1);
+  }
+
+  /**
+   * Writes a string as UTF-8, without the length limit of writeUTF.
+   *
+   * @param a_out the stream to write to
+   * @param a_value the string, may be null
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public static void writeString(DataOutput a_out, String a_value)
+      throws IOException {
+    if (a_value == null) {
+      writeVarLong(a_out, 0);
+    }
+    else {
+      byte[] bytes = a_value.getBytes("UTF-8");
+      writeVarLong(a_out, bytes.length + 1);
+      a_out.write(bytes);
+    }
+  }
+
+  /**
+   * @param a_in the stream to read from
+   * @return string written by writeString, may be null
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public static String readString(DataInput a_in)
+      throws IOException {
+    int len = readVarInt(a_in);
+    if (len == 0) {
+      return null;
+    }
+    byte[] bytes = new byte[len - 1];
+    a_in.readFully(bytes);
+    return new String(bytes, "UTF-8");
+  }
+
+  /**
+   * Writes an object with Java serialization, preceded by its length.
+   *
+   * @param a_out the stream to write to
+   * @param a_obj the object, may be null
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public static void writeObject(DataOutput a_out, Object a_obj)
+      throws IOException {
+    byte[] bytes = serialize(a_obj);
+    writeVarLong(a_out, bytes.length);
+    a_out.write(bytes);
+  }
+
+  /**
+   * @param a_in the stream to read from
+   * @return object written by writeObject
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public static Object readObject(DataInput a_in)
+      throws IOException {
+    byte[] bytes = new byte[readVarInt(a_in)];
+    a_in.readFully(bytes);
+    return deserialize(bytes);
+  }
+
+  static byte[] serialize(Object a_obj)
+      throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(a_obj);
+    out.close();
+    return bytes.toByteArray();
+  }
+
+  static Object deserialize(byte[] a_bytes)
+      throws IOException {
+    ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(
+        a_bytes));
+    try {
+      return in.readObject();
+    } catch (ClassNotFoundException cex) {
+      throw newIOException(cex);
+    } finally {
+      in.close();
+    }
+  }
+
+  static IOException newIOException(Throwable a_cause) {
+    IOException result = new IOException(a_cause.getMessage());
+    result.initCause(a_cause);
+    return result;
+  }
+}
@@ -0,0 +1,671 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.grid.wire;
+
+import java.io.*;
+import java.security.*;
+import java.util.*;
+import java.util.zip.*;
+
+import org.homedns.dade.jcgrid.worker.*;
+import org.jgap.*;
+import org.jgap.distr.*;
+import org.jgap.distr.grid.*;
+import org.jgap.distr.grid.gp.*;
+import org.jgap.distr.grid.wan.*;
+import org.jgap.gp.*;
+import org.jgap.gp.impl.*;
+
+/**
+ * Reads and writes grid requests and results in a compact binary format, as
+ * an alternative to serializing the whole object graph with each message.
+ * <p>
+ * One session is meant to be used for all messages exchanged over one
+ * connection, in both directions. The configuration of a request or result is
+ * referenced by the SHA-1 hash of its serialized form. It is transferred only
+ * the first time it is written within the session; later messages only carry
+ * its hash. The hash of a configuration instance is computed once, so a
+ * configuration must not be changed after it has been written with a session
+ * (call reset() to transfer it again). Populations are written with
+ * PopulationCodec. The body of a message may be compressed and is streamed in
+ * chunks, so that several messages can follow each other on one stream.
+ * <p>
+ * A session is not thread-safe.
+ *
+ * @since 3.7
+ */
+public class WireSession {
+  /**
+   * "JGAP" in ASCII.
+   */
+  public final static int MAGIC = 0x4A474150;
+
+  public final static int VERSION = 1;
+
+  public final static int TYPE_REQUEST = 1;
+
+  public final static int TYPE_RESULT = 2;
+
+  public final static int TYPE_REQUEST_GP = 3;
+
+  public final static int TYPE_RESULT_GP = 4;
+
+  final static int FLAG_COMPRESSED = 1;
+
+  final static int REF_KNOWN = 0;
+
+  final static int REF_NEW = 1;
+
+  private final static int HASH_LENGTH = 20;
+
+  /**
+   * Default maximum size in bytes of a serialized object read by
+   * readReference.
+   */
+  public final static int DEFAULT_MAX_REFERENCE_SIZE = 64 * 1024 * 1024;
+
+  /**
+   * Hash of each object written or read, by identity.
+   */
+  private final Map<Object, String> m_hashes =
+      new IdentityHashMap<Object, String>();
+
+  /**
+   * Objects known to the other side, by hash.
+   */
+  private final Map<String, Object> m_objects = new HashMap<String, Object>();
+
+  /**
+   * Template program of each GP grid configuration, by identity.
+   */
+  private final Map<Object, IGPProgram> m_templates =
+      new IdentityHashMap<Object, IGPProgram>();
+
+  private int m_compressionLevel;
+
+  private int m_maxReferenceSize = DEFAULT_MAX_REFERENCE_SIZE;
+
+  /**
+   * Constructs a session writing uncompressed messages.
+   *
+   * @since 3.7
+   */
+  public WireSession() {
+    this(Deflater.NO_COMPRESSION);
+  }
+
+  /**
+   * @param a_compressionLevel the compression level of written messages,
+   * between Deflater.NO_COMPRESSION and Deflater.BEST_COMPRESSION
+   *
+   * @since 3.7
+   */
+  public WireSession(int a_compressionLevel) {
+    setCompressionLevel(a_compressionLevel);
+  }
+
+  /**
+   * @param a_compressionLevel the compression level of written messages,
+   * between Deflater.NO_COMPRESSION (no compression) and
+   * Deflater.BEST_COMPRESSION. Messages are read regardless of their
+   * compression
+   *
+   * @since 3.7
+   */
+  public void setCompressionLevel(int a_compressionLevel) {
+    if (a_compressionLevel < Deflater.NO_COMPRESSION
+        || a_compressionLevel > Deflater.BEST_COMPRESSION) {
+      throw new IllegalArgumentException("Invalid compression level: "
+                                         + a_compressionLevel);
+    }
+    m_compressionLevel = a_compressionLevel;
+  }
+
+  public int getCompressionLevel() {
+    return m_compressionLevel;
+  }
+
+  /**
+   * Sets the maximum size of a serialized object read by readReference. A
+   * larger size read from the stream is taken for corrupt data and rejected
+   * before allocating a buffer for it.
+   *
+   * @param a_maxReferenceSize maximum size in bytes
+   *
+   * @since 3.7
+   */
+  public void setMaxReferenceSize(int a_maxReferenceSize) {
+    if (a_maxReferenceSize < 1) {
+      throw new IllegalArgumentException(
+          "Maximum reference size must be positive!");
+    }
+    m_maxReferenceSize = a_maxReferenceSize;
+  }
+
+  public int getMaxReferenceSize() {
+    return m_maxReferenceSize;
+  }
+
+  /**
+   * Forgets all objects referenced so far, so that they are transferred again
+   * with the next message. Must be called on both sides, e.g. when
+   * reconnecting.
+   *
+   * @since 3.7
+   */
+  public void reset() {
+    m_hashes.clear();
+    m_objects.clear();
+    m_templates.clear();
+  }
+
+  /**
+   * Writes a reference to an object: the serialized object and its hash the
+   * first time, only the hash afterwards.
+   *
+   * @param a_out the stream to write to
+   * @param a_obj the object to reference, must not be null
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public void writeReference(DataOutput a_out, Serializable a_obj)
+      throws IOException {
+    String hash = m_hashes.get(a_obj);
+    byte[] bytes = null;
+    if (hash == null) {
+      bytes = PopulationCodec.serialize(a_obj);
+      hash = hash(bytes);
+      m_hashes.put(a_obj, hash);
+    }
+    if (m_objects.containsKey(hash)) {
+      a_out.writeByte(REF_KNOWN);
+      a_out.write(toBytes(hash));
+    }
+    else {
+      if (bytes == null) {
+        bytes = PopulationCodec.serialize(a_obj);
+      }
+      a_out.writeByte(REF_NEW);
+      a_out.write(toBytes(hash));
+      PopulationCodec.writeVarLong(a_out, bytes.length);
+      a_out.write(bytes);
+      m_objects.put(hash, a_obj);
+    }
+  }
+
+  /**
+   * Reads a reference written by writeReference.
+   *
+   * @param a_in the stream to read from
+   * @return the referenced object
+   * @throws IOException if the reference is unknown or corrupt, or the object
+   * is larger than getMaxReferenceSize()
+   *
+   * @since 3.7
+   */
+  public Object readReference(DataInput a_in)
+      throws IOException {
+    int tag = a_in.readUnsignedByte();
+    byte[] hashBytes = new byte[HASH_LENGTH];
+    a_in.readFully(hashBytes);
+    String hash = toHex(hashBytes);
+    if (tag == REF_KNOWN) {
+      Object result = m_objects.get(hash);
+      if (result == null) {
+        throw new IOException("Unknown reference " + hash);
+      }
+      return result;
+    }
+    if (tag != REF_NEW) {
+      throw new IOException("Unknown reference tag " + tag);
+    }
+    int len = PopulationCodec.readVarInt(a_in);
+    if (len > m_maxReferenceSize) {
+      throw new IOException("Reference " + hash + " too large: " + len);
+    }
+    byte[] bytes = new byte[len];
+    a_in.readFully(bytes);
+    if (!hash.equals(hash(bytes))) {
+      throw new IOException("Reference " + hash + " is corrupt");
+    }
+    Object result = PopulationCodec.deserialize(bytes);
+    m_objects.put(hash, result);
+    m_hashes.put(result, hash);
+    return result;
+  }
+
+  /**
+   * Writes a GP request.
+   *
+   * @param a_out the stream to write to
+   * @param a_req the request to write
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public void writeRequest(OutputStream a_out, JGAPRequestGP a_req)
+      throws IOException {
+    MessageOutput msg = new MessageOutput(a_out, TYPE_REQUEST_GP);
+    DataOutputStream out = msg.m_out;
+    PopulationCodec.writeString(out, a_req.getSessionName());
+    PopulationCodec.writeString(out, a_req.getID());
+    PopulationCodec.writeSignedVarLong(out, a_req.getChunk());
+    PopulationCodec.writeString(out, a_req.getTitle());
+    PopulationCodec.writeString(out, a_req.getDescription());
+    out.writeDouble(a_req.getMinFitness());
+    writeDate(out, a_req.getRequestDate());
+    IGridConfigurationGP config = a_req.getGridConfiguration();
+    writeReference(out, config);
+    writeGPPopulation(out, a_req.getPopulation(), config);
+    PopulationCodec.writeObject(out, new Object[] {
+                                a_req.getWorkerEvolveStrategy(),
+                                a_req.getWorkerReturnStrategy(),
+                                a_req.getGenotypeInitializer(),
+                                a_req.getWorkerFeedback(),
+                                a_req.getRequesterInfo()});
+    msg.close();
+  }
+
+  /**
+   * @param a_in the stream to read from
+   * @return GP request written by writeRequest
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public JGAPRequestGP readRequestGP(InputStream a_in)
+      throws IOException {
+    DataInputStream in = openMessage(a_in, TYPE_REQUEST_GP);
+    String name = PopulationCodec.readString(in);
+    String id = PopulationCodec.readString(in);
+    int chunk = (int) PopulationCodec.readSignedVarLong(in);
+    String title = PopulationCodec.readString(in);
+    String description = PopulationCodec.readString(in);
+    double minFitness = in.readDouble();
+    Date requestDate = readDate(in);
+    IGridConfigurationGP config = (IGridConfigurationGP) readReference(in);
+    GPPopulation pop = readGPPopulation(in, config);
+    Object[] extras = (Object[]) PopulationCodec.readObject(in);
+    in.close();
+    JGAPRequestGP result = new JGAPRequestGP(name, id, chunk, config, pop,
+        (IWorkerEvolveStrategyGP) extras[0]);
+    result.setWorkerReturnStrategy( (IWorkerReturnStrategyGP) extras[1]);
+    result.setGenotypeInitializer( (IGenotypeInitializerGP) extras[2]);
+    result.setWorkerFeedback( (GridWorkerFeedback) extras[3]);
+    result.setRequesterInfo( (MasterInfo) extras[4]);
+    result.setTitle(title);
+    result.setDescription(description);
+    result.setMinFitness(minFitness);
+    result.setRequestDate(requestDate);
+    return result;
+  }
+
+  /**
+   * Writes a GP result. Only its population is transferred. A result carrying
+   * only the fittest program is transferred as a population holding that
+   * program.
+   *
+   * @param a_out the stream to write to
+   * @param a_res the result to write
+   * @param a_config the grid configuration of the request the result belongs
+   * to
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public void writeResult(OutputStream a_out, JGAPResultGP a_res,
+                          IGridConfigurationGP a_config)
+      throws IOException {
+    MessageOutput msg = new MessageOutput(a_out, TYPE_RESULT_GP);
+    DataOutputStream out = msg.m_out;
+    PopulationCodec.writeString(out, a_res.getSessionName());
+    PopulationCodec.writeString(out, a_res.getID());
+    PopulationCodec.writeSignedVarLong(out, a_res.getChunk());
+    PopulationCodec.writeVarLong(out, a_res.getUnitDone());
+    PopulationCodec.writeString(out, a_res.getTitle());
+    PopulationCodec.writeString(out, a_res.getDescription());
+    writeDate(out, a_res.getResponseDate());
+    PopulationCodec.writeSignedVarLong(out, a_res.getDurationComputation());
+    writeReference(out, a_config);
+    GPPopulation pop = a_res.getPopulation();
+    if (pop == null) {
+      IGPProgram fittest = WANUtils.getFittest(a_res);
+      if (fittest != null) {
+        try {
+          pop = new GPPopulation(fittest.getGPConfiguration(), 1);
+        } catch (InvalidConfigurationException iex) {
+          throw PopulationCodec.newIOException(iex);
+        }
+        pop.setGPProgram(0, fittest);
+      }
+    }
+    writeGPPopulation(out, pop, a_config);
+    PopulationCodec.writeObject(out, new Object[] {a_res.getWorkerInfo(),
+                                a_res.getGenericData()});
+    msg.close();
+  }
+
+  /**
+   * @param a_in the stream to read from
+   * @return GP result written by writeResult
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public JGAPResultGP readResultGP(InputStream a_in)
+      throws IOException {
+    DataInputStream in = openMessage(a_in, TYPE_RESULT_GP);
+    String name = PopulationCodec.readString(in);
+    String id = PopulationCodec.readString(in);
+    int chunk = (int) PopulationCodec.readSignedVarLong(in);
+    long unitDone = PopulationCodec.readVarLong(in);
+    String title = PopulationCodec.readString(in);
+    String description = PopulationCodec.readString(in);
+    Date responseDate = readDate(in);
+    long duration = PopulationCodec.readSignedVarLong(in);
+    IGridConfigurationGP config = (IGridConfigurationGP) readReference(in);
+    GPPopulation pop = readGPPopulation(in, config);
+    Object[] extras = (Object[]) PopulationCodec.readObject(in);
+    in.close();
+    JGAPResultGP result = new JGAPResultGP(name, id, chunk, pop, unitDone);
+    result.setWorkerInfo( (MasterInfo) extras[0]);
+    result.setGenericData(extras[1]);
+    result.setTitle(title);
+    result.setDescription(description);
+    result.setResponseDate(responseDate);
+    result.setDurationComputation(duration);
+    return result;
+  }
+
+  /**
+   * Writes a GA request.
+   *
+   * @param a_out the stream to write to
+   * @param a_req the request to write
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public void writeRequest(OutputStream a_out, JGAPRequest a_req)
+      throws IOException {
+    MessageOutput msg = new MessageOutput(a_out, TYPE_REQUEST);
+    DataOutputStream out = msg.m_out;
+    PopulationCodec.writeString(out, a_req.getSessionName());
+    PopulationCodec.writeSignedVarLong(out, a_req.getRID());
+    Configuration config = a_req.getConfiguration();
+    writeReference(out, config);
+    writePopulation(out, a_req.getPopulation(), config);
+    PopulationCodec.writeObject(out, new Object[] {
+                                a_req.getWorkerEvolveStrategy(),
+                                a_req.getWorkerReturnStrategy(),
+                                a_req.getGenotypeInitializer(),
+                                a_req.getWorkerFeedback()});
+    msg.close();
+  }
+
+  /**
+   * @param a_in the stream to read from
+   * @return GA request written by writeRequest
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public JGAPRequest readRequest(InputStream a_in)
+      throws IOException {
+    DataInputStream in = openMessage(a_in, TYPE_REQUEST);
+    String name = PopulationCodec.readString(in);
+    int id = (int) PopulationCodec.readSignedVarLong(in);
+    Configuration config = (Configuration) readReference(in);
+    Population pop = readPopulation(in, config);
+    Object[] extras = (Object[]) PopulationCodec.readObject(in);
+    in.close();
+    JGAPRequest result = new JGAPRequest(name, id, config, pop,
+                                         (IWorkerEvolveStrategy) extras[0]);
+    result.setWorkerReturnStrategy( (IWorkerReturnStrategy) extras[1]);
+    result.setGenotypeInitializer( (IGenotypeInitializer) extras[2]);
+    result.setWorkerFeedback( (GridWorkerFeedback) extras[3]);
+    return result;
+  }
+
+  /**
+   * Writes a GA result. Only its population is transferred.
+   *
+   * @param a_out the stream to write to
+   * @param a_res the result to write
+   * @param a_config the configuration of the request the result belongs to
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public void writeResult(OutputStream a_out, JGAPResult a_res,
+                          Configuration a_config)
+      throws IOException {
+    MessageOutput msg = new MessageOutput(a_out, TYPE_RESULT);
+    DataOutputStream out = msg.m_out;
+    PopulationCodec.writeString(out, a_res.getSessionName());
+    PopulationCodec.writeSignedVarLong(out, a_res.getRID());
+    PopulationCodec.writeVarLong(out, a_res.getUnitDone());
+    writeReference(out, a_config);
+    writePopulation(out, a_res.getPopulation(), a_config);
+    PopulationCodec.writeObject(out, a_res.getWorkerInfo());
+    msg.close();
+  }
+
+  /**
+   * @param a_in the stream to read from
+   * @return GA result written by writeResult
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public JGAPResult readResult(InputStream a_in)
+      throws IOException {
+    DataInputStream in = openMessage(a_in, TYPE_RESULT);
+    String name = PopulationCodec.readString(in);
+    int id = (int) PopulationCodec.readSignedVarLong(in);
+    long unitDone = PopulationCodec.readVarLong(in);
+    Configuration config = (Configuration) readReference(in);
+    Population pop = readPopulation(in, config);
+    MasterInfo workerInfo = (MasterInfo) PopulationCodec.readObject(in);
+    in.close();
+    JGAPResult result = new JGAPResult(name, id, pop, unitDone);
+    result.setWorkerInfo(workerInfo);
+    return result;
+  }
+
+  private void writePopulation(DataOutput a_out, Population a_pop,
+                               Configuration a_config)
+      throws IOException {
+    a_out.writeBoolean(a_pop != null);
+    if (a_pop != null) {
+      PopulationCodec.writePopulation(a_out, a_pop,
+                                      a_config.getSampleChromosome());
+    }
+  }
+
+  private Population readPopulation(DataInput a_in, Configuration a_config)
+      throws IOException {
+    if (!a_in.readBoolean()) {
+      return null;
+    }
+    return PopulationCodec.readPopulation(a_in, a_config,
+        a_config.getSampleChromosome());
+  }
+
+  private void writeGPPopulation(DataOutput a_out, GPPopulation a_pop,
+                                 IGridConfigurationGP a_config)
+      throws IOException {
+    a_out.writeBoolean(a_pop != null);
+    if (a_pop != null) {
+      PopulationCodec.writeGPPopulation(a_out, a_pop, getTemplate(a_config));
+    }
+  }
+
+  private GPPopulation readGPPopulation(DataInput a_in,
+                                        IGridConfigurationGP a_config)
+      throws IOException {
+    if (!a_in.readBoolean()) {
+      return null;
+    }
+    return PopulationCodec.readGPPopulation(a_in, a_config.getConfiguration(),
+        getTemplate(a_config));
+  }
+
+  /**
+   * @param a_config the grid configuration
+   * @return program with the types and node sets of the grid configuration,
+   * or the prototype program of the GP configuration, or null if neither is
+   * available
+   * @throws IOException
+   */
+  private IGPProgram getTemplate(IGridConfigurationGP a_config)
+      throws IOException {
+    if (m_templates.containsKey(a_config)) {
+      return m_templates.get(a_config);
+    }
+    GPConfiguration conf = a_config.getConfiguration();
+    IGPProgram result;
+    if (a_config.getTypes() != null && a_config.getNodeSets() != null) {
+      try {
+        result = new GPProgram(conf, a_config.getTypes(),
+                               a_config.getArgTypes(),
+                               a_config.getNodeSets(),
+                               a_config.getMinDepths(),
+                               a_config.getMaxDepths(),
+                               a_config.getMaxNodes());
+      } catch (InvalidConfigurationException iex) {
+        throw PopulationCodec.newIOException(iex);
+      }
+    }
+    else if (conf != null) {
+      result = conf.getPrototypeProgram();
+    }
+    else {
+      result = null;
+    }
+    m_templates.put(a_config, result);
+    return result;
+  }
+
+  private DataInputStream openMessage(InputStream a_in, int a_type)
+      throws IOException {
+    DataInputStream header = new DataInputStream(a_in);
+    if (header.readInt() != MAGIC) {
+      throw new IOException("Not a JGAP grid message");
+    }
+    int version = header.readUnsignedByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported version " + version);
+    }
+    int type = header.readUnsignedByte();
+    if (type != a_type) {
+      throw new IOException("Expected message type " + a_type + " but got "
+                            + type);
+    }
+    int flags = header.readUnsignedByte();
+    InputStream body = new ChunkedInputStream(a_in);
+    if ( (flags & FLAG_COMPRESSED) != 0) {
+      body = new InflaterInputStream(body);
+    }
+    return new DataInputStream(body);
+  }
+
+  private static void writeDate(DataOutput a_out, Date a_date)
+      throws IOException {
+    a_out.writeBoolean(a_date != null);
+    if (a_date != null) {
+      a_out.writeLong(a_date.getTime());
+    }
+  }
+
+  private static Date readDate(DataInput a_in)
+      throws IOException {
+    if (!a_in.readBoolean()) {
+      return null;
+    }
+    return new Date(a_in.readLong());
+  }
+
+  private static String hash(byte[] a_bytes) {
+    try {
+      return toHex(MessageDigest.getInstance("SHA-1").digest(a_bytes));
+    } catch (NoSuchAlgorithmException nex) {
+      throw new IllegalStateException(nex);
+    }
+  }
+
+  private static String toHex(byte[] a_bytes) {
+    StringBuffer result = new StringBuffer(a_bytes.length * 2);
+    for (int i = 0; i < a_bytes.length; i++) {
+      result.append(Character.forDigit( (a_bytes[i] >> 4) & 0xF, 16));
+      result.append(Character.forDigit(a_bytes[i] & 0xF, 16));
+    }
+    return result.toString();
+  }
+
+  private static byte[] toBytes(String a_hex) {
+    byte[] result = new byte[a_hex.length() / 2];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = (byte) Integer.parseInt(a_hex.substring(2 * i, 2 * i + 2),
+                                          16);
+    }
+    return result;
+  }
+
+  /**
+   * Header and body of a message being written.
+   */
+  private class MessageOutput {
+    final DataOutputStream m_out;
+
+    private final ChunkedOutputStream m_chunks;
+
+    private DeflaterOutputStream m_zip;
+
+    private Deflater m_deflater;
+
+    MessageOutput(OutputStream a_out, int a_type)
+        throws IOException {
+      DataOutputStream header = new DataOutputStream(a_out);
+      header.writeInt(MAGIC);
+      header.writeByte(VERSION);
+      header.writeByte(a_type);
+      boolean compressed = m_compressionLevel != Deflater.NO_COMPRESSION;
+      header.writeByte(compressed ? FLAG_COMPRESSED : 0);
+      m_chunks = new ChunkedOutputStream(a_out);
+      if (compressed) {
+        m_deflater = new Deflater(m_compressionLevel);
+        m_zip = new DeflaterOutputStream(m_chunks, m_deflater,
+                                         ChunkedOutputStream.CHUNK_SIZE);
+        m_out = new DataOutputStream(new BufferedOutputStream(m_zip,
+            ChunkedOutputStream.CHUNK_SIZE));
+      }
+      else {
+        m_out = new DataOutputStream(m_chunks);
+      }
+    }
+
+    /**
+     * Finishes the message, without closing the underlying stream.
+     *
+     * @throws IOException
+     */
+    void close()
+        throws IOException {
+      m_out.flush();
+      if (m_zip != null) {
+        m_zip.finish();
+        m_deflater.end();
+      }
+      m_chunks.close();
+    }
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.island;
+
+import java.io.*;
+
+/**
+ * Each island sends its emigrants to all other islands.
+ *
+ * @since 3.7
+ */
+public class FullyConnectedTopology
+    implements IMigrationTopology, Serializable {
+  public int[] getTargets(int a_island, int a_numberOfIslands) {
+    if (a_numberOfIslands < 2) {
+      return new int[0];
+    }
+    int[] result = new int[a_numberOfIslands - 1];
+    int index = 0;
+    for (int i = 0; i < a_numberOfIslands; i++) {
+      if (i != a_island) {
+        result[index++] = i;
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.island;
+
+import java.io.*;
+import java.util.*;
+
+import org.jgap.distr.grid.wire.*;
+import org.jgap.gp.*;
+import org.jgap.gp.impl.*;
+
+/**
+ * Island evolving a GPGenotype. Each island should have a GPConfiguration of
+ * its own.
+ *
+ * @since 3.7
+ */
+public class GPGenotypeIsland
+    implements IIsland {
+  private GPGenotype m_genotype;
+
+  /**
+   * @param a_genotype the genotype to evolve
+   *
+   * @since 3.7
+   */
+  public GPGenotypeIsland(GPGenotype a_genotype) {
+    if (a_genotype == null) {
+      throw new IllegalArgumentException("Genotype must not be null!");
+    }
+    m_genotype = a_genotype;
+  }
+
+  public void evolve(int a_generations) {
+    m_genotype.evolve(a_generations);
+  }
+
+  public List getEmigrants(int a_count) {
+    List result = new Vector();
+    List fittest = m_genotype.getGPPopulation().determineFittestChromosomes(
+        a_count);
+    if (fittest != null) {
+      for (int i = 0; i < fittest.size(); i++) {
+        IGPProgram prog = (IGPProgram) fittest.get(i);
+        if (prog != null) {
+          result.add(prog.clone());
+        }
+      }
+    }
+    return result;
+  }
+
+  public void immigrate(List a_immigrants) {
+    GPPopulation pop = m_genotype.getGPPopulation();
+    int size = pop.size();
+    // Keep at least the fittest program.
+    // ----------------------------------
+    int count = Math.min(a_immigrants.size(), size - 1);
+    if (count < 1) {
+      return;
+    }
+    pop.sortByFitness();
+    // The fittest program is kept, it provides types and node sets.
+    // -------------------------------------------------------------
+    IGPProgram template = pop.getGPProgram(0);
+    int replaced = 0;
+    for (int i = 0; i < a_immigrants.size() && replaced < count; i++) {
+      IGPProgram immigrant = rebind( (IGPProgram) a_immigrants.get(i),
+                                    template);
+      if (immigrant != null) {
+        pop.setGPProgram(size - 1 - replaced, immigrant);
+        replaced++;
+      }
+    }
+  }
+
+  /**
+   * Rebuilds an immigrant on the configuration of this island, with the nodes
+   * of this island's function sets. Otherwise it would keep using the random
+   * generator, fitness function and generation counter of the island it comes
+   * from.
+   *
+   * @param a_immigrant program coming from another island
+   * @param a_template program of this island providing types and node sets
+   * @return equal program bound to the configuration of this island, or null
+   * if the immigrant uses nodes unknown to this island
+   *
+   * @since 3.7
+   */
+  protected IGPProgram rebind(IGPProgram a_immigrant, IGPProgram a_template) {
+    GPConfiguration conf = m_genotype.getGPConfiguration();
+    if (a_immigrant.getGPConfiguration() == conf) {
+      return a_immigrant;
+    }
+    if (a_template == null) {
+      return null;
+    }
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      PopulationCodec.writeGPProgram(out, a_immigrant, a_template);
+      out.flush();
+      IGPProgram result = PopulationCodec.readGPProgram(new DataInputStream(
+          new ByteArrayInputStream(bytes.toByteArray())), a_template);
+      // Programs not encodable as nodes come back serialized, i.e. with a
+      // copy of the foreign configuration.
+      // ------------------------------------------------------------------
+      if (result == null || result.getGPConfiguration() != conf) {
+        return null;
+      }
+      return result;
+    } catch (IOException iex) {
+      return null;
+    }
+  }
+
+  public GPGenotype getGPGenotype() {
+    return m_genotype;
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.island;
+
+import java.util.*;
+
+import org.jgap.*;
+
+/**
+ * Island evolving a Genotype. Each island should have a Configuration of its
+ * own, i.e. one constructed with a distinct ID.
+ *
+ * @since 3.7
+ */
+public class GenotypeIsland
+    implements IIsland {
+  private Genotype m_genotype;
+
+  /**
+   * @param a_genotype the genotype to evolve
+   *
+   * @since 3.7
+   */
+  public GenotypeIsland(Genotype a_genotype) {
+    if (a_genotype == null) {
+      throw new IllegalArgumentException("Genotype must not be null!");
+    }
+    m_genotype = a_genotype;
+  }
+
+  public void evolve(int a_generations) {
+    m_genotype.evolve(a_generations);
+  }
+
+  public List getEmigrants(int a_count) {
+    List result = new Vector();
+    List fittest = m_genotype.getPopulation().determineFittestChromosomes(
+        a_count);
+    if (fittest != null) {
+      for (int i = 0; i < fittest.size(); i++) {
+        result.add( ( (IChromosome) fittest.get(i)).clone());
+      }
+    }
+    return result;
+  }
+
+  public void immigrate(List a_immigrants) {
+    Population pop = m_genotype.getPopulation();
+    int size = pop.size();
+    // Keep at least the fittest chromosome.
+    // -------------------------------------
+    int count = Math.min(a_immigrants.size(), size - 1);
+    if (count < 1) {
+      return;
+    }
+    pop.sortByFitness();
+    int replaced = 0;
+    for (int i = 0; i < a_immigrants.size() && replaced < count; i++) {
+      IChromosome immigrant = rebind( (IChromosome) a_immigrants.get(i));
+      if (immigrant != null) {
+        pop.setChromosome(size - 1 - replaced, immigrant);
+        replaced++;
+      }
+    }
+  }
+
+  /**
+   * Rebuilds an immigrant on the configuration of this island. Otherwise it
+   * would keep using the random generator, fitness function and generation
+   * counter of the island it comes from.
+   *
+   * @param a_immigrant chromosome coming from another island
+   * @return equal chromosome bound to the configuration of this island, or
+   * null if the immigrant cannot be rebuilt from the sample chromosome
+   *
+   * @since 3.7
+   */
+  protected IChromosome rebind(IChromosome a_immigrant) {
+    Configuration conf = m_genotype.getConfiguration();
+    if (a_immigrant.getConfiguration() == conf) {
+      return a_immigrant;
+    }
+    IChromosome sample = conf.getSampleChromosome();
+    if (sample == null || sample.getClass() != a_immigrant.getClass()
+        || sample.size() != a_immigrant.size()) {
+      return null;
+    }
+    IChromosome result = (IChromosome) sample.clone();
+    if (result instanceof Chromosome && hasSameGenes(sample, a_immigrant)) {
+      for (int i = 0; i < result.size(); i++) {
+        Gene gene = BaseChromosome.writableGene(result, i);
+        gene.setAllele(a_immigrant.getGene(i).getAllele());
+      }
+    }
+    else if (result instanceof IPersistentRepresentation
+             && a_immigrant instanceof IPersistentRepresentation) {
+      // Genes are recreated via the configuration of the receiving chromosome.
+      // ----------------------------------------------------------------------
+      try {
+        ( (IPersistentRepresentation) result).
+            setValueFromPersistentRepresentation( ( (IPersistentRepresentation)
+            a_immigrant).getPersistentRepresentation());
+      } catch (UnsupportedRepresentationException uex) {
+        return null;
+      } catch (UnsupportedOperationException uex) {
+        return null;
+      }
+    }
+    else {
+      return null;
+    }
+    result.setFitnessValueDirectly(a_immigrant.getFitnessValueDirectly());
+    result.setApplicationData(a_immigrant.getApplicationData());
+    return result;
+  }
+
+  private boolean hasSameGenes(IChromosome a_sample, IChromosome a_chrom) {
+    for (int i = 0; i < a_sample.size(); i++) {
+      if (a_sample.getGene(i).getClass() != a_chrom.getGene(i).getClass()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public Genotype getGenotype() {
+    return m_genotype;
+  }
+}
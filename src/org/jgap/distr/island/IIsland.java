@@ -0,0 +1,50 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.island;
+
+import java.util.*;
+
+/**
+ * An island evolving a population of its own within an IslandModel.
+ * Implementations need not be thread-safe: all methods of an island are
+ * called from one thread at a time.
+ *
+ * @since 3.7
+ */
+public interface IIsland {
+  /**
+   * Evolves the population of the island.
+   *
+   * @param a_generations number of generations to evolve
+   *
+   * @since 3.7
+   */
+  void evolve(int a_generations);
+
+  /**
+   * @param a_count maximum number of emigrants to return
+   * @return copies of the fittest individuals of the island, the original
+   * individuals stay on the island. Each call returns new copies
+   *
+   * @since 3.7
+   */
+  List getEmigrants(int a_count);
+
+  /**
+   * Adds individuals received from other islands to the population, replacing
+   * the least fit individuals.
+   *
+   * @param a_immigrants individuals returned by getEmigrants of another
+   * island of the same kind
+   *
+   * @since 3.7
+   */
+  void immigrate(List a_immigrants);
+}
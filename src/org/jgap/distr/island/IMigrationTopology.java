@@ -0,0 +1,29 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.island;
+
+/**
+ * Determines the islands receiving emigrants of an island.
+ *
+ * @since 3.7
+ */
+public interface IMigrationTopology {
+  /**
+   * Called concurrently for different islands, thus must be thread-safe.
+   *
+   * @param a_island index of the emigrating island
+   * @param a_numberOfIslands total number of islands
+   * @return indices of the islands to send emigrants to, never containing
+   * a_island itself
+   *
+   * @since 3.7
+   */
+  int[] getTargets(int a_island, int a_numberOfIslands);
+}
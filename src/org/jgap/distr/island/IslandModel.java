@@ -0,0 +1,306 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.island;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Evolves several islands concurrently on a shared thread pool. Every
+ * migration interval, each island sends copies of its fittest individuals to
+ * the islands determined by the migration topology and takes over the
+ * individuals received from other islands in the meantime.<p>
+ * Islands do not wait for each other: an island evolves one migration
+ * interval per task and then submits itself again, migrants are exchanged via
+ * lock-free queues. Thus, any number of threads can be used, and the result
+ * of an evolution is not reproducible even with seeded random generators.
+ *
+ * @since 3.7
+ */
+public class IslandModel {
+  private IIsland[] m_islands;
+
+  private Queue[] m_inboxes;
+
+  private ExecutorService m_executor;
+
+  private boolean m_ownExecutor;
+
+  private int m_migrationInterval = 10;
+
+  private int m_migrationSize = 2;
+
+  private IMigrationTopology m_topology = new RingTopology();
+
+  private AtomicLong m_migrants = new AtomicLong();
+
+  /**
+   * Constructs an island model with a thread pool of its own, consisting of
+   * daemon threads.
+   *
+   * @param a_islands the islands to evolve
+   * @param a_threads number of threads to use
+   *
+   * @since 3.7
+   */
+  public IslandModel(IIsland[] a_islands, int a_threads) {
+    this(a_islands, createExecutor(a_threads));
+    m_ownExecutor = true;
+  }
+
+  /**
+   * @param a_islands the islands to evolve
+   * @param a_executor executor to run the islands with, it is not shut down
+   * by this class
+   *
+   * @since 3.7
+   */
+  public IslandModel(IIsland[] a_islands, ExecutorService a_executor) {
+    if (a_islands == null || a_islands.length < 1) {
+      throw new IllegalArgumentException("At least one island required!");
+    }
+    if (a_executor == null) {
+      throw new IllegalArgumentException("Executor must not be null!");
+    }
+    m_islands = (IIsland[]) a_islands.clone();
+    m_inboxes = new Queue[m_islands.length];
+    for (int i = 0; i < m_islands.length; i++) {
+      if (m_islands[i] == null) {
+        throw new IllegalArgumentException("Island " + i + " is null!");
+      }
+      m_inboxes[i] = new ConcurrentLinkedQueue();
+    }
+    m_executor = a_executor;
+  }
+
+  private static ExecutorService createExecutor(int a_threads) {
+    if (a_threads < 1) {
+      throw new IllegalArgumentException(
+          "Number of threads must be positive!");
+    }
+    return Executors.newFixedThreadPool(a_threads, new ThreadFactory() {
+      public Thread newThread(Runnable a_runnable) {
+        Thread t = new Thread(a_runnable, "IslandModel");
+        t.setDaemon(true);
+        return t;
+      }
+    });
+  }
+
+  /**
+   * Evolves all islands and waits until all of them are finished.
+   *
+   * @param a_generations number of generations to evolve each island
+   * @throws InterruptedException if interrupted while waiting
+   *
+   * @since 3.7
+   */
+  public void evolve(int a_generations)
+      throws InterruptedException {
+    if (a_generations < 1) {
+      return;
+    }
+    CountDownLatch finished = new CountDownLatch(m_islands.length);
+    AtomicReference failure = new AtomicReference();
+    for (int i = 0; i < m_islands.length; i++) {
+      IslandTask task = new IslandTask(i, a_generations, finished, failure);
+      try {
+        m_executor.execute(task);
+      } catch (RejectedExecutionException rex) {
+        failure.compareAndSet(null, rex);
+        finished.countDown();
+      }
+    }
+    finished.await();
+    Throwable t = (Throwable) failure.get();
+    if (t != null) {
+      if (t instanceof RuntimeException) {
+        throw (RuntimeException) t;
+      }
+      if (t instanceof Error) {
+        throw (Error) t;
+      }
+      throw new RuntimeException(t);
+    }
+  }
+
+  /**
+   * Sends emigrants of the given island to its targets.
+   *
+   * @param a_index index of the emigrating island
+   *
+   * @since 3.7
+   */
+  protected void emigrate(int a_index) {
+    int[] targets = m_topology.getTargets(a_index, m_islands.length);
+    for (int i = 0; i < targets.length; i++) {
+      // Every target gets copies of its own.
+      // ------------------------------------
+      List emigrants = m_islands[a_index].getEmigrants(m_migrationSize);
+      m_inboxes[targets[i]].addAll(emigrants);
+      m_migrants.addAndGet(emigrants.size());
+    }
+  }
+
+  /**
+   * Lets the given island take over all individuals received so far.
+   *
+   * @param a_index index of the immigration island
+   *
+   * @since 3.7
+   */
+  protected void immigrate(int a_index) {
+    Queue inbox = m_inboxes[a_index];
+    List immigrants = null;
+    Object immigrant;
+    while ( (immigrant = inbox.poll()) != null) {
+      if (immigrants == null) {
+        immigrants = new Vector();
+      }
+      immigrants.add(immigrant);
+    }
+    if (immigrants != null) {
+      m_islands[a_index].immigrate(immigrants);
+    }
+  }
+
+  /**
+   * Stops the thread pool if it was created by this instance.
+   *
+   * @since 3.7
+   */
+  public void shutdown() {
+    if (m_ownExecutor) {
+      m_executor.shutdown();
+    }
+  }
+
+  /**
+   * @param a_interval number of generations between two migrations
+   *
+   * @since 3.7
+   */
+  public void setMigrationInterval(int a_interval) {
+    if (a_interval < 1) {
+      throw new IllegalArgumentException(
+          "Migration interval must be positive!");
+    }
+    m_migrationInterval = a_interval;
+  }
+
+  public int getMigrationInterval() {
+    return m_migrationInterval;
+  }
+
+  /**
+   * @param a_size number of individuals sent to each target island per
+   * migration, zero disables migration
+   *
+   * @since 3.7
+   */
+  public void setMigrationSize(int a_size) {
+    if (a_size < 0) {
+      throw new IllegalArgumentException(
+          "Migration size must not be negative!");
+    }
+    m_migrationSize = a_size;
+  }
+
+  public int getMigrationSize() {
+    return m_migrationSize;
+  }
+
+  /**
+   * @param a_topology the topology determining the target islands of
+   * migrations
+   *
+   * @since 3.7
+   */
+  public void setTopology(IMigrationTopology a_topology) {
+    if (a_topology == null) {
+      throw new IllegalArgumentException("Topology must not be null!");
+    }
+    m_topology = a_topology;
+  }
+
+  public IMigrationTopology getTopology() {
+    return m_topology;
+  }
+
+  public IIsland[] getIslands() {
+    return (IIsland[]) m_islands.clone();
+  }
+
+  public ExecutorService getExecutor() {
+    return m_executor;
+  }
+
+  /**
+   * @return total number of individuals migrated so far
+   *
+   * @since 3.7
+   */
+  public long getNumberOfMigrants() {
+    return m_migrants.get();
+  }
+
+  /**
+   * Evolves one island for one migration interval at a time, resubmitting
+   * itself until all generations are done.
+   *
+   * @since 3.7
+   */
+  private class IslandTask
+      implements Runnable {
+    private int m_index;
+
+    private int m_remaining;
+
+    private CountDownLatch m_finished;
+
+    private AtomicReference m_failure;
+
+    IslandTask(int a_index, int a_generations, CountDownLatch a_finished,
+               AtomicReference a_failure) {
+      m_index = a_index;
+      m_remaining = a_generations;
+      m_finished = a_finished;
+      m_failure = a_failure;
+    }
+
+    public void run() {
+      try {
+        if (m_failure.get() != null) {
+          // Another island failed, stop early.
+          // ----------------------------------
+          m_finished.countDown();
+          return;
+        }
+        immigrate(m_index);
+        int generations = Math.min(m_migrationInterval, m_remaining);
+        m_islands[m_index].evolve(generations);
+        m_remaining -= generations;
+        if (m_remaining > 0) {
+          if (m_migrationSize > 0) {
+            emigrate(m_index);
+          }
+          m_executor.execute(this);
+        }
+        else {
+          m_finished.countDown();
+        }
+      } catch (Throwable t) {
+        m_failure.compareAndSet(null, t);
+        m_finished.countDown();
+      }
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.island;
+
+import java.io.*;
+
+import org.jgap.*;
+import org.jgap.impl.*;
+
+/**
+ * Each island sends its emigrants to a randomly chosen other island, newly
+ * determined for each migration.
+ *
+ * @since 3.7
+ */
+public class RandomTopology
+    implements IMigrationTopology, Serializable {
+  private RandomGenerator m_generator;
+
+  private int m_numberOfTargets;
+
+  /**
+   * Constructs a topology with one target per migration.
+   *
+   * @since 3.7
+   */
+  public RandomTopology() {
+    this(new StockRandomGenerator(), 1);
+  }
+
+  /**
+   * @param a_generator thread-safe random generator to use
+   * @param a_numberOfTargets number of different islands to send emigrants to
+   * per migration
+   *
+   * @since 3.7
+   */
+  public RandomTopology(RandomGenerator a_generator, int a_numberOfTargets) {
+    if (a_generator == null) {
+      throw new IllegalArgumentException("Random generator must not be null!");
+    }
+    if (a_numberOfTargets < 1) {
+      throw new IllegalArgumentException(
+          "Number of targets must be positive!");
+    }
+    m_generator = a_generator;
+    m_numberOfTargets = a_numberOfTargets;
+  }
+
+  public int[] getTargets(int a_island, int a_numberOfIslands) {
+    int others = a_numberOfIslands - 1;
+    int count = Math.min(m_numberOfTargets, others);
+    if (count < 1) {
+      return new int[0];
+    }
+    // Partial Fisher-Yates shuffle of the other islands.
+    // --------------------------------------------------
+    int[] candidates = new int[others];
+    for (int i = 0; i < others; i++) {
+      candidates[i] = i < a_island ? i : i + 1;
+    }
+    int[] result = new int[count];
+    for (int i = 0; i < count; i++) {
+      int j = i + m_generator.nextInt(others - i);
+      int tmp = candidates[j];
+      candidates[j] = candidates[i];
+      candidates[i] = tmp;
+      result[i] = tmp;
+    }
+    return result;
+  }
+
+  public int getNumberOfTargets() {
+    return m_numberOfTargets;
+  }
+}
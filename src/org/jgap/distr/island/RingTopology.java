@@ -0,0 +1,28 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.island;
+
+import java.io.*;
+
+/**
+ * Each island sends its emigrants to the next island, the last island to the
+ * first one.
+ *
+ * @since 3.7
+ */
+public class RingTopology
+    implements IMigrationTopology, Serializable {
+  public int[] getTargets(int a_island, int a_numberOfIslands) {
+    if (a_numberOfIslands < 2) {
+      return new int[0];
+    }
+    return new int[] { (a_island + 1) % a_numberOfIslands};
+  }
+}
@@ -607,6 +607,45 @@ public abstract class CommandGene
         " cannot return Object");
   }
 
+  /**
+   * Executes this node as a double for a whole batch of input rows. Variables
+   * read their values from the columns they are bound to, see
+   * Variable.setColumn(int). The default implementation interprets the
+   * subtree of this node row by row via execute_double(...). Override to
+   * evaluate column-wise.
+   *
+   * @param c the chromosome the node belongs to
+   * @param n the index of the node within the chromosome
+   * @param a_columns the input columns, each of them holding one value per row
+   * @param a_out receives the value of this node for each row
+   *
+   * @since 3.7
+   */
+  public void execute_double_batch(ProgramChromosome c, int n,
+                                   double[][] a_columns, double[] a_out) {
+    c.execute_double_rows(n, a_columns, a_out);
+  }
+
+  /**
+   * Creates a compiled representation of this node for evaluation as a double.
+   * The compiled node must behave exactly as execute_double(...) does, given
+   * the compiled children. Override to support compilation, the default
+   * returns null, meaning the node is interpreted via execute_double(...).
+   * The override is only used by ProgramChromosome if it is declared in the
+   * same class as execute_double(...).
+   *
+   * @param a_chrom the chromosome the node belongs to
+   * @param a_index the index of the node within the chromosome
+   * @param a_children compiled children of the node, one per arity
+   * @return compiled node, or null if compilation is not supported
+   *
+   * @since 3.7
+   */
+  public IDoubleNode compileDouble(ProgramChromosome a_chrom, int a_index,
+                                   IDoubleNode[] a_children) {
+    return null;
+  }
+
   public String getName() {
     return toString() + " (class " + getClass().getName() + ")";
   }
@@ -636,6 +675,76 @@ public abstract class CommandGene
     return null;
   }
 
+  /**
+   * Hash code of this node regardless of its children, used for the
+   * structural hash of a program chromosome. Must be consistent with method
+   * isSameNode. The default implementation considers the class and the
+   * string representation of the node. Override it if toString() is
+   * expensive, as is done in Terminal.
+   *
+   * @return hash code of the node
+   *
+   * @since 3.7
+   */
+  public int nodeHashCode() {
+    return 31 * getClass().getName().hashCode() + toString().hashCode();
+  }
+
+  /**
+   * Checks whether the given node is interchangeable with this node within a
+   * program, regardless of the children. The default implementation compares
+   * the class and the string representation of both nodes.
+   *
+   * @param a_other the node to compare with
+   * @return true: the nodes are the same
+   *
+   * @since 3.7
+   */
+  public boolean isSameNode(CommandGene a_other) {
+    if (a_other == this) {
+      return true;
+    }
+    if (a_other == null || a_other.getClass() != getClass()) {
+      return false;
+    }
+    return toString().equals(a_other.toString());
+  }
+
+  /**
+   * Writes the state in which this node differs from other nodes of the same
+   * class, return type and sub return type, e.g. the value of a terminal. Used
+   * by the binary wire format of the grid, which transfers a node as the index
+   * of such a node within the function set, followed by this state. The
+   * default implementation writes nothing and returns false, so that the node
+   * must be the same node as one of the function set to be transferred.
+   * Subclasses overriding this method must override readNodeState as well.
+   *
+   * @param a_out the stream to write to
+   * @return true: the state has been written and can be read with
+   * readNodeState
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public boolean writeNodeState(DataOutput a_out)
+      throws IOException {
+    return false;
+  }
+
+  /**
+   * Reads the state written by writeNodeState into this node. Called on a
+   * clone of the node of the function set. The default implementation reads
+   * nothing, as the default writeNodeState writes nothing.
+   *
+   * @param a_in the stream to read from
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public void readNodeState(DataInput a_in)
+      throws IOException {
+  }
+
   /**
    * Retrieves the hash code value for a CommandGene.
    * Override if another hashCode() implementation is necessary or more
@@ -0,0 +1,27 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.gp;
+
+/**
+ * A node of a compiled GP program, evaluating the sub tree starting at the
+ * node as a double. See ProgramChromosome.getCompiledDouble() and
+ * CommandGene.compileDouble(...).
+ *
+ * @since 3.7
+ */
+public interface IDoubleNode {
+  /**
+   * @param a_args the arguments for execution
+   * @return the double value of the sub tree
+   *
+   * @since 3.7
+   */
+  double execute_double(Object[] a_args);
+}
@@ -58,6 +58,20 @@ public interface IGPProgram
    */
   double execute_double(int a_chromosomeNum, Object[] a_args);
 
+  /**
+   * Executes the given chromosome as a double function for a whole batch of
+   * input rows at once.
+   *
+   * @param a_chromosomeNum the index of the chromosome to execute
+   * @param a_columns the input columns, each of them holding one value per
+   * row; variables are bound to them via Variable.setColumn(int)
+   * @param a_out receives the double return value for each row
+   *
+   * @since 3.7
+   */
+  void execute_double_batch(int a_chromosomeNum, double[][] a_columns,
+                            double[] a_out);
+
   /**
    * Executes the given chromosome as a boolean function.
    *
@@ -71,4 +71,55 @@ public abstract class MathCommand
       throws InvalidConfigurationException {
     super(a_conf, a_arity, a_returnType, a_subReturnType, a_subChildType);
   }
+
+  /**
+   * Evaluates the children column-wise and combines them via
+   * compute_double_batch. Falls back to row-wise interpretation if
+   * compute_double_batch is not declared in the same class as
+   * execute_double(...).
+   *
+   * @param c the chromosome the node belongs to
+   * @param n the index of the node within the chromosome
+   * @param a_columns the input columns, each of them holding one value per row
+   * @param a_out receives the value of this node for each row
+   *
+   * @since 3.7
+   */
+  public void execute_double_batch(ProgramChromosome c, int n,
+                                   double[][] a_columns, double[] a_out) {
+    if (!ProgramChromosome.isDeclaredWithExecuteDouble(getClass(),
+        "compute_double_batch", new Class[] {ProgramChromosome.class,
+        int.class, double[][].class, double[][].class, double[].class})) {
+      super.execute_double_batch(c, n, a_columns, a_out);
+      return;
+    }
+    int arity = getArity(c.getIndividual());
+    double[][] children = new double[arity][];
+    for (int i = 0; i < arity; i++) {
+      children[i] = new double[a_out.length];
+      c.execute_double_batch(n, i, a_columns, children[i]);
+    }
+    compute_double_batch(c, n, a_columns, children, a_out);
+  }
+
+  /**
+   * Computes the value of this node for each row, given the values of the
+   * children. Must behave exactly as execute_double(...) does row by row.
+   * Override in the same class as execute_double(...) to enable column-wise
+   * batch evaluation. The default interprets the subtree of the node row by
+   * row, ignoring the values of the children.
+   *
+   * @param c the chromosome the node belongs to
+   * @param n the index of the node within the chromosome
+   * @param a_columns the input columns, each of them holding one value per row
+   * @param a_children the values of the children, one array per child
+   * @param a_out receives the value of this node for each row
+   *
+   * @since 3.7
+   */
+  protected void compute_double_batch(ProgramChromosome c, int n,
+                                      double[][] a_columns,
+                                      double[][] a_children, double[] a_out) {
+    c.execute_double_rows(n, a_columns, a_out);
+  }
 }
@@ -76,6 +76,36 @@ public class ADF
     return res;
   }
 
+  /**
+   * @return hash code of the chromosome index and the arity of the ADF,
+   * without building its string representation
+   *
+   * @since 3.7
+   */
+  public int nodeHashCode() {
+    return (31 * getClass().getName().hashCode() + m_chromosomeNum) * 31
+        + size();
+  }
+
+  /**
+   * @param a_other the node to compare with
+   * @return true: a_other is an ADF of the same class executing the same
+   * chromosome with the same arity
+   *
+   * @since 3.7
+   */
+  public boolean isSameNode(CommandGene a_other) {
+    if (a_other == this) {
+      return true;
+    }
+    if (a_other == null || a_other.getClass() != getClass()) {
+      return false;
+    }
+    ADF other = (ADF) a_other;
+    return m_chromosomeNum == other.m_chromosomeNum
+        && size() == other.size();
+  }
+
   public int getArity(IGPProgram a_individual) {
     if (a_individual == null || a_individual.size() <= m_chromosomeNum) {
       return 0;
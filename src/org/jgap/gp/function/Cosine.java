@@ -53,6 +53,26 @@ public class Cosine
     return Math.cos(Math.max( -10000.0, Math.min(d, 10000.0)));
   }
 
+  public IDoubleNode compileDouble(ProgramChromosome a_chrom, int a_index,
+                                   IDoubleNode[] a_children) {
+    final IDoubleNode c0 = a_children[0];
+    return new IDoubleNode() {
+      public double execute_double(Object[] args) {
+        double d = c0.execute_double(args);
+        return Math.cos(Math.max( -10000.0, Math.min(d, 10000.0)));
+      }
+    };
+  }
+
+  protected void compute_double_batch(ProgramChromosome c, int n,
+                                      double[][] a_columns,
+                                      double[][] a_children, double[] a_out) {
+    double[] c0 = a_children[0];
+    for (int i = 0; i < a_out.length; i++) {
+      a_out[i] = Math.cos(Math.max( -10000.0, Math.min(c0[i], 10000.0)));
+    }
+  }
+
   public Object execute_object(ProgramChromosome c, int n, Object[] args) {
     return ( (Compatible) c.execute_object(n, 0, args)).execute_cosine();
   }
@@ -88,6 +88,27 @@ public class Divide
     return c.execute_double(n, 0, args) / c.execute_double(n, 1, args);
   }
 
+  public IDoubleNode compileDouble(ProgramChromosome a_chrom, int a_index,
+                                   IDoubleNode[] a_children) {
+    final IDoubleNode c0 = a_children[0];
+    final IDoubleNode c1 = a_children[1];
+    return new IDoubleNode() {
+      public double execute_double(Object[] args) {
+        return c0.execute_double(args) / c1.execute_double(args);
+      }
+    };
+  }
+
+  protected void compute_double_batch(ProgramChromosome c, int n,
+                                      double[][] a_columns,
+                                      double[][] a_children, double[] a_out) {
+    double[] c0 = a_children[0];
+    double[] c1 = a_children[1];
+    for (int i = 0; i < a_out.length; i++) {
+      a_out[i] = c0[i] / c1[i];
+    }
+  }
+
   public Object execute_object(ProgramChromosome c, int n, Object[] args) {
     return ( (Compatible) c.execute_object(n, 0, args)).execute_divide(c.
         execute_object(n, 1, args));
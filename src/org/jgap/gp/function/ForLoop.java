@@ -150,6 +150,45 @@ public class ForLoop
     }
   }
 
+  /**
+   * @return hash code of the bounds of the loop, without building its string
+   * representation
+   *
+   * @since 3.7
+   */
+  public int nodeHashCode() {
+    int hash = 31 * getClass().getName().hashCode() + m_startIndex;
+    hash = 31 * hash + m_endIndex;
+    hash = 31 * hash + m_increment;
+    return 31 * hash + m_maxLoop;
+  }
+
+  /**
+   * @param a_other the node to compare with
+   * @return true: a_other is a loop of the same class, types, bounds and
+   * variable name
+   *
+   * @since 3.7
+   */
+  public boolean isSameNode(CommandGene a_other) {
+    if (a_other == this) {
+      return true;
+    }
+    if (a_other == null || a_other.getClass() != getClass()
+        || a_other.getSubReturnType() != getSubReturnType()
+        || a_other.size() != size()) {
+      return false;
+    }
+    ForLoop other = (ForLoop) a_other;
+    return m_typeVar == other.m_typeVar
+        && m_startIndex == other.m_startIndex
+        && m_endIndex == other.m_endIndex
+        && m_increment == other.m_increment
+        && m_maxLoop == other.m_maxLoop
+        && (m_varName == null ? other.m_varName == null
+            : m_varName.equals(other.m_varName));
+  }
+
   /**
    * @return textual name of this command
    *
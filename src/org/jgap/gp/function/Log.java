@@ -51,6 +51,25 @@ public class Log
     return Math.log(d);
   }
 
+  public IDoubleNode compileDouble(ProgramChromosome a_chrom, int a_index,
+                                   IDoubleNode[] a_children) {
+    final IDoubleNode c0 = a_children[0];
+    return new IDoubleNode() {
+      public double execute_double(Object[] args) {
+        return Math.log(c0.execute_double(args));
+      }
+    };
+  }
+
+  protected void compute_double_batch(ProgramChromosome c, int n,
+                                      double[][] a_columns,
+                                      double[][] a_children, double[] a_out) {
+    double[] c0 = a_children[0];
+    for (int i = 0; i < a_out.length; i++) {
+      a_out[i] = Math.log(c0[i]);
+    }
+  }
+
   public Object execute_object(ProgramChromosome c, int n, Object[] args) {
     return ( (Compatible) c.execute_object(n, 0, args)).execute_log();
   }
@@ -53,6 +53,27 @@ public class Max
     return Math.max(f1, f2);
   }
 
+  public IDoubleNode compileDouble(ProgramChromosome a_chrom, int a_index,
+                                   IDoubleNode[] a_children) {
+    final IDoubleNode c0 = a_children[0];
+    final IDoubleNode c1 = a_children[1];
+    return new IDoubleNode() {
+      public double execute_double(Object[] args) {
+        return Math.max(c0.execute_double(args), c1.execute_double(args));
+      }
+    };
+  }
+
+  protected void compute_double_batch(ProgramChromosome c, int n,
+                                      double[][] a_columns,
+                                      double[][] a_children, double[] a_out) {
+    double[] c0 = a_children[0];
+    double[] c1 = a_children[1];
+    for (int i = 0; i < a_out.length; i++) {
+      a_out[i] = Math.max(c0[i], c1[i]);
+    }
+  }
+
   /**
    * Clones the object. Simple and straight forward implementation here.
    *
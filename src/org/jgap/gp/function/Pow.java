@@ -65,6 +65,31 @@ public class Pow
                     Math.max( -10000.0, Math.min(g, 20.0)));
   }
 
+  public IDoubleNode compileDouble(ProgramChromosome a_chrom, int a_index,
+                                   IDoubleNode[] a_children) {
+    final IDoubleNode c0 = a_children[0];
+    final IDoubleNode c1 = a_children[1];
+    return new IDoubleNode() {
+      public double execute_double(Object[] args) {
+        double f = c0.execute_double(args);
+        double g = c1.execute_double(args);
+        return Math.pow(Math.max( -10000.0, Math.min(f, 20.0)),
+                        Math.max( -10000.0, Math.min(g, 20.0)));
+      }
+    };
+  }
+
+  protected void compute_double_batch(ProgramChromosome c, int n,
+                                      double[][] a_columns,
+                                      double[][] a_children, double[] a_out) {
+    double[] c0 = a_children[0];
+    double[] c1 = a_children[1];
+    for (int i = 0; i < a_out.length; i++) {
+      a_out[i] = Math.pow(Math.max( -10000.0, Math.min(c0[i], 20.0)),
+                          Math.max( -10000.0, Math.min(c1[i], 20.0)));
+    }
+  }
+
   public Object execute_object(ProgramChromosome c, int n, Object[] args) {
     return ( (Compatible) c.execute_object(n, 0, args)).execute_pow(
         c.execute_object(n, 1, args));
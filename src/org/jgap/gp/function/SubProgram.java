@@ -156,6 +156,39 @@ public class SubProgram
     return ret;
   }
 
+  /**
+   * @return hash code of the number of subprograms, without building the
+   * string representation
+   *
+   * @since 3.7
+   */
+  public int nodeHashCode() {
+    return 31 * getClass().getName().hashCode() + m_subtrees;
+  }
+
+  /**
+   * The types of the subprograms are not compared, as a clone of a sub program
+   * constructed with types only keeps the last one of them.
+   *
+   * @param a_other the node to compare with
+   * @return true: a_other is a sub program of the same class, types, mode and
+   * number of subprograms
+   *
+   * @since 3.7
+   */
+  public boolean isSameNode(CommandGene a_other) {
+    if (a_other == this) {
+      return true;
+    }
+    if (a_other == null || a_other.getClass() != getClass()
+        || a_other.getReturnType() != getReturnType()
+        || a_other.getSubReturnType() != getSubReturnType()) {
+      return false;
+    }
+    SubProgram other = (SubProgram) a_other;
+    return m_subtrees == other.m_subtrees && m_mode == other.m_mode;
+  }
+
   /**
    * @return textual name of this command
    *
@@ -12,6 +12,7 @@ package org.jgap.gp.impl;
 import java.io.*;
 import org.jgap.*;
 import org.jgap.gp.*;
+import org.jgap.util.*;
 
 /**
  * Crossing over for GP ProgramChromosomes.
@@ -182,13 +183,15 @@ public class BranchTypingCross
       CommandGene command = a_c0.getNode(p0);
       if (random.nextDouble() <= getConfiguration().getMutationProb()) {
         if (IMutateable.class.isInstance(command)) {
-          IMutateable term = (IMutateable) command;
+          IMutateable term = (IMutateable) mutableCopy(command);
           command = term.applyMutation(0, 0.3d);
           if (command != null) {
             // Check if mutant's function is allowed.
             // --------------------------------------
             if (a_c0.getCommandOfClass(0, command.getClass()) >= 0) {
+              a_c0 = copyChromosome(a_c0);
               a_c0.setGene(p0, command);
+              c[0] = a_c0;
             }
           }
         }
@@ -227,13 +230,15 @@ public class BranchTypingCross
       CommandGene command = a_c1.getNode(p1);
       if (random.nextDouble() <= getConfiguration().getMutationProb()) {
         if (IMutateable.class.isInstance(command)) {
-          IMutateable term = (IMutateable) command;
+          IMutateable term = (IMutateable) mutableCopy(command);
           command = term.applyMutation(0, 0.3d);
           if (command != null) {
             // Check if mutant's function is allowed.
             // --------------------------------------
             if (a_c0.getCommandOfClass(0, command.getClass()) >= 0) {
+              a_c1 = copyChromosome(a_c1);
               a_c1.setGene(p1, command);
+              c[1] = a_c1;
             }
           }
         }
@@ -294,6 +299,46 @@ public class BranchTypingCross
     return c;
   }
 
+  /**
+   * Copies a node before it is mutated. Nodes are shared between the programs
+   * of a population and its offspring, and breeding threads read them
+   * concurrently, so mutating a node in place would change other programs as
+   * well.
+   *
+   * @param a_node the node to copy
+   * @return a copy of the node, or the node itself if it cannot be cloned
+   *
+   * @since 3.7
+   */
+  protected CommandGene mutableCopy(CommandGene a_node) {
+    if (ICloneable.class.isInstance(a_node)) {
+      return (CommandGene) ( (ICloneable) a_node).clone();
+    }
+    return a_node;
+  }
+
+  /**
+   * Copies a chromosome before one of its nodes is replaced, leaving the
+   * parent, which belongs to the previous population, untouched. The nodes
+   * themselves are shared with the parent.
+   *
+   * @param a_c the chromosome to copy
+   * @return the copy
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  protected ProgramChromosome copyChromosome(ProgramChromosome a_c)
+      throws InvalidConfigurationException {
+    CommandGene[] functions = a_c.getFunctions();
+    ProgramChromosome copy = new ProgramChromosome(getConfiguration(),
+        functions.length, a_c.getFunctionSet(), a_c.getArgTypes(),
+        a_c.getIndividual());
+    System.arraycopy(functions, 0, copy.getFunctions(), 0, functions.length);
+    copy.redepth();
+    return copy;
+  }
+
   /**
    * The compareTo-method.
    *
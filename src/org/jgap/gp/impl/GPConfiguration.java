@@ -151,7 +151,17 @@ public int realPopSize;/**@todo do it right*/
 
   private Map m_variables;
 
-  private transient Map m_programCache;
+  /**
+   * Programs by structural hash, the least recently used ones are evicted.
+   */
+  private transient Map<Long, List<GPProgramInfo>> m_programCache;
+
+  /**
+   * Maximum number of programs held in the program cache.
+   *
+   * @since 3.7
+   */
+  private int m_programCacheSize = 1000;
 
   /**
    * Holds the central configurable factory for creating default objects.
@@ -175,6 +185,31 @@ public int realPopSize;/**@todo do it right*/
    */
   private boolean m_verify;
 
+  /**
+   * TRUE: Execute GP programs as a double via their compiled form, see
+   * ProgramChromosome.getCompiledDouble().
+   *
+   * @since 3.7
+   */
+  private boolean m_compilePrograms;
+
+  /**
+   * Node tables of recently used function sets, see getNodeTable.
+   *
+   * @since 3.7
+   */
+  private transient Map<NodeTable.Key, NodeTable> m_nodeTables;
+
+  private final static int MAX_NODE_TABLES = 64;
+
+  /**
+   * Number of threads GPGenotype.evolve() breeds and evaluates a new
+   * generation with. 1 means sequential evolution.
+   *
+   * @since 3.7
+   */
+  private int m_breedingThreads = 1;
+
   /**
    * TRUE: Do not clone command genes when creating a new GP program in
    * ProgramChromosome.
@@ -265,7 +300,6 @@ public int realPopSize;/**@todo do it right*/
     if (m_factory == null) {
       throw new IllegalStateException("JGAPFactory not registered!");
     }
-    m_programCache = new HashMap(50);
     m_matrices = new Hashtable();
     if (a_fullInit) {
       m_variables = new Hashtable();
@@ -461,24 +495,48 @@ public int realPopSize;/**@todo do it right*/
     m_minInitDepth = a_minDepth;
   }
 
+  /**
+   * @return the stack of the execution context entered on the current
+   * thread, or the stack of this configuration if there is none
+   */
+  private Stack currentStack() {
+    GPExecutionContext context = GPExecutionContext.getCurrent();
+    if (context != null) {
+      return context.getStack();
+    }
+    return m_stack;
+  }
+
+  /**
+   * @return the memory of the execution context entered on the current
+   * thread, or the memory of this configuration if there is none
+   */
+  private Culture currentMemory() {
+    GPExecutionContext context = GPExecutionContext.getCurrent();
+    if (context != null) {
+      return context.getMemory();
+    }
+    return m_memory;
+  }
+
   public void pushToStack(Object a_value) {
-    m_stack.push(a_value);
+    currentStack().push(a_value);
   }
 
   public Object popFromStack() {
-    return m_stack.pop();
+    return currentStack().pop();
   }
 
   public Object peekStack() {
-    return m_stack.peek();
+    return currentStack().peek();
   }
 
   public int stackSize() {
-    return m_stack.size();
+    return currentStack().size();
   }
 
   public void clearStack() {
-    m_stack.clear();
+    currentStack().clear();
   }
 
   /**
@@ -491,7 +549,7 @@ public int realPopSize;/**@todo do it right*/
    * @since 3.0
    */
   public void storeInMemory(String a_name, Object a_value) {
-    m_memory.set(a_name, a_value, -1);
+    currentMemory().set(a_name, a_value, -1);
   }
 
   /**
@@ -624,7 +682,7 @@ public int realPopSize;/**@todo do it right*/
    * @since 3.2
    */
   public CultureMemoryCell storeMatrixMemory(int a_x, int a_y, Object a_value) {
-    return m_memory.setMatrix(a_x, a_y, a_value);
+    return currentMemory().setMatrix(a_x, a_y, a_value);
   }
 
   /**
@@ -638,7 +696,7 @@ public int realPopSize;/**@todo do it right*/
    * @since 3.2
    */
   public Object readMatrixMemory(int a_x, int a_y) {
-    return m_memory.getMatrix(a_x, a_y).getCurrentValue();
+    return currentMemory().getMatrix(a_x, a_y).getCurrentValue();
   }
 
   /**
@@ -651,7 +709,7 @@ public int realPopSize;/**@todo do it right*/
    * @since 3.0
    */
   public Object readFromMemory(String a_name) {
-    return m_memory.get(a_name).getCurrentValue();
+    return currentMemory().get(a_name).getCurrentValue();
   }
 
   /**
@@ -664,7 +722,7 @@ public int realPopSize;/**@todo do it right*/
   public Object readFromMemoryIfExists(String a_name) {
     CultureMemoryCell cell = null;
     try {
-      cell = m_memory.get(a_name);
+      cell = currentMemory().get(a_name);
     } catch (IllegalArgumentException iex) {
       // Memory name not found: OK.
       // --------------------------
@@ -687,7 +745,7 @@ public int realPopSize;/**@todo do it right*/
    * @since 3.2
    */
   public CultureMemoryCell storeIndexedMemory(int a_index, Object a_value) {
-    return m_memory.set(a_index, a_value, -1, "noname");
+    return currentMemory().set(a_index, a_value, -1, "noname");
   }
 
   /**
@@ -700,7 +758,7 @@ public int realPopSize;/**@todo do it right*/
    * @since 3.2
    */
   public Object readIndexedMemory(int a_index) {
-    CultureMemoryCell cell = m_memory.get(a_index);
+    CultureMemoryCell cell = currentMemory().get(a_index);
     if (cell == null) {
       return null;
     }
@@ -716,7 +774,7 @@ public int realPopSize;/**@todo do it right*/
    * @since 3.0
    */
   public void clearMemory() {
-    m_memory.clear();
+    currentMemory().clear();
   }
 
   public GPFitnessFunction getGPFitnessFunction() {
@@ -983,18 +1041,88 @@ public int realPopSize;/**@todo do it right*/
    * @since 3.2
    */
   public int getMemorySize() {
-    return m_memory.size();
+    return currentMemory().size();
   }
 
-  public GPProgramInfo readProgramCache(GPProgram a_prog) {
-    GPProgramInfo pci = new GPProgramInfo(a_prog, true);
-    pci.setFound(false);
-    return (GPProgramInfo) m_programCache.get(pci.getToStringNorm());
+  /**
+   * Looks up a program with the same structure as the given one. Programs are
+   * found via their structural hash, a hit is verified node by node, so hash
+   * collisions do not lead to wrong results.
+   *
+   * @param a_prog the program to look up
+   * @return info about the cached program, or null if not found
+   *
+   * @since 3.2
+   */
+  public synchronized GPProgramInfo readProgramCache(GPProgram a_prog) {
+    List<GPProgramInfo> infos = getProgramCache().get(Long.valueOf(a_prog.
+        getStructuralHash()));
+    if (infos != null) {
+      for (GPProgramInfo info : infos) {
+        if (info.isSameStructure(a_prog)) {
+          return info;
+        }
+      }
+    }
+    return null;
   }
 
-  public GPProgramInfo putToProgramCache(GPProgram a_prog) {
+  /**
+   * Puts a program into the cache, replacing a program with the same
+   * structure. If the cache is full, the least recently used programs are
+   * evicted.
+   *
+   * @param a_prog the program to cache
+   * @return info about the replaced program, or null if none was replaced
+   *
+   * @since 3.2
+   */
+  public synchronized GPProgramInfo putToProgramCache(GPProgram a_prog) {
     GPProgramInfo pci = new GPProgramInfo(a_prog, true);
-    return (GPProgramInfo) m_programCache.put(pci.getToStringNorm(), pci);
+    Long key = Long.valueOf(pci.getStructuralHash());
+    Map<Long, List<GPProgramInfo>> cache = getProgramCache();
+    List<GPProgramInfo> infos = cache.get(key);
+    if (infos == null) {
+      infos = new ArrayList<GPProgramInfo>(1);
+      cache.put(key, infos);
+    }
+    for (int i = 0; i < infos.size(); i++) {
+      if (infos.get(i).isSameStructure(a_prog)) {
+        return infos.set(i, pci);
+      }
+    }
+    // Only entries with colliding hashes share a list.
+    // ------------------------------------------------
+    infos.add(pci);
+    return null;
+  }
+
+  private Map<Long, List<GPProgramInfo>> getProgramCache() {
+    if (m_programCache == null) {
+      m_programCache = new LinkedHashMap<Long, List<GPProgramInfo>>(64,
+          0.75f, true) {
+        protected boolean removeEldestEntry(Map.Entry a_eldest) {
+          return size() > m_programCacheSize;
+        }
+      };
+    }
+    return m_programCache;
+  }
+
+  /**
+   * @param a_size maximum number of programs held in the program cache
+   *
+   * @since 3.7
+   */
+  public synchronized void setProgramCacheSize(int a_size) {
+    if (a_size < 1) {
+      throw new IllegalArgumentException("Cache size must be positive!");
+    }
+    m_programCacheSize = a_size;
+  }
+
+  public int getProgramCacheSize() {
+    return m_programCacheSize;
   }
 
   public boolean isUseProgramCache() {
@@ -1088,7 +1216,10 @@ public int realPopSize;/**@todo do it right*/
           m_fitnessEvaluator);
       result.m_nodeValidator = (INodeValidator) doClone(m_nodeValidator);
       result.m_useProgramCache = m_useProgramCache;
+      result.m_programCacheSize = m_programCacheSize;
       result.m_verify = m_verify;
+      result.m_compilePrograms = m_compilePrograms;
+      result.m_breedingThreads = m_breedingThreads;
       result.m_variables = m_variables;
       result.realPopSize = realPopSize;/**@todo do it right*/
       result.m_prototypeProgram = (IGPProgram)doClone(m_prototypeProgram);/**@todo do it for grid only*/
@@ -1183,6 +1314,101 @@ public int realPopSize;/**@todo do it right*/
     return m_verify;
   }
 
+  /**
+   * @param a_compile true: execute GP programs as a double via their compiled
+   * form, avoiding the interpretation overhead for repeated evaluations
+   *
+   * @since 3.7
+   */
+  public void setCompilePrograms(boolean a_compile) {
+    m_compilePrograms = a_compile;
+  }
+
+  /**
+   * @return true: execute GP programs as a double via their compiled form
+   *
+   * @since 3.7
+   */
+  public boolean isCompilePrograms() {
+    return m_compilePrograms;
+  }
+
+  /**
+   * Sets the number of threads to breed a new generation with. With more than
+   * one thread, GPGenotype.evolve() partitions the new population into as many
+   * ranges, each filled by one thread with its own random stream split off the
+   * random generator of this configuration. The fitness of the new programs
+   * is then computed in parallel as well. A run is reproducible for a given
+   * seed and number of threads. The fitness function, selection method and
+   * crossover method must be thread-safe. The threads are kept per genotype
+   * until GPGenotype.shutdown() is called.
+   *
+   * @param a_threads number of threads, 1 for sequential evolution
+   *
+   * @since 3.7
+   */
+  public void setBreedingThreads(int a_threads) {
+    if (a_threads < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive!");
+    }
+    m_breedingThreads = a_threads;
+  }
+
+  /**
+   * @return number of threads to breed a new generation with
+   *
+   * @since 3.7
+   */
+  public int getBreedingThreads() {
+    return m_breedingThreads;
+  }
+
+  /**
+   * If a GPExecutionContext with its own random generator is entered on the
+   * current thread, that generator is returned. Otherwise, the random
+   * generator of the configuration is returned.
+   *
+   * @return the random generator to use on the current thread
+   *
+   * @since 3.7
+   */
+  public RandomGenerator getRandomGenerator() {
+    GPExecutionContext context = GPExecutionContext.getCurrent();
+    if (context != null && context.getRandomGenerator() != null) {
+      return context.getRandomGenerator();
+    }
+    return super.getRandomGenerator();
+  }
+
+  /**
+   * Returns the node table of a function set for selecting nodes during
+   * program creation. Function sets with the same nodes in the same order
+   * share one table. Tables of function sets not used recently are dropped.
+   *
+   * @param a_functionSet the function set
+   * @return the node table of the function set
+   *
+   * @since 3.7
+   */
+  synchronized NodeTable getNodeTable(CommandGene[] a_functionSet) {
+    if (m_nodeTables == null) {
+      m_nodeTables = new LinkedHashMap<NodeTable.Key, NodeTable>(16, 0.75f,
+          true) {
+        protected boolean removeEldestEntry(Map.Entry a_eldest) {
+          return size() > MAX_NODE_TABLES;
+        }
+      };
+    }
+    NodeTable.Key key = new NodeTable.Key(a_functionSet);
+    NodeTable table = m_nodeTables.get(key);
+    if (table == null) {
+      CommandGene[] functionSet = (CommandGene[]) a_functionSet.clone();
+      table = new NodeTable(functionSet);
+      m_nodeTables.put(new NodeTable.Key(functionSet), table);
+    }
+    return table;
+  }
+
   /**
    * Decide whether to clone command genes when creating a new GP program in
    * ProgramChromosome.
@@ -0,0 +1,312 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.gp.impl;
+
+import java.util.*;
+
+import org.jgap.*;
+import org.jgap.distr.*;
+import org.jgap.gp.*;
+import org.jgap.gp.terminal.*;
+
+/**
+ * State of a GP program evaluation: variable values, the stack and the
+ * memory. While a context is entered on a thread, Variable and the stack and
+ * memory methods of GPConfiguration operate on the context instead of the
+ * shared state. This way, programs can be evaluated concurrently by giving
+ * each thread its own context.
+ * <p>
+ * Typical usage within a fitness function:
+ * <pre>
+ * GPExecutionContext context = new GPExecutionContext(conf);
+ * context.enter();
+ * try {
+ *   x.set(new Double(1.5d));
+ *   double result = program.execute_double(0, new Object[0]);
+ * } finally {
+ *   context.exit();
+ * }
+ * </pre>
+ * A context may also carry its own random generator, which then is returned
+ * by GPConfiguration.getRandomGenerator() on the thread the context is
+ * entered on.
+ * <p>
+ * While a subtree is interpreted row by row in batch evaluation, the context
+ * also holds the current row, see ProgramChromosome.execute_double_rows.
+ * <p>
+ * A context must only be used by one thread at a time.
+ *
+ * @since 3.7
+ */
+public class GPExecutionContext {
+  private final static ThreadLocal<GPExecutionContext> CURRENT =
+      new ThreadLocal<GPExecutionContext>();
+
+  /**
+   * Per thread: context holding the current row while rows are interpreted
+   * outside of any entered context. Never entered itself.
+   */
+  private final static ThreadLocal<GPExecutionContext> ROW_CONTEXT =
+      new ThreadLocal<GPExecutionContext>();
+
+  private final GPConfiguration m_configuration;
+
+  private final Stack m_stack = new Stack();
+
+  private final Culture m_memory;
+
+  /**
+   * Values of the variables bound in this context.
+   */
+  private final Map<Variable, Object> m_values =
+      new IdentityHashMap<Variable, Object>();
+
+  /**
+   * Context that was current before this one was entered.
+   */
+  private GPExecutionContext m_previous;
+
+  private Thread m_owner;
+
+  /**
+   * Random generator used instead of the one of the configuration, or null.
+   */
+  private RandomGenerator m_randomGenerator;
+
+  /**
+   * Input columns while a subtree is interpreted row by row, otherwise null.
+   * Variables bound to a column read the value of m_row from there.
+   */
+  private double[][] m_rowColumns;
+
+  private int m_row;
+
+  /**
+   * Constructs a context with a memory of the same size as the one of
+   * GPConfiguration.
+   *
+   * @param a_conf the configuration the evaluated programs belong to
+   *
+   * @since 3.7
+   */
+  public GPExecutionContext(GPConfiguration a_conf) {
+    this(a_conf, 50);
+  }
+
+  /**
+   * @param a_conf the configuration the evaluated programs belong to
+   * @param a_memorySize number of memory cells
+   *
+   * @since 3.7
+   */
+  public GPExecutionContext(GPConfiguration a_conf, int a_memorySize) {
+    if (a_conf == null) {
+      throw new IllegalArgumentException("Configuration must not be null!");
+    }
+    m_configuration = a_conf;
+    m_memory = new Culture(a_memorySize);
+  }
+
+  /**
+   * @return the context entered on the current thread, or null if none
+   *
+   * @since 3.7
+   */
+  public static GPExecutionContext getCurrent() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Makes this context the current one of the calling thread. Contexts may
+   * be nested, exit() restores the previous one.
+   *
+   * @since 3.7
+   */
+  public void enter() {
+    if (m_owner != null) {
+      throw new IllegalStateException("Context already entered by thread "
+                                      + m_owner.getName());
+    }
+    m_owner = Thread.currentThread();
+    m_previous = CURRENT.get();
+    CURRENT.set(this);
+  }
+
+  /**
+   * Leaves this context and restores the one that was current before.
+   *
+   * @since 3.7
+   */
+  public void exit() {
+    if (m_owner != Thread.currentThread() || CURRENT.get() != this) {
+      throw new IllegalStateException("Context not entered by this thread");
+    }
+    if (m_previous == null) {
+      CURRENT.remove();
+    }
+    else {
+      CURRENT.set(m_previous);
+    }
+    m_previous = null;
+    m_owner = null;
+  }
+
+  /**
+   * Executes the given chromosome of a program as a double function within
+   * this context.
+   *
+   * @param a_program the program to execute
+   * @param a_chromosomeNum the index of the chromosome to execute
+   * @param a_args the arguments to use
+   * @return the double return value
+   *
+   * @since 3.7
+   */
+  public double execute_double(IGPProgram a_program, int a_chromosomeNum,
+                               Object[] a_args) {
+    enter();
+    try {
+      return a_program.execute_double(a_chromosomeNum, a_args);
+    } finally {
+      exit();
+    }
+  }
+
+  /**
+   * Binds a value to a variable within this context.
+   *
+   * @param a_var the variable
+   * @param a_value the value to bind
+   *
+   * @since 3.7
+   */
+  public void setValue(Variable a_var, Object a_value) {
+    a_var.markBoundInContext();
+    m_values.put(a_var, a_value);
+  }
+
+  /**
+   * @param a_var the variable
+   * @return the value bound to the variable, or null if not bound
+   *
+   * @since 3.7
+   */
+  public Object getValue(Variable a_var) {
+    return m_values.get(a_var);
+  }
+
+  /**
+   * @param a_var the variable
+   * @return true: a value is bound to the variable within this context
+   *
+   * @since 3.7
+   */
+  public boolean isBound(Variable a_var) {
+    return m_values.containsKey(a_var);
+  }
+
+  /**
+   * Removes all variable bindings and clears the stack and the memory.
+   *
+   * @since 3.7
+   */
+  public void reset() {
+    m_values.clear();
+    m_stack.clear();
+    m_memory.clear();
+  }
+
+  public GPConfiguration getGPConfiguration() {
+    return m_configuration;
+  }
+
+  public Stack getStack() {
+    return m_stack;
+  }
+
+  public Culture getMemory() {
+    return m_memory;
+  }
+
+  /**
+   * @param a_generator random generator to use while this context is entered,
+   * null to use the one of the configuration
+   *
+   * @since 3.7
+   */
+  public void setRandomGenerator(RandomGenerator a_generator) {
+    m_randomGenerator = a_generator;
+  }
+
+  public RandomGenerator getRandomGenerator() {
+    return m_randomGenerator;
+  }
+
+  /**
+   * @return the context holding the current row of the calling thread: the
+   * context entered on it, otherwise the one used for interpreting rows
+   * outside of any context, or null if there is none yet
+   *
+   * @since 3.7
+   */
+  public static GPExecutionContext getRowContext() {
+    GPExecutionContext context = CURRENT.get();
+    if (context != null) {
+      return context;
+    }
+    return ROW_CONTEXT.get();
+  }
+
+  /**
+   * Like getRowContext(), but creates the context for interpreting rows
+   * outside of any context if necessary.
+   *
+   * @param a_conf the configuration the interpreted program belongs to
+   * @return the context holding the current row of the calling thread
+   *
+   * @since 3.7
+   */
+  static GPExecutionContext obtainRowContext(GPConfiguration a_conf) {
+    GPExecutionContext context = getRowContext();
+    if (context == null) {
+      context = new GPExecutionContext(a_conf, 1);
+      ROW_CONTEXT.set(context);
+    }
+    return context;
+  }
+
+  /**
+   * @return the input columns while interpreting row by row, see
+   * ProgramChromosome.execute_double_rows, otherwise null
+   *
+   * @since 3.7
+   */
+  public double[][] getRowColumns() {
+    return m_rowColumns;
+  }
+
+  void setRowColumns(double[][] a_columns) {
+    m_rowColumns = a_columns;
+  }
+
+  /**
+   * @return the row currently interpreted, see
+   * ProgramChromosome.execute_double_rows
+   *
+   * @since 3.7
+   */
+  public int getRow() {
+    return m_row;
+  }
+
+  void setRow(int a_row) {
+    m_row = a_row;
+  }
+}
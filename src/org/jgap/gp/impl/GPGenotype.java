@@ -11,6 +11,7 @@ package org.jgap.gp.impl;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.apache.log4j.*;
 import org.jgap.*;
@@ -18,6 +19,7 @@ import org.jgap.distr.grid.gp.*;
 import org.jgap.event.*;
 import org.jgap.gp.*;
 import org.jgap.gp.terminal.*;
+import org.jgap.impl.*;
 import org.jgap.util.*;
 
 /**
@@ -106,6 +108,13 @@ public class GPGenotype
 
   private boolean m_cloneWarningGPProgramShown;
 
+  /**
+   * Executor for parallel evolution, see evolveParallel.
+   */
+  private transient ExecutorService m_executor;
+
+  private transient int m_executorThreads;
+
 //  private boolean[] disabledChromosomes;
 
   /**
@@ -474,12 +483,17 @@ public class GPGenotype
   }
 
   /**
-   * @return the static configuration to use with Genetic Programming
+   * @return the configuration of the execution context entered on the current
+   * thread, otherwise the static configuration to use with Genetic Programming
    *
    * @author Klaus Meffert
    * @since 3.2
    */
   public static GPConfiguration getStaticGPConfiguration() {
+    GPExecutionContext context = GPExecutionContext.getCurrent();
+    if (context != null) {
+      return context.getGPConfiguration();
+    }
     return m_staticConfiguration;
   }
 
@@ -584,7 +598,7 @@ public class GPGenotype
         best = program;
         m_bestFitness = fitness;
         if (m_allTimeBest != null && !bestPreserved) {
-          if (best.toStringNorm(0).equals(m_allTimeBest.toStringNorm(0))) {
+          if (isSameProgram(best, m_allTimeBest)) {
             bestPreserved = true;
           }
         }
@@ -640,6 +654,22 @@ public class GPGenotype
     }
   }
 
+  /**
+   * @param a_prog1 first program
+   * @param a_prog2 second program
+   * @return true: both programs are structurally the same, i.e. have the same
+   * normalized string representation
+   *
+   * @since 3.7
+   */
+  protected static boolean isSameProgram(IGPProgram a_prog1,
+                                         IGPProgram a_prog2) {
+    if (a_prog1 instanceof GPProgram && a_prog2 instanceof GPProgram) {
+      return ( (GPProgram) a_prog1).isSameStructure( (GPProgram) a_prog2);
+    }
+    return a_prog1.toStringNorm(0).equals(a_prog2.toStringNorm(0));
+  }
+
   /**
    * @return the all-time best solution found
    *
@@ -690,7 +720,10 @@ public class GPGenotype
   /**
    * Evolve the population by one generation. Probabilistically reproduces
    * and crosses individuals into a new population which then overwrites the
-   * original population.
+   * original population.<p>
+   * If more than one breeding thread is configured (see
+   * GPConfiguration.setBreedingThreads), the new population is bred in
+   * parallel, see evolveParallel.
    *
    * @author Klaus Meffert
    * @since 3.0
@@ -704,216 +737,488 @@ public class GPGenotype
       }
       GPPopulation oldPop = getGPPopulation();
       GPPopulation newPopulation = new GPPopulation(oldPop, false);
-      if (m_fittestToAdd != null) {
+      boolean injectFittest = m_fittestToAdd != null;
+      if (injectFittest) {
         newPopulation.addFittestProgram(m_fittestToAdd);
         m_fittestToAdd = null;
       }
-      float val;
-      RandomGenerator random = getGPConfiguration().getRandomGenerator();
       GPConfiguration conf = getGPConfiguration();
       // Determine how many new individuals will be added to the new generation.
       // -----------------------------------------------------------------------
       int popSize1 = (int) Math.round(popSize * (1 - conf.getNewChromsPercent()));
-      double crossProb = conf.getCrossoverProb()
-          / (conf.getCrossoverProb() + conf.getReproductionProb());
-      int crossover = 0;
-      int reproduction = 0;
-      int creation = 0;
       checkErroneousPop(getGPPopulation(), " (before evolution)", true);
-      final int maxTries = getGPConfiguration().getProgramCreationMaxtries();
-      // Do crossing over.
-      // -----------------
-      for (int i = 0; i < popSize1; i++) {
-        // Clear the stack for each GP program.
-        // ------------------------------------
-        getGPConfiguration().clearStack();
-        val = random.nextFloat();
-        // Note that if we only have one slot left to fill, we don't do
-        // crossover, but fall through to reproduction.
-        // ------------------------------------------------------------
-        if (i < popSize - 1 && val < crossProb) {
-          crossover++;
-          // Actually do the crossover here.
-          // -------------------------------
-          IGPProgram i1 = conf.getSelectionMethod().select(this);
-          IGPProgram i2 = conf.getSelectionMethod().select(this);
-          int tries = 0;
-          do {
-            try {
-              checkErroneousProg(i1,
-                                 " at start of evolution (index " + i +
-                                 "/01)", false);
-              if (i1 != i2) {
-                // Crossing over the a program with itself does not lead anywhere.
-                // ---------------------------------------------------------------
-                checkErroneousProg(i2,
-                                   " at start of evolution (index " + i +
-                                   "/02)", false);
-                IGPProgram[] newIndividuals = conf.getCrossMethod().operate(
-                    i1,
-                    i2);
-                newPopulation.setGPProgram(i, newIndividuals[0]);
-                newPopulation.setGPProgram(i + 1, newIndividuals[1]);
-                try {
-                  checkErroneousProg(newIndividuals[0],
-                                     " at start of evolution (index " + i +
-                                     "/11)", false);
-                } catch (RuntimeException t) {
-                  writeToFile(i1, i2, newIndividuals[0],
-                              "Error in first X-over program");
-                  throw t;
-                }
-                try {
-                  checkErroneousProg(newIndividuals[1],
-                                     " at start of evolution (index " + i +
-                                     "/12)", false);
-                } catch (RuntimeException t) {
-                  writeToFile(i1, i2, newIndividuals[1],
-                              "Error in second X-over program");
-                  throw t;
-                }
-              }
-              else {
-                newPopulation.setGPProgram(i, i1);
-                newPopulation.setGPProgram(i + 1, i2);
-              }
-              i++;
-              break;
-            } catch (IllegalStateException iex) {
-              tries++;
-              if ( (maxTries > 0 && tries >= maxTries) || tries > 40) {
-                if (!getGPConfiguration().isMaxNodeWarningPrinted()) {
-                  LOGGER.error(
-                      "Warning: Maximum number of nodes allowed may be too small");
-                  getGPConfiguration().flagMaxNodeWarningPrinted();
-                }
-                // Try cloning a previously generated valid program.
-                // -------------------------------------------------
-                IGPProgram program = cloneProgram(getGPConfiguration().
-                    getPrototypeProgram());
-                if (program != null) {
-                  newPopulation.setGPProgram(i++, program);
-                  program = cloneProgram(getGPConfiguration().
-                      getPrototypeProgram());
-                  newPopulation.setGPProgram(i, program);
-                  break;
-                }
-                else {
-                  throw new IllegalStateException(iex.getMessage());
-                }
-              }
-            }
-          } while (true)
-          ;
-        }
-        else { //if (val < conf.getCrossoverProb() + conf.getReproductionProb()) {
-          // Reproduction only.
-          // ------------------
-          reproduction++;
-          newPopulation.setGPProgram(i, conf.getSelectionMethod().select(this));
-        }
+      // Number of crossovers, reproductions and creations.
+      // --------------------------------------------------
+      int[] counts = new int[3];
+      if (conf.getBreedingThreads() > 1) {
+        evolveParallel(newPopulation, popSize1, popSize, injectFittest,
+                       counts);
       }
-      // Add new random programs.
-      // ------------------------
-      for (int i = popSize1; i < popSize; i++) {
-        creation++;
-        // Randomly determine depth between minInitDepth and maxInitDepth.
-        // ---------------------------------------------------------------
-        int depth = conf.getMinInitDepth()
-            + random.nextInt(conf.getMaxInitDepth() - conf.getMinInitDepth()
-                             + 1);
+      else {
+        // Do crossing over.
+        // -----------------
+        breed(newPopulation, 0, popSize1, popSize, counts);
+        // Add new random programs.
+        // ------------------------
+        createPrograms(newPopulation, popSize1, popSize, true, counts);
+      }
+      LOGGER.debug("Did "
+                   + counts[0] + " x-overs, "
+                   + counts[1] + " reproductions, "
+                   + counts[2] + " creations");
+      // Now set the new population as the active one.
+      // ---------------------------------------------
+      setGPPopulation(newPopulation);
+      // Increase number of generation.
+      // ------------------------------
+      conf.incrementGenerationNr();
+      // Fire an event to indicate we've performed an evolution.
+      // -------------------------------------------------------
+      conf.getEventManager().fireGeneticEvent(
+          new GeneticEvent(GeneticEvent.GPGENOTYPE_EVOLVED_EVENT, this));
+    } catch (InvalidConfigurationException iex) {
+      // This should never happen.
+      // -------------------------
+      throw new IllegalStateException(iex.getMessage());
+    }
+  }
+
+  /**
+   * Fills the given range of the new population by crossover and
+   * reproduction of selected programs.
+   *
+   * @param a_newPopulation the population to fill
+   * @param a_from first index to fill
+   * @param a_to index after the last one to fill
+   * @param a_limit crossover is only done if both offspring fit before this
+   * index
+   * @param a_counts receives the number of crossovers (index 0) and
+   * reproductions (index 1)
+   *
+   * @since 3.7
+   */
+  protected void breed(GPPopulation a_newPopulation, int a_from, int a_to,
+                       int a_limit, int[] a_counts) {
+    GPConfiguration conf = getGPConfiguration();
+    RandomGenerator random = conf.getRandomGenerator();
+    double crossProb = conf.getCrossoverProb()
+        / (conf.getCrossoverProb() + conf.getReproductionProb());
+    final int maxTries = conf.getProgramCreationMaxtries();
+    float val;
+    for (int i = a_from; i < a_to; i++) {
+      // Clear the stack for each GP program.
+      // ------------------------------------
+      conf.clearStack();
+      val = random.nextFloat();
+      // Note that if we only have one slot left to fill, we don't do
+      // crossover, but fall through to reproduction.
+      // ------------------------------------------------------------
+      if (i < a_limit - 1 && val < crossProb) {
+        a_counts[0]++;
+        // Actually do the crossover here.
+        // -------------------------------
+        IGPProgram i1 = conf.getSelectionMethod().select(this);
+        IGPProgram i2 = conf.getSelectionMethod().select(this);
         int tries = 0;
-        int nogc = 0;
         do {
           try {
-            // Randomize grow option as growing produces a valid program
-            // more likely than the full mode.
-            // ---------------------------------------------------------
-            boolean grow;
-            if (i % 2 == 0 || random.nextInt(8) > 6) {
-              grow = true;
+            checkErroneousProg(i1,
+                               " at start of evolution (index " + i +
+                               "/01)", false);
+            if (i1 != i2) {
+              // Crossing over the a program with itself does not lead anywhere.
+              // ---------------------------------------------------------------
+              checkErroneousProg(i2,
+                                 " at start of evolution (index " + i +
+                                 "/02)", false);
+              IGPProgram[] newIndividuals = conf.getCrossMethod().operate(
+                  i1,
+                  i2);
+              a_newPopulation.setGPProgram(i, newIndividuals[0]);
+              a_newPopulation.setGPProgram(i + 1, newIndividuals[1]);
+              try {
+                checkErroneousProg(newIndividuals[0],
+                                   " at start of evolution (index " + i +
+                                   "/11)", false);
+              } catch (RuntimeException t) {
+                writeToFile(i1, i2, newIndividuals[0],
+                            "Error in first X-over program");
+                throw t;
+              }
+              try {
+                checkErroneousProg(newIndividuals[1],
+                                   " at start of evolution (index " + i +
+                                   "/12)", false);
+              } catch (RuntimeException t) {
+                writeToFile(i1, i2, newIndividuals[1],
+                            "Error in second X-over program");
+                throw t;
+              }
             }
             else {
-              grow = false;
+              a_newPopulation.setGPProgram(i, i1);
+              a_newPopulation.setGPProgram(i + 1, i2);
             }
-            /**@todo use program creator in case such is registered and returns
-             * a non-null program
-             */
-            IGPProgram program = newPopulation.create(i, m_types, m_argTypes,
-                m_nodeSets, m_minDepths, m_maxDepths, depth, grow,
-                m_maxNodes, m_fullModeAllowed, tries);
-            newPopulation.setGPProgram(i, program);
-            checkErroneousProg(program,
-                               " when adding a program, evolution (index " + i +
-                               ")", true);
-            LOGGER.debug("Added new GP program (depth parameter: "
-                         + depth
-                         + ", "
-                         + tries
-                         + " tries)");
+            i++;
             break;
           } catch (IllegalStateException iex) {
             tries++;
-            nogc++;
-            /**@todo instead of re-using prototype, create a program anyway
-             * (ignoring the validator) in case it is the last try.
-             * Or even better: Make the validator return a defect rate!
-             */
-            if ( (maxTries > 0 && tries > maxTries) || tries > 40) {
-              LOGGER.debug(
-                  "Creating random GP program failed (depth "
-                  + depth
-                  + ", "
-                  + tries
-                  + " tries), will use prototype");
+            if ( (maxTries > 0 && tries >= maxTries) || tries > 40) {
+              if (!conf.isMaxNodeWarningPrinted()) {
+                LOGGER.error(
+                    "Warning: Maximum number of nodes allowed may be too small");
+                conf.flagMaxNodeWarningPrinted();
+              }
               // Try cloning a previously generated valid program.
               // -------------------------------------------------
-              IGPProgram program = cloneProgram(getGPConfiguration().
-                  getPrototypeProgram());
+              IGPProgram program = cloneProgram(conf.getPrototypeProgram());
               if (program != null) {
-                // Cloning worked.
-                // ---------------
-                newPopulation.setGPProgram(i, program);
+                a_newPopulation.setGPProgram(i++, program);
+                program = cloneProgram(conf.getPrototypeProgram());
+                a_newPopulation.setGPProgram(i, program);
                 break;
               }
               else {
-                if (getGPConfiguration().getPrototypeProgram() == null) {
-                  throw new IllegalStateException(
-                      "Cloning: Prototype program was null");
-                }
-                else {
-                  throw new IllegalStateException(
-                      "Cloning of prototype program failed, " +
-                      iex.getMessage());
-                }
+                throw new IllegalStateException(iex.getMessage());
               }
             }
-            if (nogc > 5) {
-              nogc = 0;
-              System.gc();
-            }
           }
         } while (true)
         ;
       }
-      LOGGER.debug("Did "
-                   + crossover + " x-overs, "
-                   + reproduction + " reproductions, "
-                   + creation + " creations");
-      // Now set the new population as the active one.
-      // ---------------------------------------------
-      setGPPopulation(newPopulation);
-      // Increase number of generation.
-      // ------------------------------
-      conf.incrementGenerationNr();
-      // Fire an event to indicate we've performed an evolution.
-      // -------------------------------------------------------
-      conf.getEventManager().fireGeneticEvent(
-          new GeneticEvent(GeneticEvent.GPGENOTYPE_EVOLVED_EVENT, this));
-    } catch (InvalidConfigurationException iex) {
-      // This should never happen.
-      // -------------------------
-      throw new IllegalStateException(iex.getMessage());
+      else { //if (val < conf.getCrossoverProb() + conf.getReproductionProb()) {
+        // Reproduction only.
+        // ------------------
+        a_counts[1]++;
+        a_newPopulation.setGPProgram(i, conf.getSelectionMethod().select(this));
+      }
+    }
+  }
+
+  /**
+   * Fills the given range of the new population with new random programs.
+   *
+   * @param a_newPopulation the population to fill
+   * @param a_from first index to fill
+   * @param a_to index after the last one to fill
+   * @param a_gc true: run the garbage collector after some failed tries
+   * @param a_counts receives the number of creations (index 2)
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  protected void createPrograms(GPPopulation a_newPopulation, int a_from,
+                                int a_to, boolean a_gc, int[] a_counts)
+      throws InvalidConfigurationException {
+    GPConfiguration conf = getGPConfiguration();
+    RandomGenerator random = conf.getRandomGenerator();
+    final int maxTries = conf.getProgramCreationMaxtries();
+    for (int i = a_from; i < a_to; i++) {
+      a_counts[2]++;
+      // Randomly determine depth between minInitDepth and maxInitDepth.
+      // ---------------------------------------------------------------
+      int depth = conf.getMinInitDepth()
+          + random.nextInt(conf.getMaxInitDepth() - conf.getMinInitDepth()
+                           + 1);
+      int tries = 0;
+      int nogc = 0;
+      do {
+        try {
+          // Randomize grow option as growing produces a valid program
+          // more likely than the full mode.
+          // ---------------------------------------------------------
+          boolean grow;
+          if (i % 2 == 0 || random.nextInt(8) > 6) {
+            grow = true;
+          }
+          else {
+            grow = false;
+          }
+          /**@todo use program creator in case such is registered and returns
+           * a non-null program
+           */
+          IGPProgram program = a_newPopulation.create(i, m_types, m_argTypes,
+              m_nodeSets, m_minDepths, m_maxDepths, depth, grow,
+              m_maxNodes, m_fullModeAllowed, tries);
+          a_newPopulation.setGPProgram(i, program);
+          checkErroneousProg(program,
+                             " when adding a program, evolution (index " + i +
+                             ")", true);
+          LOGGER.debug("Added new GP program (depth parameter: "
+                       + depth
+                       + ", "
+                       + tries
+                       + " tries)");
+          break;
+        } catch (IllegalStateException iex) {
+          tries++;
+          nogc++;
+          /**@todo instead of re-using prototype, create a program anyway
+           * (ignoring the validator) in case it is the last try.
+           * Or even better: Make the validator return a defect rate!
+           */
+          if ( (maxTries > 0 && tries > maxTries) || tries > 40) {
+            LOGGER.debug(
+                "Creating random GP program failed (depth "
+                + depth
+                + ", "
+                + tries
+                + " tries), will use prototype");
+            // Try cloning a previously generated valid program.
+            // -------------------------------------------------
+            IGPProgram program = cloneProgram(conf.getPrototypeProgram());
+            if (program != null) {
+              // Cloning worked.
+              // ---------------
+              a_newPopulation.setGPProgram(i, program);
+              break;
+            }
+            else {
+              if (conf.getPrototypeProgram() == null) {
+                throw new IllegalStateException(
+                    "Cloning: Prototype program was null");
+              }
+              else {
+                throw new IllegalStateException(
+                    "Cloning of prototype program failed, " +
+                    iex.getMessage());
+              }
+            }
+          }
+          if (a_gc && nogc > 5) {
+            nogc = 0;
+            System.gc();
+          }
+        }
+      } while (true)
+      ;
+    }
+  }
+
+  /**
+   * Breeds the new population with as many tasks as there are breeding
+   * threads configured. Each task fills a contiguous part of the crossover
+   * range and of the creation range, using its own GPExecutionContext with a
+   * random stream split off the random generator of the configuration.
+   * Afterwards, the fitness of the new programs is computed in parallel.<p>
+   * Selection reads the old population only, and each task writes its own
+   * indices of the new population, so the result only depends on the seed and
+   * the number of threads, not on the scheduling of the tasks.
+   *
+   * @param a_newPopulation the population to fill
+   * @param a_crossEnd index after the last one filled by crossover and
+   * reproduction
+   * @param a_popSize size of the new population
+   * @param a_injectFittest true: the new population holds a fittest program
+   * to add, which is returned by its first call of method create
+   * @param a_counts receives the number of crossovers, reproductions and
+   * creations
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  protected void evolveParallel(final GPPopulation a_newPopulation,
+                                int a_crossEnd, int a_popSize,
+                                boolean a_injectFittest, int[] a_counts)
+      throws InvalidConfigurationException {
+    GPConfiguration conf = getGPConfiguration();
+    int threads = conf.getBreedingThreads();
+    // Selection reads the fitness values of the old population, so compute
+    // them beforehand.
+    // --------------------------------------------------------------------
+    evaluateParallel(getGPPopulation());
+    // Inject the fittest program before forking, as the first call of create
+    // returns it.
+    // ----------------------------------------------------------------------
+    int createStart = a_crossEnd;
+    if (a_injectFittest && createStart < a_popSize) {
+      createPrograms(a_newPopulation, createStart, createStart + 1, false,
+                     a_counts);
+      createStart++;
+    }
+    RandomGenerator random = conf.getRandomGenerator();
+    List<Callable<int[]>> tasks = new ArrayList<Callable<int[]>>(threads);
+    for (int t = 0; t < threads; t++) {
+      // Split both ranges into contiguous chunks of (nearly) equal size.
+      // ----------------------------------------------------------------
+      final int crossFrom = (int) ( (long) a_crossEnd * t / threads);
+      final int crossTo = (int) ( (long) a_crossEnd * (t + 1) / threads);
+      final int createFrom = createStart
+          + (int) ( (long) (a_popSize - createStart) * t / threads);
+      final int createTo = createStart
+          + (int) ( (long) (a_popSize - createStart) * (t + 1) / threads);
+      final GPExecutionContext context = new GPExecutionContext(conf);
+      context.setRandomGenerator(createRandomStream(random.nextLong()));
+      tasks.add(new Callable<int[]>() {
+        public int[] call()
+            throws Exception {
+          int[] counts = new int[3];
+          context.enter();
+          try {
+            breed(a_newPopulation, crossFrom, crossTo, crossTo, counts);
+            createPrograms(a_newPopulation, createFrom, createTo, false,
+                           counts);
+          } finally {
+            context.exit();
+          }
+          return counts;
+        }
+      });
+    }
+    List<int[]> results = invokeAll(tasks);
+    for (int[] counts : results) {
+      for (int i = 0; i < counts.length; i++) {
+        a_counts[i] += counts[i];
+      }
+    }
+    evaluateParallel(a_newPopulation);
+  }
+
+  /**
+   * Computes the fitness value of all programs of a population in parallel,
+   * using as many tasks as there are breeding threads configured. Each task
+   * has its own GPExecutionContext. A program contained more than once in the
+   * population is only evaluated once.
+   *
+   * @param a_pop the population to evaluate
+   *
+   * @since 3.7
+   */
+  protected void evaluateParallel(GPPopulation a_pop) {
+    GPConfiguration conf = getGPConfiguration();
+    int threads = conf.getBreedingThreads();
+    Map<IGPProgram, Boolean> seen = new IdentityHashMap<IGPProgram, Boolean>();
+    final List<IGPProgram> todo = new ArrayList<IGPProgram>(a_pop.size());
+    for (int i = 0; i < a_pop.size(); i++) {
+      IGPProgram program = a_pop.getGPProgram(i);
+      if (program != null && seen.put(program, Boolean.TRUE) == null) {
+        todo.add(program);
+      }
+    }
+    int size = todo.size();
+    int tasksCount = Math.min(size, threads);
+    RandomGenerator random = conf.getRandomGenerator();
+    List<Callable<int[]>> tasks = new ArrayList<Callable<int[]>>(tasksCount);
+    for (int t = 0; t < tasksCount; t++) {
+      final int from = (int) ( (long) size * t / tasksCount);
+      final int to = (int) ( (long) size * (t + 1) / tasksCount);
+      final GPExecutionContext context = new GPExecutionContext(conf);
+      context.setRandomGenerator(createRandomStream(random.nextLong()));
+      tasks.add(new Callable<int[]>() {
+        public int[] call() {
+          context.enter();
+          try {
+            for (int i = from; i < to; i++) {
+              try {
+                todo.get(i).getFitnessValue();
+              } catch (IllegalStateException iex) {
+                // Left to calcFitness, which ignores such programs.
+                // -------------------------------------------------
+              }
+            }
+          } finally {
+            context.exit();
+          }
+          return null;
+        }
+      });
+    }
+    invokeAll(tasks);
+  }
+
+  /**
+   * Creates the random stream of a parallel task.
+   *
+   * @param a_seed seed drawn from the random generator of the configuration
+   * @return new random generator seeded with the given seed, by default a
+   * XoshiroRandomGenerator
+   *
+   * @since 3.7
+   */
+  protected RandomGenerator createRandomStream(long a_seed) {
+    return new XoshiroRandomGenerator(a_seed);
+  }
+
+  /**
+   * Runs the given tasks on the breeding executor and waits for all of them,
+   * even if one failed.
+   *
+   * @param a_tasks the tasks to run
+   * @return the results of the tasks in the order of the tasks
+   *
+   * @since 3.7
+   */
+  private List<int[]> invokeAll(List<Callable<int[]>> a_tasks) {
+    List<Future<int[]>> futures;
+    try {
+      futures = getExecutor().invokeAll(a_tasks);
+    } catch (InterruptedException iex) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Evolution interrupted", iex);
+    }
+    List<int[]> results = new ArrayList<int[]>(futures.size());
+    RuntimeException failure = null;
+    for (Future<int[]> future : futures) {
+      try {
+        results.add(future.get());
+      } catch (InterruptedException iex) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Evolution interrupted", iex);
+      } catch (ExecutionException eex) {
+        if (failure == null) {
+          Throwable cause = eex.getCause();
+          if (cause instanceof RuntimeException) {
+            failure = (RuntimeException) cause;
+          }
+          else {
+            failure = new IllegalStateException(cause.getMessage(), cause);
+          }
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    return results;
+  }
+
+  /**
+   * @return executor with as many daemon threads as breeding threads are
+   * configured
+   *
+   * @since 3.7
+   */
+  private synchronized ExecutorService getExecutor() {
+    int threads = getGPConfiguration().getBreedingThreads();
+    if (m_executor == null || m_executorThreads != threads) {
+      if (m_executor != null) {
+        m_executor.shutdown();
+      }
+      m_executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+        public Thread newThread(Runnable a_runnable) {
+          Thread t = new Thread(a_runnable, "JGAP GP breeding");
+          t.setDaemon(true);
+          return t;
+        }
+      });
+      m_executorThreads = threads;
+    }
+    return m_executor;
+  }
+
+  /**
+   * Stops the threads breeding concurrently. They are daemon threads, but an
+   * application creating many genotypes, e.g. one per run, should call this
+   * when a genotype is not used anymore. A later evolution step creates new
+   * threads if needed.
+   *
+   * @since 3.7
+   */
+  public synchronized void shutdown() {
+    if (m_executor != null) {
+      m_executor.shutdown();
+      m_executor = null;
+      m_executorThreads = 0;
     }
   }
 
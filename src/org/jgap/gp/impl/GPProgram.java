@@ -308,6 +308,48 @@ public class GPProgram
     return m_chromosomes.length;
   }
 
+  /**
+   * @return structural hash over all chromosomes, see
+   * ProgramChromosome.getStructuralHash(int)
+   *
+   * @since 3.7
+   */
+  public long getStructuralHash() {
+    long hash = m_chromosomes.length;
+    for (int i = 0; i < m_chromosomes.length; i++) {
+      m_chromosomes[i].setIndividual(this);
+      hash = hash * 31 + m_chromosomes[i].getStructuralHash();
+    }
+    return hash;
+  }
+
+  /**
+   * Checks whether the given program has the same chromosomes as this one,
+   * structurally. This is much cheaper than comparing the normalized string
+   * representations.
+   *
+   * @param a_other the program to compare with
+   * @return true: same structure, see ProgramChromosome.isSameStructure
+   *
+   * @since 3.7
+   */
+  public boolean isSameStructure(GPProgram a_other) {
+    if (a_other == this) {
+      return true;
+    }
+    if (a_other == null || a_other.m_chromosomes.length != m_chromosomes.length) {
+      return false;
+    }
+    for (int i = 0; i < m_chromosomes.length; i++) {
+      m_chromosomes[i].setIndividual(this);
+      a_other.m_chromosomes[i].setIndividual(a_other);
+      if (!m_chromosomes[i].isSameStructure(a_other.m_chromosomes[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Builds a string that represents the output of the GPProgram in
    * left-hand-notion.
@@ -418,9 +460,28 @@ public class GPProgram
    */
   public double execute_double(int a_chromosomeNum, Object[] a_args) {
     m_chromosomes[a_chromosomeNum].setIndividual(this);
+    if (getGPConfiguration().isCompilePrograms()) {
+      return m_chromosomes[a_chromosomeNum].execute_double_compiled(a_args);
+    }
     return m_chromosomes[a_chromosomeNum].execute_double(a_args);
   }
 
+  /**
+   * Executes the given chromosome as a double function for a whole batch of
+   * input rows at once.
+   *
+   * @param a_chromosomeNum the index of the chromosome to execute
+   * @param a_columns the input columns, each of them holding one value per row
+   * @param a_out receives the double return value for each row
+   *
+   * @since 3.7
+   */
+  public void execute_double_batch(int a_chromosomeNum, double[][] a_columns,
+                                   double[] a_out) {
+    m_chromosomes[a_chromosomeNum].setIndividual(this);
+    m_chromosomes[a_chromosomeNum].execute_double_batch(a_columns, a_out);
+  }
+
   /**
    * Executes the given chromosome as a boolean function.
    *
@@ -11,30 +11,61 @@ package org.jgap.gp.impl;
 
 /**
  * Holds information about a program. Used for caching GP programs during GP
- * evolution.
+ * evolution. Programs are identified by their structural hash, see
+ * GPProgram.getStructuralHash(). The normalized string representation is only
+ * built on request.
  *
  * @author Klaus Meffert
  * @since 3.2
  */
 public class GPProgramInfo {
-  private double m_fitnessValue;
+  private GPProgram m_program;
+
+  private long m_structuralHash;
 
   private String m_toStringNorm;
 
   private boolean m_found;
 
   public GPProgramInfo(GPProgram a_prog, boolean a_found) {
-    m_fitnessValue = a_prog.getFitnessValueDirectly();
-    m_toStringNorm = a_prog.toStringNorm(0);
+    m_program = a_prog;
+    m_structuralHash = a_prog.getStructuralHash();
     m_found = a_found;
   }
 
   public String getToStringNorm() {
+    if (m_toStringNorm == null) {
+      m_toStringNorm = m_program.toStringNorm(0);
+    }
     return m_toStringNorm;
   }
 
+  /**
+   * @return structural hash of the program
+   *
+   * @since 3.7
+   */
+  public long getStructuralHash() {
+    return m_structuralHash;
+  }
+
+  /**
+   * @param a_prog the program to compare with
+   * @return true: the given program has the same structure as the program
+   * described by this info
+   *
+   * @since 3.7
+   */
+  public boolean isSameStructure(GPProgram a_prog) {
+    return m_structuralHash == a_prog.getStructuralHash()
+        && m_program.isSameStructure(a_prog);
+  }
+
+  /**
+   * @return the fitness value of the program, as far as it is computed
+   */
   public double getFitnessValue() {
-    return m_fitnessValue;
+    return m_program.getFitnessValueDirectly();
   }
 
   public boolean isFound() {
@@ -47,22 +78,15 @@ public class GPProgramInfo {
 
   public boolean equals(Object a_other) {
     GPProgramInfo other = (GPProgramInfo) a_other;
-    if (m_toStringNorm == null) {
-      if (other.m_toStringNorm == null) {
-        return true;
-      }
-      return false;
-    }
-    return m_toStringNorm.equals(other.m_toStringNorm);
+    return other.isSameStructure(m_program);
+  }
+
+  public int hashCode() {
+    return (int) (m_structuralHash ^ (m_structuralHash >>> 32));
   }
 
   public int compareTo(Object a_other) {
     GPProgramInfo other = (GPProgramInfo) a_other;
-    if (m_toStringNorm == null) {
-      if (other.m_toStringNorm == null) {
-        return 0;
-      }
-    }
-    return m_toStringNorm.compareTo(other.m_toStringNorm);
+    return getToStringNorm().compareTo(other.getToStringNorm());
   }
 }
@@ -0,0 +1,204 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.gp.impl;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.jgap.gp.*;
+
+/**
+ * Index of a function set by return type and sub return type, used by
+ * ProgramChromosome.selectNode to find the candidate nodes without scanning
+ * the whole function set. The order of the nodes within the function set is
+ * preserved, so that the random selection is not affected.
+ *
+ * @since 3.7
+ */
+class NodeTable {
+  /**
+   * Per command class: may the arity change or depend on the individual?
+   */
+  private final static Map<Class, Boolean> DYNAMIC_ARITY =
+      new ConcurrentHashMap<Class, Boolean>();
+
+  private final CommandGene[] m_functionSet;
+
+  /**
+   * Buckets by return type and sub return type.
+   */
+  private final Map<Class, Map<Integer, Bucket>> m_buckets =
+      new ConcurrentHashMap<Class, Map<Integer, Bucket>>();
+
+  /**
+   * @param a_functionSet the function set to index, must not be modified
+   * afterwards
+   *
+   * @since 3.7
+   */
+  NodeTable(CommandGene[] a_functionSet) {
+    m_functionSet = a_functionSet;
+  }
+
+  /**
+   * @param a_returnType the return type of the nodes
+   * @param a_subReturnType the sub return type of the nodes, 0 for any
+   * @return the nodes of the function set with the given types, in order of
+   * the function set
+   *
+   * @since 3.7
+   */
+  Bucket getBucket(Class a_returnType, int a_subReturnType) {
+    Map<Integer, Bucket> buckets = m_buckets.get(a_returnType);
+    if (buckets == null) {
+      buckets = new ConcurrentHashMap<Integer, Bucket>();
+      m_buckets.put(a_returnType, buckets);
+    }
+    Integer subReturnType = Integer.valueOf(a_subReturnType);
+    Bucket bucket = buckets.get(subReturnType);
+    if (bucket == null) {
+      bucket = new Bucket(a_returnType, a_subReturnType);
+      buckets.put(subReturnType, bucket);
+    }
+    return bucket;
+  }
+
+  /**
+   * Nodes of one return type and sub return type.
+   */
+  class Bucket {
+    /**
+     * All nodes with matching types.
+     */
+    final CommandGene[] m_all;
+
+    /**
+     * Nodes with matching types and arity 0.
+     */
+    final CommandGene[] m_terminals;
+
+    /**
+     * Nodes with matching types and an arity other than 0.
+     */
+    final CommandGene[] m_functions;
+
+    /**
+     * True if the arity of a node may change or depend on the individual. If
+     * so, m_terminals and m_functions must not be used.
+     */
+    final boolean m_dynamic;
+
+    Bucket(Class a_returnType, int a_subReturnType) {
+      List<CommandGene> all = new ArrayList<CommandGene>();
+      List<CommandGene> terminals = new ArrayList<CommandGene>();
+      List<CommandGene> functions = new ArrayList<CommandGene>();
+      boolean dynamic = false;
+      for (int i = 0; i < m_functionSet.length; i++) {
+        CommandGene node = m_functionSet[i];
+        if (node.getReturnType() == a_returnType
+            && (a_subReturnType == 0
+                || a_subReturnType == node.getSubReturnType())) {
+          all.add(node);
+          if (isDynamicArity(node.getClass())) {
+            dynamic = true;
+          }
+          else if (node.getArity(null) == 0) {
+            terminals.add(node);
+          }
+          else {
+            functions.add(node);
+          }
+        }
+      }
+      m_all = all.toArray(new CommandGene[all.size()]);
+      m_terminals = terminals.toArray(new CommandGene[terminals.size()]);
+      m_functions = functions.toArray(new CommandGene[functions.size()]);
+      m_dynamic = dynamic;
+    }
+
+    /**
+     * @param a_function true to choose a function, false to choose a terminal
+     * @param a_growing true to ignore the function parameter
+     * @return the candidates, only valid if the bucket is not dynamic
+     */
+    CommandGene[] getCandidates(boolean a_function, boolean a_growing) {
+      if (!a_function) {
+        return m_terminals;
+      }
+      if (a_growing) {
+        return m_all;
+      }
+      return m_functions;
+    }
+  }
+
+  private static boolean isDynamicArity(Class a_class) {
+    Boolean result = DYNAMIC_ARITY.get(a_class);
+    if (result == null) {
+      boolean dynamic = CommandDynamicArity.class.isAssignableFrom(a_class);
+      try {
+        if (a_class.getMethod("getArity", new Class[] {IGPProgram.class}).
+            getDeclaringClass() != CommandGene.class
+            || a_class.getMethod("dynamizeArity", new Class[0]).
+            getDeclaringClass() != CommandGene.class) {
+          dynamic = true;
+        }
+      } catch (NoSuchMethodException nex) {
+        dynamic = true;
+      }
+      result = Boolean.valueOf(dynamic);
+      DYNAMIC_ARITY.put(a_class, result);
+    }
+    return result.booleanValue();
+  }
+
+  /**
+   * Key comparing its elements by identity.
+   */
+  static class Key {
+    private final Object[] m_elements;
+
+    private final int m_hashCode;
+
+    /**
+     * @param a_elements the elements, the array must not be modified
+     * afterwards
+     */
+    Key(Object[] a_elements) {
+      m_elements = a_elements;
+      int hash = a_elements.length;
+      for (int i = 0; i < a_elements.length; i++) {
+        hash = 31 * hash + System.identityHashCode(a_elements[i]);
+      }
+      m_hashCode = hash;
+    }
+
+    public int hashCode() {
+      return m_hashCode;
+    }
+
+    public boolean equals(Object a_other) {
+      if (! (a_other instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) a_other;
+      if (other.m_hashCode != m_hashCode
+          || other.m_elements.length != m_elements.length) {
+        return false;
+      }
+      for (int i = 0; i < m_elements.length; i++) {
+        if (other.m_elements[i] != m_elements[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -78,6 +78,61 @@ public class ProgramChromosome
    */
   private boolean m_compareAppData;
 
+  /**
+   * Indices of the children of each node, derived from m_depth. Built lazily
+   * and discarded whenever the depths or the genes change.
+   *
+   * @since 3.7
+   */
+  private transient volatile int[][] m_children;
+
+  /**
+   * Compiled form of this chromosome for evaluation as a double. Built lazily
+   * and discarded whenever the depths or the genes change.
+   *
+   * @since 3.7
+   */
+  private transient volatile IDoubleNode m_compiledDouble;
+
+  /**
+   * Structural hash of the subtree starting at each node. Built lazily and
+   * discarded whenever the depths or the genes change.
+   *
+   * @since 3.7
+   */
+  private transient volatile long[] m_hashes;
+
+  private final static int[] NO_CHILDREN = new int[0];
+
+  /**
+   * Function set m_nodeTable belongs to.
+   *
+   * @since 3.7
+   */
+  private transient CommandGene[] m_nodeTableSet;
+
+  private transient NodeTable m_nodeTable;
+
+  /**
+   * Buffer for candidates of selectNode that need to be checked one by one.
+   *
+   * @since 3.7
+   */
+  private transient CommandGene[] m_candidates;
+
+  /**
+   * Per gene class and method: is the method declared along with
+   * execute_double?
+   */
+  private final static Map<Class, Map<String, Boolean>> DECLARED_WITH =
+      new java.util.concurrent.ConcurrentHashMap<Class, Map<String, Boolean>>();
+
+  /**
+   * Per gene class: is cleanup overridden?
+   */
+  private final static Map<Class, Boolean> NEEDS_CLEANUP =
+      new java.util.concurrent.ConcurrentHashMap<Class, Boolean>();
+
   public ProgramChromosome(GPConfiguration a_conf, int a_size)
       throws InvalidConfigurationException {
     super(a_conf);
@@ -268,6 +323,8 @@ public class ProgramChromosome
       // Build the (rest of the) GP program.
       // -----------------------------------
       int localDepth = a_depth;
+      invalidate();
+      m_nodeTableSet = null;
       m_index = 0;
       m_maxDepth = localDepth;
       growOrFullNode(a_num, localDepth, a_type, 0, m_functionSet, n, 0, a_grow,
@@ -492,40 +549,49 @@ public class ProgramChromosome
                                    int a_subReturnType,
                                    CommandGene[] a_functionSet,
                                    boolean a_function, boolean a_growing) {
-    // Determine possible functions.
-    // -----------------------------
-    Vector<CommandGene> possibleFunctions=new Vector<CommandGene>(0);
+    // Determine possible functions via the node table.
+    // ------------------------------------------------
+    if (a_functionSet != m_nodeTableSet) {
+      m_nodeTable = getGPConfiguration().getNodeTable(a_functionSet);
+      m_nodeTableSet = a_functionSet;
+    }
+    NodeTable.Bucket bucket = m_nodeTable.getBucket(a_returnType,
+        a_subReturnType);
     IGPProgram ind = getIndividual();
     ISingleNodeValidator singleNodeValidator = getGPConfiguration().
         getSingleNodeValidator();
-    for (int i = 0; i < a_functionSet.length; i++) {
-      if (a_functionSet[i].getReturnType() == a_returnType
-          && (a_subReturnType == 0
-              || a_subReturnType == a_functionSet[i].getSubReturnType())) {
-        if (a_functionSet[i].getArity(ind) == 0 && (!a_function || a_growing)) {
-          // Verify if function/terminal is allowed here.
-          // --------------------------------------------
-          if (singleNodeValidator == null ||
-              singleNodeValidator.isAllowed(a_chromIndex, this, a_functionSet,
-              a_functionSet[i], a_returnType, a_subReturnType, m_index)) {
-            possibleFunctions.add(a_functionSet[i]);
-          }
-        }
-        if (a_functionSet[i].getArity(ind) != 0 && a_function) {
+    CommandGene[] possibleFunctions;
+    int count;
+    if (singleNodeValidator == null && !bucket.m_dynamic) {
+      possibleFunctions = bucket.getCandidates(a_function, a_growing);
+      count = possibleFunctions.length;
+    }
+    else {
+      // Check each node of matching type.
+      // ---------------------------------
+      CommandGene[] all = bucket.m_all;
+      if (m_candidates == null || m_candidates.length < all.length) {
+        m_candidates = new CommandGene[all.length];
+      }
+      possibleFunctions = m_candidates;
+      count = 0;
+      for (int i = 0; i < all.length; i++) {
+        int arity = all[i].getArity(ind);
+        if (arity == 0 && (!a_function || a_growing)
+            || arity != 0 && a_function) {
           // Verify if function/terminal is allowed here.
           // --------------------------------------------
           if (singleNodeValidator == null ||
               singleNodeValidator.isAllowed(a_chromIndex, this, a_functionSet,
-              a_functionSet[i],
-              a_returnType, a_subReturnType, m_index)) {
-            possibleFunctions.add(a_functionSet[i]);
+              all[i], a_returnType, a_subReturnType, m_index)) {
+            possibleFunctions[count++] = all[i];
           }
         }
       }
     }
     // Error handing in case no valid function found.
     // ----------------------------------------------
-    if (possibleFunctions.isEmpty()) {
+    if (count == 0) {
       if (a_growing && (a_returnType == CommandGene.VoidClass
                         || a_returnType == Void.class)) {
         // We simply return a NOP, it does nothing :-)
@@ -561,9 +627,11 @@ public class ProgramChromosome
     }
     // Select a function randomly.
     // ---------------------------
-    int index = getGPConfiguration().getRandomGenerator().nextInt(
-        possibleFunctions.size());
-    CommandGene n = possibleFunctions.elementAt(index);
+    int index = getGPConfiguration().getRandomGenerator().nextInt(count);
+    CommandGene n = possibleFunctions[index];
+    if (possibleFunctions == m_candidates) {
+      Arrays.fill(m_candidates, 0, count, null);
+    }
     return n;
   }
 
@@ -631,7 +699,16 @@ public class ProgramChromosome
         if (random.nextDouble() <= conf.getMutationProb()) {
           if (IMutateable.class.isAssignableFrom(node.getClass())) {
             try {
-              CommandGene node2 = ( (IMutateable) node).applyMutation(0,
+              CommandGene mutant = node;
+              if (GPExecutionContext.getCurrent() != null
+                  && !conf.isNoCommandGeneCloning()
+                  && node instanceof ICloneable) {
+                // Programs may be created concurrently, so do not mutate the
+                // node of the function set shared by all threads.
+                // ----------------------------------------------------------
+                mutant = (CommandGene) ( (ICloneable) node).clone();
+              }
+              CommandGene node2 = ( (IMutateable) mutant).applyMutation(0,
                   random.nextDouble());
               // Check if mutant's function is allowed.
               // --------------------------------------
@@ -661,6 +738,7 @@ public class ProgramChromosome
     // Generate the new node.
     // ----------------------
     m_depth[m_index] = m_maxDepth - a_depth;
+    invalidate();
     // Optional dynamize the arity for commands with a flexible number
     // of children. Normally, dynamizeArity does nothing, see declaration
     // of method in CommandGene, which can be overridden in sub classes.
@@ -727,10 +805,177 @@ public class ProgramChromosome
    * @since 3.0
    */
   public void redepth() {
+    invalidate();
     m_depth[0] = 0;
     redepth(0);
   }
 
+  /**
+   * Discards the child index table, the compiled program and the structural
+   * hashes. Must be called whenever a depth or a gene changes.
+   *
+   * @since 3.7
+   */
+  protected void invalidate() {
+    m_children = null;
+    m_compiledDouble = null;
+    m_hashes = null;
+  }
+
+  /**
+   * @return structural hash of the whole chromosome, see
+   * getStructuralHash(int)
+   *
+   * @since 3.7
+   */
+  public long getStructuralHash() {
+    if (m_genes.length == 0 || m_genes[0] == null) {
+      return 0;
+    }
+    return getStructuralHash(0);
+  }
+
+  /**
+   * Returns a 64 bit hash of the subtree starting at the given node. The hash
+   * of a node combines CommandGene.nodeHashCode() of the node with the hashes
+   * of its children, so equal subtrees have equal hashes in any chromosome.
+   * The hashes of all nodes are computed in one pass from the last node to the
+   * first one and kept until the chromosome is modified.
+   *
+   * @param a_node index of the root node of the subtree
+   * @return structural hash of the subtree
+   *
+   * @since 3.7
+   */
+  public long getStructuralHash(int a_node) {
+    long[] hashes = m_hashes;
+    if (hashes == null) {
+      int len = size();
+      hashes = new long[len];
+      int[][] children = getChildTable();
+      IGPProgram ind = getIndividual();
+      for (int i = len - 1; i >= 0; i--) {
+        long hash = m_genes[i].nodeHashCode();
+        int arity;
+        if (children != null) {
+          arity = children[i].length;
+        }
+        else {
+          arity = m_genes[i].getArity(ind);
+        }
+        for (int j = 0; j < arity; j++) {
+          int child;
+          if (children != null) {
+            child = children[i][j];
+          }
+          else {
+            child = scanChild(i, j);
+          }
+          hash = hash * 31 + hashes[child];
+        }
+        hashes[i] = mix(hash * 31 + arity);
+      }
+      m_hashes = hashes;
+    }
+    return hashes[a_node];
+  }
+
+  private static long mix(long a_hash) {
+    // Finalizer of SplitMix64, spreads each input bit over the whole hash.
+    // --------------------------------------------------------------------
+    long z = a_hash;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Checks whether the given chromosome consists of the same nodes in the same
+   * order as this one, node by node via CommandGene.isSameNode. Both
+   * chromosomes are in prefix order, so this implies the same tree as long as
+   * the arity of a node only depends on the node itself. Chromosomes with the
+   * same structure have the same normalized string representation.
+   *
+   * @param a_other the chromosome to compare with
+   * @return true: same structure
+   *
+   * @since 3.7
+   */
+  public boolean isSameStructure(ProgramChromosome a_other) {
+    if (a_other == this) {
+      return true;
+    }
+    if (a_other == null) {
+      return false;
+    }
+    int len = size();
+    if (len != a_other.size()) {
+      return false;
+    }
+    if (getStructuralHash() != a_other.getStructuralHash()) {
+      return false;
+    }
+    for (int i = 0; i < len; i++) {
+      if (!m_genes[i].isSameNode(a_other.m_genes[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Builds the child index table in linear time. The result is the same as
+   * scanning for nodes whose depth is one more than the depth of the parent,
+   * see getChild(int, int).
+   *
+   * @return the child indices of each node, or null if the depths are not
+   * available for all genes
+   *
+   * @since 3.7
+   */
+  private int[][] getChildTable() {
+    int[][] children = m_children;
+    if (children == null) {
+      int len = m_genes.length;
+      if (m_depth == null || m_depth.length != len) {
+        return null;
+      }
+      // The stack holds the nodes whose subtree contains the current node,
+      // with strictly increasing depths. Only the top of the stack may be the
+      // parent of the current node.
+      // ------------------------------------------------------------------
+      int[] stack = new int[len];
+      int[] count = new int[len];
+      int[] parent = new int[len];
+      int top = -1;
+      for (int i = 0; i < len; i++) {
+        while (top >= 0 && m_depth[stack[top]] >= m_depth[i]) {
+          top--;
+        }
+        if (top >= 0 && m_depth[i] == m_depth[stack[top]] + 1) {
+          parent[i] = stack[top];
+          count[stack[top]]++;
+        }
+        else {
+          parent[i] = -1;
+        }
+        stack[++top] = i;
+      }
+      children = new int[len][];
+      for (int i = 0; i < len; i++) {
+        children[i] = count[i] == 0 ? NO_CHILDREN : new int[count[i]];
+        count[i] = 0;
+      }
+      for (int i = 0; i < len; i++) {
+        if (parent[i] >= 0) {
+          children[parent[i]][count[parent[i]]++] = i;
+        }
+      }
+      m_children = children;
+    }
+    return children;
+  }
+
   /**
    * Calculate the depth of the next node and the indices of the children
    * of the current node.
@@ -785,6 +1030,14 @@ public class ProgramChromosome
    * @since 3.01
    */
   public int getChild(int a_index, int a_child) {
+    int[][] children = getChildTable();
+    if (children != null && a_child >= 0 && a_child < children[a_index].length) {
+      return children[a_index][a_child];
+    }
+    return scanChild(a_index, a_child);
+  }
+
+  private int scanChild(int a_index, int a_child) {
     int len = getFunctions().length;
     for (int i = a_index + 1; i < len; i++) {
       if (m_depth[i] <= m_depth[a_index]) {
@@ -843,6 +1096,7 @@ public class ProgramChromosome
   public void setFunctions(CommandGene[] a_functions)
       throws InvalidConfigurationException {
     m_genes = a_functions;
+    invalidate();
   }
 
   /**
@@ -1104,6 +1358,220 @@ public class ProgramChromosome
     return rtn;
   }
 
+  /**
+   * Executes this chromosome as a double using its compiled form, see
+   * getCompiledDouble(). Returns the same as execute_double(Object[]).
+   *
+   * @param args the arguments for execution
+   * @return the double return value of this chromosome
+   *
+   * @since 3.7
+   */
+  public double execute_double_compiled(Object[] args) {
+    return getCompiledDouble().execute_double(args);
+  }
+
+  /**
+   * Returns the compiled form of this chromosome for evaluation as a double.
+   * Each node is compiled via CommandGene.compileDouble, nodes not supporting
+   * compilation are interpreted. The result is cached until the chromosome
+   * is modified.
+   *
+   * @return the compiled chromosome, including the cleanup after execution
+   *
+   * @since 3.7
+   */
+  public IDoubleNode getCompiledDouble() {
+    IDoubleNode compiled = m_compiledDouble;
+    if (compiled == null) {
+      synchronized (this) {
+        compiled = m_compiledDouble;
+        if (compiled == null) {
+          compiled = compileRoot();
+          m_compiledDouble = compiled;
+        }
+      }
+    }
+    return compiled;
+  }
+
+  private IDoubleNode compileRoot() {
+    final IDoubleNode root = compileDouble(0);
+    List<CommandGene> cleanup = new Vector();
+    int len = m_genes.length;
+    for (int i = 0; i < len; i++) {
+      if (m_genes[i] == null) {
+        break;
+      }
+      if (needsCleanup(m_genes[i].getClass())) {
+        cleanup.add(m_genes[i]);
+      }
+    }
+    if (cleanup.isEmpty()) {
+      return root;
+    }
+    final CommandGene[] genes = cleanup.toArray(new CommandGene[cleanup.size()]);
+    return new IDoubleNode() {
+      public double execute_double(Object[] args) {
+        double rtn = root.execute_double(args);
+        for (int i = 0; i < genes.length; i++) {
+          genes[i].cleanup();
+        }
+        return rtn;
+      }
+    };
+  }
+
+  private IDoubleNode compileDouble(final int a_index) {
+    final CommandGene gene = m_genes[a_index];
+    if (isDeclaredWithExecuteDouble(gene.getClass(), "compileDouble",
+                                    new Class[] {ProgramChromosome.class,
+                                    int.class, IDoubleNode[].class})) {
+      int arity = gene.getArity(getIndividual());
+      IDoubleNode[] children = new IDoubleNode[arity];
+      try {
+        for (int i = 0; i < arity; i++) {
+          children[i] = compileDouble(getChild(a_index, i));
+        }
+      } catch (RuntimeException rex) {
+        // Malformed subtree: leave it to the interpreter to report.
+        // ---------------------------------------------------------
+        children = null;
+      }
+      if (children != null) {
+        IDoubleNode node = gene.compileDouble(this, a_index, children);
+        if (node != null) {
+          return node;
+        }
+      }
+    }
+    return new IDoubleNode() {
+      public double execute_double(Object[] args) {
+        return gene.execute_double(ProgramChromosome.this, a_index, args);
+      }
+    };
+  }
+
+  /**
+   * Checks whether a method of a gene class is declared in the same class as
+   * execute_double(ProgramChromosome, int, Object[]). Only then can an
+   * optimized variant of execute_double be trusted to behave the same, as a
+   * sub class could have overridden execute_double alone. The result is
+   * cached per class.
+   *
+   * @param a_class the gene class to check
+   * @param a_method name of the (public or protected) method
+   * @param a_params parameter types of the method
+   * @return true: method is declared along with execute_double
+   *
+   * @since 3.7
+   */
+  public static boolean isDeclaredWithExecuteDouble(Class a_class,
+      String a_method, Class[] a_params) {
+    Map<String, Boolean> methods = DECLARED_WITH.get(a_class);
+    if (methods == null) {
+      methods = new java.util.concurrent.ConcurrentHashMap<String, Boolean>();
+      DECLARED_WITH.put(a_class, methods);
+    }
+    Boolean result = methods.get(a_method);
+    if (result == null) {
+      Class execDecl = findDeclaringClass(a_class, "execute_double",
+          new Class[] {ProgramChromosome.class, int.class, Object[].class});
+      Class methDecl = findDeclaringClass(a_class, a_method, a_params);
+      result = Boolean.valueOf(execDecl != null && execDecl == methDecl);
+      methods.put(a_method, result);
+    }
+    return result.booleanValue();
+  }
+
+  private static Class findDeclaringClass(Class a_class, String a_method,
+                                          Class[] a_params) {
+    for (Class c = a_class; c != null; c = c.getSuperclass()) {
+      try {
+        c.getDeclaredMethod(a_method, a_params);
+        return c;
+      } catch (NoSuchMethodException nex) {
+        ; // Look in super class.
+      }
+    }
+    return null;
+  }
+
+  private static boolean needsCleanup(Class a_class) {
+    Boolean result = NEEDS_CLEANUP.get(a_class);
+    if (result == null) {
+      try {
+        result = Boolean.valueOf(a_class.getMethod("cleanup", new Class[0]).
+                                 getDeclaringClass() != CommandGene.class);
+      } catch (NoSuchMethodException nex) {
+        result = Boolean.TRUE;
+      }
+      NEEDS_CLEANUP.put(a_class, result);
+    }
+    return result.booleanValue();
+  }
+
+  /**
+   * Executes this chromosome as a double for a whole batch of input rows.
+   * Each node is evaluated once over all rows where supported, see
+   * CommandGene.execute_double_batch.
+   *
+   * @param a_columns the input columns, each of them holding one value per
+   * row; variables are bound to them via Variable.setColumn(int)
+   * @param a_out receives the return value of this chromosome for each row
+   *
+   * @since 3.7
+   */
+  public void execute_double_batch(double[][] a_columns, double[] a_out) {
+    m_genes[0].execute_double_batch(this, 0, a_columns, a_out);
+    cleanup();
+  }
+
+  public void execute_double_batch(int n, int child, double[][] a_columns,
+                                   double[] a_out) {
+    int other;
+    if (child == 0) {
+      other = n + 1;
+    }
+    else {
+      other = getChild(n, child);
+    }
+    m_genes[other].execute_double_batch(this, other, a_columns, a_out);
+  }
+
+  /**
+   * Interprets the subtree starting at the given node row by row. Variables
+   * bound to a column read the value of the current row, their values are not
+   * changed. Used for nodes not supporting column-wise evaluation.
+   * The current row is held by the execution context entered on the calling
+   * thread (or a context kept per thread if none is entered), not by the
+   * chromosome, as chromosomes may be shared between programs evaluated
+   * concurrently, see GPExecutionContext.getRowContext().
+   *
+   * @param n the index of the node at which to start
+   * @param a_columns the input columns, each of them holding one value per row
+   * @param a_out receives the value of the node for each row
+   *
+   * @since 3.7
+   */
+  public void execute_double_rows(int n, double[][] a_columns, double[] a_out) {
+    GPExecutionContext context = GPExecutionContext.obtainRowContext(
+        getGPConfiguration());
+    double[][] columns = context.getRowColumns();
+    int row = context.getRow();
+    context.setRowColumns(a_columns);
+    try {
+      Object[] noargs = new Object[0];
+      for (int i = 0; i < a_out.length; i++) {
+        context.setRow(i);
+        a_out[i] = m_genes[n].execute_double(this, n, noargs);
+      }
+    } finally {
+      context.setRowColumns(columns);
+      context.setRow(row);
+    }
+  }
+
   public double execute_double(int n, int child, Object[] args) {
     if (child == 0) {
       return m_genes[n + 1].execute_double(this, n + 1, args);
@@ -1160,6 +1628,7 @@ public class ProgramChromosome
       throw new IllegalArgumentException("Gene must not be null!");
     }
     m_genes[index] = a_gene;
+    invalidate();
   }
 
   public Class[] getArgTypes() {
@@ -1416,6 +1885,7 @@ public class ProgramChromosome
           genes.add(gene);
         }
         m_genes = (CommandGene[]) genes.toArray(new CommandGene[0]);
+        invalidate();
       } catch (Exception ex) {
         throw new UnsupportedRepresentationException(ex.toString());
       }
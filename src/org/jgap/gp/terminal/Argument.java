@@ -33,6 +33,33 @@ public class Argument
     return "Arg(" + m_index + ")";
   }
 
+  /**
+   * @return hash code of the index of the argument, without building its
+   * string representation
+   *
+   * @since 3.7
+   */
+  public int nodeHashCode() {
+    return 31 * getClass().getName().hashCode() + m_index;
+  }
+
+  /**
+   * @param a_other the node to compare with
+   * @return true: a_other is an argument of the same class, type and index
+   *
+   * @since 3.7
+   */
+  public boolean isSameNode(CommandGene a_other) {
+    if (a_other == this) {
+      return true;
+    }
+    if (a_other == null || a_other.getClass() != getClass()
+        || a_other.getReturnType() != getReturnType()) {
+      return false;
+    }
+    return m_index == ( (Argument) a_other).m_index;
+  }
+
   /**
    * @return textual name of this command
    *
@@ -9,6 +9,8 @@
  */
 package org.jgap.gp.terminal;
 
+import java.util.*;
+
 import org.jgap.*;
 import org.jgap.gp.*;
 import org.jgap.gp.impl.*;
@@ -40,6 +42,36 @@ public class Constant
     return m_value.toString();
   }
 
+  /**
+   * @return hash code of the value of the constant, without building its
+   * string representation
+   *
+   * @since 3.7
+   */
+  public int nodeHashCode() {
+    int hash = m_value == null ? 0 : m_value.hashCode();
+    return 31 * getClass().getName().hashCode() + hash;
+  }
+
+  /**
+   * @param a_other the node to compare with
+   * @return true: a_other is a constant of the same class, types and value
+   *
+   * @since 3.7
+   */
+  public boolean isSameNode(CommandGene a_other) {
+    if (a_other == this) {
+      return true;
+    }
+    if (a_other == null || a_other.getClass() != getClass()
+        || a_other.getReturnType() != getReturnType()
+        || a_other.getSubReturnType() != getSubReturnType()) {
+      return false;
+    }
+    Object value = ( (Constant) a_other).m_value;
+    return m_value == null ? value == null : m_value.equals(value);
+  }
+
   /**
    * @return textual name of this command
    *
@@ -66,6 +98,21 @@ public class Constant
     return ( (Double) m_value).doubleValue();
   }
 
+  public IDoubleNode compileDouble(ProgramChromosome a_chrom, int a_index,
+                                   IDoubleNode[] a_children) {
+    return new IDoubleNode() {
+      public double execute_double(Object[] args) {
+        return ( (Double) m_value).doubleValue();
+      }
+    };
+  }
+
+  protected void compute_double_batch(ProgramChromosome c, int n,
+                                      double[][] a_columns,
+                                      double[][] a_children, double[] a_out) {
+    Arrays.fill(a_out, ( (Double) m_value).doubleValue());
+  }
+
   public Object execute_object(ProgramChromosome c, int n, Object[] args) {
     return m_value;
   }
@@ -9,6 +9,9 @@
  */
 package org.jgap.gp.terminal;
 
+import java.io.*;
+import java.util.*;
+
 import org.jgap.*;
 import org.jgap.gp.*;
 import org.jgap.gp.impl.*;
@@ -317,6 +320,96 @@ public class Terminal
     }
   }
 
+  /**
+   * @return hash code of the value of the terminal, without building its
+   * string representation
+   *
+   * @since 3.7
+   */
+  public int nodeHashCode() {
+    long bits = getValueBits();
+    return 31 * getClass().getName().hashCode() + (int) (bits ^ (bits >>> 32));
+  }
+
+  /**
+   * @param a_other the node to compare with
+   * @return true: a_other is a terminal of the same class, type and value
+   *
+   * @since 3.7
+   */
+  public boolean isSameNode(CommandGene a_other) {
+    if (a_other == this) {
+      return true;
+    }
+    if (a_other == null || a_other.getClass() != getClass()
+        || a_other.getReturnType() != getReturnType()) {
+      return false;
+    }
+    return getValueBits() == ( (Terminal) a_other).getValueBits();
+  }
+
+  /**
+   * Writes the bounds and the value of the terminal.
+   *
+   * @param a_out the stream to write to
+   * @return true
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public boolean writeNodeState(DataOutput a_out)
+      throws IOException {
+    a_out.writeDouble(m_lowerBounds);
+    a_out.writeDouble(m_upperBounds);
+    a_out.writeBoolean(m_wholeNumbers);
+    a_out.writeLong(getValueBits());
+    return true;
+  }
+
+  public void readNodeState(DataInput a_in)
+      throws IOException {
+    m_lowerBounds = a_in.readDouble();
+    m_upperBounds = a_in.readDouble();
+    m_wholeNumbers = a_in.readBoolean();
+    long bits = a_in.readLong();
+    Class retType = getReturnType();
+    if (retType == CommandGene.FloatClass) {
+      m_value_float = Float.intBitsToFloat( (int) bits);
+    }
+    else if (retType == CommandGene.IntegerClass) {
+      m_value_int = (int) bits;
+    }
+    else if (retType == CommandGene.LongClass) {
+      m_value_long = bits;
+    }
+    else if (retType == CommandGene.DoubleClass) {
+      m_value_double = Double.longBitsToDouble(bits);
+    }
+  }
+
+  /**
+   * @return the value of the return type as bits, treating values with the
+   * same string representation as equal
+   */
+  private long getValueBits() {
+    Class retType = getReturnType();
+    if (retType == CommandGene.FloatClass) {
+      return Float.floatToIntBits(m_value_float);
+    }
+    else if (retType == CommandGene.IntegerClass) {
+      return m_value_int;
+    }
+    else if (retType == CommandGene.LongClass) {
+      return m_value_long;
+    }
+    else if (retType == CommandGene.DoubleClass) {
+      return Double.doubleToLongBits(m_value_double);
+    }
+    else {
+      return 0;
+    }
+  }
+
   public int execute_int(ProgramChromosome c, int n, Object[] args) {
     return m_value_int;
   }
@@ -333,6 +426,26 @@ public class Terminal
     return m_value_double;
   }
 
+  public IDoubleNode compileDouble(ProgramChromosome a_chrom, int a_index,
+                                   IDoubleNode[] a_children) {
+    return new IDoubleNode() {
+      public double execute_double(Object[] args) {
+        return m_value_double;
+      }
+    };
+  }
+
+  public void execute_double_batch(ProgramChromosome c, int n,
+                                   double[][] a_columns, double[] a_out) {
+    if (!ProgramChromosome.isDeclaredWithExecuteDouble(getClass(),
+        "execute_double_batch", new Class[] {ProgramChromosome.class,
+        int.class, double[][].class, double[].class})) {
+      super.execute_double_batch(c, n, a_columns, a_out);
+      return;
+    }
+    Arrays.fill(a_out, m_value_double);
+  }
+
   /**
    * Returns a string representation of the terminal.
    *
@@ -26,6 +26,13 @@ import org.jgap.util.*;
 public class Variable
     extends CommandGene //implements ICloneable
 {
+  /**
+   * All variables ever created, by name.
+   *
+   * @deprecated use GPConfiguration.getVariable(String) instead, as this
+   * table is shared by all configurations
+   */
+  @Deprecated
   public static Hashtable vars = new Hashtable();
 
   /**
@@ -34,10 +41,22 @@ public class Variable
   private String m_name;
 
   /**
-   * Current value of the variable.
+   * Current value of the variable if no execution context is entered.
    */
   private Object m_value;
 
+  /**
+   * True once a value has been bound to this variable within an execution
+   * context. Until then, getValue() does not look up the current context.
+   */
+  private volatile boolean m_boundInContext;
+
+  /**
+   * Index of the input column the variable reads from in batch evaluation,
+   * or -1 to use the current value for all rows.
+   */
+  private int m_column = -1;
+
   public Variable(final GPConfiguration a_conf, String a_varName, Class a_type)
       throws InvalidConfigurationException {
     super(a_conf, 0, a_type);
@@ -67,27 +86,66 @@ public class Variable
   }
 
   public boolean execute_boolean(ProgramChromosome c, int n, Object[] args) {
-    return ( (Boolean) m_value).booleanValue();
+    return ( (Boolean) getValue()).booleanValue();
   }
 
   public int execute_int(ProgramChromosome c, int n, Object[] args) {
-    return ( (Integer) m_value).intValue();
+    return ( (Integer) getValue()).intValue();
   }
 
   public long execute_long(ProgramChromosome c, int n, Object[] args) {
-    return ( (Long) m_value).longValue();
+    return ( (Long) getValue()).longValue();
   }
 
   public float execute_float(ProgramChromosome c, int n, Object[] args) {
-    return ( (Float) m_value).floatValue();
+    return ( (Float) getValue()).floatValue();
   }
 
   public double execute_double(ProgramChromosome c, int n, Object[] args) {
-    return ( (Double) m_value).doubleValue();
+    if (m_column >= 0) {
+      // Interpreted row by row in batch evaluation.
+      // -------------------------------------------
+      GPExecutionContext context = GPExecutionContext.getRowContext();
+      if (context != null && context.getRowColumns() != null) {
+        return context.getRowColumns()[m_column][context.getRow()];
+      }
+    }
+    return ( (Double) getValue()).doubleValue();
+  }
+
+  public IDoubleNode compileDouble(ProgramChromosome a_chrom, int a_index,
+                                   IDoubleNode[] a_children) {
+    return new IDoubleNode() {
+      public double execute_double(Object[] args) {
+        return ( (Double) getValue()).doubleValue();
+      }
+    };
+  }
+
+  public void execute_double_batch(ProgramChromosome c, int n,
+                                   double[][] a_columns, double[] a_out) {
+    if (!ProgramChromosome.isDeclaredWithExecuteDouble(getClass(),
+        "execute_double_batch", new Class[] {ProgramChromosome.class,
+        int.class, double[][].class, double[].class})) {
+      super.execute_double_batch(c, n, a_columns, a_out);
+      return;
+    }
+    if (m_column < 0) {
+      Arrays.fill(a_out, ( (Double) getValue()).doubleValue());
+    }
+    else {
+      System.arraycopy(a_columns[m_column], 0, a_out, 0, a_out.length);
+    }
   }
 
   public Object execute_object(ProgramChromosome c, int n, Object[] args) {
-    return m_value;
+    if (m_column >= 0) {
+      GPExecutionContext context = GPExecutionContext.getRowContext();
+      if (context != null && context.getRowColumns() != null) {
+        return new Double(execute_double(c, n, args));
+      }
+    }
+    return getValue();
   }
 
   /**
@@ -100,6 +158,13 @@ public class Variable
    * @since 3.0
    */
   public static Variable getVariable(String name) {
+    GPExecutionContext context = GPExecutionContext.getCurrent();
+    if (context != null) {
+      Variable var = context.getGPConfiguration().getVariable(name);
+      if (var != null) {
+        return var;
+      }
+    }
     return (Variable) vars.get(name);
   }
 
@@ -133,7 +198,9 @@ public class Variable
   }
 
   /**
-   * Sets the value of this named variable.
+   * Sets the value of this named variable. If an execution context is
+   * entered on the current thread, the value is bound within the context
+   * only.
    *
    * @param a_value the value to set this variable with
    *
@@ -141,13 +208,68 @@ public class Variable
    * @since 3.0
    */
   public void set(Object a_value) {
-    m_value = a_value;
+    GPExecutionContext context = GPExecutionContext.getCurrent();
+    if (context != null) {
+      context.setValue(this, a_value);
+    }
+    else {
+      m_value = a_value;
+    }
   }
 
+  /**
+   * @return the value bound within the execution context entered on the
+   * current thread, or the value set outside of any context
+   *
+   * @since 3.0
+   */
   public Object getValue() {
+    if (!m_boundInContext) {
+      return m_value;
+    }
+    GPExecutionContext context = GPExecutionContext.getCurrent();
+    if (context != null) {
+      Object value = context.getValue(this);
+      if (value != null || context.isBound(this)) {
+        return value;
+      }
+    }
     return m_value;
   }
 
+  /**
+   * Marks this variable as having a value bound within an execution context,
+   * so that getValue() looks up the current context from now on. Called by
+   * GPExecutionContext.setValue.
+   *
+   * @since 3.7
+   */
+  public void markBoundInContext() {
+    m_boundInContext = true;
+  }
+
+  /**
+   * Binds this variable to an input column for batch evaluation, see
+   * IGPProgram.execute_double_batch.
+   *
+   * @param a_column index of the column to read from, or -1 to use the value
+   * set via set(Object) for all rows
+   *
+   * @since 3.7
+   */
+  public void setColumn(int a_column) {
+    m_column = a_column;
+  }
+
+  /**
+   * @return index of the column read from in batch evaluation, or -1
+   *
+   * @since 3.7
+   */
+  public int getColumn() {
+    return m_column;
+  }
+
   /**
    * Clones the object. Simple and straight forward implementation here.
    *
@@ -0,0 +1,647 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+
+import org.jgap.*;
+
+/**
+ * Base class for chromosomes storing their alleles in a single primitive array
+ * instead of one Gene object per locus. Cloning, mutating and crossing over
+ * such a chromosome only copies array elements, see ArrayMutationOperator and
+ * ArrayCrossoverOperator.<p>
+ * For compatibility with components working on Gene objects, getGenes() and
+ * getGene(int) return gene instances (e.g. IntegerGene) reflecting the
+ * alleles. These genes are created on first access and stay attached to the
+ * chromosome: changes made to them are considered by the chromosome as well.
+ * As long as no gene has been requested, no Gene objects exist at all.<p>
+ * Requesting genes is a slow compatibility path: it creates a Gene object for
+ * each locus, and from then on each value read, comparison, hash code and
+ * clone of the chromosome first takes over the alleles of all attached genes.
+ * Clones start without attached genes again. Thus, fitness functions should
+ * use the primitive accessors of the subclasses for best performance.
+ * DuplicateFilter (and so CachedFitnessFunction keyed by allele hash) reads
+ * the alleles directly.
+ *
+ * @since 3.7
+ */
+public abstract class ArrayChromosome
+    extends BaseChromosome {
+  /**
+   * Separates the alleles in the persistent representation.
+   */
+  public final static String ALLELE_DELIMITER = ":";
+
+  /**
+   * Application-specific data that is attached to this chromosome.
+   */
+  private Object m_applicationData;
+
+  /**
+   * Keeps track of whether or not this chromosome has been selected by
+   * the natural selector to move on to the next generation.
+   */
+  private boolean m_isSelectedForNextGeneration;
+
+  /**
+   * Stores the fitness value of this chromosome as determined by the
+   * active fitness function. A value of -1 indicates that this field
+   * has not yet been set.
+   */
+  protected double m_fitnessValue = FitnessFunction.NO_FITNESS_VALUE;
+
+  /**
+   * See Chromosome class, field m_alwaysCalculate, for description.
+   */
+  private boolean m_alwaysCalculate;
+
+  /**
+   * @param a_configuration the configuration to use
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public ArrayChromosome(final Configuration a_configuration)
+      throws InvalidConfigurationException {
+    super(a_configuration);
+    m_alwaysCalculate = a_configuration.isAlwaysCalculateFitness();
+  }
+
+  /**
+   * @return number of loci of this chromosome
+   *
+   * @since 3.7
+   */
+  public abstract int size();
+
+  /**
+   * Changes the number of loci. Existing alleles are kept as far as possible.
+   *
+   * @param a_size the new size
+   *
+   * @since 3.7
+   */
+  protected abstract void resize(int a_size);
+
+  /**
+   * Creates a gene reflecting the allele at the given locus.
+   *
+   * @param a_locus the locus to create the gene for
+   * @return newly created gene
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  protected abstract Gene newGeneForLocus(int a_locus)
+      throws InvalidConfigurationException;
+
+  /**
+   * Takes over the allele of the given gene into the array.
+   *
+   * @param a_locus the locus to set
+   * @param a_gene the gene to read the allele from
+   *
+   * @since 3.7
+   */
+  protected abstract void setValueFromGene(int a_locus, Gene a_gene);
+
+  /**
+   * Writes the allele stored in the array to the given gene.
+   *
+   * @param a_locus the locus to read
+   * @param a_gene the gene to set the allele for
+   *
+   * @since 3.7
+   */
+  protected abstract void setGeneFromValue(int a_locus, Gene a_gene);
+
+  /**
+   * @return new chromosome of the same type and setup with a copy of the
+   * alleles of this chromosome, but without fitness value or application data
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  protected abstract ArrayChromosome copyValues()
+      throws InvalidConfigurationException;
+
+  /**
+   * Sets all alleles to random values.
+   *
+   * @param a_generator the random generator to use
+   *
+   * @since 3.7
+   */
+  public abstract void setToRandomValues(RandomGenerator a_generator);
+
+  /**
+   * Mutates the allele at the given locus in the same manner as the
+   * corresponding Gene implementation does with its method applyMutation.
+   *
+   * @param a_locus the locus to mutate
+   * @param a_percentage percentage of mutation (greater than -1 and smaller
+   * than 1)
+   *
+   * @since 3.7
+   */
+  public abstract void applyMutation(int a_locus, double a_percentage);
+
+  /**
+   * Swaps the alleles from the given locus to the end with the ones of the
+   * other chromosome.
+   *
+   * @param a_other chromosome of the same type and size
+   * @param a_locus first locus to swap
+   *
+   * @since 3.7
+   */
+  public abstract void crossover(ArrayChromosome a_other, int a_locus);
+
+  /**
+   * Compares the alleles of this chromosome with those of another chromosome
+   * of the same type and size, locus by locus.
+   *
+   * @param a_other the chromosome to compare with
+   * @return negative, zero or positive number
+   *
+   * @since 3.7
+   */
+  protected abstract int compareValues(ArrayChromosome a_other);
+
+  /**
+   * @return hash code of the alleles
+   *
+   * @since 3.7
+   */
+  protected abstract int valuesHashCode();
+
+  /**
+   * @param a_locus the locus to represent
+   * @return string representation of the allele at the given locus
+   *
+   * @since 3.7
+   */
+  protected abstract String valueToString(int a_locus);
+
+  /**
+   * @param a_locus the locus to compute the fingerprint for
+   * @return 64 bit fingerprint of the allele at the given locus, equal to
+   * DuplicateFilter.fingerprint(Object) of the allele of the gene created by
+   * newGeneForLocus(int)
+   *
+   * @since 3.7
+   */
+  protected abstract long valueFingerprint(int a_locus);
+
+  /**
+   * Counterpart of valueToString.
+   *
+   * @param a_locus the locus to set
+   * @param a_value string representation of the allele
+   *
+   * @since 3.7
+   */
+  protected abstract void setValueFromString(int a_locus, String a_value);
+
+  /**
+   * @return the genes attached to this chromosome, or null if none have been
+   * requested yet
+   *
+   * @since 3.7
+   */
+  protected final Gene[] getAttachedGenes() {
+    return super.getGenes();
+  }
+
+  /**
+   * Takes over the allele of the attached gene at the given locus, if any.
+   * Must be called by subclasses before reading the allele at the locus.
+   *
+   * @param a_locus the locus to synchronize
+   *
+   * @since 3.7
+   */
+  protected final void syncFromGene(int a_locus) {
+    Gene[] genes = super.getGenes();
+    if (genes != null) {
+      setValueFromGene(a_locus, genes[a_locus]);
+    }
+  }
+
+  /**
+   * Takes over the alleles of all attached genes, if any.
+   *
+   * @since 3.7
+   */
+  protected final void syncFromGenes() {
+    Gene[] genes = super.getGenes();
+    if (genes != null) {
+      for (int i = 0; i < genes.length; i++) {
+        setValueFromGene(i, genes[i]);
+      }
+    }
+  }
+
+  /**
+   * Writes the allele at the given locus to the attached gene, if any. Must be
+   * called by subclasses after changing the allele at the locus.
+   *
+   * @param a_locus the locus changed
+   *
+   * @since 3.7
+   */
+  protected final void syncToGene(int a_locus) {
+    Gene[] genes = super.getGenes();
+    if (genes != null) {
+      setGeneFromValue(a_locus, genes[a_locus]);
+    }
+  }
+
+  /**
+   * Writes all alleles to the attached genes, if any.
+   *
+   * @since 3.7
+   */
+  protected final void syncToGenes() {
+    Gene[] genes = super.getGenes();
+    if (genes != null) {
+      for (int i = 0; i < genes.length; i++) {
+        setGeneFromValue(i, genes[i]);
+      }
+    }
+  }
+
+  /**
+   * Creates the genes reflecting the alleles on first call. Later calls return
+   * the same genes. Slow compatibility path, see the class comment.
+   *
+   * @return genes attached to this chromosome
+   *
+   * @since 3.7
+   */
+  public synchronized Gene[] getGenes() {
+    Gene[] genes = super.getGenes();
+    if (genes == null) {
+      int size = size();
+      genes = new Gene[size];
+      try {
+        for (int i = 0; i < size; i++) {
+          genes[i] = newGeneForLocus(i);
+        }
+        super.setGenes(genes);
+      } catch (InvalidConfigurationException iex) {
+        throw new IllegalStateException(iex.getMessage());
+      }
+    }
+    return genes;
+  }
+
+  /**
+   * Slow compatibility path, see the class comment: attaches genes for all
+   * loci on first call.
+   *
+   * @param a_desiredLocus index of the gene to return
+   * @return gene attached to this chromosome at the given locus
+   *
+   * @since 3.7
+   */
+  public Gene getGene(int a_desiredLocus) {
+    return getGenes()[a_desiredLocus];
+  }
+
+  /**
+   * Takes over the alleles of the given genes. The genes are attached to the
+   * chromosome afterwards.
+   *
+   * @param a_genes genes of a type compatible to the chromosome
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public void setGenes(Gene[] a_genes)
+      throws InvalidConfigurationException {
+    if (a_genes == null) {
+      throw new InvalidConfigurationException("Genes must not be null!");
+    }
+    resize(a_genes.length);
+    super.setGenes(a_genes);
+    syncFromGenes();
+  }
+
+  public void setGene(int a_index, Gene a_gene) {
+    getGenes()[a_index] = a_gene;
+    setValueFromGene(a_index, a_gene);
+  }
+
+  /**
+   * Returns a copy of this chromosome by copying the allele array. No genes are
+   * attached to the copy.
+   *
+   * @return copy of this chromosome
+   *
+   * @since 3.7
+   */
+  public synchronized Object clone() {
+    syncFromGenes();
+    ArrayChromosome copy;
+    try {
+      copy = copyValues();
+      copy.m_fitnessValue = m_fitnessValue;
+      copy.setApplicationData(Chromosome.cloneObject(getConfiguration(),
+          m_applicationData, this));
+    } catch (Exception ex) {
+      throw new IllegalStateException(ex.getMessage());
+    }
+    return copy;
+  }
+
+  /**
+   * Retrieves the fitness value of this chromosome, computing it via the
+   * fitness function if not done before.
+   *
+   * @return a positive double value representing the fitness of this
+   * chromosome, or -1 if a bulk fitness function is in use and has not yet
+   * assigned a fitness value to this chromosome
+   *
+   * @since 3.7
+   */
+  public double getFitnessValue() {
+    if (m_fitnessValue >= 0.000d && !m_alwaysCalculate) {
+      return m_fitnessValue;
+    }
+    else {
+      return calcFitnessValue();
+    }
+  }
+
+  /**
+   * @return fitness value of this chromosome determined via the registered
+   * fitness function
+   *
+   * @since 3.7
+   */
+  protected double calcFitnessValue() {
+    FitnessFunction fitnessFunction = getConfiguration().getFitnessFunction();
+    if (fitnessFunction != null) {
+      m_fitnessValue = fitnessFunction.getFitnessValue(this);
+    }
+    return m_fitnessValue;
+  }
+
+  public double getFitnessValueDirectly() {
+    return m_fitnessValue;
+  }
+
+  public void setFitnessValue(double a_newFitnessValue) {
+    if (a_newFitnessValue >= 0 &&
+        Math.abs(m_fitnessValue - a_newFitnessValue) > 0.0000001) {
+      m_fitnessValue = a_newFitnessValue;
+    }
+  }
+
+  public void setFitnessValueDirectly(double a_newFitnessValue) {
+    m_fitnessValue = a_newFitnessValue;
+  }
+
+  public void setIsSelectedForNextGeneration(boolean a_isSelected) {
+    m_isSelectedForNextGeneration = a_isSelected;
+  }
+
+  public boolean isSelectedForNextGeneration() {
+    return m_isSelectedForNextGeneration;
+  }
+
+  /**
+   * Constraint checkers work on Gene objects and are therefore not supported.
+   *
+   * @param a_constraintChecker must be null
+   * @throws InvalidConfigurationException if a_constraintChecker is not null
+   *
+   * @since 3.7
+   */
+  public void setConstraintChecker(IGeneConstraintChecker a_constraintChecker)
+      throws InvalidConfigurationException {
+    if (a_constraintChecker != null) {
+      throw new InvalidConfigurationException(
+          "Constraint checkers are not supported by " + getClass().getName());
+    }
+  }
+
+  public void setApplicationData(Object a_newData) {
+    m_applicationData = a_newData;
+  }
+
+  public Object getApplicationData() {
+    return m_applicationData;
+  }
+
+  /**
+   * Resets the state of the chromosome and detaches the genes, if any.
+   *
+   * @since 3.7
+   */
+  public synchronized void cleanup() {
+    syncFromGenes();
+    try {
+      super.setGenes(null);
+    } catch (InvalidConfigurationException iex) {
+      // Cannot happen with BaseChromosome.
+      // ----------------------------------
+      throw new IllegalStateException(iex.getMessage());
+    }
+    m_fitnessValue = FitnessFunction.NO_FITNESS_VALUE;
+    m_isSelectedForNextGeneration = false;
+  }
+
+  /**
+   * Compares the alleles and the fitness value, like Chromosome does.
+   *
+   * @param a_other the chromosome to compare with
+   * @return a negative number if this chromosome is "less than" the given
+   * chromosome, zero if they are equal to each other, and a positive number if
+   * this chromosome is "greater than" the given chromosome
+   *
+   * @since 3.7
+   */
+  public int compareTo(Object a_other) {
+    if (a_other == null) {
+      return 1;
+    }
+    ArrayChromosome other = (ArrayChromosome) a_other;
+    if (other.getClass() != getClass()) {
+      return getClass().getName().compareTo(other.getClass().getName());
+    }
+    int size = size();
+    if (other.size() != size) {
+      return size - other.size();
+    }
+    syncFromGenes();
+    other.syncFromGenes();
+    int comparison = compareValues(other);
+    if (comparison != 0) {
+      return comparison;
+    }
+    if (m_fitnessValue != other.m_fitnessValue) {
+      FitnessEvaluator eval = getConfiguration().getFitnessEvaluator();
+      if (eval != null && eval.isFitter(m_fitnessValue, other.m_fitnessValue)) {
+        return 1;
+      }
+      return -1;
+    }
+    return 0;
+  }
+
+  public boolean equals(Object a_other) {
+    try {
+      return compareTo(a_other) == 0;
+    } catch (ClassCastException cex) {
+      return false;
+    }
+  }
+
+  public int hashCode() {
+    syncFromGenes();
+    return valuesHashCode();
+  }
+
+  /**
+   * @return business key consisting of the alleles, without creating genes
+   *
+   * @since 3.7
+   */
+  public String getBusinessKey() {
+    return valuesToString().toString();
+  }
+
+  private StringBuffer valuesToString() {
+    syncFromGenes();
+    int size = size();
+    StringBuffer b = new StringBuffer(size * 4);
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        b.append(ALLELE_DELIMITER);
+      }
+      b.append(valueToString(i));
+    }
+    return b;
+  }
+
+  /**
+   * @return persistent representation consisting of the fitness value, the
+   * size and the alleles
+   *
+   * @since 3.7
+   */
+  public String getPersistentRepresentation() {
+    StringBuffer b = new StringBuffer();
+    b.append(getFitnessValueDirectly());
+    b.append(CHROM_DELIMITER);
+    b.append(size());
+    b.append(CHROM_DELIMITER);
+    b.append(valuesToString());
+    return b.toString();
+  }
+
+  /**
+   * Counterpart of getPersistentRepresentation. Detaches the genes, if any.
+   *
+   * @param a_representation the string representation retrieved from a prior
+   * call to the getPersistentRepresentation() method
+   * @throws UnsupportedRepresentationException
+   *
+   * @since 3.7
+   */
+  public synchronized void setValueFromPersistentRepresentation(String
+      a_representation)
+      throws UnsupportedRepresentationException {
+    if (a_representation != null) {
+      StringTokenizer st = new StringTokenizer(a_representation,
+          CHROM_DELIMITER);
+      if (st.countTokens() < 2) {
+        throw new UnsupportedRepresentationException(
+            "Fitness value and size expected!");
+      }
+      try {
+        double fitness = Double.parseDouble(st.nextToken());
+        int size = Integer.parseInt(st.nextToken());
+        String values = st.hasMoreTokens() ? st.nextToken() : "";
+        StringTokenizer alleles = new StringTokenizer(values,
+            ALLELE_DELIMITER);
+        if (alleles.countTokens() != size) {
+          throw new UnsupportedRepresentationException("Expected " + size
+              + " alleles in " + values);
+        }
+        super.setGenes(null);
+        resize(size);
+        for (int i = 0; i < size; i++) {
+          setValueFromString(i, alleles.nextToken());
+        }
+        setFitnessValueDirectly(fitness);
+      } catch (UnsupportedRepresentationException uex) {
+        throw uex;
+      } catch (Exception ex) {
+        throw new UnsupportedRepresentationException(ex.toString());
+      }
+    }
+  }
+
+  public String toString() {
+    StringBuffer representation = new StringBuffer();
+    representation.append(S_SIZE + ":" + size());
+    representation.append(", " + S_FITNESS_VALUE + ":" + m_fitnessValue);
+    representation.append(", " + S_ALLELES + ":[");
+    syncFromGenes();
+    int size = size();
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        representation.append(", ");
+      }
+      representation.append(valueToString(i));
+    }
+    representation.append("]");
+    representation.append(", " + S_APPLICATION_DATA + ":"
+                          + (m_applicationData == null ? "null" :
+                             m_applicationData.toString()));
+    return representation.toString();
+  }
+
+  // ------------------------------------
+  // Begin of IInitializer implementation
+  // ------------------------------------
+
+  /**{@inheritDoc}*/
+  public boolean isHandlerFor(Object a_obj, Class a_class) {
+    return a_class == getClass();
+  }
+
+  /**
+   * Creates a chromosome of the same type and setup as this one, with random
+   * alleles.
+   *
+   * @param a_obj ignored
+   * @param a_class ignored
+   * @param a_params ignored
+   * @return randomly initialized chromosome
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public Object perform(Object a_obj, Class a_class, Object a_params)
+      throws Exception {
+    ArrayChromosome result = copyValues();
+    result.setToRandomValues(getConfiguration().getRandomGenerator());
+    return result;
+  }
+
+  // ----------------------------------
+  // End of IInitializer implementation
+  // ----------------------------------
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+
+import org.jgap.*;
+
+/**
+ * Single point crossover swapping array ranges of ArrayChromosome instances
+ * instead of gene alleles one by one. Selection of mates and loci is the same
+ * as with CrossoverOperator. Other chromosomes are processed by
+ * CrossoverOperator.
+ *
+ * @since 3.7
+ */
+public class ArrayCrossoverOperator
+    extends CrossoverOperator {
+  /**
+   * @param a_configuration the configuration to use
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public ArrayCrossoverOperator(final Configuration a_configuration)
+      throws InvalidConfigurationException {
+    super(a_configuration);
+  }
+
+  /**
+   * @param a_configuration the configuration to use
+   * @param a_desiredCrossoverRate the desired rate of crossover
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public ArrayCrossoverOperator(final Configuration a_configuration,
+                                final int a_desiredCrossoverRate)
+      throws InvalidConfigurationException {
+    super(a_configuration, a_desiredCrossoverRate);
+  }
+
+  /**
+   * @param a_configuration the configuration to use
+   * @param a_crossoverRatePercentage the desired rate of crossover in
+   * percentage of the population
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public ArrayCrossoverOperator(final Configuration a_configuration,
+                                final double a_crossoverRatePercentage)
+      throws InvalidConfigurationException {
+    super(a_configuration, a_crossoverRatePercentage);
+  }
+
+  protected void doCrossover(IChromosome firstMate, IChromosome secondMate,
+                             List a_candidateChromosomes,
+                             RandomGenerator generator) {
+    if (firstMate instanceof ArrayChromosome
+        && secondMate instanceof ArrayChromosome) {
+      ArrayChromosome first = (ArrayChromosome) firstMate;
+      int locus = generator.nextInt(first.size());
+      first.crossover( (ArrayChromosome) secondMate, locus);
+      a_candidateChromosomes.add(firstMate);
+      a_candidateChromosomes.add(secondMate);
+    }
+    else {
+      super.doCrossover(firstMate, secondMate, a_candidateChromosomes,
+                        generator);
+    }
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+
+import org.jgap.*;
+
+/**
+ * Mutation operator working directly on the allele arrays of ArrayChromosome
+ * instances, without creating Gene objects. The decision which loci to mutate
+ * and the amount of mutation are determined exactly as with MutationOperator.
+ * Chromosomes not being ArrayChromosome's are processed by MutationOperator.
+ *
+ * @since 3.7
+ */
+public class ArrayMutationOperator
+    extends MutationOperator {
+  /**
+   * @param a_conf the configuration to use
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public ArrayMutationOperator(final Configuration a_conf)
+      throws InvalidConfigurationException {
+    super(a_conf);
+  }
+
+  /**
+   * @param a_config the configuration to use
+   * @param a_mutationRateCalculator calculator for dynamic mutation rate
+   * computation
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public ArrayMutationOperator(final Configuration a_config,
+                               final IUniversalRateCalculator
+                               a_mutationRateCalculator)
+      throws InvalidConfigurationException {
+    super(a_config, a_mutationRateCalculator);
+  }
+
+  /**
+   * @param a_config the configuration to use
+   * @param a_desiredMutationRate desired rate of mutation, expressed as
+   * the denominator of the 1 / X fraction. A mutation rate of zero disables
+   * mutation entirely
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public ArrayMutationOperator(final Configuration a_config,
+                               final int a_desiredMutationRate)
+      throws InvalidConfigurationException {
+    super(a_config, a_desiredMutationRate);
+  }
+
+  /**
+   * @param a_population the population of chromosomes from the current
+   * evolution prior to exposure to any genetic operators
+   * @param a_candidateChromosomes the pool of chromosomes that have been
+   * mutated
+   *
+   * @since 3.7
+   */
+  public void operate(final Population a_population,
+                      final List a_candidateChromosomes) {
+    if (a_population == null || a_candidateChromosomes == null) {
+      return;
+    }
+    if (a_population.size() < 1
+        || ! (a_population.getChromosome(0) instanceof ArrayChromosome)) {
+      super.operate(a_population, a_candidateChromosomes);
+      return;
+    }
+    IUniversalRateCalculator rateCalc = getMutationRateCalc();
+    int rate = getMutationRate();
+    if (rate == 0 && rateCalc == null) {
+      return;
+    }
+    RandomGenerator generator = getConfiguration().getRandomGenerator();
+    int size = Math.min(getConfiguration().getPopulationSize(),
+                        a_population.size());
+    IGeneticOperatorConstraint constraint = getConfiguration().
+        getJGAPFactory().getGeneticOperatorConstraint();
+    boolean mutate;
+    for (int i = 0; i < size; i++) {
+      ArrayChromosome chrom = (ArrayChromosome) a_population.getChromosome(i);
+      ArrayChromosome copyOfChromosome = null;
+      int loci = chrom.size();
+      for (int j = 0; j < loci; j++) {
+        if (rateCalc != null) {
+          mutate = rateCalc.toBePermutated(chrom, j);
+        }
+        else {
+          mutate = (generator.nextInt(rate) == 0);
+        }
+        if (mutate) {
+          if (constraint != null) {
+            List v = new Vector();
+            v.add(chrom);
+            if (!constraint.isValid(a_population, v, this)) {
+              continue;
+            }
+          }
+          if (copyOfChromosome == null) {
+            copyOfChromosome = (ArrayChromosome) chrom.clone();
+            a_candidateChromosomes.add(copyOfChromosome);
+            if (m_monitorActive) {
+              copyOfChromosome.setUniqueIDTemplate(chrom.getUniqueID(), 1);
+            }
+          }
+          // Same mapping as in MutationOperator: value between -1 (included)
+          // and 1 (not included).
+          // ----------------------------------------------------------------
+          copyOfChromosome.applyMutation(j, -1 + generator.nextDouble() * 2);
+        }
+      }
+    }
+  }
+}
@@ -195,34 +195,35 @@ public class AveragingCrossoverOperator
         secondMate.setUniqueIDTemplate(origChrom1.getUniqueID(), 1);
         secondMate.setUniqueIDTemplate(origChrom2.getUniqueID(), 2);
       }
-      Gene[] firstGenes = firstMate.getGenes();
-      Gene[] secondGenes = secondMate.getGenes();
-      int locus = getLocus(m_crossoverGenerator, i, firstGenes.length);
+      int geneCount = firstMate.size();
+      int locus = getLocus(m_crossoverGenerator, i, geneCount);
       // Swap the genes.
       // ---------------
       Gene gene1;
       Gene gene2;
       Object firstAllele;
-      for (int j = locus; j < firstGenes.length; j++) {
+      for (int j = locus; j < geneCount; j++) {
+        Gene firstGene = BaseChromosome.writableGene(firstMate, j);
+        Gene secondGene = BaseChromosome.writableGene(secondMate, j);
         // Make a distinction to ICompositeGene for the first gene.
         // --------------------------------------------------------
-        if (firstGenes[j] instanceof ICompositeGene) {
+        if (firstGene instanceof ICompositeGene) {
           // Randomly determine gene to be considered
-          index1 = generator.nextInt(firstGenes[j].size());
-          gene1 = ( (ICompositeGene) firstGenes[j]).geneAt(index1);
+          index1 = generator.nextInt(firstGene.size());
+          gene1 = ( (ICompositeGene) firstGene).geneAt(index1);
         }
         else {
-          gene1 = firstGenes[j];
+          gene1 = firstGene;
         }
         // Make a distinction to ICompositeGene for the second gene.
         // ---------------------------------------------------------
-        if (secondGenes[j] instanceof CompositeGene) {
+        if (secondGene instanceof CompositeGene) {
           // Randomly determine gene to be considered
-          index2 = generator.nextInt(secondGenes[j].size());
-          gene2 = ( (ICompositeGene) secondGenes[j]).geneAt(index2);
+          index2 = generator.nextInt(secondGene.size());
+          gene2 = ( (ICompositeGene) secondGene).geneAt(index2);
         }
         else {
-          gene2 = secondGenes[j];
+          gene2 = secondGene;
         }
         firstAllele = gene1.getAllele();
         gene1.setAllele(gene2.getAllele());
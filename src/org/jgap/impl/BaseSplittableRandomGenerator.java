@@ -0,0 +1,117 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import org.jgap.*;
+import org.jgap.util.*;
+
+/**
+ * Base class for splittable random generators producing 64 random bits at a
+ * time. All values are derived from nextLong(). Other than java.util.Random,
+ * implementations are not synchronized and must only be used by one thread
+ * at a time. Use split() or ThreadLocalRandomGenerator to give each thread a
+ * stream of its own.
+ * <p>
+ * The state is kept on serialization. Cloning splits off a new stream, so
+ * that cloned configurations do not produce the same numbers.
+ *
+ * @since 3.7
+ */
+public abstract class BaseSplittableRandomGenerator
+    implements ISplittableRandomGenerator, ICloneable, Comparable {
+  /**
+   * @return the next 64 random bits
+   *
+   * @since 3.7
+   */
+  public abstract long nextLong();
+
+  /**
+   * @return the next 32 random bits
+   *
+   * @since 3.7
+   */
+  public int nextInt() {
+    return (int) (nextLong() >>> 32);
+  }
+
+  /**
+   * Uses multiplication instead of division and only rejects values if
+   * needed to avoid bias.
+   *
+   * @param a_ceiling the upper boundary excluded, must be positive
+   * @return a value between 0 (inclusive) and a_ceiling (exclusive)
+   *
+   * @since 3.7
+   */
+  public int nextInt(int a_ceiling) {
+    if (a_ceiling <= 0) {
+      throw new IllegalArgumentException("Ceiling must be positive!");
+    }
+    long product = (nextInt() & 0xFFFFFFFFL) * a_ceiling;
+    if ( (product & 0xFFFFFFFFL) < a_ceiling) {
+      // Reject the values that would make lower results more likely.
+      // ------------------------------------------------------------
+      long threshold = ( (1L << 32) - a_ceiling) % a_ceiling;
+      while ( (product & 0xFFFFFFFFL) < threshold) {
+        product = (nextInt() & 0xFFFFFFFFL) * a_ceiling;
+      }
+    }
+    return (int) (product >>> 32);
+  }
+
+  public double nextDouble() {
+    return (nextLong() >>> 11) * 0x1.0p-53;
+  }
+
+  public float nextFloat() {
+    return (nextInt() >>> 8) * 0x1.0p-24f;
+  }
+
+  public boolean nextBoolean() {
+    return nextLong() < 0;
+  }
+
+  public void nextDoubles(double[] a_values) {
+    for (int i = 0; i < a_values.length; i++) {
+      a_values[i] = (nextLong() >>> 11) * 0x1.0p-53;
+    }
+  }
+
+  public void nextInts(int[] a_values, int a_ceiling) {
+    for (int i = 0; i < a_values.length; i++) {
+      a_values[i] = nextInt(a_ceiling);
+    }
+  }
+
+  /**
+   * @return a new stream split off this generator, see split()
+   *
+   * @since 3.7
+   */
+  public Object clone() {
+    return split();
+  }
+
+  /**
+   * @param a_other sic
+   * @return as always
+   *
+   * @since 3.7
+   */
+  public int compareTo(Object a_other) {
+    if (a_other.getClass().equals(getClass())) {
+      return 0;
+    }
+    else {
+      return getClass().getName().compareTo(a_other.getClass().getName());
+    }
+  }
+}
@@ -33,6 +33,12 @@ public class BestChromosomesSelector
    */
   private boolean m_needsSorting;
 
+  /**
+   * Number of chromosomes at the front of the list known to be the best ones
+   * in sorted order
+   */
+  private int m_sortedCount;
+
   /**
    * Comparator that is concerned about both age and fitness values
    */
@@ -122,6 +128,7 @@ public class BestChromosomesSelector
     // Indicate that the list of chromosomes to add needs sorting.
     // -----------------------------------------------------------
     m_needsSorting = true;
+    m_sortedCount = 0;
   }
 
   /**
@@ -155,13 +162,23 @@ public class BestChromosomesSelector
         canBeSelected = 1;
       }
     }
-    // Sort the collection of chromosomes previously added for evaluation.
+    // Bring the best chromosomes previously added for evaluation to the
+    // front in sorted order, including those cloned to fill up the result.
     // Only do this if necessary.
-    // -------------------------------------------------------------------
-    if (m_needsSorting) {
-      Collections.sort(m_chromosomes.getChromosomes(),
-                       m_fitnessValueComparator);
+    // --------------------------------------------------------------------
+    int toSort = canBeSelected;
+    if (getDoubletteChromosomesAllowed()) {
+      toSort = Math.max(toSort, Math.min(chromsSize,
+          neededSize - a_to_pop.size() - canBeSelected));
+    }
+    if (m_needsSorting || toSort > m_sortedCount) {
+      // Same order as given by FitnessAgeValueComparator.
+      // -------------------------------------------------
+      SelectionKit.selectFittest(m_chromosomes.getChromosomes(), toSort,
+                                 getConfiguration().getFitnessEvaluator(),
+                                 true);
       m_needsSorting = false;
+      m_sortedCount = toSort;
     }
     // To select a chromosome, we just go thru the sorted list.
     // --------------------------------------------------------
@@ -215,6 +232,7 @@ public class BestChromosomesSelector
     // -----------------------------
     m_chromosomes.getChromosomes().clear();
     m_needsSorting = false;
+    m_sortedCount = 0;
   }
 
   /**
@@ -297,6 +315,7 @@ public class BestChromosomesSelector
       BestChromosomesSelector sel = new BestChromosomesSelector(
           getConfiguration(), m_config.m_originalRate);
       sel.m_needsSorting = m_needsSorting;
+      sel.m_sortedCount = m_sortedCount;
 //      sel.m_chromosomes = (Population) m_chromosomes.clone();
       sel.setDoubletteChromosomesAllowed(getDoubletteChromosomesAllowed());
       return sel;
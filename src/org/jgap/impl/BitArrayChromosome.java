@@ -0,0 +1,255 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+
+import org.jgap.*;
+
+/**
+ * Chromosome of boolean alleles stored as bits of a long array. Behaves like
+ * a Chromosome consisting of BooleanGene's, see ArrayChromosome for details.
+ *
+ * @since 3.7
+ */
+public class BitArrayChromosome
+    extends ArrayChromosome {
+  private long[] m_bits;
+
+  private int m_size;
+
+  /**
+   * Constructs a chromosome with all bits cleared.
+   *
+   * @param a_configuration the configuration to use
+   * @param a_size number of loci
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public BitArrayChromosome(final Configuration a_configuration,
+                            final int a_size)
+      throws InvalidConfigurationException {
+    super(a_configuration);
+    if (a_size <= 0) {
+      throw new IllegalArgumentException(
+          "Chromosome size must be greater than zero");
+    }
+    m_size = a_size;
+    m_bits = new long[words(a_size)];
+  }
+
+  private static int words(int a_size) {
+    return (a_size + 63) >>> 6;
+  }
+
+  public int size() {
+    return m_size;
+  }
+
+  protected void resize(int a_size) {
+    if (a_size != m_size) {
+      long[] bits = new long[words(a_size)];
+      System.arraycopy(m_bits, 0, bits, 0, Math.min(bits.length,
+          m_bits.length));
+      m_bits = bits;
+      int oldSize = m_size;
+      m_size = a_size;
+      if (a_size < oldSize) {
+        clearUnusedBits();
+      }
+    }
+  }
+
+  private void clearUnusedBits() {
+    int rest = m_size & 63;
+    if (rest != 0) {
+      m_bits[m_bits.length - 1] &= (1L << rest) - 1;
+    }
+  }
+
+  /**
+   * @param a_locus the locus to read
+   * @return allele at the given locus
+   *
+   * @since 3.7
+   */
+  public boolean getBit(int a_locus) {
+    checkLocus(a_locus);
+    syncFromGene(a_locus);
+    return (m_bits[a_locus >>> 6] & (1L << a_locus)) != 0;
+  }
+
+  /**
+   * @param a_locus the locus to set
+   * @param a_value the new allele
+   *
+   * @since 3.7
+   */
+  public void setBit(int a_locus, boolean a_value) {
+    checkLocus(a_locus);
+    if (a_value) {
+      m_bits[a_locus >>> 6] |= (1L << a_locus);
+    }
+    else {
+      m_bits[a_locus >>> 6] &= ~ (1L << a_locus);
+    }
+    syncToGene(a_locus);
+  }
+
+  /**
+   * @return number of bits set
+   *
+   * @since 3.7
+   */
+  public int cardinality() {
+    syncFromGenes();
+    int result = 0;
+    for (int i = 0; i < m_bits.length; i++) {
+      result += Long.bitCount(m_bits[i]);
+    }
+    return result;
+  }
+
+  /**
+   * @return copy of the bits, bit i being bit (i % 64) of element (i / 64)
+   *
+   * @since 3.7
+   */
+  public long[] toLongArray() {
+    syncFromGenes();
+    return (long[]) m_bits.clone();
+  }
+
+  private void checkLocus(int a_locus) {
+    if (a_locus < 0 || a_locus >= m_size) {
+      throw new IndexOutOfBoundsException("Locus " + a_locus);
+    }
+  }
+
+  public void setToRandomValues(RandomGenerator a_generator) {
+    for (int i = 0; i < m_bits.length; i++) {
+      m_bits[i] = a_generator.nextLong();
+    }
+    clearUnusedBits();
+    syncToGenes();
+  }
+
+  /**
+   * Same as BooleanGene.applyMutation: a positive percentage sets the bit,
+   * a negative one clears it.
+   *
+   * @param a_locus the locus to mutate
+   * @param a_percentage percentage of mutation (greater than -1 and smaller
+   * than 1)
+   *
+   * @since 3.7
+   */
+  public void applyMutation(int a_locus, double a_percentage) {
+    if (a_percentage > 0) {
+      setBit(a_locus, true);
+    }
+    else if (a_percentage < 0) {
+      setBit(a_locus, false);
+    }
+  }
+
+  public void crossover(ArrayChromosome a_other, int a_locus) {
+    BitArrayChromosome other = (BitArrayChromosome) a_other;
+    if (other.m_size != m_size) {
+      throw new IllegalArgumentException("Chromosomes differ in size!");
+    }
+    syncFromGenes();
+    other.syncFromGenes();
+    int word = a_locus >>> 6;
+    // Swap the upper part of the first word concerned.
+    // ------------------------------------------------
+    long mask = -1L << a_locus;
+    long diff = (m_bits[word] ^ other.m_bits[word]) & mask;
+    m_bits[word] ^= diff;
+    other.m_bits[word] ^= diff;
+    // Swap all following words completely.
+    // -------------------------------------
+    for (int i = word + 1; i < m_bits.length; i++) {
+      long tmp = m_bits[i];
+      m_bits[i] = other.m_bits[i];
+      other.m_bits[i] = tmp;
+    }
+    syncToGenes();
+    other.syncToGenes();
+  }
+
+  protected ArrayChromosome copyValues()
+      throws InvalidConfigurationException {
+    BitArrayChromosome copy = new BitArrayChromosome(getConfiguration(),
+        m_size);
+    System.arraycopy(m_bits, 0, copy.m_bits, 0, m_bits.length);
+    return copy;
+  }
+
+  protected Gene newGeneForLocus(int a_locus)
+      throws InvalidConfigurationException {
+    Gene gene = new BooleanGene(getConfiguration());
+    gene.setAllele(Boolean.valueOf(getBitDirectly(a_locus)));
+    return gene;
+  }
+
+  private boolean getBitDirectly(int a_locus) {
+    return (m_bits[a_locus >>> 6] & (1L << a_locus)) != 0;
+  }
+
+  protected void setValueFromGene(int a_locus, Gene a_gene) {
+    Object allele = a_gene.getAllele();
+    if (allele != null && ( (Boolean) allele).booleanValue()) {
+      m_bits[a_locus >>> 6] |= (1L << a_locus);
+    }
+    else {
+      m_bits[a_locus >>> 6] &= ~ (1L << a_locus);
+    }
+  }
+
+  protected void setGeneFromValue(int a_locus, Gene a_gene) {
+    a_gene.setAllele(Boolean.valueOf(getBitDirectly(a_locus)));
+  }
+
+  protected int compareValues(ArrayChromosome a_other) {
+    BitArrayChromosome other = (BitArrayChromosome) a_other;
+    for (int i = 0; i < m_bits.length; i++) {
+      long diff = m_bits[i] ^ other.m_bits[i];
+      if (diff != 0) {
+        // The lowest differing bit decides, false being less than true.
+        // --------------------------------------------------------------
+        return (m_bits[i] & Long.lowestOneBit(diff)) != 0 ? 1 : -1;
+      }
+    }
+    return 0;
+  }
+
+  protected int valuesHashCode() {
+    return Arrays.hashCode(m_bits) + m_size;
+  }
+
+  protected long valueFingerprint(int a_locus) {
+    return Boolean.valueOf(getBitDirectly(a_locus)).hashCode();
+  }
+
+  protected String valueToString(int a_locus) {
+    return getBitDirectly(a_locus) ? "1" : "0";
+  }
+
+  protected void setValueFromString(int a_locus, String a_value) {
+    if ("1".equals(a_value)) {
+      m_bits[a_locus >>> 6] |= (1L << a_locus);
+    }
+    else {
+      m_bits[a_locus >>> 6] &= ~ (1L << a_locus);
+    }
+  }
+}
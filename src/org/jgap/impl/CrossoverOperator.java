@@ -37,7 +37,8 @@ import org.jgap.*;
  * @since 1.0
  */
 public class CrossoverOperator
-    extends BaseGeneticOperator implements Comparable {
+    extends BaseGeneticOperator
+    implements Comparable, IConcurrentGeneticOperator {
   /**
    * The current crossover rate used by this crossover operator (mutual
    * exclusive to m_crossoverRatePercent and m_crossoverRateCalc).
@@ -305,6 +306,16 @@ public class CrossoverOperator
     setXoverNewAge(a_xoverNewAge);
   }
 
+  /**
+   * @return true for instances of this class only, subclasses have to opt in
+   * to concurrent application by overriding this method
+   *
+   * @since 3.7
+   */
+  public boolean isConcurrent() {
+    return getClass() == CrossoverOperator.class;
+  }
+
   /**
    * Does the crossing over.
    *
@@ -387,34 +398,36 @@ public class CrossoverOperator
   protected void doCrossover(IChromosome firstMate, IChromosome secondMate,
                            List a_candidateChromosomes,
                            RandomGenerator generator) {
-    Gene[] firstGenes = firstMate.getGenes();
-    Gene[] secondGenes = secondMate.getGenes();
-    int locus = generator.nextInt(firstGenes.length);
-    // Swap the genes.
-    // ---------------
+    int size = firstMate.size();
+    int locus = generator.nextInt(size);
+    // Swap the genes. Only the genes swapped are requested for writing, so
+    // with copy-on-write only they are copied.
+    // --------------------------------------------------------------------
     Gene gene1;
     Gene gene2;
     Object firstAllele;
-    for (int j = locus; j < firstGenes.length; j++) {
+    for (int j = locus; j < size; j++) {
+      Gene firstGene = BaseChromosome.writableGene(firstMate, j);
+      Gene secondGene = BaseChromosome.writableGene(secondMate, j);
       // Make a distinction for ICompositeGene for the first gene.
       // ---------------------------------------------------------
       int index = 0;
-      if (firstGenes[j] instanceof ICompositeGene) {
+      if (firstGene instanceof ICompositeGene) {
         // Randomly determine gene to be considered.
         // -----------------------------------------
-        index = generator.nextInt(firstGenes[j].size());
-        gene1 = ( (ICompositeGene) firstGenes[j]).geneAt(index);
+        index = generator.nextInt(firstGene.size());
+        gene1 = ( (ICompositeGene) firstGene).geneAt(index);
       }
       else {
-        gene1 = firstGenes[j];
+        gene1 = firstGene;
       }
       // Make a distinction for the second gene if CompositeGene.
       // --------------------------------------------------------
-      if (secondGenes[j] instanceof ICompositeGene) {
-        gene2 = ( (ICompositeGene) secondGenes[j]).geneAt(index);
+      if (secondGene instanceof ICompositeGene) {
+        gene2 = ( (ICompositeGene) secondGene).geneAt(index);
       }
       else {
-        gene2 = secondGenes[j];
+        gene2 = secondGene;
       }
       if (m_monitorActive) {
         gene1.setUniqueIDTemplate(gene2.getUniqueID(), 1);
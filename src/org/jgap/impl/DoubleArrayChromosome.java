@@ -0,0 +1,240 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+
+import org.jgap.*;
+
+/**
+ * Chromosome of double alleles stored in a double array. All loci share the
+ * same bounds. Behaves like a Chromosome consisting of DoubleGene's with
+ * these bounds, see ArrayChromosome for details.
+ *
+ * @since 3.7
+ */
+public class DoubleArrayChromosome
+    extends ArrayChromosome {
+  private double[] m_values;
+
+  private double m_lowerBound;
+
+  private double m_upperBound;
+
+  /**
+   * Constructs a chromosome with all alleles set to the lower bound.
+   *
+   * @param a_configuration the configuration to use
+   * @param a_size number of loci
+   * @param a_lowerBound lowest possible value of an allele
+   * @param a_upperBound highest possible value of an allele
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public DoubleArrayChromosome(final Configuration a_configuration,
+                               final int a_size, final double a_lowerBound,
+                               final double a_upperBound)
+      throws InvalidConfigurationException {
+    super(a_configuration);
+    if (a_size <= 0) {
+      throw new IllegalArgumentException(
+          "Chromosome size must be greater than zero");
+    }
+    if (a_lowerBound > a_upperBound) {
+      throw new IllegalArgumentException(
+          "Lower bound must not be greater than upper bound");
+    }
+    m_lowerBound = a_lowerBound;
+    m_upperBound = a_upperBound;
+    m_values = new double[a_size];
+    Arrays.fill(m_values, a_lowerBound);
+  }
+
+  /**
+   * @param a_configuration the configuration to use
+   * @param a_values the alleles, the array is copied
+   * @param a_lowerBound lowest possible value of an allele
+   * @param a_upperBound highest possible value of an allele
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public DoubleArrayChromosome(final Configuration a_configuration,
+                               final double[] a_values,
+                               final double a_lowerBound,
+                               final double a_upperBound)
+      throws InvalidConfigurationException {
+    this(a_configuration, a_values.length, a_lowerBound, a_upperBound);
+    for (int i = 0; i < a_values.length; i++) {
+      setDouble(i, a_values[i]);
+    }
+  }
+
+  public int size() {
+    return m_values.length;
+  }
+
+  protected void resize(int a_size) {
+    if (a_size != m_values.length) {
+      double[] values = new double[a_size];
+      Arrays.fill(values, m_lowerBound);
+      System.arraycopy(m_values, 0, values, 0,
+                       Math.min(a_size, m_values.length));
+      m_values = values;
+    }
+  }
+
+  /**
+   * @param a_locus the locus to read
+   * @return allele at the given locus
+   *
+   * @since 3.7
+   */
+  public double getDouble(int a_locus) {
+    syncFromGene(a_locus);
+    return m_values[a_locus];
+  }
+
+  /**
+   * Sets the allele at the given locus. A value outside the bounds is replaced
+   * by a random value within the bounds, as DoubleGene does.
+   *
+   * @param a_locus the locus to set
+   * @param a_value the new allele
+   *
+   * @since 3.7
+   */
+  public void setDouble(int a_locus, double a_value) {
+    m_values[a_locus] = mapToBounds(a_value);
+    syncToGene(a_locus);
+  }
+
+  /**
+   * @return copy of all alleles
+   *
+   * @since 3.7
+   */
+  public double[] toDoubleArray() {
+    syncFromGenes();
+    return (double[]) m_values.clone();
+  }
+
+  public double getLowerBound() {
+    return m_lowerBound;
+  }
+
+  public double getUpperBound() {
+    return m_upperBound;
+  }
+
+  private double mapToBounds(double a_value) {
+    if (!Double.isInfinite(a_value)
+        && (a_value > m_upperBound || a_value < m_lowerBound)) {
+      return randomValue(getConfiguration().getRandomGenerator());
+    }
+    return a_value;
+  }
+
+  private double randomValue(RandomGenerator a_generator) {
+    return (m_upperBound - m_lowerBound) * a_generator.nextDouble()
+        + m_lowerBound;
+  }
+
+  public void setToRandomValues(RandomGenerator a_generator) {
+    for (int i = 0; i < m_values.length; i++) {
+      m_values[i] = randomValue(a_generator);
+    }
+    syncToGenes();
+  }
+
+  /**
+   * Same as DoubleGene.applyMutation.
+   *
+   * @param a_locus the locus to mutate
+   * @param a_percentage percentage of mutation (greater than -1 and smaller
+   * than 1)
+   *
+   * @since 3.7
+   */
+  public void applyMutation(int a_locus, double a_percentage) {
+    double range = (m_upperBound - m_lowerBound) * a_percentage;
+    setDouble(a_locus, getDouble(a_locus) + range);
+  }
+
+  public void crossover(ArrayChromosome a_other, int a_locus) {
+    DoubleArrayChromosome other = (DoubleArrayChromosome) a_other;
+    if (other.m_values.length != m_values.length) {
+      throw new IllegalArgumentException("Chromosomes differ in size!");
+    }
+    syncFromGenes();
+    other.syncFromGenes();
+    int len = m_values.length - a_locus;
+    double[] tmp = new double[len];
+    System.arraycopy(m_values, a_locus, tmp, 0, len);
+    System.arraycopy(other.m_values, a_locus, m_values, a_locus, len);
+    System.arraycopy(tmp, 0, other.m_values, a_locus, len);
+    syncToGenes();
+    other.syncToGenes();
+  }
+
+  protected ArrayChromosome copyValues()
+      throws InvalidConfigurationException {
+    DoubleArrayChromosome copy = new DoubleArrayChromosome(getConfiguration(),
+        m_values.length, m_lowerBound, m_upperBound);
+    System.arraycopy(m_values, 0, copy.m_values, 0, m_values.length);
+    return copy;
+  }
+
+  protected Gene newGeneForLocus(int a_locus)
+      throws InvalidConfigurationException {
+    Gene gene = new DoubleGene(getConfiguration(), m_lowerBound,
+                               m_upperBound);
+    gene.setAllele(Double.valueOf(m_values[a_locus]));
+    return gene;
+  }
+
+  protected void setValueFromGene(int a_locus, Gene a_gene) {
+    Object allele = a_gene.getAllele();
+    m_values[a_locus] = allele == null ? m_lowerBound :
+        ( (Number) allele).doubleValue();
+  }
+
+  protected void setGeneFromValue(int a_locus, Gene a_gene) {
+    a_gene.setAllele(Double.valueOf(m_values[a_locus]));
+  }
+
+  protected int compareValues(ArrayChromosome a_other) {
+    double[] other = ( (DoubleArrayChromosome) a_other).m_values;
+    for (int i = 0; i < m_values.length; i++) {
+      int comparison = Double.compare(m_values[i], other[i]);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  protected int valuesHashCode() {
+    return Arrays.hashCode(m_values);
+  }
+
+  protected long valueFingerprint(int a_locus) {
+    return Double.doubleToLongBits(m_values[a_locus]);
+  }
+
+  protected String valueToString(int a_locus) {
+    return String.valueOf(m_values[a_locus]);
+  }
+
+  protected void setValueFromString(int a_locus, String a_value) {
+    m_values[a_locus] = Double.parseDouble(a_value);
+  }
+}
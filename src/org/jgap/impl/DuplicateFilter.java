@@ -0,0 +1,553 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.io.*;
+import java.util.*;
+
+import org.jgap.*;
+
+/**
+ * Remembers which chromosomes have been seen before, e.g. evaluated by a bulk
+ * fitness function, see GABreeder. Instead of the chromosomes, only a 64 bit
+ * fingerprint of their alleles is stored. Memory is bounded, there are two
+ * modes:
+ * <ul>
+ * <li>LRU: the fingerprints of the given number of most recently seen
+ * chromosomes are kept exactly. Older ones are forgotten.</li>
+ * <li>Bloom filter: a fixed number of bits per chromosome is kept. A
+ * chromosome not seen may be reported as seen with the given false positive
+ * rate. When the expected number of chromosomes has been added, a new filter
+ * is started and the previous one kept, so that the last chromosomes added
+ * are always remembered.</li>
+ * </ul>
+ * Two chromosomes with equal alleles always have the same fingerprint.
+ * Chromosomes with different alleles are taken for duplicates only if their
+ * fingerprints collide. For alleles being numbers, strings, arrays or lists
+ * of these (e.g. the alleles of a CompositeGene), all 64 bits are used, which
+ * makes a collision very unlikely. Alleles of other classes only contribute
+ * their 32 bit hashCode, so chromosomes differing in such alleles collide as
+ * often as the hash codes do.
+ *
+ * @since 3.7
+ */
+public class DuplicateFilter
+    implements Serializable {
+  /**
+   * Number of chromosomes remembered in LRU mode by default.
+   */
+  public final static int DEFAULT_CAPACITY = 100000;
+
+  /**
+   * Maximum number of fingerprints in LRU mode, 0 in Bloom filter mode.
+   */
+  private final int m_capacity;
+
+  /**
+   * LRU mode: fingerprints by slot.
+   */
+  private long[] m_fingerprints;
+
+  /**
+   * LRU mode: slots of the previous (more recently seen) and next (less
+   * recently seen) entries, -1 for none.
+   */
+  private int[] m_prev;
+
+  private int[] m_next;
+
+  /**
+   * LRU mode: open addressing hash table holding slot + 1 for each
+   * fingerprint, 0 for an empty entry.
+   */
+  private int[] m_table;
+
+  private int m_head;
+
+  private int m_tail;
+
+  private int m_size;
+
+  /**
+   * Bloom filter mode: the filter currently added to and the previous one.
+   */
+  private long[] m_bloom;
+
+  private long[] m_bloomPrevious;
+
+  private int m_expected;
+
+  private int m_hashes;
+
+  private int m_added;
+
+  /**
+   * Remembers the last DEFAULT_CAPACITY chromosomes exactly.
+   *
+   * @since 3.7
+   */
+  public DuplicateFilter() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * LRU mode.
+   *
+   * @param a_capacity number of most recently seen chromosomes to remember
+   *
+   * @since 3.7
+   */
+  public DuplicateFilter(int a_capacity) {
+    if (a_capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be one or greater!");
+    }
+    m_capacity = a_capacity;
+    m_head = -1;
+    m_tail = -1;
+    // Memory is allocated as needed, many breeders never see a chromosome.
+    // --------------------------------------------------------------------
+    allocate(Math.min(a_capacity, 16));
+  }
+
+  /**
+   * Bloom filter mode.
+   *
+   * @param a_expected number of chromosomes after which a new filter is
+   * started
+   * @param a_falsePositiveRate probability for a chromosome not seen to be
+   * reported as seen, greater than 0 and less than 1
+   *
+   * @since 3.7
+   */
+  public DuplicateFilter(int a_expected, double a_falsePositiveRate) {
+    if (a_expected < 1) {
+      throw new IllegalArgumentException(
+          "Expected number must be one or greater!");
+    }
+    if (a_falsePositiveRate <= 0 || a_falsePositiveRate >= 1) {
+      throw new IllegalArgumentException(
+          "False positive rate must be between 0 and 1 (exclusive)!");
+    }
+    m_capacity = 0;
+    m_expected = a_expected;
+    // Optimal number of bits and hash functions of a Bloom filter.
+    // ------------------------------------------------------------
+    double ln2 = Math.log(2);
+    long bits = (long) Math.ceil( -a_expected * Math.log(a_falsePositiveRate)
+                                 / (ln2 * ln2));
+    int words = (int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64);
+    m_bloom = new long[words];
+    m_bloomPrevious = new long[words];
+    m_hashes = (int) Math.max(1, Math.round( (double) words * 64 / a_expected
+        * ln2));
+  }
+
+  /**
+   * @return true if in Bloom filter mode, false if in LRU mode
+   *
+   * @since 3.7
+   */
+  public boolean isBloomFilter() {
+    return m_capacity == 0;
+  }
+
+  /**
+   * @param a_chrom the chromosome to check
+   * @return true if a chromosome with the same alleles has been added before
+   * (and not yet been forgotten)
+   *
+   * @since 3.7
+   */
+  public boolean contains(IChromosome a_chrom) {
+    return contains(fingerprint(a_chrom));
+  }
+
+  /**
+   * Remembers the given chromosome.
+   *
+   * @param a_chrom the chromosome to add
+   * @return true if the chromosome has not been seen before
+   *
+   * @since 3.7
+   */
+  public boolean add(IChromosome a_chrom) {
+    return add(fingerprint(a_chrom));
+  }
+
+  /**
+   * @param a_fingerprint fingerprint as returned by fingerprint(IChromosome)
+   * @return true if the fingerprint has been added before (and not yet been
+   * forgotten)
+   *
+   * @since 3.7
+   */
+  public synchronized boolean contains(long a_fingerprint) {
+    if (isBloomFilter()) {
+      return bloomContains(m_bloom, a_fingerprint)
+          || bloomContains(m_bloomPrevious, a_fingerprint);
+    }
+    int index = findIndex(a_fingerprint);
+    if (m_table[index] == 0) {
+      return false;
+    }
+    moveToHead(m_table[index] - 1);
+    return true;
+  }
+
+  /**
+   * @param a_fingerprint fingerprint as returned by fingerprint(IChromosome)
+   * @return true if the fingerprint has not been added before
+   *
+   * @since 3.7
+   */
+  public synchronized boolean add(long a_fingerprint) {
+    if (isBloomFilter()) {
+      if (bloomContains(m_bloom, a_fingerprint)) {
+        return false;
+      }
+      // Also added if contained in the previous filter only, so that it is
+      // not forgotten when starting a new filter.
+      // --------------------------------------------------------------------
+      boolean seen = bloomContains(m_bloomPrevious, a_fingerprint);
+      if (m_added == m_expected) {
+        // Start a new filter, keeping the one just filled.
+        // ------------------------------------------------
+        long[] filled = m_bloom;
+        m_bloom = m_bloomPrevious;
+        m_bloomPrevious = filled;
+        Arrays.fill(m_bloom, 0L);
+        m_added = 0;
+      }
+      long bits = m_bloom.length * 64L;
+      int h1 = (int) a_fingerprint;
+      int h2 = (int) (a_fingerprint >>> 32);
+      for (int i = 0; i < m_hashes; i++) {
+        long bit = ( (h1 + (long) i * h2) & Long.MAX_VALUE) % bits;
+        m_bloom[(int) (bit >>> 6)] |= 1L << bit;
+      }
+      m_added++;
+      return !seen;
+    }
+    int index = findIndex(a_fingerprint);
+    if (m_table[index] != 0) {
+      moveToHead(m_table[index] - 1);
+      return false;
+    }
+    if (m_size == m_fingerprints.length && m_size < m_capacity) {
+      allocate( (int) Math.min(m_capacity, m_size * 2L));
+      index = findIndex(a_fingerprint);
+    }
+    int slot;
+    if (m_size == m_capacity) {
+      // Forget the least recently seen fingerprint.
+      // -------------------------------------------
+      slot = m_tail;
+      unlink(slot);
+      removeFromTable(findIndex(m_fingerprints[slot]));
+      index = findIndex(a_fingerprint);
+    }
+    else {
+      slot = m_size++;
+    }
+    m_fingerprints[slot] = a_fingerprint;
+    m_table[index] = slot + 1;
+    m_prev[slot] = -1;
+    m_next[slot] = m_head;
+    if (m_head >= 0) {
+      m_prev[m_head] = slot;
+    }
+    m_head = slot;
+    if (m_tail < 0) {
+      m_tail = slot;
+    }
+    return true;
+  }
+
+  /**
+   * @return number of fingerprints remembered in LRU mode, number of
+   * fingerprints added to the current filter in Bloom filter mode
+   *
+   * @since 3.7
+   */
+  public synchronized int size() {
+    if (isBloomFilter()) {
+      return m_added;
+    }
+    return m_size;
+  }
+
+  /**
+   * Forgets all chromosomes.
+   *
+   * @since 3.7
+   */
+  public synchronized void clear() {
+    if (isBloomFilter()) {
+      Arrays.fill(m_bloom, 0L);
+      Arrays.fill(m_bloomPrevious, 0L);
+      m_added = 0;
+    }
+    else {
+      m_size = 0;
+      allocate(Math.min(m_capacity, 16));
+      m_head = -1;
+      m_tail = -1;
+    }
+  }
+
+  /**
+   * Computes a 64 bit fingerprint of the alleles of a chromosome. The alleles
+   * of an ArrayChromosome are read without requesting its genes.
+   *
+   * @param a_chrom the chromosome
+   * @return the fingerprint
+   *
+   * @since 3.7
+   */
+  public static long fingerprint(IChromosome a_chrom) {
+    int size = a_chrom.size();
+    long result = size;
+    if (a_chrom instanceof ArrayChromosome) {
+      ArrayChromosome chrom = (ArrayChromosome) a_chrom;
+      chrom.syncFromGenes();
+      for (int i = 0; i < size; i++) {
+        result = combine(result, chrom.valueFingerprint(i));
+      }
+      return result;
+    }
+    for (int i = 0; i < size; i++) {
+      result = combine(result, fingerprint(a_chrom.getGene(i).getAllele()));
+    }
+    return result;
+  }
+
+  private static long combine(long a_hash, long a_value) {
+    return SplitMix64RandomGenerator.mix64(a_hash
+        * SplitMix64RandomGenerator.GOLDEN_GAMMA + a_value);
+  }
+
+  /**
+   * @param a_allele allele of a gene or an element of it, may be null
+   * @return 64 bit fingerprint of arrays, lists and strings by content, of
+   * numbers by value, and the hash code of other objects
+   *
+   * @since 3.7
+   */
+  public static long fingerprint(Object a_allele) {
+    if (a_allele == null) {
+      return 0x5DEECE66DL;
+    }
+    if (a_allele instanceof Double) {
+      return Double.doubleToLongBits( ( (Double) a_allele).doubleValue());
+    }
+    if (a_allele instanceof Long) {
+      return ( (Long) a_allele).longValue();
+    }
+    if (a_allele instanceof String) {
+      String s = (String) a_allele;
+      long result = s.length();
+      for (int i = 0; i < s.length(); i++) {
+        // FNV-1a, mixed once per allele by the caller.
+        // --------------------------------------------
+        result = (result ^ s.charAt(i)) * 0x100000001B3L;
+      }
+      return result;
+    }
+    if (a_allele instanceof List) {
+      // E.g. the alleles of a CompositeGene.
+      // ------------------------------------
+      List list = (List) a_allele;
+      long result = list.size();
+      for (int i = 0; i < list.size(); i++) {
+        result = combine(result, fingerprint(list.get(i)));
+      }
+      return result;
+    }
+    if (!a_allele.getClass().isArray()) {
+      return a_allele.hashCode();
+    }
+    // Arrays, e.g. the alleles of a FixedBinaryGene, are new objects with an
+    // identity hash code, thus use their elements.
+    // ----------------------------------------------------------------------
+    if (a_allele instanceof int[]) {
+      int[] values = (int[]) a_allele;
+      long result = values.length;
+      for (int i = 0; i < values.length; i++) {
+        result = combine(result, values[i]);
+      }
+      return result;
+    }
+    if (a_allele instanceof long[]) {
+      long[] values = (long[]) a_allele;
+      long result = values.length;
+      for (int i = 0; i < values.length; i++) {
+        result = combine(result, values[i]);
+      }
+      return result;
+    }
+    if (a_allele instanceof double[]) {
+      double[] values = (double[]) a_allele;
+      long result = values.length;
+      for (int i = 0; i < values.length; i++) {
+        result = combine(result, Double.doubleToLongBits(values[i]));
+      }
+      return result;
+    }
+    if (a_allele instanceof boolean[]) {
+      boolean[] values = (boolean[]) a_allele;
+      long result = values.length;
+      for (int i = 0; i < values.length; i++) {
+        result = combine(result, values[i] ? 1 : 0);
+      }
+      return result;
+    }
+    if (a_allele instanceof Object[]) {
+      Object[] values = (Object[]) a_allele;
+      long result = values.length;
+      for (int i = 0; i < values.length; i++) {
+        result = combine(result, fingerprint(values[i]));
+      }
+      return result;
+    }
+    // Remaining primitive arrays: byte, short, char, float.
+    // -----------------------------------------------------
+    int length = java.lang.reflect.Array.getLength(a_allele);
+    long result = length;
+    for (int i = 0; i < length; i++) {
+      result = combine(result, java.lang.reflect.Array.get(a_allele, i).
+                       hashCode());
+    }
+    return result;
+  }
+
+  /**
+   * Sets the number of slots, keeping the fingerprints and their order.
+   *
+   * @param a_slots new number of slots, not less than the current size
+   */
+  private void allocate(int a_slots) {
+    long[] fingerprints = new long[a_slots];
+    int[] prev = new int[a_slots];
+    int[] next = new int[a_slots];
+    if (m_size > 0) {
+      System.arraycopy(m_fingerprints, 0, fingerprints, 0, m_size);
+      System.arraycopy(m_prev, 0, prev, 0, m_size);
+      System.arraycopy(m_next, 0, next, 0, m_size);
+    }
+    m_fingerprints = fingerprints;
+    m_prev = prev;
+    m_next = next;
+    // Keep the load factor of the hash table at 0.5 at most.
+    // ------------------------------------------------------
+    m_table = new int[Integer.highestOneBit(a_slots) * 4];
+    for (int slot = 0; slot < m_size; slot++) {
+      m_table[findIndex(m_fingerprints[slot])] = slot + 1;
+    }
+  }
+
+  private boolean bloomContains(long[] a_bloom, long a_fingerprint) {
+    long bits = a_bloom.length * 64L;
+    int h1 = (int) a_fingerprint;
+    int h2 = (int) (a_fingerprint >>> 32);
+    for (int i = 0; i < m_hashes; i++) {
+      long bit = ( (h1 + (long) i * h2) & Long.MAX_VALUE) % bits;
+      if ( (a_bloom[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int home(long a_fingerprint) {
+    return (int) (a_fingerprint ^ (a_fingerprint >>> 32)) & (m_table.length - 1);
+  }
+
+  /**
+   * @param a_fingerprint the fingerprint to look for
+   * @return index of the table entry holding the fingerprint, or of the empty
+   * entry where it would be inserted
+   */
+  private int findIndex(long a_fingerprint) {
+    int mask = m_table.length - 1;
+    int index = home(a_fingerprint);
+    while (m_table[index] != 0
+           && m_fingerprints[m_table[index] - 1] != a_fingerprint) {
+      index = (index + 1) & mask;
+    }
+    return index;
+  }
+
+  /**
+   * Removes an entry of the table by shifting back the following entries of
+   * its probe sequence.
+   *
+   * @param a_index index of the entry to remove
+   */
+  private void removeFromTable(int a_index) {
+    int mask = m_table.length - 1;
+    int free = a_index;
+    int index = a_index;
+    while (true) {
+      index = (index + 1) & mask;
+      if (m_table[index] == 0) {
+        break;
+      }
+      int home = home(m_fingerprints[m_table[index] - 1]);
+      // Only move entries whose home is not between the free entry and
+      // their current position.
+      // ---------------------------------------------------------------
+      boolean stays;
+      if (free <= index) {
+        stays = free < home && home <= index;
+      }
+      else {
+        stays = free < home || home <= index;
+      }
+      if (!stays) {
+        m_table[free] = m_table[index];
+        free = index;
+      }
+    }
+    m_table[free] = 0;
+  }
+
+  private void unlink(int a_slot) {
+    int prev = m_prev[a_slot];
+    int next = m_next[a_slot];
+    if (prev >= 0) {
+      m_next[prev] = next;
+    }
+    else {
+      m_head = next;
+    }
+    if (next >= 0) {
+      m_prev[next] = prev;
+    }
+    else {
+      m_tail = prev;
+    }
+  }
+
+  private void moveToHead(int a_slot) {
+    if (a_slot == m_head) {
+      return;
+    }
+    unlink(a_slot);
+    m_prev[a_slot] = -1;
+    m_next[a_slot] = m_head;
+    if (m_head >= 0) {
+      m_prev[m_head] = a_slot;
+    }
+    m_head = a_slot;
+    if (m_tail < 0) {
+      m_tail = a_slot;
+    }
+  }
+}
@@ -27,13 +27,40 @@ public class GABreeder
 
   private transient Population m_lastPop;
 
-  //It contains clones of the chromosomes with the fitness value removed
-  //We will use it to remove the duplicates
-  List<IChromosome> m_allChromosomesSoFar;
+  /**
+   * Fingerprints of the chromosomes evaluated by the bulk fitness function so
+   * far. We will use it to remove the duplicates.
+   */
+  private DuplicateFilter m_duplicateFilter;
 
   public GABreeder() {
     super();
-    m_allChromosomesSoFar = new ArrayList<IChromosome> ();
+    m_duplicateFilter = new DuplicateFilter();
+  }
+
+  /**
+   * Sets the filter used to skip chromosomes already evaluated by a bulk
+   * fitness function. By default, the last DuplicateFilter.DEFAULT_CAPACITY
+   * chromosomes are remembered.
+   *
+   * @param a_duplicateFilter the filter to use, e.g. one in Bloom filter mode
+   *
+   * @since 3.7
+   */
+  public void setDuplicateFilter(DuplicateFilter a_duplicateFilter) {
+    if (a_duplicateFilter == null) {
+      throw new IllegalArgumentException("Duplicate filter must not be null!");
+    }
+    m_duplicateFilter = a_duplicateFilter;
+  }
+
+  /**
+   * @return the filter used to skip chromosomes already evaluated
+   *
+   * @since 3.7
+   */
+  public DuplicateFilter getDuplicateFilter() {
+    return m_duplicateFilter;
   }
 
   /**
@@ -306,6 +333,14 @@ public class GABreeder
     BulkFitnessFunction bulkFunction = a_conf.getBulkFitnessFunction();
     boolean bulkFitFunc = (bulkFunction != null);
     if (!bulkFitFunc) {
+      IPopulationEvaluator evaluator = a_conf.getPopulationEvaluator();
+      if (evaluator != null) {
+        // Let the registered evaluator compute the fitness values, e.g.
+        // concurrently.
+        // -------------------------------------------------------------
+        evaluator.evaluate(a_pop, a_conf);
+        return;
+      }
       for (int i = 0; i < currentPopSize; i++) {
         IChromosome chrom = a_pop.getChromosome(i);
         chrom.getFitnessValue();
@@ -373,12 +408,12 @@ public class GABreeder
       }
       //remove chromosomes which have been already evaluated
       Population popForBulkFunction = removeEvaluatedChromosomes(a_pop, a_conf);
-      if (!m_allChromosomesSoFar.isEmpty()) {
+      if (m_duplicateFilter.size() > 0) {
         Iterator it = popForBulkFunction.getChromosomes().iterator();
         //remove dublicates
         while (it.hasNext()) {
           IChromosome a_chrom1 = (IChromosome) it.next();
-          if (m_allChromosomesSoFar.contains( (IChromosome) a_chrom1)) {
+          if (m_duplicateFilter.contains(a_chrom1)) {
             it.remove();
           }
         }
@@ -391,15 +426,12 @@ public class GABreeder
          * prototype! */
         a_bulkFunction.evaluate(popForBulkFunction);
       }
-      //Remove the fitness value and add evaluated elements to
-      //the List with NO_FITNESS_VALUE
+      //Remember the evaluated elements
       //and add the NEW elements to pop
       Iterator it2 = popForBulkFunction.getChromosomes().iterator();
       while (it2.hasNext()) {
         Chromosome chrom0 = (Chromosome) it2.next();
-        Chromosome chrom = (Chromosome) chrom0.clone();
-        chrom.setFitnessValueDirectly(FitnessFunction.NO_FITNESS_VALUE);
-        m_allChromosomesSoFar.add(chrom);
+        m_duplicateFilter.add(chrom0);
         if (!a_pop.getChromosomes().contains( (IChromosome) chrom0)) {
           a_pop.addChromosome( (Chromosome) chrom0);
         }
@@ -20,11 +20,9 @@ import org.jgap.*;
  * @since 2.0
  */
 public class GaussianMutationOperator
-    extends BaseGeneticOperator {
+    extends BaseGeneticOperator implements IConcurrentGeneticOperator {
   private double m_deviation;
 
-  private RandomGenerator m_rg;
-
   /**
    * Constructs a GaussianMutationOperator with a default deviation of 0.05.
    * Attention: The configuration used is the one set with the static method
@@ -72,6 +70,16 @@ public class GaussianMutationOperator
     m_deviation = a_deviation;
   }
 
+  /**
+   * @return true for instances of this class only, subclasses have to opt in
+   * to concurrent application by overriding this method
+   *
+   * @since 3.7
+   */
+  public boolean isConcurrent() {
+    return getClass() == GaussianMutationOperator.class;
+  }
+
   /**
    * Executes the operation.
    *
@@ -85,10 +93,7 @@ public class GaussianMutationOperator
                       final List a_candidateChromosomes) {
     int size = Math.min(getConfiguration().getPopulationSize(),
                         a_population.size());
-    if (m_rg == null) {
-      RandomGenerator rn = getConfiguration().getRandomGenerator();
-      m_rg = rn;
-    }
+    RandomGenerator rn = getConfiguration().getRandomGenerator();
     for (int i = 0; i < size; i++) {
       Gene[] genes = a_population.getChromosome(i).getGenes();
       IChromosome originalChrom = a_population.getChromosome(i);
@@ -96,7 +101,7 @@ public class GaussianMutationOperator
       // For each Chromosome in the population...
       // ----------------------------------------
       for (int j = 0; j < genes.length; j++) {
-        double nextGaussian = m_rg.nextDouble();
+        double nextGaussian = rn.nextDouble();
         double diff = nextGaussian * m_deviation;
         // ...take a copy of it...
         // -----------------------
@@ -106,7 +111,7 @@ public class GaussianMutationOperator
           // ----------------------------------
           a_candidateChromosomes.add(copyOfChromosome);
           // ...then Gaussian mutate all its genes
-          genes = copyOfChromosome.getGenes();
+          genes = BaseChromosome.writableGenes(copyOfChromosome);
           // In case monitoring is active, support it.
           // -----------------------------------------
           if (m_monitorActive) {
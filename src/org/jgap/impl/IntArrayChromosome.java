@@ -0,0 +1,242 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+
+import org.jgap.*;
+
+/**
+ * Chromosome of integer alleles stored in an int array. All loci share the
+ * same bounds. Behaves like a Chromosome consisting of IntegerGene's with
+ * these bounds, see ArrayChromosome for details.
+ *
+ * @since 3.7
+ */
+public class IntArrayChromosome
+    extends ArrayChromosome {
+  private int[] m_values;
+
+  private int m_lowerBounds;
+
+  private int m_upperBounds;
+
+  /**
+   * Constructs a chromosome with all alleles set to the lower bounds.
+   *
+   * @param a_configuration the configuration to use
+   * @param a_size number of loci
+   * @param a_lowerBounds lowest possible value of an allele
+   * @param a_upperBounds highest possible value of an allele
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public IntArrayChromosome(final Configuration a_configuration,
+                            final int a_size, final int a_lowerBounds,
+                            final int a_upperBounds)
+      throws InvalidConfigurationException {
+    super(a_configuration);
+    if (a_size <= 0) {
+      throw new IllegalArgumentException(
+          "Chromosome size must be greater than zero");
+    }
+    if (a_lowerBounds > a_upperBounds) {
+      throw new IllegalArgumentException(
+          "Lower bounds must not be greater than upper bounds");
+    }
+    m_lowerBounds = a_lowerBounds;
+    m_upperBounds = a_upperBounds;
+    m_values = new int[a_size];
+    Arrays.fill(m_values, a_lowerBounds);
+  }
+
+  /**
+   * @param a_configuration the configuration to use
+   * @param a_values the alleles, the array is copied
+   * @param a_lowerBounds lowest possible value of an allele
+   * @param a_upperBounds highest possible value of an allele
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public IntArrayChromosome(final Configuration a_configuration,
+                            final int[] a_values, final int a_lowerBounds,
+                            final int a_upperBounds)
+      throws InvalidConfigurationException {
+    this(a_configuration, a_values.length, a_lowerBounds, a_upperBounds);
+    for (int i = 0; i < a_values.length; i++) {
+      setInt(i, a_values[i]);
+    }
+  }
+
+  public int size() {
+    return m_values.length;
+  }
+
+  protected void resize(int a_size) {
+    if (a_size != m_values.length) {
+      int[] values = new int[a_size];
+      Arrays.fill(values, m_lowerBounds);
+      System.arraycopy(m_values, 0, values, 0,
+                       Math.min(a_size, m_values.length));
+      m_values = values;
+    }
+  }
+
+  /**
+   * @param a_locus the locus to read
+   * @return allele at the given locus
+   *
+   * @since 3.7
+   */
+  public int getInt(int a_locus) {
+    syncFromGene(a_locus);
+    return m_values[a_locus];
+  }
+
+  /**
+   * Sets the allele at the given locus. A value outside the bounds is replaced
+   * by a random value within the bounds, as IntegerGene does.
+   *
+   * @param a_locus the locus to set
+   * @param a_value the new allele
+   *
+   * @since 3.7
+   */
+  public void setInt(int a_locus, int a_value) {
+    m_values[a_locus] = mapToBounds(a_value);
+    syncToGene(a_locus);
+  }
+
+  /**
+   * @return copy of all alleles
+   *
+   * @since 3.7
+   */
+  public int[] toIntArray() {
+    syncFromGenes();
+    return (int[]) m_values.clone();
+  }
+
+  public int getLowerBounds() {
+    return m_lowerBounds;
+  }
+
+  public int getUpperBounds() {
+    return m_upperBounds;
+  }
+
+  private int mapToBounds(int a_value) {
+    if (a_value > m_upperBounds || a_value < m_lowerBounds) {
+      if (m_upperBounds == m_lowerBounds) {
+        return m_lowerBounds;
+      }
+      return randomValue(getConfiguration().getRandomGenerator());
+    }
+    return a_value;
+  }
+
+  private int randomValue(RandomGenerator a_generator) {
+    double randomValue = ( (long) m_upperBounds - (long) m_lowerBounds) *
+        a_generator.nextDouble() + m_lowerBounds;
+    return (int) Math.round(randomValue);
+  }
+
+  public void setToRandomValues(RandomGenerator a_generator) {
+    for (int i = 0; i < m_values.length; i++) {
+      m_values[i] = randomValue(a_generator);
+    }
+    syncToGenes();
+  }
+
+  /**
+   * Same as IntegerGene.applyMutation.
+   *
+   * @param a_locus the locus to mutate
+   * @param a_percentage percentage of mutation (greater than -1 and smaller
+   * than 1)
+   *
+   * @since 3.7
+   */
+  public void applyMutation(int a_locus, double a_percentage) {
+    double range = ( (long) m_upperBounds - (long) m_lowerBounds) *
+        a_percentage;
+    setInt(a_locus, (int) Math.round(getInt(a_locus) + range));
+  }
+
+  public void crossover(ArrayChromosome a_other, int a_locus) {
+    IntArrayChromosome other = (IntArrayChromosome) a_other;
+    if (other.m_values.length != m_values.length) {
+      throw new IllegalArgumentException("Chromosomes differ in size!");
+    }
+    syncFromGenes();
+    other.syncFromGenes();
+    int len = m_values.length - a_locus;
+    int[] tmp = new int[len];
+    System.arraycopy(m_values, a_locus, tmp, 0, len);
+    System.arraycopy(other.m_values, a_locus, m_values, a_locus, len);
+    System.arraycopy(tmp, 0, other.m_values, a_locus, len);
+    syncToGenes();
+    other.syncToGenes();
+  }
+
+  protected ArrayChromosome copyValues()
+      throws InvalidConfigurationException {
+    IntArrayChromosome copy = new IntArrayChromosome(getConfiguration(),
+        m_values.length, m_lowerBounds, m_upperBounds);
+    System.arraycopy(m_values, 0, copy.m_values, 0, m_values.length);
+    return copy;
+  }
+
+  protected Gene newGeneForLocus(int a_locus)
+      throws InvalidConfigurationException {
+    Gene gene = new IntegerGene(getConfiguration(), m_lowerBounds,
+                                m_upperBounds);
+    gene.setAllele(Integer.valueOf(m_values[a_locus]));
+    return gene;
+  }
+
+  protected void setValueFromGene(int a_locus, Gene a_gene) {
+    Object allele = a_gene.getAllele();
+    m_values[a_locus] = allele == null ? m_lowerBounds :
+        ( (Number) allele).intValue();
+  }
+
+  protected void setGeneFromValue(int a_locus, Gene a_gene) {
+    a_gene.setAllele(Integer.valueOf(m_values[a_locus]));
+  }
+
+  protected int compareValues(ArrayChromosome a_other) {
+    int[] other = ( (IntArrayChromosome) a_other).m_values;
+    for (int i = 0; i < m_values.length; i++) {
+      if (m_values[i] != other[i]) {
+        return m_values[i] < other[i] ? -1 : 1;
+      }
+    }
+    return 0;
+  }
+
+  protected int valuesHashCode() {
+    return Arrays.hashCode(m_values);
+  }
+
+  protected long valueFingerprint(int a_locus) {
+    return m_values[a_locus];
+  }
+
+  protected String valueToString(int a_locus) {
+    return String.valueOf(m_values[a_locus]);
+  }
+
+  protected void setValueFromString(int a_locus, String a_value) {
+    m_values[a_locus] = Integer.parseInt(a_value);
+  }
+}
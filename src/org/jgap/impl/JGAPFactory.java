@@ -50,8 +50,6 @@ public class JGAPFactory
 
   private boolean m_useCaching;
 
-  private Map<String,Long> m_lastKeys;
-
   public JGAPFactory(boolean a_useCaching) {
     m_initer = new Vector();
     m_cache = new LRUCache(50);
@@ -63,7 +61,6 @@ public class JGAPFactory
     m_defaultCloneHandler = new DefaultCloneHandler();
     m_defaultIniter = new DefaultInitializer();
     m_defaultComparer = new DefaultCompareToHandler();
-    m_lastKeys = new HashMap();
   }
 
   /**
@@ -385,31 +382,18 @@ public class JGAPFactory
   }
 
   /**
-   * Returns a unique key for the given context. The key uses the current date
-   * and time and a GUID. Thus it is quite probable, that the key is unique
-   * worldwide.
+   * Returns a unique key for the given context. The key consists of a prefix
+   * determined randomly once per run and a sequence number, see LineageID.
+   * Thus it is quite probable, that the key is unique worldwide.
    *
    * @param a_context the context to get the next key for, like "Chromosome".
+   * Since 3.7 keys are unique across all contexts
    * @return the unique key for the given context
    *
    * @author Klaus Meffert
    * @since 3.5
    */
   public String getUniqueKey(String a_context) {
-    // For each context, keep track of keys used.
-    // ------------------------------------------
-    Long lastKey = m_lastKeys.get(a_context);
-    if(lastKey == null) {
-      lastKey = new Long(1);
-    }
-    else {
-      // The next key is always the increment of the previous key.
-      // ---------------------------------------------------------
-      lastKey = lastKey.longValue() + 1;
-    }
-    m_lastKeys.put(a_context, lastKey);
-    String GUID = UUID.randomUUID().toString();
-    String key = GUID + "_"+ DateKit.getNowAsString() + "_" + lastKey;
-    return key;
+    return LineageID.toString(LineageID.next());
   }
 }
@@ -25,13 +25,17 @@ import org.jgap.data.config.*;
  * rate is determined by this class if no fixed rate is provided, and is
  * calculated based on the size of the Chromosomes in the population. Details
  * are specified in the DefaultMutationRateCalculator class.
+ * <p>
+ * For low mutation rates, geometric sampling can be switched on to avoid
+ * deciding for each gene separately, see setGeometricSkip.
  *
  * @author Neil Rotstan
  * @author Klaus Meffert
  * @since 1.0
  */
 public class MutationOperator
-    extends BaseGeneticOperator implements Configurable {
+    extends BaseGeneticOperator
+    implements Configurable, IConcurrentGeneticOperator {
   /**
    * Calculator for dynamically determining the mutation rate. If set to
    * null the value of m_mutationRate will be used. Replaces the previously used
@@ -117,6 +121,16 @@ public class MutationOperator
     setMutationRateCalc(null);
   }
 
+  /**
+   * @return true for instances of this class only, subclasses have to opt in
+   * to concurrent application by overriding this method
+   *
+   * @since 3.7
+   */
+  public boolean isConcurrent() {
+    return getClass() == MutationOperator.class;
+  }
+
   /**
    * @param a_population the population of chromosomes from the current
    * evolution prior to exposure to any genetic operators. Chromosomes in this
@@ -158,12 +172,23 @@ public class MutationOperator
                         a_population.size());
     IGeneticOperatorConstraint constraint = getConfiguration().
         getJGAPFactory().getGeneticOperatorConstraint();
+    // List passed to the constraint, reused for each check.
+    // -----------------------------------------------------
+    List v = null;
+    if (constraint != null) {
+      v = new Vector(1);
+      v.add(null);
+    }
+    if (m_config.m_geometricSkip) {
+      operateGeometric(a_population, a_candidateChromosomes, size, constraint,
+                       v, generator);
+      return;
+    }
     //
     for (int i = 0; i < size; i++) {
       IChromosome chrom = a_population.getChromosome(i);
       Gene[] genes1 = chrom.getGenes();
       IChromosome copyOfChromosome = null;
-      Gene[] genes = null;
       // For each Chromosome in the population...
       // ----------------------------------------
       for (int j = 0; j < genes1.length; j++) {
@@ -184,63 +209,183 @@ public class MutationOperator
           // ------------------------------
           /**@todo move to base class, refactor*/
           if (constraint != null) {
-            List v = new Vector();
-            v.add(chrom);
+            v.set(0, chrom);
             if (!constraint.isValid(a_population, v, this)) {
               continue;
             }
           }
-          // Now that we want to actually modify the Chromosome,
-          // let's make a copy of it (if we haven't already) and
-          // add it to the candidate chromosomes so that it will
-          // be considered for natural selection during the next
-          // phase of evolution. Then we'll set the gene's value
-          // to a random value as the implementation of our
-          // "mutation" of the gene.
-          // ---------------------------------------------------
-          if (copyOfChromosome == null) {
-            // ...take a copy of it...
-            // -----------------------
-            copyOfChromosome = (IChromosome) chrom.clone();
-            // ...add it to the candidate pool...
-            // ----------------------------------
-            a_candidateChromosomes.add(copyOfChromosome);
-            // ...then mutate all its genes...
-            // -------------------------------
-            genes = copyOfChromosome.getGenes();
-            // In case monitoring is active, support it.
-            // -----------------------------------------
-            if (m_monitorActive) {
-              copyOfChromosome.setUniqueIDTemplate(chrom.getUniqueID(), 1);
-            }
-          }
-          // Process all atomic elements in the gene. For a StringGene this
-          // would be as many elements as the string is long , for an
-          // IntegerGene, it is always one element.
-          // --------------------------------------------------------------
-          if (genes[j] instanceof ICompositeGene) {
-            ICompositeGene compositeGene = (ICompositeGene) genes[j];
-            if (m_monitorActive) {
-              compositeGene.setUniqueIDTemplate(chrom.getGene(j).getUniqueID(), 1);
-            }
-            for (int k = 0; k < compositeGene.size(); k++) {
-              mutateGene(compositeGene.geneAt(k), generator);
-              if (m_monitorActive) {
-                compositeGene.geneAt(k).setUniqueIDTemplate(
-                    ( (ICompositeGene) chrom.getGene(j)).geneAt(k).getUniqueID(),
-                    1);
-              }
-            }
-          }
-          else {
-            mutateGene(genes[j], generator);
-            if (m_monitorActive) {
-              genes[j].setUniqueIDTemplate(chrom.getGene(j).getUniqueID(), 1);
-            }
-          }
+          copyOfChromosome = mutateLocus(chrom, copyOfChromosome, j,
+                                         a_candidateChromosomes, generator);
+        }
+      }
+    }
+  }
+
+  /**
+   * Mutates the population by jumping directly from one mutated gene to the
+   * next one. The gaps between mutated genes over all genes of the population
+   * are geometrically distributed, so that each gene is mutated with the
+   * probability 1/rate, as with the gene by gene decision. Only one random
+   * number is drawn per mutation instead of one per gene.
+   *
+   * @param a_population the population to mutate
+   * @param a_candidateChromosomes the pool of chromosomes that have been
+   * mutated
+   * @param a_size number of chromosomes to consider
+   * @param a_constraint constraint to check, may be null
+   * @param a_constraintList list to pass to the constraint
+   * @param a_generator the random generator to use
+   *
+   * @since 3.7
+   */
+  private void operateGeometric(final Population a_population,
+                                final List a_candidateChromosomes,
+                                final int a_size,
+                                final IGeneticOperatorConstraint a_constraint,
+                                final List a_constraintList,
+                                final RandomGenerator a_generator) {
+    // The rate calculator is asked once for the whole population.
+    // -----------------------------------------------------------
+    int rate;
+    if (m_mutationRateCalc != null) {
+      rate = m_mutationRateCalc.calculateCurrentRate();
+    }
+    else {
+      rate = m_config.m_mutationRate;
+    }
+    if (rate < 1) {
+      return;
+    }
+    double logKeep;
+    if (rate == 1) {
+      // Every gene is mutated.
+      // ----------------------
+      logKeep = Double.NEGATIVE_INFINITY;
+    }
+    else {
+      logKeep = Math.log(1.0d - 1.0d / rate);
+    }
+    // Number of genes to skip before the next mutated gene, counted over the
+    // genes of all chromosomes.
+    // ----------------------------------------------------------------------
+    long gap = nextGap(logKeep, a_generator);
+    for (int i = 0; i < a_size; i++) {
+      IChromosome chrom = a_population.getChromosome(i);
+      int len = chrom.size();
+      if (gap >= len) {
+        // No gene of this chromosome is mutated.
+        // --------------------------------------
+        gap -= len;
+        continue;
+      }
+      if (a_constraint != null) {
+        a_constraintList.set(0, chrom);
+      }
+      IChromosome copyOfChromosome = null;
+      int j = (int) gap;
+      while (true) {
+        if (a_constraint == null
+            || a_constraint.isValid(a_population, a_constraintList, this)) {
+          copyOfChromosome = mutateLocus(chrom, copyOfChromosome, j,
+                                         a_candidateChromosomes, a_generator);
+        }
+        gap = nextGap(logKeep, a_generator);
+        int remaining = len - j - 1;
+        if (gap >= remaining) {
+          gap -= remaining;
+          break;
+        }
+        j += (int) gap + 1;
+      }
+    }
+  }
+
+  /**
+   * @param a_logKeep logarithm of the probability that a gene is not mutated
+   * @param a_generator the random generator to use
+   * @return number of genes not mutated before the next mutated gene
+   *
+   * @since 3.7
+   */
+  private long nextGap(final double a_logKeep,
+                       final RandomGenerator a_generator) {
+    if (a_logKeep == Double.NEGATIVE_INFINITY) {
+      return 0;
+    }
+    double gap = Math.floor(Math.log(1.0d - a_generator.nextDouble())
+                            / a_logKeep);
+    if (gap >= Long.MAX_VALUE) {
+      return Long.MAX_VALUE;
+    }
+    return (long) gap;
+  }
+
+  /**
+   * Mutates a single gene of a chromosome. The chromosome is copied and the
+   * copy added to the candidate chromosomes on the first mutation.
+   *
+   * @param a_chrom the original chromosome
+   * @param a_copy the copy of the chromosome mutated so far, or null
+   * @param a_index index of the gene to mutate
+   * @param a_candidateChromosomes the pool of chromosomes that have been
+   * mutated
+   * @param a_generator the random generator to use
+   * @return the mutated copy of the chromosome
+   *
+   * @since 3.7
+   */
+  private IChromosome mutateLocus(final IChromosome a_chrom,
+                                  IChromosome a_copy, final int a_index,
+                                  final List a_candidateChromosomes,
+                                  final RandomGenerator a_generator) {
+    // Now that we want to actually modify the Chromosome,
+    // let's make a copy of it (if we haven't already) and
+    // add it to the candidate chromosomes so that it will
+    // be considered for natural selection during the next
+    // phase of evolution. Then we'll set the gene's value
+    // to a random value as the implementation of our
+    // "mutation" of the gene.
+    // ---------------------------------------------------
+    if (a_copy == null) {
+      // ...take a copy of it...
+      // -----------------------
+      a_copy = (IChromosome) a_chrom.clone();
+      // ...add it to the candidate pool...
+      // ----------------------------------
+      a_candidateChromosomes.add(a_copy);
+      // In case monitoring is active, support it.
+      // -----------------------------------------
+      if (m_monitorActive) {
+        a_copy.setUniqueIDTemplate(a_chrom.getUniqueID(), 1);
+      }
+    }
+    Gene gene = BaseChromosome.writableGene(a_copy, a_index);
+    // Process all atomic elements in the gene. For a StringGene this
+    // would be as many elements as the string is long , for an
+    // IntegerGene, it is always one element.
+    // --------------------------------------------------------------
+    if (gene instanceof ICompositeGene) {
+      ICompositeGene compositeGene = (ICompositeGene) gene;
+      if (m_monitorActive) {
+        compositeGene.setUniqueIDTemplate(a_chrom.getGene(a_index).
+                                          getUniqueID(), 1);
+      }
+      for (int k = 0; k < compositeGene.size(); k++) {
+        mutateGene(compositeGene.geneAt(k), a_generator);
+        if (m_monitorActive) {
+          compositeGene.geneAt(k).setUniqueIDTemplate(
+              ( (ICompositeGene) a_chrom.getGene(a_index)).geneAt(k).
+              getUniqueID(), 1);
         }
       }
     }
+    else {
+      mutateGene(gene, a_generator);
+      if (m_monitorActive) {
+        gene.setUniqueIDTemplate(a_chrom.getGene(a_index).getUniqueID(), 1);
+      }
+    }
+    return a_copy;
   }
 
   /**
@@ -361,6 +506,14 @@ public class MutationOperator
         return -1;
       }
     }
+    if (m_config.m_geometricSkip != op.m_config.m_geometricSkip) {
+      if (m_config.m_geometricSkip) {
+        return 1;
+      }
+      else {
+        return -1;
+      }
+    }
     // Everything is equal. Return zero.
     // ---------------------------------
     return 0;
@@ -370,6 +523,35 @@ public class MutationOperator
     return m_config.m_mutationRate;
   }
 
+  /**
+   * Switches geometric sampling on or off. With geometric sampling, the
+   * genes to mutate are determined by skipping over all genes of the
+   * population with geometrically distributed gaps, so that the effort depends
+   * on the number of mutations rather than on the number of genes. This pays
+   * off for low mutation rates and large populations.
+   * <p>
+   * If a mutation rate calculator is set, its current rate is determined once
+   * per call of operate and applies to all genes. IUniversalRateCalculator.
+   * toBePermutated is not called in this mode.
+   *
+   * @param a_geometricSkip true: use geometric sampling, false: decide for
+   * each gene separately (default)
+   *
+   * @since 3.7
+   */
+  public void setGeometricSkip(boolean a_geometricSkip) {
+    m_config.m_geometricSkip = a_geometricSkip;
+  }
+
+  /**
+   * @return true if geometric sampling is used, see setGeometricSkip
+   *
+   * @since 3.7
+   */
+  public boolean isGeometricSkip() {
+    return m_config.m_geometricSkip;
+  }
+
   class MutationOperatorConfigurable
       implements java.io.Serializable {
     /**
@@ -379,5 +561,11 @@ public class MutationOperator
      * disables mutation entirely.
      */
     public int m_mutationRate;
+
+    /**
+     * True: mutated genes are determined by geometric sampling, see
+     * setGeometricSkip.
+     */
+    public boolean m_geometricSkip;
   }
 }
@@ -0,0 +1,115 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import org.jgap.*;
+
+/**
+ * PCG random generator, variant PCG-XSH-RR with 64 bit state and 32 bit
+ * output (O'Neill: PCG, a family of simple fast space-efficient statistically
+ * good algorithms for random number generation). Each generator belongs to one
+ * of 2^63 streams, selected by its increment. The generator can be advanced
+ * by any number of steps in logarithmic time, see advance(long).
+ *
+ * @since 3.7
+ */
+public class PCGRandomGenerator
+    extends BaseSplittableRandomGenerator {
+  private final static long MULTIPLIER = 6364136223846793005L;
+
+  private long m_state;
+
+  /**
+   * Increment of the underlying linear congruential generator, always odd.
+   */
+  private final long m_increment;
+
+  /**
+   * Seeds the generator with the current time.
+   *
+   * @since 3.7
+   */
+  public PCGRandomGenerator() {
+    this(new SplitMix64RandomGenerator());
+  }
+
+  /**
+   * @param a_seed the seed, any value is allowed
+   *
+   * @since 3.7
+   */
+  public PCGRandomGenerator(long a_seed) {
+    this(a_seed, SplitMix64RandomGenerator.mix64(a_seed));
+  }
+
+  /**
+   * @param a_seed the seed, any value is allowed
+   * @param a_stream number of the stream, only the lower 63 bits are used
+   *
+   * @since 3.7
+   */
+  public PCGRandomGenerator(long a_seed, long a_stream) {
+    m_increment = (a_stream << 1) | 1L;
+    m_state = 0;
+    nextInt();
+    m_state += a_seed;
+    nextInt();
+  }
+
+  private PCGRandomGenerator(RandomGenerator a_seeder) {
+    this(a_seeder.nextLong(), a_seeder.nextLong());
+  }
+
+  public int nextInt() {
+    long old = m_state;
+    m_state = old * MULTIPLIER + m_increment;
+    int xorShifted = (int) ( ( (old >>> 18) ^ old) >>> 27);
+    return Integer.rotateRight(xorShifted, (int) (old >>> 59));
+  }
+
+  public long nextLong() {
+    return ( (long) nextInt() << 32) | (nextInt() & 0xFFFFFFFFL);
+  }
+
+  /**
+   * @return a new generator on another stream, seeded from the output of this
+   * one
+   *
+   * @since 3.7
+   */
+  public ISplittableRandomGenerator split() {
+    return new PCGRandomGenerator(nextLong(), nextLong());
+  }
+
+  /**
+   * Advances the generator as if nextInt() had been called the given number
+   * of times.
+   *
+   * @param a_steps number of steps, interpreted as unsigned value
+   *
+   * @since 3.7
+   */
+  public void advance(long a_steps) {
+    long curMult = MULTIPLIER;
+    long curPlus = m_increment;
+    long accMult = 1;
+    long accPlus = 0;
+    while (a_steps != 0) {
+      if ( (a_steps & 1) != 0) {
+        accMult *= curMult;
+        accPlus = accPlus * curMult + curPlus;
+      }
+      curPlus = (curMult + 1) * curPlus;
+      curMult *= curMult;
+      a_steps >>>= 1;
+    }
+    m_state = accMult * m_state + accPlus;
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.jgap.*;
+
+/**
+ * Computes the fitness values of a population concurrently by utilizing an
+ * ExecutorService. Chromosomes lacking a fitness value are split into
+ * contiguous chunks, each chunk is evaluated as one task. The method
+ * evaluate returns after all tasks have finished.<p>
+ * As each chromosome stores its own fitness value, the outcome does not depend
+ * on the number of threads or the order of execution, as long as the fitness
+ * function registered with the configuration is thread-safe and its result
+ * only depends on the chromosome evaluated.<p>
+ * Register an instance via Configuration.setPopulationEvaluator(..).
+ *
+ * @since 3.7
+ */
+public class ParallelPopulationEvaluator
+    implements IPopulationEvaluator {
+  /**
+   * Executor performing the evaluation tasks.
+   */
+  private transient ExecutorService m_executor;
+
+  /**
+   * Number of tasks a population is split into.
+   */
+  private int m_numberOfTasks;
+
+  /**
+   * True: the executor has been created by this instance and will be shut down
+   * with method shutdown().
+   */
+  private boolean m_ownExecutor;
+
+  /**
+   * Constructor, creates a fixed thread pool with as many threads as there are
+   * processors available.
+   *
+   * @since 3.7
+   */
+  public ParallelPopulationEvaluator() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructor, creates a fixed thread pool with the given number of threads.
+   * The threads are daemon threads so that they do not prevent the JVM from
+   * exiting. Call shutdown() to release them earlier.
+   *
+   * @param a_numberOfThreads number of threads to use, must be positive
+   *
+   * @since 3.7
+   */
+  public ParallelPopulationEvaluator(int a_numberOfThreads) {
+    this(Executors.newFixedThreadPool(checkPositive(a_numberOfThreads),
+        new ThreadFactory() {
+      public Thread newThread(Runnable a_runnable) {
+        Thread t = new Thread(a_runnable, "JGAP fitness evaluation");
+        t.setDaemon(true);
+        return t;
+      }
+    }), a_numberOfThreads * 4);
+    m_ownExecutor = true;
+  }
+
+  /**
+   * Constructor using an externally managed executor, e.g. a thread pool shared
+   * with other components. The executor is not shut down by this class.
+   *
+   * @param a_executor the executor to submit evaluation tasks to
+   * @param a_numberOfTasks number of tasks a population is split into. A value
+   * of a few times the number of threads of the executor balances the load well
+   *
+   * @since 3.7
+   */
+  public ParallelPopulationEvaluator(ExecutorService a_executor,
+                                     int a_numberOfTasks) {
+    if (a_executor == null) {
+      throw new IllegalArgumentException("Executor must not be null!");
+    }
+    m_executor = a_executor;
+    m_numberOfTasks = checkPositive(a_numberOfTasks);
+  }
+
+  private static int checkPositive(int a_value) {
+    if (a_value < 1) {
+      throw new IllegalArgumentException("Value must be positive!");
+    }
+    return a_value;
+  }
+
+  /**
+   * Computes the fitness value of all chromosomes without a fitness value
+   * concurrently. A chromosome contained more than once in the population is
+   * only evaluated once.
+   *
+   * @param a_pop the population to evaluate
+   * @param a_conf the configuration to use
+   *
+   * @since 3.7
+   */
+  public void evaluate(Population a_pop, Configuration a_conf) {
+    List<IChromosome> todo = collectUnevaluated(a_pop, a_conf);
+    int size = todo.size();
+    if (size == 0) {
+      return;
+    }
+    if (size == 1) {
+      todo.get(0).getFitnessValue();
+      return;
+    }
+    int tasks = Math.min(size, m_numberOfTasks);
+    List<Future<Object>> futures = new ArrayList<Future<Object>>(tasks);
+    for (int i = 0; i < tasks; i++) {
+      // Split into contiguous chunks of (nearly) equal size.
+      // ----------------------------------------------------
+      int from = (int) ( (long) size * i / tasks);
+      int to = (int) ( (long) size * (i + 1) / tasks);
+      futures.add(m_executor.submit(new EvaluationTask(todo.subList(from, to))));
+    }
+    waitFor(futures);
+  }
+
+  /**
+   * Determines the chromosomes that need to be evaluated.
+   *
+   * @param a_pop the population to inspect
+   * @param a_conf the configuration to use
+   * @return chromosomes without fitness value, each instance only once and in
+   * the order of the population
+   *
+   * @since 3.7
+   */
+  protected List<IChromosome> collectUnevaluated(Population a_pop,
+      Configuration a_conf) {
+    boolean always = a_conf.isAlwaysCalculateFitness();
+    int popSize = a_pop.size();
+    List<IChromosome> result = new ArrayList<IChromosome>(popSize);
+    Map<IChromosome, Boolean> seen = new IdentityHashMap<IChromosome, Boolean>();
+    for (int i = 0; i < popSize; i++) {
+      IChromosome chrom = a_pop.getChromosome(i);
+      if (always || chrom.getFitnessValueDirectly() < 0.000d) {
+        if (seen.put(chrom, Boolean.TRUE) == null) {
+          result.add(chrom);
+        }
+      }
+    }
+    return result;
+  }
+
+  private void waitFor(List<Future<Object>> a_futures) {
+    RuntimeException failure = null;
+    // Wait for all tasks, even if one failed, to leave no task running.
+    // -----------------------------------------------------------------
+    for (Future<Object> future : a_futures) {
+      try {
+        future.get();
+      } catch (InterruptedException iex) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Fitness evaluation interrupted", iex);
+      } catch (ExecutionException eex) {
+        if (failure == null) {
+          Throwable cause = eex.getCause();
+          if (cause instanceof RuntimeException) {
+            failure = (RuntimeException) cause;
+          }
+          else {
+            failure = new RuntimeException(cause);
+          }
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Shuts down the executor in case it has been created by this instance.
+   *
+   * @since 3.7
+   */
+  public void shutdown() {
+    if (m_ownExecutor) {
+      m_executor.shutdown();
+    }
+  }
+
+  /**
+   * @return the executor used
+   *
+   * @since 3.7
+   */
+  public ExecutorService getExecutor() {
+    return m_executor;
+  }
+
+  /**
+   * @return number of tasks a population is split into
+   *
+   * @since 3.7
+   */
+  public int getNumberOfTasks() {
+    return m_numberOfTasks;
+  }
+
+  /**
+   * Evaluates a chunk of chromosomes.
+   *
+   * @since 3.7
+   */
+  private static class EvaluationTask
+      implements Callable<Object> {
+    private final List<IChromosome> m_chromosomes;
+
+    public EvaluationTask(List<IChromosome> a_chromosomes) {
+      m_chromosomes = a_chromosomes;
+    }
+
+    public Object call() {
+      int size = m_chromosomes.size();
+      for (int i = 0; i < size; i++) {
+        m_chromosomes.get(i).getFitnessValue();
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import org.jgap.*;
+
+/**
+ * SplitMix64 random generator (Steele, Lea, Flood: Fast splittable
+ * pseudorandom number generators). Very fast with a state of only 64 bits and
+ * a period of 2^64. Streams split off use a different increment (gamma), as
+ * done by java.util.SplittableRandom.
+ * <p>
+ * Also used for seeding the other generators of this package from a single
+ * long value.
+ *
+ * @since 3.7
+ */
+public class SplitMix64RandomGenerator
+    extends BaseSplittableRandomGenerator {
+  /**
+   * Increment of the default stream, the odd integer closest to 2^64 divided
+   * by the golden ratio.
+   */
+  public final static long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  private long m_state;
+
+  private final long m_gamma;
+
+  /**
+   * Seeds the generator with the current time.
+   *
+   * @since 3.7
+   */
+  public SplitMix64RandomGenerator() {
+    this(mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+  }
+
+  /**
+   * @param a_seed the seed, any value is allowed
+   *
+   * @since 3.7
+   */
+  public SplitMix64RandomGenerator(long a_seed) {
+    this(a_seed, GOLDEN_GAMMA);
+  }
+
+  private SplitMix64RandomGenerator(long a_seed, long a_gamma) {
+    m_state = a_seed;
+    m_gamma = a_gamma;
+  }
+
+  public long nextLong() {
+    return mix64(m_state += m_gamma);
+  }
+
+  public ISplittableRandomGenerator split() {
+    return new SplitMix64RandomGenerator(nextLong(),
+        mixGamma(m_state += m_gamma));
+  }
+
+  /**
+   * Scrambles the bits of the given value, variant 13 of Stafford's 64 bit
+   * mix functions.
+   *
+   * @param a_value the value to scramble
+   * @return the scrambled value
+   *
+   * @since 3.7
+   */
+  public static long mix64(long a_value) {
+    a_value = (a_value ^ (a_value >>> 30)) * 0xBF58476D1CE4E5B9L;
+    a_value = (a_value ^ (a_value >>> 27)) * 0x94D049BB133111EBL;
+    return a_value ^ (a_value >>> 31);
+  }
+
+  private static long mixGamma(long a_value) {
+    a_value = (a_value ^ (a_value >>> 33)) * 0xFF51AFD7ED558CCDL;
+    a_value = (a_value ^ (a_value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+    // The increment must be odd and have enough bit transitions.
+    // ----------------------------------------------------------
+    a_value = (a_value ^ (a_value >>> 33)) | 1L;
+    if (Long.bitCount(a_value ^ (a_value >>> 1)) < 24) {
+      a_value ^= 0xAAAAAAAAAAAAAAAAL;
+    }
+    return a_value;
+  }
+}
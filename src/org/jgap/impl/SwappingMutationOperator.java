@@ -176,6 +176,10 @@ public class SwappingMutationOperator
           }
         }
         Gene[] genes = chromosome.getGenes();
+        Gene[] previous = null;
+        if (m_monitorActive) {
+          previous = (Gene[]) genes.clone();
+        }
         Gene[] mutated = operate(a_generator, j, genes);
         // setGenes is not required for this operator, but it may
         // be needed for the derived operators.
@@ -186,11 +190,34 @@ public class SwappingMutationOperator
         catch (InvalidConfigurationException cex) {
           throw new Error("Gene type not allowed by constraint checker", cex);
         }
+        if (m_monitorActive) {
+          markSwappedGenes(chromosome, previous);
+        }
       }
     }
     return chromosome;
   }
 
+  /**
+   * Lets each gene that has been moved by a swap refer to the gene it has
+   * been swapped with. The gene is copied first if it is still shared with
+   * the parent chromosome.
+   *
+   * @param a_chrom the mutated chromosome
+   * @param a_previous the genes of the chromosome before the swap
+   *
+   * @since 3.7
+   */
+  private void markSwappedGenes(final IChromosome a_chrom,
+                                final Gene[] a_previous) {
+    for (int i = 0; i < a_previous.length; i++) {
+      if (a_chrom.getGene(i) != a_previous[i]) {
+        BaseChromosome.writableGene(a_chrom, i).setUniqueIDTemplate(a_previous[i].
+            getUniqueID(), 1);
+      }
+    }
+  }
+
   /**
    * Operate on the given array of genes. This method is only called
    * when it is already clear that the mutation must occur under the given
@@ -215,10 +242,6 @@ public class SwappingMutationOperator
     Gene t = a_genes[a_target_gene];
     a_genes[a_target_gene] = a_genes[other];
     a_genes[other] = t;
-    if (m_monitorActive) {
-      a_genes[a_target_gene].setUniqueIDTemplate(a_genes[other].getUniqueID(), 1);
-      a_genes[other].setUniqueIDTemplate(a_genes[a_target_gene].getUniqueID(), 1);
-    }
     return a_genes;
   }
 
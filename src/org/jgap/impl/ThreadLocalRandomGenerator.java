@@ -0,0 +1,163 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.io.*;
+
+import org.jgap.*;
+import org.jgap.util.*;
+
+/**
+ * Gives each thread a random stream of its own, split off a root generator on
+ * first use. Set as random generator of the configuration, operators,
+ * selectors and fitness functions running on different threads no longer
+ * contend for a single generator.
+ * <p>
+ * Each stream is reproducible for a given seed of the root generator. Which
+ * thread gets which stream depends on the order in which the threads first
+ * draw a number, though. If that order is not fixed, split the root generator
+ * explicitly and hand the streams to the threads instead.
+ * <p>
+ * Usage:
+ * <pre>
+ * conf.setRandomGenerator(new ThreadLocalRandomGenerator(
+ *     new XoshiroRandomGenerator(seed)));
+ * </pre>
+ *
+ * @since 3.7
+ */
+public class ThreadLocalRandomGenerator
+    implements ISplittableRandomGenerator, ICloneable, Comparable {
+  private final ISplittableRandomGenerator m_root;
+
+  private transient ThreadLocal<ISplittableRandomGenerator> m_streams;
+
+  /**
+   * Uses a XoshiroRandomGenerator seeded with the current time as root.
+   *
+   * @since 3.7
+   */
+  public ThreadLocalRandomGenerator() {
+    this(new XoshiroRandomGenerator());
+  }
+
+  /**
+   * @param a_root the generator to split the streams of the threads off
+   *
+   * @since 3.7
+   */
+  public ThreadLocalRandomGenerator(ISplittableRandomGenerator a_root) {
+    if (a_root == null) {
+      throw new IllegalArgumentException("Root generator must not be null!");
+    }
+    m_root = a_root;
+    m_streams = new ThreadLocal<ISplittableRandomGenerator>();
+  }
+
+  /**
+   * @return the stream of the current thread
+   *
+   * @since 3.7
+   */
+  public ISplittableRandomGenerator current() {
+    ISplittableRandomGenerator result = m_streams.get();
+    if (result == null) {
+      synchronized (m_root) {
+        result = m_root.split();
+      }
+      m_streams.set(result);
+    }
+    return result;
+  }
+
+  /**
+   * Streams are not serialized. After deserialization, each thread gets a new
+   * stream split off the root.
+   *
+   * @param a_inputStream the ObjectInputStream provided for deserialzation
+   *
+   * @throws IOException
+   * @throws ClassNotFoundException
+   *
+   * @since 3.7
+   */
+  private void readObject(ObjectInputStream a_inputStream)
+      throws IOException, ClassNotFoundException {
+    a_inputStream.defaultReadObject();
+    m_streams = new ThreadLocal<ISplittableRandomGenerator>();
+  }
+
+  public int nextInt() {
+    return current().nextInt();
+  }
+
+  public int nextInt(int a_ceiling) {
+    return current().nextInt(a_ceiling);
+  }
+
+  public long nextLong() {
+    return current().nextLong();
+  }
+
+  public double nextDouble() {
+    return current().nextDouble();
+  }
+
+  public float nextFloat() {
+    return current().nextFloat();
+  }
+
+  public boolean nextBoolean() {
+    return current().nextBoolean();
+  }
+
+  public void nextDoubles(double[] a_values) {
+    current().nextDoubles(a_values);
+  }
+
+  public void nextInts(int[] a_values, int a_ceiling) {
+    current().nextInts(a_values, a_ceiling);
+  }
+
+  /**
+   * @return a stream split off the stream of the current thread
+   *
+   * @since 3.7
+   */
+  public ISplittableRandomGenerator split() {
+    return current().split();
+  }
+
+  /**
+   * @return a new instance with a root split off the root of this instance
+   *
+   * @since 3.7
+   */
+  public Object clone() {
+    synchronized (m_root) {
+      return new ThreadLocalRandomGenerator(m_root.split());
+    }
+  }
+
+  /**
+   * @param a_other sic
+   * @return as always
+   *
+   * @since 3.7
+   */
+  public int compareTo(Object a_other) {
+    if (a_other.getClass().equals(getClass())) {
+      return 0;
+    }
+    else {
+      return getClass().getName().compareTo(a_other.getClass().getName());
+    }
+  }
+}
@@ -234,12 +234,13 @@ public class TwoWayMutationOperator
             copyOfChromosome.setUniqueIDTemplate(chrom.getUniqueID(), 1);
           }
         }
+        Gene gene = BaseChromosome.writableGene(copyOfChromosome, geneIndex);
         // Process all atomic elements in the gene. For a StringGene this
         // would be the length of the string, for an IntegerGene, it is
         // always one element.
         // --------------------------------------------------------------
-        if (genes[geneIndex] instanceof ICompositeGene) {
-          ICompositeGene compositeGene = (ICompositeGene) genes[geneIndex];
+        if (gene instanceof ICompositeGene) {
+          ICompositeGene compositeGene = (ICompositeGene) gene;
           if (m_monitorActive) {
             compositeGene.setUniqueIDTemplate(chrom.getGene(geneIndex).
                 getUniqueID(), 1);
@@ -255,9 +256,9 @@ public class TwoWayMutationOperator
           }
         }
         else {
-          mutateGene(genes[geneIndex], generator);
+          mutateGene(gene, generator);
           if (m_monitorActive) {
-            genes[geneIndex].setUniqueIDTemplate(chrom.getGene(geneIndex).
+            gene.setUniqueIDTemplate(chrom.getGene(geneIndex).
                 getUniqueID(), 1);
           }
         }
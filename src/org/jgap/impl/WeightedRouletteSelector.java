@@ -24,7 +24,11 @@ import gnu.trove.*;
  * Then the wheel is spun again and again until the requested number of
  * Chromosomes have been selected. Since Chromosomes with higher fitness
  * values get more slots on the wheel, there's a higher statistical probability
- * that they'll be chosen, but it's not guaranteed.
+ * that they'll be chosen, but it's not guaranteed.<p>
+ * For large populations, the fast wheel mode (see setFastWheel) should be
+ * used. It spins the wheel in logarithmic time by searching a tree of partial
+ * slot sums and recognizes chromosomes already contained in the target
+ * population by identity instead of comparing them gene by gene.
  *
  * @author Neil Rotstan
  * @author Klaus Meffert
@@ -154,6 +158,10 @@ public class WeightedRouletteSelector
    */
   public synchronized void selectChromosomes(int a_howManyToSelect,
       Population a_to_pop) {
+    if (m_config.m_fastWheel) {
+      selectChromosomesFast(a_howManyToSelect, a_to_pop);
+      return;
+    }
     RandomGenerator generator = getConfiguration().getRandomGenerator();
     scaleFitnessValues();
     // Build three arrays from the key/value pairs in the wheel map: one
@@ -194,37 +202,216 @@ public class WeightedRouletteSelector
       selectedChromosome = spinWheel(generator, fitnessValues, counterValues,
                                      chromosomes);
       selectedChromosome.setIsSelectedForNextGeneration(true);
-      if (a_to_pop.contains(selectedChromosome)) {
-        ICloneHandler cloner = getConfiguration().getJGAPFactory().
-            getCloneHandlerFor(selectedChromosome, null);
-        if (cloner != null) {
-          try {
-            IChromosome cloned = (IChromosome) cloner.perform(
-                selectedChromosome, null, null);
-            a_to_pop.addChromosome(cloned);
-            if (m_monitorActive) {
-              cloned.setUniqueIDTemplate(selectedChromosome.getUniqueID(), 1);
-            }
-          } catch (Exception ex) {
-            ex.printStackTrace();
-            a_to_pop.addChromosome(selectedChromosome);
-          }
-        }
-        else {
-          a_to_pop.addChromosome(selectedChromosome);
+      addSelected(selectedChromosome, a_to_pop.contains(selectedChromosome),
+                  a_to_pop);
+    }
+  }
+
+  /**
+   * Adds a selected chromosome to the target population. If the chromosome is
+   * already contained in it, a clone is added if possible.
+   *
+   * @param a_selected the selected chromosome
+   * @param a_contained true: chromosome already contained in a_to_pop
+   * @param a_to_pop the population to add the chromosome to
+   * @return true: a_selected itself has been added, false: a clone was added
+   *
+   * @since 3.7
+   */
+  private boolean addSelected(IChromosome a_selected, boolean a_contained,
+                              Population a_to_pop) {
+    if (a_contained) {
+      ICloneHandler cloner = getConfiguration().getJGAPFactory().
+          getCloneHandlerFor(a_selected, null);
+      if (cloner != null) {
+        try {
+          IChromosome cloned = (IChromosome) cloner.perform(
+              a_selected, null, null);
+          a_to_pop.addChromosome(cloned);
           if (m_monitorActive) {
-            selectedChromosome.setUniqueIDTemplate(selectedChromosome.
-                getUniqueID(), 1);
+            cloned.setUniqueIDTemplate(a_selected.getUniqueID(), 1);
           }
+          return false;
+        } catch (Exception ex) {
+          ex.printStackTrace();
+          a_to_pop.addChromosome(a_selected);
         }
       }
       else {
-        a_to_pop.addChromosome(selectedChromosome);
+        a_to_pop.addChromosome(a_selected);
         if (m_monitorActive) {
-          selectedChromosome.setUniqueIDTemplate("new", 1);
+          a_selected.setUniqueIDTemplate(a_selected.getUniqueID(), 1);
+        }
+      }
+    }
+    else {
+      a_to_pop.addChromosome(a_selected);
+      if (m_monitorActive) {
+        a_selected.setUniqueIDTemplate("new", 1);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Selection in fast wheel mode. The slots of the chromosomes are kept in a
+   * binary indexed tree holding partial sums of primitive doubles, so that
+   * spinning the wheel as well as removing a selected instance from it takes
+   * O(log n). Chromosomes already contained in the target population are
+   * detected by identity.<p>
+   * As with the standard mode, each selection removes one instance of the
+   * selected chromosome from the wheel, or all of its slots if doublettes are
+   * not allowed. If no slots are left, e.g. because all fitness values are
+   * zero, selection is uniform among all chromosomes (resp. among those not
+   * selected yet if doublettes are not allowed, in O(1) per selection). Once
+   * every chromosome has been selected with doublettes not allowed, selection
+   * continues uniformly among all chromosomes, adding clones as in the
+   * standard mode.
+   *
+   * @param a_howManyToSelect the number of Chromosomes to select
+   * @param a_to_pop the population the Chromosomes will be added to
+   *
+   * @since 3.7
+   */
+  private void selectChromosomesFast(int a_howManyToSelect,
+                                     Population a_to_pop) {
+    RandomGenerator generator = getConfiguration().getRandomGenerator();
+    int numberOfEntries = m_wheel.size();
+    if (numberOfEntries < 1) {
+      return;
+    }
+    double[] fitnessValues = new double[numberOfEntries];
+    int[] counts = new int[numberOfEntries];
+    double[] slots = new double[numberOfEntries];
+    IChromosome[] chromosomes = new IChromosome[numberOfEntries];
+    // tree[k] holds the sum of the slots with indices in (k - lowbit(k), k].
+    // ----------------------------------------------------------------------
+    double[] tree = new double[numberOfEntries + 1];
+    Iterator entryIterator = m_wheel.entrySet().iterator();
+    for (int i = 0; i < numberOfEntries; i++) {
+      Map.Entry chromosomeEntry = (Map.Entry) entryIterator.next();
+      SlotCounter counter = (SlotCounter) chromosomeEntry.getValue();
+      chromosomes[i] = (IChromosome) chromosomeEntry.getKey();
+      fitnessValues[i] = Math.max(0.0d, counter.getFitnessValue());
+      counts[i] = counter.getCounterValue();
+      slots[i] = fitnessValues[i] * counts[i];
+      tree[i + 1] += slots[i];
+      int parent = (i + 1) + ( (i + 1) & - (i + 1));
+      if (parent <= numberOfEntries) {
+        tree[parent] += tree[i + 1];
+      }
+    }
+    int highestBit = Integer.highestOneBit(numberOfEntries);
+    boolean doublettesAllowed = getDoubletteChromosomesAllowed();
+    // If doublettes are not allowed, the indices of the chromosomes not
+    // selected yet are kept densely in the first notSelected elements of
+    // unselected. positions holds the position of each index therein, -1
+    // once selected. Thus, picking and removing an index takes O(1).
+    // --------------------------------------------------------------------
+    int[] unselected = null;
+    int[] positions = null;
+    if (!doublettesAllowed) {
+      unselected = new int[numberOfEntries];
+      positions = new int[numberOfEntries];
+      for (int i = 0; i < numberOfEntries; i++) {
+        unselected[i] = i;
+        positions[i] = i;
+      }
+    }
+    int notSelected = numberOfEntries;
+    // Chromosomes contained in the target population, by identity.
+    // ------------------------------------------------------------
+    Map contained = new IdentityHashMap();
+    int popSize = a_to_pop.size();
+    for (int i = 0; i < popSize; i++) {
+      contained.put(a_to_pop.getChromosome(i), Boolean.TRUE);
+    }
+    for (int n = 0; n < a_howManyToSelect; n++) {
+      double total = 0.0d;
+      for (int k = numberOfEntries; k > 0; k -= k & -k) {
+        total += tree[k];
+      }
+      int index;
+      if (total <= DELTA || notSelected == 0) {
+        if (doublettesAllowed || notSelected == 0) {
+          index = generator.nextInt(numberOfEntries);
         }
+        else {
+          index = unselected[generator.nextInt(notSelected)];
+        }
+      }
+      else {
+        // Find the first index whose partial sum exceeds the chosen slot.
+        // ----------------------------------------------------------------
+        double selectedSlot = generator.nextDouble() * total;
+        int pos = 0;
+        for (int step = highestBit; step > 0; step >>= 1) {
+          int next = pos + step;
+          if (next <= numberOfEntries && tree[next] <= selectedSlot) {
+            pos = next;
+            selectedSlot -= tree[next];
+          }
+        }
+        index = Math.min(pos, numberOfEntries - 1);
+        // Rounding errors could lead to an empty slot, avoid it.
+        // -------------------------------------------------------
+        if (slots[index] <= 0.0d) {
+          index = nonEmptySlot(slots, index);
+        }
+        // Remove one instance of the chromosome from the wheel, resp. all
+        // instances if doublettes are not allowed.
+        // ----------------------------------------------------------------
+        counts[index] = doublettesAllowed ? counts[index] - 1 : 0;
+        double newSlots = counts[index] > 0 ?
+            fitnessValues[index] * counts[index] : 0.0d;
+        double diff = newSlots - slots[index];
+        slots[index] = newSlots;
+        for (int k = index + 1; k <= numberOfEntries; k += k & -k) {
+          tree[k] += diff;
+        }
+      }
+      if (!doublettesAllowed && positions[index] >= 0) {
+        // Swap the last index not selected into the place of the one
+        // selected.
+        // ----------------------------------------------------------
+        int last = unselected[--notSelected];
+        unselected[positions[index]] = last;
+        positions[last] = positions[index];
+        positions[index] = -1;
+      }
+      IChromosome selectedChromosome = chromosomes[index];
+      selectedChromosome.setIsSelectedForNextGeneration(true);
+      boolean isContained = contained.containsKey(selectedChromosome);
+      if (addSelected(selectedChromosome, isContained, a_to_pop)) {
+        contained.put(selectedChromosome, Boolean.TRUE);
+      }
+    }
+    m_totalNumberOfUsedSlots = 0.0d;
+    for (int i = 0; i < numberOfEntries; i++) {
+      m_totalNumberOfUsedSlots += slots[i];
+    }
+  }
+
+  /**
+   * @param a_slots slots per chromosome, at least one being positive
+   * @param a_index index to start searching at
+   * @return index of the nearest chromosome having slots left, searching
+   * downwards first
+   *
+   * @since 3.7
+   */
+  private static int nonEmptySlot(double[] a_slots, int a_index) {
+    for (int i = a_index - 1; i >= 0; i--) {
+      if (a_slots[i] > 0.0d) {
+        return i;
       }
     }
+    for (int i = a_index + 1; i < a_slots.length; i++) {
+      if (a_slots[i] > 0.0d) {
+        return i;
+      }
+    }
+    return a_index;
   }
 
   /**
@@ -398,6 +585,31 @@ final double MULT = 1;//1.0E45;
                                    +" please do not use it!");
   }
 
+  /**
+   * Switches the fast wheel mode on or off (default: off). In fast wheel mode,
+   * spinning the wheel takes logarithmic instead of linear time and
+   * chromosomes already contained in the target population are recognized by
+   * identity instead of equality. The latter avoids comparing chromosomes
+   * gene by gene, but a chromosome only equal to one already contained is
+   * added itself rather than cloned.
+   *
+   * @param a_fastWheel true: use fast wheel mode
+   *
+   * @since 3.7
+   */
+  public void setFastWheel(final boolean a_fastWheel) {
+    m_config.m_fastWheel = a_fastWheel;
+  }
+
+  /**
+   * @return true: fast wheel mode is used
+   *
+   * @since 3.7
+   */
+  public boolean isFastWheel() {
+    return m_config.m_fastWheel;
+  }
+
   /**
    * @return TRUE: doublette chromosomes allowed to be added by the selector
    *
@@ -421,6 +633,7 @@ final double MULT = 1;//1.0E45;
       result.m_wheel = (THashMap) m_wheel.clone();
       result.m_config = new WeightedRouletteSelConfig();
       result.m_config.m_doublettesAllowed = m_config.m_doublettesAllowed;
+      result.m_config.m_fastWheel = m_config.m_fastWheel;
       return result;
     } catch (InvalidConfigurationException iex) {
       throw new CloneException(iex);
@@ -441,6 +654,9 @@ final double MULT = 1;//1.0E45;
     if (m_config.m_doublettesAllowed != other.m_config.m_doublettesAllowed) {
       return false;
     }
+    if (m_config.m_fastWheel != other.m_config.m_fastWheel) {
+      return false;
+    }
     if (other.m_counterPool == null) {
       return false;
     }
@@ -456,6 +672,11 @@ final double MULT = 1;//1.0E45;
      * Allows or disallows doublette chromosomes to be added to the selector
      */
     public boolean m_doublettesAllowed;
+
+    /**
+     * Use binary indexed tree for spinning the wheel
+     */
+    public boolean m_fastWheel;
   }
 }
 /**
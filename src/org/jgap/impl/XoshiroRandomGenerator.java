@@ -0,0 +1,159 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import org.jgap.*;
+
+/**
+ * xoshiro256** random generator (Blackman, Vigna: Scrambled linear
+ * pseudorandom number generators). Fast, with a state of 256 bits and a
+ * period of 2^256 - 1. Recommended as general purpose generator.
+ * <p>
+ * Non-overlapping streams can be obtained with jump(), which advances the
+ * generator by 2^128 steps, e.g. to give each island of a fixed set of
+ * islands a stream of its own. split() instead seeds a new generator from
+ * the output of this one, which also works for streams split off again.
+ *
+ * @since 3.7
+ */
+public class XoshiroRandomGenerator
+    extends BaseSplittableRandomGenerator {
+  private final static long[] JUMP = {
+      0x180EC6D33CFD0ABAL, 0xD5A61266F0C9392CL, 0xA9582618E03FC9AAL,
+      0x39ABDC4529B1661CL};
+
+  private final static long[] LONG_JUMP = {
+      0x76E15D3EFEFDCBBFL, 0xC5004E441C522FB3L, 0x77710069854EE241L,
+      0x39109BB02ACBE635L};
+
+  private long m_s0;
+
+  private long m_s1;
+
+  private long m_s2;
+
+  private long m_s3;
+
+  /**
+   * Seeds the generator with the current time.
+   *
+   * @since 3.7
+   */
+  public XoshiroRandomGenerator() {
+    this(new SplitMix64RandomGenerator());
+  }
+
+  /**
+   * @param a_seed the seed, any value is allowed
+   *
+   * @since 3.7
+   */
+  public XoshiroRandomGenerator(long a_seed) {
+    this(new SplitMix64RandomGenerator(a_seed));
+  }
+
+  /**
+   * @param a_s0 first part of the state
+   * @param a_s1 second part of the state
+   * @param a_s2 third part of the state
+   * @param a_s3 fourth part of the state
+   *
+   * @since 3.7
+   */
+  public XoshiroRandomGenerator(long a_s0, long a_s1, long a_s2, long a_s3) {
+    if ( (a_s0 | a_s1 | a_s2 | a_s3) == 0) {
+      throw new IllegalArgumentException("State must not be all zero!");
+    }
+    m_s0 = a_s0;
+    m_s1 = a_s1;
+    m_s2 = a_s2;
+    m_s3 = a_s3;
+  }
+
+  private XoshiroRandomGenerator(RandomGenerator a_seeder) {
+    // SplitMix64 never returns four zeros in a row.
+    // ---------------------------------------------
+    this(a_seeder.nextLong(), a_seeder.nextLong(), a_seeder.nextLong(),
+         a_seeder.nextLong());
+  }
+
+  public long nextLong() {
+    long s1 = m_s1;
+    long result = Long.rotateLeft(s1 * 5, 7) * 9;
+    long t = s1 << 17;
+    m_s2 ^= m_s0;
+    m_s3 ^= s1;
+    m_s1 = s1 ^ m_s2;
+    m_s0 ^= m_s3;
+    m_s2 ^= t;
+    m_s3 = Long.rotateLeft(m_s3, 45);
+    return result;
+  }
+
+  /**
+   * @return a new generator seeded from the output of this one
+   *
+   * @since 3.7
+   */
+  public ISplittableRandomGenerator split() {
+    return new XoshiroRandomGenerator(
+        new SplitMix64RandomGenerator(nextLong()));
+  }
+
+  /**
+   * Advances the generator by 2^128 steps. Calling jump() on a copy of the
+   * generator n times gives n non-overlapping streams of length 2^128.
+   *
+   * @since 3.7
+   */
+  public void jump() {
+    jump(JUMP);
+  }
+
+  /**
+   * Advances the generator by 2^192 steps, see jump().
+   *
+   * @since 3.7
+   */
+  public void longJump() {
+    jump(LONG_JUMP);
+  }
+
+  /**
+   * @return a copy of this generator with the same state
+   *
+   * @since 3.7
+   */
+  public XoshiroRandomGenerator copy() {
+    return new XoshiroRandomGenerator(m_s0, m_s1, m_s2, m_s3);
+  }
+
+  private void jump(long[] a_polynomial) {
+    long s0 = 0;
+    long s1 = 0;
+    long s2 = 0;
+    long s3 = 0;
+    for (int i = 0; i < a_polynomial.length; i++) {
+      for (int b = 0; b < 64; b++) {
+        if ( (a_polynomial[i] & (1L << b)) != 0) {
+          s0 ^= m_s0;
+          s1 ^= m_s1;
+          s2 ^= m_s2;
+          s3 ^= m_s3;
+        }
+        nextLong();
+      }
+    }
+    m_s0 = s0;
+    m_s1 = s1;
+    m_s2 = s2;
+    m_s3 = s3;
+  }
+}
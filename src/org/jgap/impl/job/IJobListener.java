@@ -0,0 +1,39 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl.job;
+
+/**
+ * Callback for jobs executed by a LocalJobExecutor. The methods are called by
+ * the thread that executed the job, or by the cancelling thread.
+ *
+ * @since 3.7
+ */
+public interface IJobListener {
+  /**
+   * Called after a job finished successfully.
+   *
+   * @param a_job the job finished
+   * @param a_result result of the job
+   *
+   * @since 3.7
+   */
+  void jobFinished(IJob a_job, JobResult a_result);
+
+  /**
+   * Called after a job failed or was cancelled.
+   *
+   * @param a_job the job failed
+   * @param a_cause the exception thrown by the job, or a
+   * java.util.concurrent.CancellationException in case of cancellation
+   *
+   * @since 3.7
+   */
+  void jobFailed(IJob a_job, Throwable a_cause);
+}
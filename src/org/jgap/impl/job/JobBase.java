@@ -34,9 +34,7 @@ public abstract class JobBase
         throw new IllegalStateException("Result must not be null!");
       }
     } catch (Exception ex) {
-      /**@todo what to do here?*/
-      ex.printStackTrace();
-      throw new RuntimeException("Job failed");
+      throw new RuntimeException("Job failed", ex);
     }
     setFinished();
   }
@@ -0,0 +1,257 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl.job;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Executes jobs locally on a thread pool. Each submitted job is represented by
+ * a Future delivering the result of the job, optionally a listener is
+ * notified on completion. Jobs can be cancelled via their Future.<p>
+ * The number of jobs submitted but not yet completed is limited: if the limit
+ * is reached, submitting blocks until another job completes. This prevents
+ * producers from piling up more work than the pool is able to handle.
+ *
+ * @since 3.7
+ */
+public class LocalJobExecutor {
+  private ExecutorService m_executor;
+
+  private boolean m_ownExecutor;
+
+  private Semaphore m_permits;
+
+  private int m_maxPendingJobs;
+
+  /**
+   * Constructs an executor with a pool of its own consisting of daemon
+   * threads, one per available processor.
+   *
+   * @since 3.7
+   */
+  public LocalJobExecutor() {
+    this(Runtime.getRuntime().availableProcessors(), Integer.MAX_VALUE);
+  }
+
+  /**
+   * Constructs an executor with a pool of its own consisting of daemon threads.
+   *
+   * @param a_threads number of threads to use
+   * @param a_maxPendingJobs maximum number of jobs submitted but not yet
+   * completed
+   *
+   * @since 3.7
+   */
+  public LocalJobExecutor(int a_threads, int a_maxPendingJobs) {
+    this(createExecutor(a_threads), a_maxPendingJobs);
+    m_ownExecutor = true;
+  }
+
+  /**
+   * @param a_executor the executor to run the jobs with, it is not shut down
+   * by this class
+   * @param a_maxPendingJobs maximum number of jobs submitted but not yet
+   * completed
+   *
+   * @since 3.7
+   */
+  public LocalJobExecutor(ExecutorService a_executor, int a_maxPendingJobs) {
+    if (a_executor == null) {
+      throw new IllegalArgumentException("Executor must not be null!");
+    }
+    if (a_maxPendingJobs < 1) {
+      throw new IllegalArgumentException(
+          "Maximum number of pending jobs must be positive!");
+    }
+    m_executor = a_executor;
+    m_maxPendingJobs = a_maxPendingJobs;
+    m_permits = new Semaphore(a_maxPendingJobs);
+  }
+
+  private static ExecutorService createExecutor(int a_threads) {
+    if (a_threads < 1) {
+      throw new IllegalArgumentException(
+          "Number of threads must be positive!");
+    }
+    return Executors.newFixedThreadPool(a_threads, new ThreadFactory() {
+      public Thread newThread(Runnable a_runnable) {
+        Thread t = new Thread(a_runnable, "LocalJobExecutor");
+        t.setDaemon(true);
+        return t;
+      }
+    });
+  }
+
+  /**
+   * Submits a job for execution, waiting if the maximum number of pending
+   * jobs is reached.
+   *
+   * @param a_job the job to execute
+   * @return future delivering the result of the job
+   * @throws InterruptedException if interrupted while waiting
+   *
+   * @since 3.7
+   */
+  public Future<JobResult> submit(IJob a_job)
+      throws InterruptedException {
+    return submit(a_job, null);
+  }
+
+  /**
+   * Submits a job for execution, waiting if the maximum number of pending
+   * jobs is reached.
+   *
+   * @param a_job the job to execute
+   * @param a_listener notified on completion, may be null
+   * @return future delivering the result of the job
+   * @throws InterruptedException if interrupted while waiting
+   *
+   * @since 3.7
+   */
+  public Future<JobResult> submit(IJob a_job, IJobListener a_listener)
+      throws InterruptedException {
+    if (a_job == null) {
+      throw new IllegalArgumentException("Job must not be null!");
+    }
+    m_permits.acquire();
+    JobFuture future = new JobFuture(a_job, a_listener);
+    try {
+      m_executor.execute(future);
+    } catch (RejectedExecutionException rex) {
+      m_permits.release();
+      throw rex;
+    }
+    return future;
+  }
+
+  /**
+   * Submits all given jobs and waits for their results.
+   *
+   * @param a_jobs the jobs to execute
+   * @return results of the jobs, in the order of the given jobs
+   * @throws InterruptedException if interrupted while waiting
+   * @throws ExecutionException if a job failed, all other jobs are cancelled
+   * then
+   *
+   * @since 3.7
+   */
+  public List<JobResult> invokeAll(Collection<? extends IJob> a_jobs)
+      throws InterruptedException, ExecutionException {
+    List<Future<JobResult>> futures = new ArrayList<Future<JobResult>> (
+        a_jobs.size());
+    try {
+      for (IJob job : a_jobs) {
+        futures.add(submit(job));
+      }
+      List<JobResult> results = new ArrayList<JobResult> (futures.size());
+      for (Future<JobResult> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } finally {
+      for (Future<JobResult> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  /**
+   * @return number of jobs submitted but not yet completed. A job counts as
+   * pending until it has stopped running, also if it has been cancelled
+   *
+   * @since 3.7
+   */
+  public int getPendingJobs() {
+    return m_maxPendingJobs - m_permits.availablePermits();
+  }
+
+  public int getMaxPendingJobs() {
+    return m_maxPendingJobs;
+  }
+
+  public ExecutorService getExecutor() {
+    return m_executor;
+  }
+
+  /**
+   * Stops the thread pool if it was created by this instance. Jobs already
+   * submitted are still executed.
+   *
+   * @since 3.7
+   */
+  public void shutdown() {
+    if (m_ownExecutor) {
+      m_executor.shutdown();
+    }
+  }
+
+  /**
+   * Runs a job, notifies the listener on completion and releases its permit
+   * after running.
+   *
+   * @since 3.7
+   */
+  private class JobFuture
+      extends FutureTask<JobResult> {
+    private IJob m_job;
+
+    private IJobListener m_listener;
+
+    private final AtomicBoolean m_released = new AtomicBoolean();
+
+    JobFuture(final IJob a_job, IJobListener a_listener) {
+      super(new Callable<JobResult>() {
+        public JobResult call() {
+          a_job.run();
+          return a_job.getResult();
+        }
+      });
+      m_job = a_job;
+      m_listener = a_listener;
+    }
+
+    /**
+     * Releases the permit once the job has stopped running. A job cancelled
+     * while running thus keeps its permit until it actually returns, a job
+     * cancelled before it started releases it when the executor dequeues it.
+     */
+    public void run() {
+      try {
+        super.run();
+      } finally {
+        releasePermit();
+      }
+    }
+
+    private void releasePermit() {
+      if (m_released.compareAndSet(false, true)) {
+        m_permits.release();
+      }
+    }
+
+    protected void done() {
+      if (m_listener != null) {
+        try {
+          m_listener.jobFinished(m_job, get());
+        } catch (ExecutionException eex) {
+          m_listener.jobFailed(m_job, eex.getCause());
+        } catch (CancellationException cex) {
+          m_listener.jobFailed(m_job, cex);
+        } catch (InterruptedException iex) {
+          // Cannot happen as the job is done.
+          // ---------------------------------
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+}
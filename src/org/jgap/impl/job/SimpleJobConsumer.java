@@ -10,6 +10,7 @@
 package org.jgap.impl.job;
 
 import java.util.*;
+import java.util.concurrent.*;
 import org.jgap.*;
 import org.jgap.impl.*;
 import org.jgap.distr.*;
@@ -23,37 +24,76 @@ import org.jgap.distr.*;
  * @since 3.2
  */
 public class SimpleJobConsumer {
+  private LocalJobExecutor m_executor;
+
+  private boolean m_ownExecutor;
 
   private List m_jobs = new Vector();
+
   private List m_results = new Vector();
 
+  /**
+   * Constructs a consumer running the jobs on an executor of its own, which
+   * is stopped by method shutdown.
+   *
+   * @since 3.2
+   */
+  public SimpleJobConsumer() {
+    this(new LocalJobExecutor());
+    m_ownExecutor = true;
+  }
+
+  /**
+   * @param a_executor the executor to run the jobs with, it is not shut down
+   * by this class
+   *
+   * @since 3.7
+   */
+  public SimpleJobConsumer(LocalJobExecutor a_executor) {
+    m_executor = a_executor;
+  }
+
   public void pushJobToGrid(IJob a_job) {
-    m_jobs.add(a_job);
     // Execute the job asynchronously.
     // -------------------------------
-    new Thread(a_job).start();
+    try {
+      m_jobs.add(m_executor.submit(a_job));
+    } catch (InterruptedException iex) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(iex);
+    }
   }
 
+  /**
+   * Waits until all jobs pushed are finished and collects their results in
+   * the order the jobs were pushed.
+   *
+   * @since 3.2
+   */
   public void waitForAllJobs() {
-    while (true) {
-      if (m_jobs.size() < 1) {
-        break;
-      }
-      try {
-        Thread.sleep(50);
-      } catch (InterruptedException iex) {
-        iex.printStackTrace();
-        break;
-      }
-      Iterator it = m_jobs.iterator();
+    Iterator it = m_jobs.iterator();
+    try {
       while (it.hasNext()) {
-        IJob job = (IJob)it.next();
-        if (job.isFinished()) {
-          System.out.println("Another job finished!");
-          m_results.add(job.getResult());
-          it.remove();
-        }
+        Future job = (Future) it.next();
+        m_results.add(job.get());
+        it.remove();
       }
+    } catch (InterruptedException iex) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException eex) {
+      throw new RuntimeException("Job failed", eex.getCause());
+    }
+  }
+
+  /**
+   * Stops the executor if it was created by this instance. Jobs already
+   * pushed are still executed.
+   *
+   * @since 3.7
+   */
+  public void shutdown() {
+    if (m_ownExecutor) {
+      m_executor.shutdown();
     }
   }
 
@@ -76,38 +116,46 @@ public class SimpleJobConsumer {
     gaConf.setKeepPopulationSizeConstant(false);
 
     SimpleJobConsumer gridClient = new SimpleJobConsumer();
+    try {
+      IChromosome sampleChromosome = new Chromosome(gaConf,
+          new BooleanGene(gaConf), 16);
+      gaConf.setSampleChromosome(sampleChromosome);
+      gaConf.setPopulationSize(20);
+      gaConf.setFitnessFunction(new MaxFunction());
 
-    IChromosome sampleChromosome = new Chromosome(gaConf,
-        new BooleanGene(gaConf), 16);
-    gaConf.setSampleChromosome(sampleChromosome);
-    gaConf.setPopulationSize(20);
-    gaConf.setFitnessFunction(new MaxFunction());
-
-    Genotype genotype = Genotype.randomInitialGenotype(gaConf);
-    // Run evolution
-    IPopulationSplitter popSplitter = new SimplePopulationSplitter(3);
-    for (int i = 0; i < 50; i++) {
-      // Get jobs, encompass them in a griddable task (only run() supported)
-      List evolves = genotype.getEvolves(popSplitter);
-      Iterator it = evolves.iterator();
-      while (it.hasNext()) {
-        IEvolveJob evolve = (IEvolveJob) it.next();
-        gridClient.pushJobToGrid(evolve);
+      Genotype genotype = Genotype.randomInitialGenotype(gaConf);
+      // Run evolution
+      IPopulationSplitter popSplitter = new SimplePopulationSplitter(3);
+      for (int i = 0; i < 50; i++) {
+        // Get jobs, encompass them in a griddable task (only run() supported)
+        List evolves = genotype.getEvolves(popSplitter);
+        Iterator it = evolves.iterator();
+        while (it.hasNext()) {
+          IEvolveJob evolve = (IEvolveJob) it.next();
+          gridClient.pushJobToGrid(evolve);
+        }
+        // Wait for the jobs.
+        // ------------------
+        gridClient.waitForAllJobs();
+        // Update genotype with all entities, ready for new run
+        IPopulationMerger popMerger = new FittestPopulationMerger();
+        genotype.mergeResults(popMerger, gridClient.getResults());
       }
-      // Wait for the jobs.
-      // ------------------
-      gridClient.waitForAllJobs();
-      // Update genotype with all entities, ready for new run
-      IPopulationMerger popMerger = new FittestPopulationMerger();
-      genotype.mergeResults(popMerger, gridClient.getResults());
+      // Get best and show info
+      IChromosome fittest = genotype.getFittestChromosome();
+      System.out.println("Best solution: " + fittest.toString());
+    } finally {
+      gridClient.shutdown();
     }
-    // Get best and show info
-    IChromosome fittest = genotype.getFittestChromosome();
-    System.out.println("Best solution: " + fittest.toString());
   }
 
   public static void main(String[] args) throws Exception {
-    new SimpleJobConsumer().init();
+    SimpleJobConsumer consumer = new SimpleJobConsumer();
+    try {
+      consumer.init();
+    } finally {
+      consumer.shutdown();
+    }
     System.exit(0);
   }
 }
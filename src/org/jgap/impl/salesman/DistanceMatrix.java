@@ -0,0 +1,77 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl.salesman;
+
+import org.jgap.*;
+
+/**
+ * Table of all distances between the cities, computed once. Looking up a
+ * distance is then a single array access, independent of how expensive the
+ * original computation is.
+ * <p>
+ * The table holds size() * size() values of type float. For 5,000 cities,
+ * this means 100 MB. For larger problems with cheap distances, use the
+ * distances directly, e.g. EuclideanDistances.
+ *
+ * @since 3.7
+ */
+public class DistanceMatrix
+    implements IDistanceMatrix {
+  private final int m_size;
+
+  private final float[] m_distances;
+
+  /**
+   * Computes and stores all distances of the given source.
+   *
+   * @param a_source the distances to cache
+   *
+   * @since 3.7
+   */
+  public DistanceMatrix(IDistanceMatrix a_source) {
+    m_size = a_source.size();
+    m_distances = new float[m_size * m_size];
+    for (int i = 0; i < m_size; i++) {
+      int row = i * m_size;
+      for (int j = 0; j < m_size; j++) {
+        m_distances[row + j] = (float) a_source.distance(i, j);
+      }
+    }
+  }
+
+  /**
+   * Computes and stores the distances of an existing Salesman implementation.
+   * City i of the matrix is the city represented by a_cities[i].
+   *
+   * @param a_salesman provides the distance between two cities
+   * @param a_cities genes representing the cities
+   *
+   * @since 3.7
+   */
+  public DistanceMatrix(final Salesman a_salesman, final Gene[] a_cities) {
+    this(new IDistanceMatrix() {
+      public int size() {
+        return a_cities.length;
+      }
+
+      public double distance(int a_from, int a_to) {
+        return a_salesman.distance(a_cities[a_from], a_cities[a_to]);
+      }
+    });
+  }
+
+  public int size() {
+    return m_size;
+  }
+
+  public double distance(int a_from, int a_to) {
+    return m_distances[a_from * m_size + a_to];
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl.salesman;
+
+import org.jgap.*;
+
+/**
+ * Edge recombination crossover (ERX) of Whitley et al. for
+ * PermutationChromosome's. The child is built from the edges of both parents:
+ * Starting with the first city after the start offset of the first parent,
+ * the next city is the neighbour of the current city (in either parent) that
+ * has the fewest neighbours left that are not yet visited. Ties are broken at
+ * random. Only if the current city has no neighbour left, a random city not
+ * yet visited follows.
+ * <p>
+ * Preserves the neighbourhood of the cities better than the other crossovers
+ * of this package. Each city has at most four neighbours, so a crossover
+ * takes linear time.
+ *
+ * @since 3.7
+ */
+public class EdgeRecombinationCrossover
+    extends PermutationCrossover {
+  /**
+   * Maximum number of neighbours of a city in two tours.
+   */
+  private final static int MAX_NEIGHBOURS = 4;
+
+  /**
+   * @return true for instances of this class only, subclasses have to opt in
+   * to concurrent application by overriding this method
+   *
+   * @since 3.7
+   */
+  public boolean isConcurrent() {
+    return getClass() == EdgeRecombinationCrossover.class;
+  }
+
+  /**
+   * @param a_configuration the configuration to use
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public EdgeRecombinationCrossover(final Configuration a_configuration)
+      throws InvalidConfigurationException {
+    super(a_configuration);
+  }
+
+  protected int[] crossover(PermutationChromosome a_first,
+                            PermutationChromosome a_second,
+                            RandomGenerator a_generator) {
+    int[] first = a_first.cities();
+    int n = first.length;
+    int[] child = new int[n];
+    boolean[] used = new boolean[n];
+    copyFixedLoci(a_first, child, used);
+    int offset = a_first.getStartOffset();
+    if (offset == n) {
+      return child;
+    }
+    EdgeTable edges = new EdgeTable(n);
+    edges.addTour(first);
+    edges.addTour(a_second.cities());
+    for (int i = 0; i < offset; i++) {
+      edges.remove(first[i]);
+    }
+    int current = first[offset];
+    child[offset] = current;
+    edges.remove(current);
+    for (int locus = offset + 1; locus < n; locus++) {
+      current = edges.next(current, a_generator);
+      child[locus] = current;
+      edges.remove(current);
+    }
+    return child;
+  }
+
+  /**
+   * Neighbours of each city not yet visited, and the cities not yet visited.
+   */
+  private static class EdgeTable {
+    private final int[] m_neighbours;
+
+    private final int[] m_counts;
+
+    private final int[] m_unvisited;
+
+    /**
+     * Index of each city in m_unvisited.
+     */
+    private final int[] m_indexes;
+
+    private int m_unvisitedCount;
+
+    EdgeTable(int a_size) {
+      m_neighbours = new int[a_size * MAX_NEIGHBOURS];
+      m_counts = new int[a_size];
+      m_unvisited = new int[a_size];
+      m_indexes = new int[a_size];
+      for (int i = 0; i < a_size; i++) {
+        m_unvisited[i] = i;
+        m_indexes[i] = i;
+      }
+      m_unvisitedCount = a_size;
+    }
+
+    void addTour(int[] a_cities) {
+      int last = a_cities[a_cities.length - 1];
+      for (int i = 0; i < a_cities.length; i++) {
+        add(last, a_cities[i]);
+        add(a_cities[i], last);
+        last = a_cities[i];
+      }
+    }
+
+    private void add(int a_city, int a_neighbour) {
+      if (a_city == a_neighbour) {
+        return;
+      }
+      int base = a_city * MAX_NEIGHBOURS;
+      int count = m_counts[a_city];
+      for (int i = 0; i < count; i++) {
+        if (m_neighbours[base + i] == a_neighbour) {
+          return;
+        }
+      }
+      m_neighbours[base + count] = a_neighbour;
+      m_counts[a_city] = count + 1;
+    }
+
+    /**
+     * Marks the city as visited, removing it from the neighbours of all
+     * other cities.
+     */
+    void remove(int a_city) {
+      int index = m_indexes[a_city];
+      int last = m_unvisited[--m_unvisitedCount];
+      m_unvisited[index] = last;
+      m_indexes[last] = index;
+      int base = a_city * MAX_NEIGHBOURS;
+      for (int i = 0; i < m_counts[a_city]; i++) {
+        int neighbour = m_neighbours[base + i];
+        int nbase = neighbour * MAX_NEIGHBOURS;
+        int count = m_counts[neighbour];
+        for (int j = 0; j < count; j++) {
+          if (m_neighbours[nbase + j] == a_city) {
+            m_neighbours[nbase + j] = m_neighbours[nbase + count - 1];
+            m_counts[neighbour] = count - 1;
+            break;
+          }
+        }
+      }
+    }
+
+    /**
+     * @return the neighbour of the city with the fewest neighbours left, or a
+     * random city not yet visited if there is no neighbour
+     */
+    int next(int a_city, RandomGenerator a_generator) {
+      int base = a_city * MAX_NEIGHBOURS;
+      int count = m_counts[a_city];
+      if (count == 0) {
+        return m_unvisited[a_generator.nextInt(m_unvisitedCount)];
+      }
+      int best = -1;
+      int bestCount = Integer.MAX_VALUE;
+      int ties = 0;
+      for (int i = 0; i < count; i++) {
+        int neighbour = m_neighbours[base + i];
+        int neighbourCount = m_counts[neighbour];
+        if (neighbourCount < bestCount) {
+          best = neighbour;
+          bestCount = neighbourCount;
+          ties = 1;
+        }
+        else if (neighbourCount == bestCount
+                 && a_generator.nextInt(++ties) == 0) {
+          best = neighbour;
+        }
+      }
+      return best;
+    }
+  }
+}
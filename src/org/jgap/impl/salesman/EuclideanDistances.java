@@ -0,0 +1,49 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl.salesman;
+
+/**
+ * Euclidean distances between cities given by their coordinates, computed on
+ * each call. Needs no memory besides the coordinates, whereas a DistanceMatrix
+ * holds size() * size() values.
+ *
+ * @since 3.7
+ */
+public class EuclideanDistances
+    implements IDistanceMatrix {
+  private final double[] m_x;
+
+  private final double[] m_y;
+
+  /**
+   * @param a_x x coordinate of each city, the array is copied
+   * @param a_y y coordinate of each city, the array is copied
+   *
+   * @since 3.7
+   */
+  public EuclideanDistances(double[] a_x, double[] a_y) {
+    if (a_x.length != a_y.length) {
+      throw new IllegalArgumentException(
+          "Number of x and y coordinates must be equal");
+    }
+    m_x = (double[]) a_x.clone();
+    m_y = (double[]) a_y.clone();
+  }
+
+  public int size() {
+    return m_x.length;
+  }
+
+  public double distance(int a_from, int a_to) {
+    double dx = m_x[a_from] - m_x[a_to];
+    double dy = m_y[a_from] - m_y[a_to];
+    return Math.sqrt(dx * dx + dy * dy);
+  }
+}
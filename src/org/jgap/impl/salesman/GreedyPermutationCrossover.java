@@ -0,0 +1,126 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl.salesman;
+
+import org.jgap.*;
+
+/**
+ * Greedy crossover of Grefenstette et al. for PermutationChromosome's, see
+ * GreedyCrossover for a description. Starting with the first city after the
+ * start offset of the first parent, the tour is extended by the closer one of
+ * the successors of the current city in both parents. If both have already
+ * been visited, the next city not yet visited in the order of the first
+ * parent follows.
+ * <p>
+ * The successors are looked up via the position index of the chromosomes,
+ * and the cities not yet visited are scanned only once per crossover, so a
+ * crossover takes linear time, whereas GreedyCrossover takes quadratic time.
+ *
+ * @since 3.7
+ */
+public class GreedyPermutationCrossover
+    extends PermutationCrossover {
+  private final IDistanceMatrix m_distances;
+
+  /**
+   * @return true for instances of this class only, subclasses have to opt in
+   * to concurrent application by overriding this method
+   *
+   * @since 3.7
+   */
+  public boolean isConcurrent() {
+    return getClass() == GreedyPermutationCrossover.class;
+  }
+
+  /**
+   * @param a_configuration the configuration to use
+   * @param a_distances the distances between the cities
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public GreedyPermutationCrossover(final Configuration a_configuration,
+                                    final IDistanceMatrix a_distances)
+      throws InvalidConfigurationException {
+    super(a_configuration);
+    if (a_distances == null) {
+      throw new InvalidConfigurationException("Distances must not be null!");
+    }
+    m_distances = a_distances;
+  }
+
+  public IDistanceMatrix getDistances() {
+    return m_distances;
+  }
+
+  protected int[] crossover(PermutationChromosome a_first,
+                            PermutationChromosome a_second,
+                            RandomGenerator a_generator) {
+    int[] first = a_first.cities();
+    int[] firstPositions = a_first.positions();
+    int[] second = a_second.cities();
+    int[] secondPositions = a_second.positions();
+    int n = first.length;
+    int[] child = new int[n];
+    boolean[] used = new boolean[n];
+    copyFixedLoci(a_first, child, used);
+    int offset = a_first.getStartOffset();
+    if (offset == n) {
+      return child;
+    }
+    int current = first[offset];
+    child[offset] = current;
+    used[current] = true;
+    // Next locus of the first parent to look for a city not yet visited.
+    // ------------------------------------------------------------------
+    int unvisited = offset + 1;
+    for (int locus = offset + 1; locus < n; locus++) {
+      int next1 = successor(first, firstPositions, current, used);
+      int next2 = successor(second, secondPositions, current, used);
+      int next;
+      if (next1 < 0) {
+        next = next2;
+      }
+      else if (next2 < 0) {
+        next = next1;
+      }
+      else if (m_distances.distance(current, next1)
+               < m_distances.distance(current, next2)) {
+        next = next1;
+      }
+      else {
+        next = next2;
+      }
+      if (next < 0) {
+        while (used[first[unvisited]]) {
+          unvisited++;
+        }
+        next = first[unvisited];
+      }
+      child[locus] = next;
+      used[next] = true;
+      current = next;
+    }
+    return child;
+  }
+
+  /**
+   * @return the city following the given one in the tour, or -1 if there is
+   * none or it has already been visited
+   */
+  private static int successor(int[] a_cities, int[] a_positions, int a_city,
+                               boolean[] a_used) {
+    int locus = a_positions[a_city] + 1;
+    if (locus < a_cities.length && !a_used[a_cities[locus]]) {
+      return a_cities[locus];
+    }
+    return -1;
+  }
+}
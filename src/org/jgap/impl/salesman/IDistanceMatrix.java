@@ -0,0 +1,41 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl.salesman;
+
+import java.io.*;
+
+/**
+ * Distances between the cities of a travelling salesman problem, cities being
+ * numbered from 0 to size() - 1. Used by PermutationChromosome and the
+ * operators working on it instead of Salesman.distance(Gene, Gene).
+ * <p>
+ * Implementations computing distances on the fly (such as EuclideanDistances)
+ * can be wrapped into a DistanceMatrix to look them up in a precomputed table.
+ *
+ * @since 3.7
+ */
+public interface IDistanceMatrix
+    extends Serializable {
+  /**
+   * @return number of cities
+   *
+   * @since 3.7
+   */
+  int size();
+
+  /**
+   * @param a_from the city to start from
+   * @param a_to the city to go to
+   * @return cost of travelling from the first to the second city
+   *
+   * @since 3.7
+   */
+  double distance(int a_from, int a_to);
+}
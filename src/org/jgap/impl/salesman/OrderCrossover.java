@@ -0,0 +1,86 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl.salesman;
+
+import org.jgap.*;
+
+/**
+ * Order crossover (OX) of Davis for PermutationChromosome's. The child takes
+ * over a randomly chosen range of loci from the first parent. The remaining
+ * loci are filled, starting after the range and wrapping around, with the
+ * cities not yet visited in the order they appear in the second parent,
+ * starting after the range as well.
+ * <p>
+ * Preserves the relative order of the cities rather than their neighbours.
+ * A crossover takes linear time.
+ *
+ * @since 3.7
+ */
+public class OrderCrossover
+    extends PermutationCrossover {
+  /**
+   * @return true for instances of this class only, subclasses have to opt in
+   * to concurrent application by overriding this method
+   *
+   * @since 3.7
+   */
+  public boolean isConcurrent() {
+    return getClass() == OrderCrossover.class;
+  }
+
+  /**
+   * @param a_configuration the configuration to use
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public OrderCrossover(final Configuration a_configuration)
+      throws InvalidConfigurationException {
+    super(a_configuration);
+  }
+
+  protected int[] crossover(PermutationChromosome a_first,
+                            PermutationChromosome a_second,
+                            RandomGenerator a_generator) {
+    int[] first = a_first.cities();
+    int[] second = a_second.cities();
+    int n = first.length;
+    int[] child = new int[n];
+    boolean[] used = new boolean[n];
+    copyFixedLoci(a_first, child, used);
+    int offset = a_first.getStartOffset();
+    int free = n - offset;
+    if (free == 0) {
+      return child;
+    }
+    int from = offset + a_generator.nextInt(free);
+    int to = offset + a_generator.nextInt(free);
+    if (from > to) {
+      int tmp = from;
+      from = to;
+      to = tmp;
+    }
+    for (int i = from; i <= to; i++) {
+      child[i] = first[i];
+      used[first[i]] = true;
+    }
+    int locus = to + 1;
+    for (int i = 1; i <= n; i++) {
+      int city = second[ (to + i) % n];
+      if (!used[city]) {
+        if (locus == n) {
+          locus = offset;
+        }
+        child[locus++] = city;
+      }
+    }
+    return child;
+  }
+}
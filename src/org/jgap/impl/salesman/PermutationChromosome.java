@@ -0,0 +1,484 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl.salesman;
+
+import java.util.*;
+
+import org.jgap.*;
+import org.jgap.impl.*;
+
+/**
+ * Chromosome representing a tour through the cities 0 to size() - 1 as a
+ * permutation stored in an int array. Besides the city at each locus, the
+ * locus of each city is kept, so that the successor of a city in the tour is
+ * found in constant time. This is what the crossover operators of this package
+ * (GreedyPermutationCrossover, OrderCrossover, EdgeRecombinationCrossover)
+ * and TwoOptOperator rely on to run in linear time.
+ * <p>
+ * The loci before the start offset are never changed, as with
+ * Salesman.setStartOffset. The default start offset is 1, so the tour always
+ * starts from the city at locus 0.
+ * <p>
+ * getGenes() returns IntegerGene's as described in ArrayChromosome, so
+ * GreedyCrossover and SwappingMutationOperator can be applied as well. With
+ * ArrayMutationOperator, a mutation swaps two cities, with
+ * ArrayCrossoverOperator, an order crossover with a single cut point takes
+ * place.
+ *
+ * @since 3.7
+ */
+public class PermutationChromosome
+    extends ArrayChromosome {
+  private int[] m_cities;
+
+  /**
+   * Locus of each city, only valid if m_positionsValid is true.
+   */
+  private int[] m_positions;
+
+  private boolean m_positionsValid;
+
+  private int m_startOffset;
+
+  /**
+   * Constructs a chromosome visiting the cities in ascending order, with a
+   * start offset of 1.
+   *
+   * @param a_configuration the configuration to use
+   * @param a_size number of cities
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public PermutationChromosome(final Configuration a_configuration,
+                               final int a_size)
+      throws InvalidConfigurationException {
+    this(a_configuration, a_size, 1);
+  }
+
+  /**
+   * Constructs a chromosome visiting the cities in ascending order.
+   *
+   * @param a_configuration the configuration to use
+   * @param a_size number of cities
+   * @param a_startOffset number of loci at the start that are never changed
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public PermutationChromosome(final Configuration a_configuration,
+                               final int a_size, final int a_startOffset)
+      throws InvalidConfigurationException {
+    super(a_configuration);
+    if (a_size <= 0) {
+      throw new IllegalArgumentException(
+          "Chromosome size must be greater than zero");
+    }
+    if (a_startOffset < 0 || a_startOffset > a_size) {
+      throw new IllegalArgumentException(
+          "Start offset must be between zero and the chromosome size");
+    }
+    m_startOffset = a_startOffset;
+    m_cities = new int[a_size];
+    m_positions = new int[a_size];
+    for (int i = 0; i < a_size; i++) {
+      m_cities[i] = i;
+      m_positions[i] = i;
+    }
+    m_positionsValid = true;
+  }
+
+  /**
+   * @param a_configuration the configuration to use
+   * @param a_cities the tour, a permutation of the cities 0 to length - 1. The
+   * array is copied
+   * @param a_startOffset number of loci at the start that are never changed
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public PermutationChromosome(final Configuration a_configuration,
+                               final int[] a_cities, final int a_startOffset)
+      throws InvalidConfigurationException {
+    this(a_configuration, a_cities.length, a_startOffset);
+    setCities(a_cities);
+  }
+
+  public int size() {
+    return m_cities.length;
+  }
+
+  /**
+   * Only called before all alleles are set anew.
+   *
+   * @param a_size the new size
+   *
+   * @since 3.7
+   */
+  protected void resize(int a_size) {
+    if (a_size != m_cities.length) {
+      m_cities = new int[a_size];
+      m_positions = new int[a_size];
+      m_positionsValid = false;
+      m_startOffset = Math.min(m_startOffset, a_size);
+    }
+  }
+
+  /**
+   * @return number of loci at the start that are never changed
+   *
+   * @since 3.7
+   */
+  public int getStartOffset() {
+    return m_startOffset;
+  }
+
+  /**
+   * @param a_locus the locus to read
+   * @return city visited at the given locus
+   *
+   * @since 3.7
+   */
+  public int getCity(int a_locus) {
+    syncFromGene(a_locus);
+    return m_cities[a_locus];
+  }
+
+  /**
+   * @param a_city the city to look for
+   * @return locus at which the given city is visited
+   *
+   * @since 3.7
+   */
+  public int getPosition(int a_city) {
+    return positions()[a_city];
+  }
+
+  /**
+   * @return copy of the tour
+   *
+   * @since 3.7
+   */
+  public int[] toIntArray() {
+    return (int[]) cities().clone();
+  }
+
+  /**
+   * @param a_cities the new tour, a permutation of the cities 0 to size() - 1.
+   * The array is copied
+   *
+   * @since 3.7
+   */
+  public void setCities(int[] a_cities) {
+    if (a_cities.length != m_cities.length) {
+      throw new IllegalArgumentException("Chromosomes differ in size!");
+    }
+    if (!isPermutation(a_cities)) {
+      throw new IllegalArgumentException(
+          "Each city must be visited exactly once!");
+    }
+    setCitiesDirectly( (int[]) a_cities.clone());
+  }
+
+  /**
+   * Exchanges the cities at the given loci.
+   *
+   * @param a_locus1 first locus, not before the start offset
+   * @param a_locus2 second locus, not before the start offset
+   *
+   * @since 3.7
+   */
+  public void swap(int a_locus1, int a_locus2) {
+    checkLocus(a_locus1);
+    checkLocus(a_locus2);
+    int[] positions = positions();
+    int city = m_cities[a_locus1];
+    m_cities[a_locus1] = m_cities[a_locus2];
+    m_cities[a_locus2] = city;
+    positions[m_cities[a_locus1]] = a_locus1;
+    positions[m_cities[a_locus2]] = a_locus2;
+    syncToGene(a_locus1);
+    syncToGene(a_locus2);
+  }
+
+  /**
+   * Reverses the order of the cities between the given loci, as a 2-opt move
+   * does.
+   *
+   * @param a_from first locus to reverse, not before the start offset
+   * @param a_to last locus to reverse, not before a_from
+   *
+   * @since 3.7
+   */
+  public void reverse(int a_from, int a_to) {
+    checkLocus(a_from);
+    if (a_to < a_from || a_to >= m_cities.length) {
+      throw new IllegalArgumentException("Invalid range " + a_from + " to "
+                                         + a_to);
+    }
+    positions();
+    reverseDirectly(a_from, a_to);
+    for (int i = a_from; i <= a_to; i++) {
+      syncToGene(i);
+    }
+  }
+
+  /**
+   * @param a_distances the distances between the cities
+   * @return length of the tour including the way back to the first city
+   *
+   * @since 3.7
+   */
+  public double getTourLength(IDistanceMatrix a_distances) {
+    int[] cities = cities();
+    int last = cities[cities.length - 1];
+    double length = 0;
+    for (int i = 0; i < cities.length; i++) {
+      length += a_distances.distance(last, cities[i]);
+      last = cities[i];
+    }
+    return length;
+  }
+
+  /**
+   * @param a_cities the array to check
+   * @return true: the array contains each of the numbers 0 to length - 1
+   * exactly once
+   *
+   * @since 3.7
+   */
+  public static boolean isPermutation(int[] a_cities) {
+    boolean[] seen = new boolean[a_cities.length];
+    for (int i = 0; i < a_cities.length; i++) {
+      int city = a_cities[i];
+      if (city < 0 || city >= a_cities.length || seen[city]) {
+        return false;
+      }
+      seen[city] = true;
+    }
+    return true;
+  }
+
+  /**
+   * Synchronized, as crossover operators may read a parent on several threads
+   * concurrently.
+   *
+   * @return the tour itself, not a copy. Must not be changed
+   *
+   * @since 3.7
+   */
+  synchronized int[] cities() {
+    syncFromGenes();
+    return m_cities;
+  }
+
+  /**
+   * @return the locus of each city, not a copy. Must not be changed
+   *
+   * @since 3.7
+   */
+  synchronized int[] positions() {
+    int[] cities = cities();
+    if (!m_positionsValid) {
+      for (int i = 0; i < cities.length; i++) {
+        m_positions[cities[i]] = i;
+      }
+      m_positionsValid = true;
+    }
+    return m_positions;
+  }
+
+  /**
+   * Takes over the given tour without copying or checking it.
+   *
+   * @param a_cities a permutation of the cities 0 to size() - 1
+   *
+   * @since 3.7
+   */
+  void setCitiesDirectly(int[] a_cities) {
+    m_cities = a_cities;
+    m_positionsValid = false;
+    syncToGenes();
+  }
+
+  /**
+   * Reverses the given range of the tour and updates the positions, but not
+   * the attached genes. The positions must be valid.
+   *
+   * @param a_from first locus to reverse
+   * @param a_to last locus to reverse
+   *
+   * @since 3.7
+   */
+  void reverseDirectly(int a_from, int a_to) {
+    for (int i = a_from, j = a_to; i < j; i++, j--) {
+      int city = m_cities[i];
+      m_cities[i] = m_cities[j];
+      m_cities[j] = city;
+      m_positions[m_cities[i]] = i;
+      m_positions[city] = j;
+    }
+  }
+
+  /**
+   * Writes the whole tour to the attached genes, if any.
+   *
+   * @since 3.7
+   */
+  void citiesChanged() {
+    syncToGenes();
+  }
+
+  private void checkLocus(int a_locus) {
+    if (a_locus < m_startOffset || a_locus >= m_cities.length) {
+      throw new IllegalArgumentException("Locus " + a_locus
+                                         + " cannot be changed");
+    }
+  }
+
+  /**
+   * Shuffles the cities after the start offset.
+   *
+   * @param a_generator the random generator to use
+   *
+   * @since 3.7
+   */
+  public void setToRandomValues(RandomGenerator a_generator) {
+    int[] cities = cities();
+    for (int i = cities.length - 1; i > m_startOffset; i--) {
+      int j = m_startOffset + a_generator.nextInt(i - m_startOffset + 1);
+      int city = cities[i];
+      cities[i] = cities[j];
+      cities[j] = city;
+    }
+    m_positionsValid = false;
+    syncToGenes();
+  }
+
+  /**
+   * Swaps the city at the given locus with the one at a locus determined by
+   * the percentage. Loci before the start offset are not mutated.
+   *
+   * @param a_locus the locus to mutate
+   * @param a_percentage percentage of mutation (greater than -1 and smaller
+   * than 1)
+   *
+   * @since 3.7
+   */
+  public void applyMutation(int a_locus, double a_percentage) {
+    int free = m_cities.length - m_startOffset;
+    if (a_locus < m_startOffset || free < 2) {
+      return;
+    }
+    int other = m_startOffset + (int) ( (a_percentage + 1) / 2 * free);
+    swap(a_locus, Math.min(other, m_cities.length - 1));
+  }
+
+  /**
+   * Order crossover with a single cut point: Each chromosome keeps its cities
+   * before the given locus and visits the remaining cities in the order of
+   * the other chromosome.
+   *
+   * @param a_other chromosome of the same type and size
+   * @param a_locus the cut point
+   *
+   * @since 3.7
+   */
+  public void crossover(ArrayChromosome a_other, int a_locus) {
+    PermutationChromosome other = (PermutationChromosome) a_other;
+    if (other.m_cities.length != m_cities.length) {
+      throw new IllegalArgumentException("Chromosomes differ in size!");
+    }
+    int[] first = cities();
+    int[] second = other.cities();
+    int cut = Math.max(a_locus, m_startOffset);
+    setCitiesDirectly(orderCrossover(first, second, cut));
+    other.setCitiesDirectly(orderCrossover(second, first, cut));
+  }
+
+  private static int[] orderCrossover(int[] a_first, int[] a_second,
+                                      int a_cut) {
+    int[] child = new int[a_first.length];
+    boolean[] used = new boolean[a_first.length];
+    for (int i = 0; i < a_cut; i++) {
+      child[i] = a_first[i];
+      used[a_first[i]] = true;
+    }
+    int locus = a_cut;
+    for (int i = 0; i < a_second.length; i++) {
+      if (!used[a_second[i]]) {
+        child[locus++] = a_second[i];
+      }
+    }
+    return child;
+  }
+
+  protected ArrayChromosome copyValues()
+      throws InvalidConfigurationException {
+    PermutationChromosome copy = new PermutationChromosome(getConfiguration(),
+        m_cities.length, m_startOffset);
+    System.arraycopy(m_cities, 0, copy.m_cities, 0, m_cities.length);
+    if (m_positionsValid) {
+      System.arraycopy(m_positions, 0, copy.m_positions, 0,
+                       m_positions.length);
+    }
+    copy.m_positionsValid = m_positionsValid;
+    return copy;
+  }
+
+  protected Gene newGeneForLocus(int a_locus)
+      throws InvalidConfigurationException {
+    Gene gene = new IntegerGene(getConfiguration(), 0, m_cities.length - 1);
+    gene.setAllele(Integer.valueOf(m_cities[a_locus]));
+    return gene;
+  }
+
+  protected void setValueFromGene(int a_locus, Gene a_gene) {
+    Object allele = a_gene.getAllele();
+    if (allele != null) {
+      int city = ( (Number) allele).intValue();
+      if (m_cities[a_locus] != city) {
+        m_cities[a_locus] = city;
+        m_positionsValid = false;
+      }
+    }
+  }
+
+  protected void setGeneFromValue(int a_locus, Gene a_gene) {
+    a_gene.setAllele(Integer.valueOf(m_cities[a_locus]));
+  }
+
+  protected int compareValues(ArrayChromosome a_other) {
+    int[] other = ( (PermutationChromosome) a_other).m_cities;
+    for (int i = 0; i < m_cities.length; i++) {
+      if (m_cities[i] != other[i]) {
+        return m_cities[i] < other[i] ? -1 : 1;
+      }
+    }
+    return 0;
+  }
+
+  protected int valuesHashCode() {
+    return Arrays.hashCode(m_cities);
+  }
+
+  protected long valueFingerprint(int a_locus) {
+    return m_cities[a_locus];
+  }
+
+  protected String valueToString(int a_locus) {
+    return String.valueOf(m_cities[a_locus]);
+  }
+
+  protected void setValueFromString(int a_locus, String a_value) {
+    m_cities[a_locus] = Integer.parseInt(a_value);
+    m_positionsValid = false;
+  }
+}
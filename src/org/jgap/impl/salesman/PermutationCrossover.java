@@ -0,0 +1,132 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl.salesman;
+
+import java.util.*;
+
+import org.jgap.*;
+
+/**
+ * Base class for crossover operators creating tours from two parent tours of
+ * PermutationChromosome's. Mates are chosen as with GreedyCrossover: For half
+ * of the population size, two chromosomes are picked at random and two
+ * children are added to the candidates, one from each parent's perspective.
+ * <p>
+ * Subclasses compute a child tour in time linear to the number of cities.
+ * They must keep the loci before the start offset of the first parent.
+ *
+ * @since 3.7
+ */
+public abstract class PermutationCrossover
+    extends BaseGeneticOperator
+    implements IConcurrentGeneticOperator {
+  /**
+   * @param a_configuration the configuration to use
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public PermutationCrossover(final Configuration a_configuration)
+      throws InvalidConfigurationException {
+    super(a_configuration);
+  }
+
+  /**
+   * @param a_population the population of PermutationChromosome's to pick the
+   * parents from
+   * @param a_candidateChromosomes the list to add the children to
+   *
+   * @since 3.7
+   */
+  public void operate(final Population a_population,
+                      final List a_candidateChromosomes) {
+    int size = Math.min(getConfiguration().getPopulationSize(),
+                        a_population.size());
+    int numCrossovers = size / 2;
+    RandomGenerator generator = getConfiguration().getRandomGenerator();
+    for (int i = 0; i < numCrossovers; i++) {
+      PermutationChromosome first = (PermutationChromosome) a_population.
+          getChromosome(generator.nextInt(size));
+      PermutationChromosome second = (PermutationChromosome) a_population.
+          getChromosome(generator.nextInt(size));
+      if (first.size() != second.size()) {
+        throw new IllegalArgumentException("Chromosomes differ in size!");
+      }
+      a_candidateChromosomes.add(createChild(first, second, generator));
+      a_candidateChromosomes.add(createChild(second, first, generator));
+    }
+  }
+
+  private PermutationChromosome createChild(PermutationChromosome a_first,
+                                            PermutationChromosome a_second,
+                                            RandomGenerator a_generator) {
+    int[] cities = crossover(a_first, a_second, a_generator);
+    PermutationChromosome child = (PermutationChromosome) a_first.clone();
+    // In case monitoring is active, support it.
+    // -----------------------------------------
+    if (m_monitorActive) {
+      child.setUniqueIDTemplate(a_first.getUniqueID(), 1);
+      child.setUniqueIDTemplate(a_second.getUniqueID(), 2);
+    }
+    child.setCitiesDirectly(cities);
+    return child;
+  }
+
+  /**
+   * Computes a child tour from the given parents.
+   *
+   * @param a_first the first parent, its loci before the start offset must be
+   * kept
+   * @param a_second the second parent
+   * @param a_generator the random generator to use
+   * @return new array holding the tour of the child
+   *
+   * @since 3.7
+   */
+  protected abstract int[] crossover(PermutationChromosome a_first,
+                                     PermutationChromosome a_second,
+                                     RandomGenerator a_generator);
+
+  /**
+   * Marks the cities before the start offset of the chromosome as used and
+   * copies them to the child.
+   *
+   * @param a_parent the parent to copy the loci before the start offset from
+   * @param a_child the child tour
+   * @param a_used marks the cities visited by the child
+   *
+   * @since 3.7
+   */
+  protected static void copyFixedLoci(PermutationChromosome a_parent,
+                                      int[] a_child, boolean[] a_used) {
+    int[] cities = a_parent.cities();
+    for (int i = 0; i < a_parent.getStartOffset(); i++) {
+      a_child[i] = cities[i];
+      a_used[cities[i]] = true;
+    }
+  }
+
+  /**
+   * @param a_other the operator to compare with
+   * @return zero for operators of the same class, otherwise the classes are
+   * compared by name
+   *
+   * @since 3.7
+   */
+  public int compareTo(Object a_other) {
+    if (a_other == null) {
+      return 1;
+    }
+    if (a_other.getClass() != getClass()) {
+      return getClass().getName().compareTo(a_other.getClass().getName());
+    }
+    return 0;
+  }
+}
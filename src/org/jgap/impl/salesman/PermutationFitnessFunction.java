@@ -0,0 +1,50 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl.salesman;
+
+import org.jgap.*;
+
+/**
+ * Fitness function for tours represented by PermutationChromosome's. Computes
+ * the length of the tour from the int array of the chromosome, without
+ * creating any Gene objects. As with SalesmanFitnessFunction, the fitness
+ * value is Integer.MAX_VALUE / 2 minus the length of the tour, so that shorter
+ * tours are fitter with the DefaultFitnessEvaluator.
+ *
+ * @since 3.7
+ */
+public class PermutationFitnessFunction
+    extends FitnessFunction {
+  private final IDistanceMatrix m_distances;
+
+  /**
+   * @param a_distances the distances between the cities
+   *
+   * @since 3.7
+   */
+  public PermutationFitnessFunction(final IDistanceMatrix a_distances) {
+    m_distances = a_distances;
+  }
+
+  public IDistanceMatrix getDistances() {
+    return m_distances;
+  }
+
+  /**
+   * @param a_subject a PermutationChromosome
+   * @return Integer.MAX_VALUE / 2 minus the length of the tour
+   *
+   * @since 3.7
+   */
+  protected double evaluate(final IChromosome a_subject) {
+    return Integer.MAX_VALUE / 2
+        - ( (PermutationChromosome) a_subject).getTourLength(m_distances);
+  }
+}
@@ -0,0 +1,333 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl.salesman;
+
+import java.util.*;
+
+import org.jgap.*;
+
+/**
+ * Local search operator improving tours of PermutationChromosome's by 2-opt
+ * moves: Two edges of the tour are replaced by two shorter ones, reversing the
+ * part of the tour in between. This is repeated until no improving move is
+ * left. Copies of the improved chromosomes are added to the candidates, the
+ * population itself is not changed.
+ * <p>
+ * To keep a pass over the tour linear in the number of cities, only moves
+ * connecting a city with one of its nearest neighbours are considered. These
+ * neighbour lists are computed once when constructing the operator, by
+ * comparing all pairs of cities. Additionally, cities around which no
+ * improvement has been found are skipped until a neighbouring edge changes
+ * ("don't look bits").
+ * <p>
+ * As local search is expensive compared to the other operators, only a
+ * fraction of the chromosomes is improved per generation.
+ *
+ * @since 3.7
+ */
+public class TwoOptOperator
+    extends BaseGeneticOperator
+    implements IConcurrentGeneticOperator {
+  /**
+   * Minimum gain of a move. Avoids endless loops due to rounding errors.
+   */
+  private final static double EPSILON = 1e-7;
+
+  private final IDistanceMatrix m_distances;
+
+  private final int m_rate;
+
+  private final int m_neighbourCount;
+
+  /**
+   * The nearest neighbours of each city, the nearest first.
+   */
+  private final int[] m_neighbours;
+
+  /**
+   * Improves one chromosome out of ten, considering the eight nearest
+   * neighbours of each city.
+   *
+   * @param a_configuration the configuration to use
+   * @param a_distances the distances between the cities
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public TwoOptOperator(final Configuration a_configuration,
+                        final IDistanceMatrix a_distances)
+      throws InvalidConfigurationException {
+    this(a_configuration, a_distances, 10, 8);
+  }
+
+  /**
+   * @param a_configuration the configuration to use
+   * @param a_distances the distances between the cities
+   * @param a_desiredRate rate of chromosomes to improve, expressed as the
+   * denominator of the 1 / X fraction. A rate of one improves each chromosome
+   * @param a_neighbourCount number of nearest neighbours to consider per city
+   * @throws InvalidConfigurationException
+   *
+   * @since 3.7
+   */
+  public TwoOptOperator(final Configuration a_configuration,
+                        final IDistanceMatrix a_distances,
+                        final int a_desiredRate, final int a_neighbourCount)
+      throws InvalidConfigurationException {
+    super(a_configuration);
+    if (a_distances == null) {
+      throw new InvalidConfigurationException("Distances must not be null!");
+    }
+    if (a_desiredRate < 1) {
+      throw new InvalidConfigurationException(
+          "Rate must be greater than zero!");
+    }
+    if (a_neighbourCount < 1) {
+      throw new InvalidConfigurationException(
+          "Number of neighbours must be greater than zero!");
+    }
+    m_distances = a_distances;
+    m_rate = a_desiredRate;
+    m_neighbourCount = Math.min(a_neighbourCount,
+                                Math.max(a_distances.size() - 1, 1));
+    m_neighbours = computeNeighbours();
+  }
+
+  private int[] computeNeighbours() {
+    int n = m_distances.size();
+    int k = m_neighbourCount;
+    int[] neighbours = new int[n * k];
+    double[] nearest = new double[k];
+    for (int a = 0; a < n; a++) {
+      int base = a * k;
+      int count = 0;
+      for (int c = 0; c < n; c++) {
+        if (c == a) {
+          continue;
+        }
+        double d = m_distances.distance(a, c);
+        if (count == k && d >= nearest[k - 1]) {
+          continue;
+        }
+        // Insert into the sorted list, dropping the farthest if full.
+        // -----------------------------------------------------------
+        int i = count < k ? count++ : k - 1;
+        while (i > 0 && nearest[i - 1] > d) {
+          nearest[i] = nearest[i - 1];
+          neighbours[base + i] = neighbours[base + i - 1];
+          i--;
+        }
+        nearest[i] = d;
+        neighbours[base + i] = c;
+      }
+      // Less than k neighbours only occurs with a single city.
+      // ------------------------------------------------------
+      for (int i = count; i < k; i++) {
+        neighbours[base + i] = a;
+      }
+    }
+    return neighbours;
+  }
+
+  public IDistanceMatrix getDistances() {
+    return m_distances;
+  }
+
+  public int getRate() {
+    return m_rate;
+  }
+
+  public int getNeighbourCount() {
+    return m_neighbourCount;
+  }
+
+  /**
+   * @return true for instances of this class only, subclasses have to opt in
+   * to concurrent application by overriding this method
+   *
+   * @since 3.7
+   */
+  public boolean isConcurrent() {
+    return getClass() == TwoOptOperator.class;
+  }
+
+  /**
+   * @param a_population the population of PermutationChromosome's to improve
+   * @param a_candidateChromosomes the list to add the improved copies to
+   *
+   * @since 3.7
+   */
+  public void operate(final Population a_population,
+                      final List a_candidateChromosomes) {
+    int size = Math.min(getConfiguration().getPopulationSize(),
+                        a_population.size());
+    RandomGenerator generator = getConfiguration().getRandomGenerator();
+    for (int i = 0; i < size; i++) {
+      if (m_rate > 1 && generator.nextInt(m_rate) != 0) {
+        continue;
+      }
+      PermutationChromosome chrom = (PermutationChromosome) a_population.
+          getChromosome(i);
+      PermutationChromosome copy = (PermutationChromosome) chrom.clone();
+      if (improve(copy)) {
+        // In case monitoring is active, support it.
+        // -----------------------------------------
+        if (m_monitorActive) {
+          copy.setUniqueIDTemplate(chrom.getUniqueID(), 1);
+        }
+        a_candidateChromosomes.add(copy);
+      }
+    }
+  }
+
+  /**
+   * Applies improving 2-opt moves to the tour of the given chromosome until
+   * there are none left. The loci before the start offset are not changed.
+   *
+   * @param a_chrom the chromosome to improve
+   * @return true: the tour has been changed
+   *
+   * @since 3.7
+   */
+  public boolean improve(PermutationChromosome a_chrom) {
+    int[] tour = a_chrom.cities();
+    int[] positions = a_chrom.positions();
+    int n = tour.length;
+    if (n != m_distances.size()) {
+      throw new IllegalArgumentException("Expected " + m_distances.size()
+                                         + " cities but got " + n);
+    }
+    boolean[] dontLook = new boolean[n];
+    boolean changed = false;
+    boolean improved = true;
+    while (improved) {
+      improved = false;
+      for (int a = 0; a < n; a++) {
+        if (dontLook[a]) {
+          continue;
+        }
+        if (improveCity(a_chrom, tour, positions, a, dontLook)) {
+          improved = true;
+          changed = true;
+        }
+        else {
+          dontLook[a] = true;
+        }
+      }
+    }
+    if (changed) {
+      a_chrom.citiesChanged();
+    }
+    return changed;
+  }
+
+  /**
+   * Tries the moves replacing an edge at the given city by an edge to one of
+   * its nearest neighbours, applying the first improving one.
+   */
+  private boolean improveCity(PermutationChromosome a_chrom, int[] a_tour,
+                              int[] a_positions, int a_city,
+                              boolean[] a_dontLook) {
+    int n = a_tour.length;
+    int base = a_city * m_neighbourCount;
+    // Direction 1 considers the successors, -1 the predecessors.
+    // ----------------------------------------------------------
+    for (int dir = 1; dir >= -1; dir -= 2) {
+      int i = a_positions[a_city];
+      int b = a_tour[ (i + dir + n) % n];
+      double dab = m_distances.distance(a_city, b);
+      for (int k = 0; k < m_neighbourCount; k++) {
+        int c = m_neighbours[base + k];
+        double dac = m_distances.distance(a_city, c);
+        if (dac + EPSILON >= dab) {
+          // Farther neighbours cannot give a shorter tour either.
+          // -----------------------------------------------------
+          break;
+        }
+        int j = a_positions[c];
+        int d = a_tour[ (j + dir + n) % n];
+        if (c == b || d == a_city) {
+          continue;
+        }
+        double delta = dac + m_distances.distance(b, d) - dab
+            - m_distances.distance(c, d);
+        if (delta < -EPSILON) {
+          // Successors: reverse b..c, predecessors: reverse a..d.
+          // -----------------------------------------------------
+          boolean applied;
+          if (dir == 1) {
+            applied = reverse(a_chrom, (i + 1) % n, j, n);
+          }
+          else {
+            applied = reverse(a_chrom, i, (j - 1 + n) % n, n);
+          }
+          if (applied) {
+            a_dontLook[a_city] = false;
+            a_dontLook[b] = false;
+            a_dontLook[c] = false;
+            a_dontLook[d] = false;
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Reverses the part of the cyclic tour from locus a_from to locus a_to, or
+   * equivalently the rest of the tour, whichever is shorter and does not
+   * contain a locus before the start offset.
+   *
+   * @return false: neither part can be reversed
+   */
+  private boolean reverse(PermutationChromosome a_chrom, int a_from, int a_to,
+                          int a_size) {
+    int offset = a_chrom.getStartOffset();
+    int restFrom = (a_to + 1) % a_size;
+    int restTo = (a_from - 1 + a_size) % a_size;
+    boolean part = a_from <= a_to && a_from >= offset;
+    boolean rest = restFrom <= restTo && restFrom >= offset;
+    if (part && rest && restTo - restFrom < a_to - a_from) {
+      part = false;
+    }
+    if (part) {
+      a_chrom.reverseDirectly(a_from, a_to);
+    }
+    else if (rest) {
+      a_chrom.reverseDirectly(restFrom, restTo);
+    }
+    else {
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * @param a_other the operator to compare with
+   * @return zero for operators of the same class, rate and number of
+   * neighbours
+   *
+   * @since 3.7
+   */
+  public int compareTo(Object a_other) {
+    if (a_other == null) {
+      return 1;
+    }
+    if (a_other.getClass() != getClass()) {
+      return getClass().getName().compareTo(a_other.getClass().getName());
+    }
+    TwoOptOperator other = (TwoOptOperator) a_other;
+    if (m_rate != other.m_rate) {
+      return m_rate - other.m_rate;
+    }
+    return m_neighbourCount - other.m_neighbourCount;
+  }
+}
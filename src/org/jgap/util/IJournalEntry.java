@@ -0,0 +1,30 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.util;
+
+/**
+ * A single change to the object held by a JournaledObject. Entries are
+ * appended to the journal and applied again when the object is loaded, so
+ * they must only depend on their own data and the state they are applied to.
+ *
+ * @since 3.7
+ */
+public interface IJournalEntry {
+  /**
+   * Applies the change.
+   *
+   * @param a_object the object to change
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  void apply(Object a_object)
+      throws Exception;
+}
@@ -0,0 +1,451 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.util;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.util.zip.*;
+
+import org.apache.log4j.*;
+import org.jgap.distr.grid.gp.*;
+import com.thoughtworks.xstream.*;
+import com.thoughtworks.xstream.io.xml.*;
+
+/**
+ * Keeps an object in a file like PersistableObject, but records changes to it
+ * as entries appended to a journal instead of rewriting the whole file. The
+ * cost of a change thus only depends on the size of the change, and a crash
+ * can at most lose the entry being written.
+ * <p>
+ * Each journal entry is written with a sequence number and a CRC32 checksum.
+ * Loading reads the snapshot file and replays the valid entries of the
+ * journal, which is memory-mapped for that. A torn entry at the end of the
+ * journal is cut off. After a number of entries the journal is compacted: the
+ * object is written to a new snapshot, which then atomically replaces the old
+ * one, and the journal is emptied.
+ * <p>
+ * Snapshot files written by PersistableObject can be loaded.
+ *
+ * @since 3.7
+ */
+public class JournaledObject {
+  /**
+   * Appended to the name of the snapshot file to get the name of the journal.
+   */
+  public final static String JOURNAL_SUFFIX = ".journal";
+
+  public final static int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
+  /**
+   * Sequence number, length and checksum.
+   */
+  private final static int ENTRY_HEADER_LENGTH = 8 + 4 + 8;
+
+  private final static String ENCODING = "UTF-8";
+
+  private transient Logger log = Logger.getLogger(getClass());
+
+  private File m_file;
+
+  private File m_journalFile;
+
+  private Object m_object;
+
+  private XStream m_xstream;
+
+  /**
+   * Sequence number of the latest entry.
+   */
+  private long m_sequence;
+
+  /**
+   * Number of entries in the journal.
+   */
+  private int m_entries;
+
+  private int m_compactionThreshold;
+
+  private boolean m_sync;
+
+  private FileOutputStream m_journal;
+
+  /**
+   * Content of the snapshot file.
+   *
+   * @since 3.7
+   */
+  static class Snapshot {
+    /**
+     * Sequence number of the latest entry contained in the snapshot.
+     */
+    long m_sequence;
+
+    Object m_object;
+  }
+
+  public JournaledObject(File a_file) {
+    m_file = a_file;
+    m_journalFile = new File(a_file.getPath() + JOURNAL_SUFFIX);
+    m_compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    m_xstream = new JGAPGPXStream();
+    m_xstream.alias("snapshot", Snapshot.class);
+    init(m_xstream);
+  }
+
+  public JournaledObject(String a_filename) {
+    this(new File(a_filename));
+  }
+
+  public synchronized void setObject(Object a_object) {
+    m_object = a_object;
+  }
+
+  public synchronized Object getObject() {
+    return m_object;
+  }
+
+  /**
+   * @param a_threshold number of journal entries after which the journal is
+   * compacted, 0 to only compact when calling compact or save
+   *
+   * @since 3.7
+   */
+  public void setCompactionThreshold(int a_threshold) {
+    m_compactionThreshold = a_threshold;
+  }
+
+  public int getCompactionThreshold() {
+    return m_compactionThreshold;
+  }
+
+  /**
+   * @param a_sync true: force each entry to the disk before returning, which
+   * also survives a crash of the operating system but is much slower
+   *
+   * @since 3.7
+   */
+  public void setSync(boolean a_sync) {
+    m_sync = a_sync;
+  }
+
+  public boolean isSync() {
+    return m_sync;
+  }
+
+  /**
+   * @return number of entries in the journal
+   *
+   * @since 3.7
+   */
+  public synchronized int getJournalSize() {
+    return m_entries;
+  }
+
+  /**
+   * @return the object read from the snapshot with the journal replayed, or
+   * null if there is no snapshot
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public Object load()
+      throws Exception {
+    return load(null);
+  }
+
+  /**
+   * Reads the snapshot and replays the journal.
+   *
+   * @param a_initial the object to replay the journal on if there is no
+   * snapshot yet, may be null
+   * @return the object read, a_initial if there is no snapshot, or null if the
+   * snapshot cannot be read
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public synchronized Object load(Object a_initial)
+      throws Exception {
+    log.debug("Loading object from file " + m_file.getName());
+    closeJournal();
+    m_object = a_initial;
+    m_sequence = 0;
+    m_entries = 0;
+    File tmp = getTemporaryFile();
+    if (!m_file.exists() && tmp.exists()) {
+      // Compaction was interrupted after deleting the old snapshot, the new
+      // one has been written completely before. If there was no old snapshot,
+      // the new one may be incomplete, but then the journal still holds all
+      // entries.
+      // ----------------------------------------------------------------------
+      try {
+        readSnapshot(tmp);
+        if (!tmp.renameTo(m_file)) {
+          throw new IOException("Renaming " + tmp.getName() + " failed");
+        }
+        log.warn("Recovered snapshot " + m_file.getName() + " from "
+                 + tmp.getName());
+      } catch (Exception ex) {
+        log.warn("Ignoring incomplete snapshot " + tmp.getName(), ex);
+        m_object = a_initial;
+        m_sequence = 0;
+      }
+    }
+    else if (m_file.exists()) {
+      try {
+        readSnapshot(m_file);
+      } catch (Exception ex) {
+        log.error("Reading snapshot " + m_file.getName() + " failed", ex);
+        m_object = null;
+        return null;
+      }
+    }
+    if (m_journalFile.exists()) {
+      replay();
+    }
+    return m_object;
+  }
+
+  private void readSnapshot(File a_file)
+      throws Exception {
+    Reader reader = new InputStreamReader(new BufferedInputStream(new
+        FileInputStream(a_file)), ENCODING);
+    try {
+      Object obj = m_xstream.fromXML(reader);
+      if (obj instanceof Snapshot) {
+        Snapshot snapshot = (Snapshot) obj;
+        m_object = snapshot.m_object;
+        m_sequence = snapshot.m_sequence;
+      }
+      else {
+        // Written by PersistableObject.
+        // -----------------------------
+        m_object = obj;
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  private File getTemporaryFile() {
+    return new File(m_file.getPath() + ".tmp");
+  }
+
+  /**
+   * Applies the entries of the journal that are newer than the snapshot and
+   * cuts off a torn or corrupted end of the journal.
+   *
+   * @throws Exception
+   */
+  private void replay()
+      throws Exception {
+    long size = m_journalFile.length();
+    long valid = replayMapped();
+    if (valid < size) {
+      log.warn("Cutting off " + (size - valid) + " invalid bytes of journal "
+               + m_journalFile.getName());
+      // The file cannot be truncated on some platforms (e.g. Windows) while
+      // it is still mapped. The mapping is released when its buffer is
+      // garbage collected, which is not in our hands.
+      // --------------------------------------------------------------------
+      try {
+        truncateJournal(valid);
+      } catch (IOException iex) {
+        System.gc();
+        System.runFinalization();
+        truncateJournal(valid);
+      }
+    }
+  }
+
+  private void truncateJournal(long a_length)
+      throws IOException {
+    RandomAccessFile raf = new RandomAccessFile(m_journalFile, "rw");
+    try {
+      raf.setLength(a_length);
+    } finally {
+      raf.close();
+    }
+  }
+
+  /**
+   * Applies the valid entries of the journal, read via a memory mapping that
+   * is not referenced anymore when this method returns.
+   *
+   * @return length of the valid part of the journal
+   * @throws Exception
+   */
+  private long replayMapped()
+      throws Exception {
+    RandomAccessFile raf = new RandomAccessFile(m_journalFile, "r");
+    try {
+      FileChannel channel = raf.getChannel();
+      long size = channel.size();
+      long valid = 0;
+      if (size > 0) {
+        MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+            size);
+        CRC32 crc = new CRC32();
+        while (buf.remaining() >= ENTRY_HEADER_LENGTH) {
+          long sequence = buf.getLong();
+          int length = buf.getInt();
+          long checksum = buf.getLong();
+          if (length < 0 || length > buf.remaining()) {
+            break;
+          }
+          byte[] data = new byte[length];
+          buf.get(data);
+          crc.reset();
+          crc.update(data);
+          if (crc.getValue() != checksum) {
+            break;
+          }
+          valid = buf.position();
+          m_entries++;
+          if (sequence <= m_sequence) {
+            // Already contained in the snapshot.
+            // ----------------------------------
+            continue;
+          }
+          IJournalEntry entry = (IJournalEntry) m_xstream.fromXML(new String(
+              data, ENCODING));
+          if (m_object == null) {
+            throw new IllegalStateException("Journal " + m_journalFile.getName()
+                + " cannot be replayed without an object");
+          }
+          entry.apply(m_object);
+          m_sequence = sequence;
+        }
+      }
+      return valid;
+    } finally {
+      raf.close();
+    }
+  }
+
+  /**
+   * Applies a change to the object and appends it to the journal. Compacts
+   * the journal if it has reached the compaction threshold.
+   *
+   * @param a_entry the change to apply
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public synchronized void record(IJournalEntry a_entry)
+      throws Exception {
+    a_entry.apply(m_object);
+    append(a_entry);
+    if (m_compactionThreshold > 0 && m_entries >= m_compactionThreshold) {
+      compact();
+    }
+  }
+
+  private void append(IJournalEntry a_entry)
+      throws IOException {
+    byte[] data = m_xstream.toXML(a_entry).getBytes(ENCODING);
+    CRC32 crc = new CRC32();
+    crc.update(data);
+    ByteBuffer buf = ByteBuffer.allocate(ENTRY_HEADER_LENGTH + data.length);
+    buf.putLong(m_sequence + 1);
+    buf.putInt(data.length);
+    buf.putLong(crc.getValue());
+    buf.put(data);
+    if (m_journal == null) {
+      m_journal = new FileOutputStream(m_journalFile, true);
+    }
+    // Write the entry with a single call, so that a crash can only tear the
+    // last entry.
+    // ---------------------------------------------------------------------
+    m_journal.write(buf.array());
+    m_journal.flush();
+    if (m_sync) {
+      m_journal.getFD().sync();
+    }
+    m_sequence++;
+    m_entries++;
+  }
+
+  /**
+   * Writes the object to a new snapshot file replacing the old one, then
+   * empties the journal.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public synchronized void compact()
+      throws Exception {
+    log.debug("Saving object to file " + m_file.getName());
+    Snapshot snapshot = new Snapshot();
+    snapshot.m_sequence = m_sequence;
+    snapshot.m_object = m_object;
+    File tmp = getTemporaryFile();
+    FileOutputStream fos = new FileOutputStream(tmp);
+    try {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(fos, ENCODING));
+      m_xstream.marshal(snapshot, new CompactWriter(writer));
+      writer.flush();
+      fos.getFD().sync();
+    } finally {
+      fos.close();
+    }
+    if (!tmp.renameTo(m_file)) {
+      // Renaming onto an existing file is not possible everywhere.
+      // ----------------------------------------------------------
+      m_file.delete();
+      if (!tmp.renameTo(m_file)) {
+        throw new IOException("Replacing " + m_file.getName() + " failed");
+      }
+    }
+    // The snapshot knows its sequence number, thus a crash before the journal
+    // is emptied does not apply entries twice.
+    // -----------------------------------------------------------------------
+    closeJournal();
+    new FileOutputStream(m_journalFile).close();
+    m_entries = 0;
+  }
+
+  /**
+   * Same as compact.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void save()
+      throws Exception {
+    compact();
+  }
+
+  /**
+   * Closes the journal file, it is opened again with the next entry.
+   *
+   * @throws IOException
+   *
+   * @since 3.7
+   */
+  public synchronized void close()
+      throws IOException {
+    closeJournal();
+  }
+
+  private void closeJournal()
+      throws IOException {
+    if (m_journal != null) {
+      m_journal.close();
+      m_journal = null;
+    }
+  }
+
+  protected void init(XStream a_xstream) {
+  }
+}
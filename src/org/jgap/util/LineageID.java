@@ -0,0 +1,178 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.util;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Creates the unique IDs of chromosomes and genes, see
+ * Configuration.setUniqueKeysActive. An ID is a 64 bit sequence number, which
+ * is unique within the running JVM. Each thread takes its numbers from a block
+ * of its own, so that no synchronization is needed for most IDs.
+ * <p>
+ * The string representation of an ID, as returned by IUniqueKey.getUniqueID(),
+ * is only created on demand. It consists of a prefix determined randomly once
+ * per run and the sequence number. Thus it is unique worldwide with high
+ * probability.
+ *
+ * @since 3.7
+ */
+public final class LineageID {
+  /**
+   * Represents no ID.
+   */
+  public final static long NONE = 0;
+
+  /**
+   * Number of IDs a thread reserves at once.
+   */
+  public final static int BLOCK_SIZE = 1024;
+
+  private final static String m_runPrefix = Long.toHexString(UUID.randomUUID().
+      getMostSignificantBits()) + "_";
+
+  private final static AtomicLong m_nextBlock = new AtomicLong(NONE + 1);
+
+  private final static ThreadLocal<long[]> m_block = new ThreadLocal<long[]>() {
+    protected long[] initialValue() {
+      // Next ID and end of the block.
+      // -----------------------------
+      return new long[2];
+    }
+  };
+
+  private LineageID() {
+  }
+
+  /**
+   * @return a new ID, never NONE
+   *
+   * @since 3.7
+   */
+  public static long next() {
+    long[] block = m_block.get();
+    if (block[0] == block[1]) {
+      block[0] = m_nextBlock.getAndAdd(BLOCK_SIZE);
+      block[1] = block[0] + BLOCK_SIZE;
+    }
+    return block[0]++;
+  }
+
+  /**
+   * @return prefix of the string representation of IDs created in this run
+   *
+   * @since 3.7
+   */
+  public static String getRunPrefix() {
+    return m_runPrefix;
+  }
+
+  /**
+   * @param a_runPrefix prefix of the run the ID was created in
+   * @param a_id the ID
+   * @return string representation of the ID, null for NONE
+   *
+   * @since 3.7
+   */
+  public static String toString(String a_runPrefix, long a_id) {
+    if (a_id == NONE) {
+      return null;
+    }
+    return a_runPrefix + a_id;
+  }
+
+  /**
+   * @param a_id an ID created in this run
+   * @return string representation of the ID, null for NONE
+   *
+   * @since 3.7
+   */
+  public static String toString(long a_id) {
+    return toString(m_runPrefix, a_id);
+  }
+
+  /**
+   * Parses the string representation of an ID without creating objects.
+   *
+   * @param a_id string representation of an ID, may be null
+   * @param a_runPrefix prefix of the run the ID is expected to stem from, may
+   * be null
+   * @return the ID, or NONE if the string is no ID of the given run
+   *
+   * @since 3.7
+   */
+  public static long parse(String a_id, String a_runPrefix) {
+    if (a_id == null || a_runPrefix == null || !a_id.startsWith(a_runPrefix)) {
+      return NONE;
+    }
+    int len = a_id.length();
+    int start = a_runPrefix.length();
+    // At most 19 digits fit into a long.
+    // ----------------------------------
+    if (start == len || len - start > 18) {
+      return NONE;
+    }
+    long result = 0;
+    for (int i = start; i < len; i++) {
+      char c = a_id.charAt(i);
+      if (c < '0' || c > '9') {
+        return NONE;
+      }
+      result = result * 10 + (c - '0');
+    }
+    return result;
+  }
+
+  /**
+   * Stores the ID of a template, see IUniqueKey.setUniqueIDTemplate.
+   *
+   * @param a_templates IDs of the templates so far, index 0 holding the
+   * template with index 1, may be null
+   * @param a_index index of the template, starting with 1
+   * @param a_id ID of the template, NONE to remove it
+   * @return a_templates, or a larger copy of it if needed
+   *
+   * @since 3.7
+   */
+  public static long[] setTemplate(long[] a_templates, int a_index, long a_id) {
+    if (a_index < 1) {
+      throw new IllegalArgumentException("Index must be one or greater!");
+    }
+    if (a_templates == null || a_index > a_templates.length) {
+      if (a_id == NONE) {
+        return a_templates;
+      }
+      // Crossing over usually needs two templates.
+      // ------------------------------------------
+      long[] grown = new long[Math.max(a_index, 2)];
+      if (a_templates != null) {
+        System.arraycopy(a_templates, 0, grown, 0, a_templates.length);
+      }
+      a_templates = grown;
+    }
+    a_templates[a_index - 1] = a_id;
+    return a_templates;
+  }
+
+  /**
+   * @param a_templates IDs of the templates, may be null
+   * @param a_index index of the template, starting with 1
+   * @return ID of the template, NONE if not set
+   *
+   * @since 3.7
+   */
+  public static long getTemplate(long[] a_templates, int a_index) {
+    if (a_templates == null || a_index < 1 || a_index > a_templates.length) {
+      return NONE;
+    }
+    return a_templates[a_index - 1];
+  }
+}
@@ -0,0 +1,333 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.util;
+
+import java.util.*;
+
+import org.jgap.*;
+
+/**
+ * Utility routines for partial selection: Moving the best n elements of a list
+ * to its front in sorted order, leaving the rest in arbitrary order. This costs
+ * O(size + n log n) instead of O(size log size) for sorting the whole list.
+ * <p>
+ * Elements comparing equal keep their relative order, so the first n elements
+ * are the same as after a (stable) Collections.sort.
+ * <p>
+ * For the fitness evaluators of JGAP (DefaultFitnessEvaluator and
+ * DeltaFitnessEvaluator), chromosomes are selected on a primitive array of
+ * their fitness values, read only once per chromosome. For other evaluators,
+ * a comparator is used.
+ *
+ * @since 3.7
+ */
+public class SelectionKit {
+  /**
+   * Below this size, ranges are sorted by insertion sort.
+   */
+  private final static int INSERTION_SORT_SIZE = 16;
+
+  private SelectionKit() {
+  }
+
+  /**
+   * Moves the fittest chromosomes of the list to its front, the fittest
+   * first.
+   *
+   * @param a_chromosomes the list of IChromosome instances to rearrange
+   * @param a_count number of chromosomes to select
+   * @param a_evaluator decides which chromosome is fitter
+   *
+   * @since 3.7
+   */
+  public static void selectFittest(List a_chromosomes, int a_count,
+                                   FitnessEvaluator a_evaluator) {
+    selectFittest(a_chromosomes, a_count, a_evaluator, false);
+  }
+
+  /**
+   * Moves the fittest chromosomes of the list to its front, the fittest
+   * first.
+   *
+   * @param a_chromosomes the list of IChromosome instances to rearrange
+   * @param a_count number of chromosomes to select
+   * @param a_evaluator decides which chromosome is fitter
+   * @param a_youngerFirst true: of chromosomes equally fit, the younger one
+   * comes first
+   *
+   * @since 3.7
+   */
+  public static void selectFittest(List a_chromosomes, int a_count,
+                                   final FitnessEvaluator a_evaluator,
+                                   final boolean a_youngerFirst) {
+    int size = a_chromosomes.size();
+    if (!hasFitnessKeys(a_evaluator)) {
+      select(a_chromosomes, a_count, new Comparator() {
+        public int compare(Object a_first, Object a_second) {
+          IChromosome chrom1 = (IChromosome) a_first;
+          IChromosome chrom2 = (IChromosome) a_second;
+          if (a_evaluator.isFitter(chrom1, chrom2)) {
+            return -1;
+          }
+          if (a_evaluator.isFitter(chrom2, chrom1)) {
+            return 1;
+          }
+          if (a_youngerFirst) {
+            return chrom1.getAge() - chrom2.getAge();
+          }
+          return 0;
+        }
+      });
+      return;
+    }
+    double[] keys = new double[size];
+    int[] ages = a_youngerFirst ? new int[size] : null;
+    int i = 0;
+    for (Object o : a_chromosomes) {
+      IChromosome chrom = (IChromosome) o;
+      keys[i] = fitnessKey(chrom.getFitnessValue(), a_evaluator);
+      if (ages != null) {
+        ages[i] = chrom.getAge();
+      }
+      i++;
+    }
+    select(a_chromosomes, a_count, keys, ages);
+  }
+
+  /**
+   * @param a_evaluator the evaluator to check
+   * @return true: fitnessKey can be used with the evaluator
+   *
+   * @since 3.7
+   */
+  public static boolean hasFitnessKeys(FitnessEvaluator a_evaluator) {
+    // Subclasses could decide differently.
+    // ------------------------------------
+    Class clazz = a_evaluator.getClass();
+    return clazz == DefaultFitnessEvaluator.class
+        || clazz == DeltaFitnessEvaluator.class;
+  }
+
+  /**
+   * Maps a fitness value to a key, so that a smaller key means a fitter
+   * chromosome. Values the evaluator never considers fitter than any other
+   * value (such as NaN) are mapped to NaN, which comes last.
+   *
+   * @param a_fitness the fitness value
+   * @param a_evaluator the evaluator, see hasFitnessKeys
+   * @return key for the fitness value
+   *
+   * @since 3.7
+   */
+  public static double fitnessKey(double a_fitness,
+                                   FitnessEvaluator a_evaluator) {
+    if (a_evaluator.getClass() == DeltaFitnessEvaluator.class) {
+      // Negative values are never fitter than others.
+      // ---------------------------------------------
+      if (a_fitness < 0) {
+        return Double.NaN;
+      }
+      return a_fitness;
+    }
+    return -a_fitness;
+  }
+
+  /**
+   * Moves the smallest elements of the list to its front in ascending order.
+   *
+   * @param a_list the list to rearrange
+   * @param a_count number of elements to select
+   * @param a_comparator determines the order of the elements
+   *
+   * @since 3.7
+   */
+  public static void select(List a_list, int a_count,
+                            final Comparator a_comparator) {
+    final Object[] items = a_list.toArray();
+    final int[] positions = positions(items.length);
+    select(new Ordering() {
+      boolean before(int a_first, int a_second) {
+        int result = a_comparator.compare(items[a_first], items[a_second]);
+        return result < 0
+            || result == 0 && positions[a_first] < positions[a_second];
+      }
+
+      void swap(int a_first, int a_second) {
+        swapItems(items, positions, a_first, a_second);
+      }
+    }, items.length, a_count);
+    writeBack(a_list, items);
+  }
+
+  /**
+   * Moves the elements with the smallest keys to the front of the list in
+   * ascending order of their keys. NaN is greater than any other key.
+   *
+   * @param a_list the list to rearrange
+   * @param a_count number of elements to select
+   * @param a_keys key of each element of the list, rearranged as well
+   * @param a_ties decides between elements with equal keys, the smaller value
+   * first. Rearranged as well, may be null
+   *
+   * @since 3.7
+   */
+  public static void select(List a_list, int a_count, final double[] a_keys,
+                            final int[] a_ties) {
+    final Object[] items = a_list.toArray();
+    final int[] positions = positions(items.length);
+    select(new Ordering() {
+      boolean before(int a_first, int a_second) {
+        double key1 = a_keys[a_first];
+        double key2 = a_keys[a_second];
+        if (key1 < key2) {
+          return true;
+        }
+        if (key2 < key1) {
+          return false;
+        }
+        boolean nan1 = Double.isNaN(key1);
+        if (nan1 != Double.isNaN(key2)) {
+          return !nan1;
+        }
+        if (a_ties != null && a_ties[a_first] != a_ties[a_second]) {
+          return a_ties[a_first] < a_ties[a_second];
+        }
+        return positions[a_first] < positions[a_second];
+      }
+
+      void swap(int a_first, int a_second) {
+        swapItems(items, positions, a_first, a_second);
+        double key = a_keys[a_first];
+        a_keys[a_first] = a_keys[a_second];
+        a_keys[a_second] = key;
+        if (a_ties != null) {
+          int tie = a_ties[a_first];
+          a_ties[a_first] = a_ties[a_second];
+          a_ties[a_second] = tie;
+        }
+      }
+    }, items.length, a_count);
+    writeBack(a_list, items);
+  }
+
+  private static void select(Ordering a_ordering, int a_size, int a_count) {
+    int count = Math.min(a_count, a_size);
+    if (count <= 0) {
+      return;
+    }
+    // Quickselect: afterwards, the first count elements are the smallest.
+    // -------------------------------------------------------------------
+    int lo = 0;
+    int hi = a_size - 1;
+    int target = count - 1;
+    while (hi - lo >= INSERTION_SORT_SIZE) {
+      int pivot = partition(a_ordering, lo, hi);
+      if (pivot < target) {
+        lo = pivot + 1;
+      }
+      else if (pivot > target) {
+        hi = pivot - 1;
+      }
+      else {
+        break;
+      }
+    }
+    if (hi - lo < INSERTION_SORT_SIZE) {
+      insertionSort(a_ordering, lo, hi);
+    }
+    sort(a_ordering, 0, target);
+  }
+
+  private static void sort(Ordering a_ordering, int a_lo, int a_hi) {
+    while (a_hi - a_lo >= INSERTION_SORT_SIZE) {
+      int pivot = partition(a_ordering, a_lo, a_hi);
+      // Recurse into the smaller part to bound the stack depth.
+      // -------------------------------------------------------
+      if (pivot - a_lo < a_hi - pivot) {
+        sort(a_ordering, a_lo, pivot - 1);
+        a_lo = pivot + 1;
+      }
+      else {
+        sort(a_ordering, pivot + 1, a_hi);
+        a_hi = pivot - 1;
+      }
+    }
+    insertionSort(a_ordering, a_lo, a_hi);
+  }
+
+  private static void insertionSort(Ordering a_ordering, int a_lo, int a_hi) {
+    for (int i = a_lo + 1; i <= a_hi; i++) {
+      for (int j = i; j > a_lo && a_ordering.before(j, j - 1); j--) {
+        a_ordering.swap(j, j - 1);
+      }
+    }
+  }
+
+  /**
+   * Partitions around the median of the first, middle and last element. As
+   * no two elements are equal, there are no degenerate cases with many
+   * equal elements.
+   */
+  private static int partition(Ordering a_ordering, int a_lo, int a_hi) {
+    int mid = (a_lo + a_hi) >>> 1;
+    if (a_ordering.before(mid, a_lo)) {
+      a_ordering.swap(mid, a_lo);
+    }
+    if (a_ordering.before(a_hi, a_lo)) {
+      a_ordering.swap(a_hi, a_lo);
+    }
+    if (a_ordering.before(mid, a_hi)) {
+      a_ordering.swap(mid, a_hi);
+    }
+    int store = a_lo;
+    for (int i = a_lo; i < a_hi; i++) {
+      if (a_ordering.before(i, a_hi)) {
+        a_ordering.swap(i, store++);
+      }
+    }
+    a_ordering.swap(store, a_hi);
+    return store;
+  }
+
+  private static int[] positions(int a_size) {
+    int[] result = new int[a_size];
+    for (int i = 0; i < a_size; i++) {
+      result[i] = i;
+    }
+    return result;
+  }
+
+  private static void swapItems(Object[] a_items, int[] a_positions,
+                                int a_first, int a_second) {
+    Object item = a_items[a_first];
+    a_items[a_first] = a_items[a_second];
+    a_items[a_second] = item;
+    int position = a_positions[a_first];
+    a_positions[a_first] = a_positions[a_second];
+    a_positions[a_second] = position;
+  }
+
+  private static void writeBack(List a_list, Object[] a_items) {
+    ListIterator it = a_list.listIterator();
+    for (int i = 0; i < a_items.length; i++) {
+      it.next();
+      it.set(a_items[i]);
+    }
+  }
+
+  /**
+   * Total order on the elements being selected, by index.
+   */
+  private static abstract class Ordering {
+    abstract boolean before(int a_first, int a_second);
+
+    abstract void swap(int a_first, int a_second);
+  }
+}
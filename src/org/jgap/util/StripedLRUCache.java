@@ -0,0 +1,240 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.util;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Thread-safe cache with a maximum number of entries. The keys are spread
+ * over several independently locked segments (lock striping), each segment
+ * evicting its least recently used entry when it is full. Thus, threads
+ * accessing different segments do not block each other.<p>
+ * The number of hits, misses and evictions is counted for monitoring the
+ * efficiency of the cache.<p>
+ * The views entrySet(), keySet() and values() return snapshots that do not
+ * reflect later changes and cannot be used to modify the cache.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ *
+ * @since 3.7
+ */
+public class StripedLRUCache<K, V>
+    extends AbstractMap<K, V>
+    implements Serializable {
+  private final Segment<K, V>[] m_segments;
+
+  private final int m_segmentMask;
+
+  private final int m_maxEntries;
+
+  private final AtomicLong m_hits = new AtomicLong();
+
+  private final AtomicLong m_misses = new AtomicLong();
+
+  private final AtomicLong m_evictions = new AtomicLong();
+
+  /**
+   * Constructor using a number of segments appropriate for the number of
+   * processors available.
+   *
+   * @param a_maxEntries maximum number of entries held in the cache
+   *
+   * @since 3.7
+   */
+  public StripedLRUCache(int a_maxEntries) {
+    this(a_maxEntries, 2 * Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @param a_maxEntries maximum number of entries held in the cache
+   * @param a_concurrencyLevel estimated number of threads accessing the cache
+   * concurrently, determines the number of segments
+   *
+   * @since 3.7
+   */
+  public StripedLRUCache(int a_maxEntries, int a_concurrencyLevel) {
+    if (a_maxEntries < 1) {
+      throw new IllegalArgumentException(
+          "Maximum number of entries must be positive!");
+    }
+    m_maxEntries = a_maxEntries;
+    // Number of segments is a power of two but never exceeds the number of
+    // entries so that each segment can hold at least one entry.
+    // ---------------------------------------------------------------------
+    int segments = 1;
+    while (segments < a_concurrencyLevel && segments * 2 <= a_maxEntries) {
+      segments *= 2;
+    }
+    m_segmentMask = segments - 1;
+    m_segments = new Segment[segments];
+    int perSegment = a_maxEntries / segments;
+    int remainder = a_maxEntries % segments;
+    for (int i = 0; i < segments; i++) {
+      m_segments[i] = new Segment<K, V>(perSegment + (i < remainder ? 1 : 0),
+                                        m_evictions);
+    }
+  }
+
+  private Segment<K, V> segmentFor(Object a_key) {
+    int h = a_key == null ? 0 : a_key.hashCode();
+    // Spread bits to make use of the high bits as well.
+    // -------------------------------------------------
+    h ^= (h >>> 20) ^ (h >>> 12);
+    h ^= (h >>> 7) ^ (h >>> 4);
+    return m_segments[h & m_segmentMask];
+  }
+
+  public V get(Object a_key) {
+    Segment<K, V> segment = segmentFor(a_key);
+    V result;
+    synchronized (segment) {
+      result = segment.get(a_key);
+    }
+    if (result == null) {
+      m_misses.incrementAndGet();
+    }
+    else {
+      m_hits.incrementAndGet();
+    }
+    return result;
+  }
+
+  public V put(K a_key, V a_value) {
+    Segment<K, V> segment = segmentFor(a_key);
+    synchronized (segment) {
+      return segment.put(a_key, a_value);
+    }
+  }
+
+  public V remove(Object a_key) {
+    Segment<K, V> segment = segmentFor(a_key);
+    synchronized (segment) {
+      return segment.remove(a_key);
+    }
+  }
+
+  /**
+   * Does not count as hit or miss and does not change the order of eviction.
+   *
+   * @param a_key the key to look for
+   * @return true if the key is contained
+   */
+  public boolean containsKey(Object a_key) {
+    Segment<K, V> segment = segmentFor(a_key);
+    synchronized (segment) {
+      return segment.containsKey(a_key);
+    }
+  }
+
+  public int size() {
+    int result = 0;
+    for (int i = 0; i < m_segments.length; i++) {
+      synchronized (m_segments[i]) {
+        result += m_segments[i].size();
+      }
+    }
+    return result;
+  }
+
+  public void clear() {
+    for (int i = 0; i < m_segments.length; i++) {
+      synchronized (m_segments[i]) {
+        m_segments[i].clear();
+      }
+    }
+  }
+
+  public Set<Map.Entry<K, V>> entrySet() {
+    Map<K, V> snapshot = new HashMap<K, V>();
+    for (int i = 0; i < m_segments.length; i++) {
+      synchronized (m_segments[i]) {
+        snapshot.putAll(m_segments[i]);
+      }
+    }
+    return Collections.unmodifiableMap(snapshot).entrySet();
+  }
+
+  /**
+   * @return maximum number of entries held in the cache
+   *
+   * @since 3.7
+   */
+  public int getMaxEntries() {
+    return m_maxEntries;
+  }
+
+  /**
+   * @return number of calls to get(..) that found an entry
+   *
+   * @since 3.7
+   */
+  public long getHits() {
+    return m_hits.get();
+  }
+
+  /**
+   * @return number of calls to get(..) that did not find an entry
+   *
+   * @since 3.7
+   */
+  public long getMisses() {
+    return m_misses.get();
+  }
+
+  /**
+   * @return number of entries removed to stay within the maximum size
+   *
+   * @since 3.7
+   */
+  public long getEvictions() {
+    return m_evictions.get();
+  }
+
+  /**
+   * Resets the counters for hits, misses and evictions.
+   *
+   * @since 3.7
+   */
+  public void resetStatistics() {
+    m_hits.set(0);
+    m_misses.set(0);
+    m_evictions.set(0);
+  }
+
+  /**
+   * One segment of the cache: an access ordered LinkedHashMap of limited size.
+   * Must only be accessed while holding its monitor.
+   *
+   * @since 3.7
+   */
+  private static class Segment<K, V>
+      extends LinkedHashMap<K, V> {
+    private final int m_capacity;
+
+    private final AtomicLong m_evictionCounter;
+
+    public Segment(int a_capacity, AtomicLong a_evictionCounter) {
+      super(a_capacity + 1, 0.75f, true);
+      m_capacity = a_capacity;
+      m_evictionCounter = a_evictionCounter;
+    }
+
+    protected boolean removeEldestEntry(Map.Entry<K, V> a_eldest) {
+      if (size() > m_capacity) {
+        m_evictionCounter.incrementAndGet();
+        return true;
+      }
+      return false;
+    }
+  }
+}
@@ -24,6 +24,7 @@ public class AllBaseTests
     TestSuite suite = new TestSuite("AllBaseTests");
     suite.addTest(BaseGeneTest.suite());
     suite.addTest(BaseRateCalculatorTest.suite());
+    suite.addTest(CachedFitnessFunctionTest.suite());
     suite.addTest(ChromosomeTest.suite());
     suite.addTest(ConfigurationTest.suite());
     suite.addTest(DefaultFitnessEvaluatorTest.suite());
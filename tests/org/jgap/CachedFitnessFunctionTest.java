@@ -0,0 +1,178 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap;
+
+import java.util.*;
+
+import org.jgap.impl.*;
+import org.jgap.util.*;
+
+import junit.framework.*;
+
+/**
+ * Tests the CachedFitnessFunction class.
+ *
+ * @since 3.7
+ */
+public class CachedFitnessFunctionTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(CachedFitnessFunctionTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+  }
+
+  /**
+   * Keyed by allele hash, array alleles are hashed by content: an equal
+   * chromosome of FixedBinaryGenes hits the cache.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testGetFitnessValue_0()
+      throws Exception {
+    CountingFitnessFunction fitness = new CountingFitnessFunction();
+    fitness.setKeyByAlleleHash(true);
+    IChromosome chrom1 = createBinaryChromosome(new boolean[] {true, false,
+        true});
+    IChromosome chrom2 = createBinaryChromosome(new boolean[] {true, false,
+        true});
+    IChromosome chrom3 = createBinaryChromosome(new boolean[] {true, true,
+        true});
+    assertEquals(fitness.getAlleleHash(chrom1), fitness.getAlleleHash(chrom2));
+    assertEquals(2.0d, fitness.getFitnessValue(chrom1), DELTA);
+    assertEquals(2.0d, fitness.getFitnessValue(chrom2), DELTA);
+    assertEquals(1, fitness.m_evaluations);
+    assertEquals(3.0d, fitness.getFitnessValue(chrom3), DELTA);
+    assertEquals(2, fitness.m_evaluations);
+  }
+
+  /**
+   * Keyed by allele hash, strings with the same hashCode() do not share their
+   * fitness value.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testGetFitnessValue_1()
+      throws Exception {
+    assertEquals("Aa".hashCode(), "BB".hashCode());
+    CountingFitnessFunction fitness = new CountingFitnessFunction();
+    fitness.setKeyByAlleleHash(true);
+    IChromosome chrom1 = createStringChromosome("Aa");
+    IChromosome chrom2 = createStringChromosome("BB");
+    assertFalse(fitness.getAlleleHash(chrom1) == fitness.getAlleleHash(chrom2));
+    fitness.getFitnessValue(chrom1);
+    fitness.getFitnessValue(chrom2);
+    assertEquals(2, fitness.m_evaluations);
+    fitness.getFitnessValue(createStringChromosome("Aa"));
+    assertEquals(2, fitness.m_evaluations);
+  }
+
+  /**
+   * Keying by allele hash is rejected for a cache supplied by the caller, as
+   * it holds String keys only.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testSetKeyByAlleleHash_0()
+      throws Exception {
+    Map<String, Double> cache = new HashMap<String, Double> ();
+    CachedFitnessFunction fitness = new CountingFitnessFunction(cache);
+    try {
+      fitness.setKeyByAlleleHash(true);
+      fail();
+    } catch (IllegalStateException iex) {
+      ; //this is OK
+    }
+    assertFalse(fitness.isKeyByAlleleHash());
+    fitness.getFitnessValue(createStringChromosome("Aa"));
+    assertEquals(1, cache.size());
+    assertTrue(cache.keySet().iterator().next() instanceof String);
+  }
+
+  /**
+   * Entries keyed by allele hash are kept apart from the ones keyed by
+   * business key, in a cache bounded alike.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testSetKeyByAlleleHash_1()
+      throws Exception {
+    CachedFitnessFunction fitness = new CountingFitnessFunction(10);
+    Map<?, Double> byBusinessKey = fitness.getCache();
+    fitness.setKeyByAlleleHash(true);
+    fitness.getFitnessValue(createStringChromosome("Aa"));
+    assertTrue(byBusinessKey.isEmpty());
+    assertTrue(fitness.getCache() instanceof StripedLRUCache);
+    assertEquals(1, fitness.getCache().size());
+    assertTrue(fitness.getCache().keySet().iterator().next() instanceof Long);
+  }
+
+  private IChromosome createBinaryChromosome(boolean[] a_bits)
+      throws Exception {
+    FixedBinaryGene gene = new FixedBinaryGene(conf, a_bits.length);
+    for (int i = 0; i < a_bits.length; i++) {
+      gene.setBit(i, a_bits[i]);
+    }
+    return new Chromosome(conf, new Gene[] {gene});
+  }
+
+  private IChromosome createStringChromosome(String a_value)
+      throws Exception {
+    StringGene gene = new StringGene(conf, 1, 5);
+    gene.setAllele(a_value);
+    return new Chromosome(conf, new Gene[] {gene});
+  }
+
+  /**
+   * Counts the evaluations. The fitness of binary alleles is the number of
+   * bits set.
+   */
+  class CountingFitnessFunction
+      extends CachedFitnessFunction {
+    int m_evaluations;
+
+    public CountingFitnessFunction() {
+    }
+
+    public CountingFitnessFunction(Map<String, Double> a_cache) {
+      super(a_cache);
+    }
+
+    public CountingFitnessFunction(int a_maxEntries) {
+      super(a_maxEntries);
+    }
+
+    protected double evaluate(IChromosome a_subject) {
+      m_evaluations++;
+      Object allele = a_subject.getGene(0).getAllele();
+      if (allele instanceof int[]) {
+        int[] bits = (int[]) allele;
+        int count = 0;
+        for (int i = 0; i < bits.length; i++) {
+          count += bits[i];
+        }
+        return count;
+      }
+      return 1.0d;
+    }
+  }
+}
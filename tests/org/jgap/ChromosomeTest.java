@@ -626,6 +626,62 @@ public class ChromosomeTest
     assertEquals(copy, chrom);
   }
 
+  /**
+   * With copy-on-write, a clone shares the genes until they are requested
+   * for writing.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testClone_9()
+      throws Exception {
+    conf.setCopyOnWriteChromosomes(true);
+    conf.setFitnessFunction(new StaticFitnessFunction(20));
+    Gene[] genes = new Gene[3];
+    for (int i = 0; i < genes.length; i++) {
+      genes[i] = new IntegerGene(conf, 0, 100);
+      genes[i].setAllele(new Integer(i));
+    }
+    Chromosome chrom = new Chromosome(conf, genes);
+    assertFalse(chrom.hasSharedGenes());
+    Chromosome copy = (Chromosome) chrom.clone();
+    assertEquals(chrom, copy);
+    assertNotSame(chrom.getGenes(), copy.getGenes());
+    for (int i = 0; i < genes.length; i++) {
+      assertSame(chrom.getGene(i), copy.getGene(i));
+      assertTrue(chrom.isGeneShared(i));
+      assertTrue(copy.isGeneShared(i));
+    }
+    // Writing to the copy leaves the original untouched.
+    // --------------------------------------------------
+    Gene gene = copy.getWritableGene(1);
+    assertNotSame(chrom.getGene(1), gene);
+    assertSame(gene, copy.getWritableGene(1));
+    assertFalse(copy.isGeneShared(1));
+    gene.setAllele(new Integer(50));
+    assertEquals(1, ( (Integer) chrom.getGene(1).getAllele()).intValue());
+    assertSame(chrom.getGene(0), copy.getGene(0));
+    // Writing to the original leaves the copy untouched.
+    // --------------------------------------------------
+    chrom.getWritableGene(0).setAllele(new Integer(70));
+    assertEquals(0, ( (Integer) copy.getGene(0).getAllele()).intValue());
+    // Rearranged genes are considered as shared.
+    // ------------------------------------------
+    Gene[] rearranged = new Gene[] {
+        copy.getGene(2), copy.getGene(1), copy.getGene(0)};
+    copy.setGenes(rearranged);
+    assertTrue(copy.isGeneShared(1));
+    Gene[] writable = copy.getWritableGenes();
+    assertFalse(copy.hasSharedGenes());
+    assertNotSame(chrom.getGene(2), writable[0]);
+    assertEquals(2, ( (Integer) writable[0].getAllele()).intValue());
+    conf.setCopyOnWriteChromosomes(false);
+    copy = (Chromosome) chrom.clone();
+    assertFalse(copy.hasSharedGenes());
+    assertNotSame(chrom.getGene(0), copy.getGene(0));
+  }
+
   private final static int MAX_CHROMOSOME_TO_TEST = 1000;
 
   private final static int MAX_GENES_TO_TEST = 25;
@@ -1273,6 +1329,28 @@ public class ChromosomeTest
     assertSame(chrom, chromosomePool.acquireChromosome());
   }
 
+  /**
+   * A chromosome sharing its genes is not released to the pool.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testCleanup_3()
+      throws Exception {
+    conf.setCopyOnWriteChromosomes(true);
+    conf.setFitnessFunction(new StaticFitnessFunction(20));
+    ChromosomePool pool = new ChromosomePool();
+    conf.setChromosomePool(pool);
+    Chromosome chrom = new Chromosome(conf, new IntegerGene(conf), 2);
+    Chromosome copy = (Chromosome) chrom.clone();
+    copy.cleanup();
+    assertNull(pool.acquireChromosome());
+    copy.getWritableGenes();
+    copy.cleanup();
+    assertSame(copy, pool.acquireChromosome());
+  }
+
   /**
    * @throws Exception
    *
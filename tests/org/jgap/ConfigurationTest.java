@@ -1387,6 +1387,55 @@ public class ConfigurationTest
     assertEquals(1, conf.getNaturalSelectorsSize(false));
   }
 
+  /**
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testSetOperatorThreads_0()
+      throws Exception {
+    Configuration conf = new Configuration();
+    assertEquals(1, conf.getOperatorThreads());
+    conf.setOperatorThreads(4);
+    assertEquals(4, conf.getOperatorThreads());
+    Configuration clone = (Configuration) conf.clone();
+    assertEquals(4, clone.getOperatorThreads());
+    try {
+      conf.setOperatorThreads(0);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+    assertEquals(4, conf.getOperatorThreads());
+  }
+
+  /**
+   * The local random generator only applies to the thread that set it.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testSetLocalRandomGenerator_0()
+      throws Exception {
+    final Configuration conf = new Configuration();
+    RandomGenerator shared = new StockRandomGenerator();
+    conf.setRandomGenerator(shared);
+    RandomGenerator local = new XoshiroRandomGenerator(3);
+    conf.setLocalRandomGenerator(local);
+    assertSame(local, conf.getRandomGenerator());
+    final RandomGenerator[] other = new RandomGenerator[1];
+    Thread t = new Thread() {
+      public void run() {
+        other[0] = conf.getRandomGenerator();
+      }
+    };
+    t.start();
+    t.join();
+    assertSame(shared, other[0]);
+    conf.setLocalRandomGenerator(null);
+    assertSame(shared, conf.getRandomGenerator());
+  }
 }
 class MyFactoryTest
     extends JGAPFactory {
@@ -1489,6 +1489,93 @@ public class GenotypeTest
     }
   }
 
+  /**
+   * Genetic operators applied concurrently give the same result for the same
+   * seed and number of threads.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testBreeder_1() throws Exception {
+    IChromosome best1 = evolveConcurrently(47);
+    IChromosome best2 = evolveConcurrently(47);
+    assertEquals(best1.getFitnessValue(), best2.getFitnessValue(), DELTA);
+    for (int i = 0; i < best1.size(); i++) {
+      assertEquals(best1.getGene(i).getAllele(), best2.getGene(i).getAllele());
+    }
+  }
+
+  private IChromosome evolveConcurrently(long a_seed) throws Exception {
+    Configuration.reset();
+    Configuration conf = new TestConfiguration();
+    conf.setRandomGenerator(new XoshiroRandomGenerator(a_seed));
+    conf.setOperatorThreads(4);
+    conf.setFitnessFunction(new Test2Function(conf));
+    Gene[] sampleGenes = new Gene[2];
+    sampleGenes[0] = new DoubleGene(conf, 0, 2);
+    sampleGenes[1] = new DoubleGene(conf, 0, 2);
+    conf.setSampleChromosome(new Chromosome(conf, sampleGenes));
+    conf.setPopulationSize(200);
+    Genotype population = Genotype.randomInitialGenotype(conf);
+    population.evolve(20);
+    assertTrue(population.getPopulation().size() <= 200);
+    IChromosome best = population.getFittestChromosome();
+    double sol1 = (Double) best.getGene(0).getAllele();
+    double sol2 = (Double) best.getGene(1).getAllele();
+    assertEquals(sol1 + sol2, best.getFitnessValue(), 0.001);
+    return best;
+  }
+
+  /**
+   * Only the chromosomes operators choose from are partitioned, and each part
+   * has at least the minimum size.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testBreeder_2() throws Exception {
+    Configuration conf = new DefaultConfiguration();
+    conf.setSampleChromosome(new Chromosome(conf, new BooleanGene(conf), 2));
+    conf.setPopulationSize(200);
+    conf.setOperatorThreads(8);
+    final List sizes = Collections.synchronizedList(new Vector());
+    conf.getGeneticOperators().clear();
+    conf.addGeneticOperator(new IConcurrentGeneticOperator() {
+      public boolean isConcurrent() {
+        return true;
+      }
+
+      public void operate(Population a_population, List a_candidates) {
+        sizes.add(new Integer(a_population.size()));
+      }
+    });
+    Population pop = new Population(conf, 230);
+    for (int i = 0; i < 230; i++) {
+      pop.addChromosome(new Chromosome(conf, new BooleanGene(conf), 2));
+    }
+    GABreeder breeder = new GABreeder();
+    try {
+      // 30 offspring of an operator applied before are not partitioned.
+      // ---------------------------------------------------------------
+      breeder.applyGeneticOperators(conf, pop);
+      assertEquals(4, sizes.size());
+      for (int i = 0; i < sizes.size(); i++) {
+        assertEquals(50, ( (Integer) sizes.get(i)).intValue());
+      }
+      // Too small for parts of the minimum size.
+      // ----------------------------------------
+      sizes.clear();
+      conf.setPopulationSize(60);
+      breeder.applyGeneticOperators(conf, pop);
+      assertEquals(1, sizes.size());
+      assertEquals(230, ( (Integer) sizes.get(0)).intValue());
+    } finally {
+      breeder.shutdown();
+    }
+  }
+
   class TestConfiguration
       extends Configuration implements ICloneable {
     public TestConfiguration() {
@@ -12,6 +12,7 @@ package org.jgap;
 import java.util.*;
 
 import org.jgap.impl.*;
+import org.jgap.util.*;
 
 import junit.framework.*;
 
@@ -996,6 +997,60 @@ public class PopulationTest
     }
   }
 
+  /**
+   * Surplus chromosomes are removed in the order of
+   * BestAndUnevalChromsFitnessComparator.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testKeepPopSizeConstant_0()
+      throws Exception {
+    conf.setPopulationSize(3);
+    Population pop = new Population(conf);
+    double[] fitness = {4, FitnessFunction.NO_FITNESS_VALUE, 9, 2, 5};
+    IChromosome[] chroms = new IChromosome[fitness.length];
+    for (int i = 0; i < fitness.length; i++) {
+      chroms[i] = new Chromosome(conf, new IntegerGene(conf), 1);
+      chroms[i].setFitnessValueDirectly(fitness[i]);
+      pop.addChromosome(chroms[i]);
+    }
+    List expected = new Vector(pop.getChromosomes());
+    Collections.sort(expected, new BestAndUnevalChromsFitnessComparator());
+    pop.keepPopSizeConstant();
+    assertEquals(3, pop.size());
+    assertTrue(pop.isChanged());
+    assertFalse(pop.contains(chroms[1]));
+    assertFalse(pop.contains(chroms[2]));
+    assertEquals(new HashSet(expected.subList(2, 5)),
+                 new HashSet(pop.getChromosomes()));
+    // Nothing to remove.
+    // ------------------
+    pop.keepPopSizeConstant();
+    assertEquals(3, pop.size());
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testRemoveChromosomes_0()
+      throws Exception {
+    Population pop = getNewPopulation(conf);
+    IChromosome last = pop.getChromosome(4);
+    pop.removeChromosomes(1, 4);
+    assertEquals(2, pop.size());
+    assertSame(last, pop.getChromosome(1));
+    try {
+      pop.removeChromosomes(1, 3);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
   class MyFitnessEvaluator
       implements FitnessEvaluator {
     public boolean isFitter(final double a_fitness_value1,
@@ -21,6 +21,7 @@ public class AllAuditTests
     extends TestSuite {
   public static Test suite() {
     TestSuite suite = new TestSuite("AllAuditTests");
+    suite.addTest(DeltaEvolutionMonitorTest.suite());
     suite.addTest(EvaluatorTest.suite());
     suite.addTest(KeyedValueTest.suite());
     suite.addTest(KeyedValuesTest.suite());
@@ -0,0 +1,196 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.audit;
+
+import java.util.*;
+
+import org.jgap.*;
+import org.jgap.eval.*;
+import org.jgap.impl.*;
+
+import junit.framework.*;
+
+/**
+ * Tests the DeltaEvolutionMonitor class.
+ *
+ * @since 3.7
+ */
+public class DeltaEvolutionMonitorTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(DeltaEvolutionMonitorTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+  }
+
+  /**
+   * @since 3.7
+   */
+  public void testConstruct_0() {
+    try {
+      new DeltaEvolutionMonitor(0);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * Only the given number of generations is retained, offspring is attributed
+   * to the operators.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testNextCycle_0()
+      throws Exception {
+    DeltaEvolutionMonitor monitor = new DeltaEvolutionMonitor(3);
+    Configuration conf = new DefaultConfiguration();
+    conf.setMonitor(monitor);
+    conf.setFitnessFunction(new SumFitnessFunction());
+    Gene[] genes = new Gene[] {
+        new IntegerGene(conf, 0, 10), new IntegerGene(conf, 0, 10)};
+    conf.setSampleChromosome(new Chromosome(conf, genes));
+    conf.setPopulationSize(20);
+    Genotype genotype = Genotype.randomInitialGenotype(conf);
+    monitor.start(conf);
+    List<String> messages = new Vector();
+    for (int i = 0; i < 5; i++) {
+      genotype.evolve();
+      assertFalse(monitor.nextCycle(genotype.getPopulation(), messages));
+    }
+    assertEquals(0, messages.size());
+    assertEquals(5, monitor.getGenerationCount());
+    assertEquals(2, monitor.getOldestGeneration());
+    assertNull(monitor.getGenerationDelta(1));
+    assertNull(monitor.getGenerationDelta(5));
+    GenerationDelta delta = monitor.getGenerationDelta(4);
+    assertEquals(4, delta.getGeneration());
+    Population pop = genotype.getPopulation();
+    assertEquals(pop.size(), delta.size());
+    assertEquals(pop.determineFittestChromosome().getFitnessValue(),
+                 delta.getBestFitnessValue(), DELTA);
+    int produced = 0;
+    for (int i = 0; i < delta.size(); i++) {
+      IChromosome chrom = pop.getChromosome(i);
+      assertEquals(chrom.getUniqueID(), delta.getUniqueID(i));
+      assertEquals(i, delta.indexOf(chrom.getUniqueID()));
+      assertEquals(chrom.getFitnessValueDirectly(), delta.getFitnessValue(i),
+                   DELTA);
+      if (delta.getSource(i) >= 0) {
+        Object source = monitor.getSource(delta.getSource(i));
+        assertTrue(source instanceof GeneticOperator
+                   || source instanceof NaturalSelector);
+        produced++;
+      }
+    }
+    assertTrue(produced > 0);
+    assertEquals( -1, delta.indexOf("unknown"));
+  }
+
+  /**
+   * The populations rebuilt from the deltas can be evaluated by
+   * EvolutionEvaluator.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testGetPopulations_0()
+      throws Exception {
+    DeltaEvolutionMonitor monitor = new DeltaEvolutionMonitor(3);
+    assertNull(monitor.getPopulations());
+    Configuration conf = new DefaultConfiguration();
+    conf.setUniqueKeysActive(true);
+    conf.setMonitor(monitor);
+    conf.setFitnessFunction(new SumFitnessFunction());
+    Gene[] genes = new Gene[] {
+        new IntegerGene(conf, 0, 10), new IntegerGene(conf, 0, 10)};
+    conf.setSampleChromosome(new Chromosome(conf, genes));
+    conf.setPopulationSize(20);
+    Genotype genotype = Genotype.randomInitialGenotype(conf);
+    monitor.start(conf);
+    List<String> messages = new Vector();
+    for (int i = 0; i < 5; i++) {
+      genotype.evolve();
+      monitor.nextCycle(genotype.getPopulation(), messages);
+    }
+    PopulationHistoryIndexed history = monitor.getPopulations();
+    assertEquals(3, history.getPopulationsHistory().size());
+    assertNull(history.getPopulations(1));
+    Population pop = genotype.getPopulation();
+    Population rebuilt = history.getPopulation(4, EvolutionMonitor.
+        CONTEXT_END_OF_CYCLE).getPopulation();
+    assertEquals(pop.size(), rebuilt.size());
+    for (int i = 0; i < pop.size(); i++) {
+      IChromosome chrom = pop.getChromosome(i);
+      IChromosome chrom2 = rebuilt.getChromosome(i);
+      assertNotNull(chrom2.getUniqueID());
+      assertEquals(chrom.getUniqueID(), chrom2.getUniqueID());
+      assertEquals(chrom.getFitnessValueDirectly(), chrom2.getFitnessValue(),
+                   DELTA);
+      assertEquals(chrom.getUniqueIDTemplate(1), chrom2.getUniqueIDTemplate(1));
+      assertEquals(chrom.getUniqueIDTemplate(2), chrom2.getUniqueIDTemplate(2));
+    }
+    new EvolutionEvaluator(history).evaluate();
+  }
+
+  /**
+   * Originators are tracked across generations.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testTrackChromosome_0()
+      throws Exception {
+    DeltaEvolutionMonitor monitor = new DeltaEvolutionMonitor();
+    Configuration conf = new DefaultConfiguration();
+    conf.setUniqueKeysActive(true);
+    IChromosome c1 = new Chromosome(conf, new Gene[] {new IntegerGene(conf)});
+    IChromosome c2 = new Chromosome(conf, new Gene[] {new IntegerGene(conf)});
+    IChromosome c3 = new Chromosome(conf, new Gene[] {new IntegerGene(conf)});
+    c2.setUniqueIDTemplate(c1.getUniqueID(), 1);
+    c3.setUniqueIDTemplate(c2.getUniqueID(), 1);
+    c3.setUniqueIDTemplate(c1.getUniqueID(), 2);
+    monitor.nextCycle(new Population(conf, new IChromosome[] {c1}), null);
+    monitor.nextCycle(new Population(conf, new IChromosome[] {c1, c2}), null);
+    monitor.nextCycle(new Population(conf, new IChromosome[] {c3}), null);
+    assertEquals(2, monitor.getGenerations(c1.getUniqueID()).size());
+    assertEquals(new Integer(1), monitor.getGenerations(c2.getUniqueID()).
+                 get(0));
+    Map<Integer, List<String>> track = monitor.trackChromosome(c3.getUniqueID());
+    assertEquals(1, track.size());
+    List<String> originators = track.get(new Integer(2));
+    assertEquals(2, originators.size());
+    assertEquals(c2.getUniqueID(), originators.get(0));
+    assertEquals(c1.getUniqueID(), originators.get(1));
+    GenerationDelta delta = monitor.getGenerationDelta(2);
+    assertEquals(2, delta.getOriginators(0).length);
+    assertEquals(DeltaEvolutionMonitor.SOURCE_UNKNOWN, delta.getSource(0));
+    assertEquals(0, monitor.getGenerationDelta(0).getOriginators(0).length);
+  }
+
+  public class SumFitnessFunction
+      extends FitnessFunction {
+    protected double evaluate(IChromosome a_subject) {
+      double sum = 1;
+      for (int i = 0; i < a_subject.size(); i++) {
+        sum += ( (Integer) a_subject.getGene(i).getAllele()).intValue();
+      }
+      return sum;
+    }
+  }
+}
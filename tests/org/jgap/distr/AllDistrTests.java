@@ -11,6 +11,7 @@ package org.jgap.distr;
 
 import junit.framework.*;
 import org.jgap.distr.grid.*;
+import org.jgap.distr.island.*;
 
 /**
  * Test suite for all tests of package org.jgap.distr.
@@ -26,6 +27,7 @@ public class AllDistrTests
     suite.addTest(CultureMemoryCellTest.suite());
     suite.addTest(ProblemTest.suite());
     suite.addTest(AllGridTests.suite());
+    suite.addTest(AllIslandTests.suite());
     return suite;
   }
 }
@@ -9,6 +9,8 @@
  */
 package org.jgap.distr.grid;
 
+import org.jgap.distr.grid.wire.*;
+
 import junit.framework.*;
 
 /**
@@ -22,6 +24,9 @@ public class AllGridTests
   public static Test suite() {
     TestSuite suite = new TestSuite("AllGridTests");
     suite.addTest(DefaultGenotypeInitializerTest.suite());
+    suite.addTest(SteadyStateClientEvolveStrategyTest.suite());
+    suite.addTest(WorkTrackerTest.suite());
+    suite.addTest(WireSessionTest.suite());
     return suite;
   }
 }
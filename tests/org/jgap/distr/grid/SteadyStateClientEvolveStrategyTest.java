@@ -0,0 +1,108 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.grid;
+
+import org.jgap.*;
+import org.jgap.impl.*;
+
+import junit.framework.*;
+
+/**
+ * Tests the SteadyStateClientEvolveStrategy class.
+ *
+ * @since 3.7
+ */
+public class SteadyStateClientEvolveStrategyTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(SteadyStateClientEvolveStrategyTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+  }
+
+  /**
+   * Merging a result keeps the fittest chromosomes.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testEvolve_0()
+      throws Exception {
+    Configuration conf = createConfiguration();
+    double[] kept = evolve(conf);
+    assertEquals(5, kept.length);
+    for (int i = 0; i < kept.length; i++) {
+      assertEquals(10 - i, kept[i], DELTA);
+    }
+  }
+
+  /**
+   * The fitness evaluator of the configuration decides which chromosomes are
+   * the fittest.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testEvolve_1()
+      throws Exception {
+    Configuration conf = createConfiguration();
+    conf.resetProperty(Configuration.PROPERTY_FITEVAL_INST);
+    conf.setFitnessEvaluator(new DeltaFitnessEvaluator());
+    double[] kept = evolve(conf);
+    assertEquals(5, kept.length);
+    for (int i = 0; i < kept.length; i++) {
+      assertEquals(i + 1, kept[i], DELTA);
+    }
+  }
+
+  /**
+   * Merges a result with ten chromosomes of fitness 1 to 10 into an empty
+   * population.
+   *
+   * @param a_conf the configuration to use
+   * @return fitness values of the chromosomes kept, in their order
+   * @throws Exception
+   */
+  private double[] evolve(Configuration a_conf)
+      throws Exception {
+    SteadyStateClientEvolveStrategy strategy =
+        new SteadyStateClientEvolveStrategy();
+    strategy.initialize(null, a_conf, null);
+    Population pop = new Population(a_conf, 10);
+    for (int i = 0; i < 10; i++) {
+      IChromosome chrom = new Chromosome(a_conf, new BooleanGene(a_conf), 2);
+      chrom.setFitnessValueDirectly(i % 2 == 0 ? 10 - i / 2 : i / 2 + 1);
+      pop.addChromosome(chrom);
+    }
+    strategy.resultReceived(new JGAPResult("session", 1, pop, 1));
+    strategy.evolve();
+    Population result = strategy.getPopulation();
+    double[] fitness = new double[result.size()];
+    for (int i = 0; i < fitness.length; i++) {
+      fitness[i] = result.getChromosome(i).getFitnessValueDirectly();
+    }
+    return fitness;
+  }
+
+  private Configuration createConfiguration()
+      throws Exception {
+    Configuration conf = new DefaultConfiguration();
+    conf.setFitnessFunction(new TestFitnessFunction());
+    conf.setSampleChromosome(new Chromosome(conf, new BooleanGene(conf), 2));
+    conf.setPopulationSize(5);
+    return conf;
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.grid;
+
+import org.jgap.*;
+import org.jgap.distr.*;
+
+import junit.framework.*;
+
+/**
+ * Tests the WorkTracker class.
+ *
+ * @since 3.7
+ */
+public class WorkTrackerTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(WorkTrackerTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+  }
+
+  /**
+   * Staleness counts the merges between sending and receiving.
+   *
+   * @since 3.7
+   */
+  public void testResultReceived_0() {
+    WorkTracker tracker = new WorkTracker(1);
+    tracker.requestSent(new Integer(0));
+    tracker.requestSent(new Integer(1));
+    tracker.requestSent(new Integer(2));
+    assertEquals(3, tracker.getPendingCount());
+    assertEquals(0, tracker.resultReceived(new Integer(0), null, 1));
+    tracker.merged();
+    assertEquals(1, tracker.resultReceived(new Integer(1), null, 1));
+    assertFalse(tracker.isStale(1));
+    tracker.merged();
+    assertEquals(2, tracker.resultReceived(new Integer(2), null, 1));
+    assertTrue(tracker.isStale(2));
+    assertEquals(0, tracker.getPendingCount());
+    assertEquals(2, tracker.getVersion());
+  }
+
+  /**
+   * Results of requests not pending are reported, but not counted.
+   *
+   * @since 3.7
+   */
+  public void testResultReceived_1() {
+    WorkTracker tracker = new WorkTracker(0);
+    assertEquals(-1, tracker.resultReceived("x", null, 1));
+    tracker.requestSent("x");
+    assertEquals(0, tracker.resultReceived("x", null, 1));
+    assertEquals(-1, tracker.resultReceived("x", null, 1));
+    assertEquals(1, tracker.getWorkerStatistics().length);
+  }
+
+  /**
+   * Throughput is recorded per worker.
+   *
+   * @since 3.7
+   */
+  public void testGetWorkerStatistics_0()
+      throws Exception {
+    final long[] now = new long[1];
+    WorkTracker tracker = new WorkTracker(0) {
+      protected long currentTimeMillis() {
+        return now[0];
+      }
+    };
+    MasterInfo fast = new MasterInfo();
+    fast.m_GUID = "fast";
+    MasterInfo slow = new MasterInfo();
+    slow.m_IPAddress = "10.0.0.1";
+    slow.m_name = "slow";
+    tracker.requestSent("a");
+    tracker.requestSent("b");
+    tracker.requestSent("c");
+    now[0] = 1000;
+    tracker.resultReceived("a", fast, 10);
+    tracker.merged();
+    tracker.requestSent("d");
+    now[0] = 2000;
+    tracker.resultReceived("d", fast, 10);
+    now[0] = 4000;
+    tracker.resultReceived("b", slow, 10);
+    tracker.resultReceived("c", null, 5);
+    WorkerStatistics stats = tracker.getWorkerStatistics(fast);
+    assertEquals("fast", stats.getWorkerKey());
+    assertEquals(2, stats.getResults());
+    assertEquals(0, stats.getDiscarded());
+    assertEquals(20, stats.getUnitsDone());
+    assertEquals(10.0d, stats.getThroughput(), DELTA);
+    assertEquals(1000.0d, stats.getAverageTurnaround(), DELTA);
+    assertEquals(2000, stats.getLastResultMillis());
+    stats = tracker.getWorkerStatistics(slow);
+    assertEquals("10.0.0.1/slow", stats.getWorkerKey());
+    assertEquals(1, stats.getDiscarded());
+    assertEquals(2.5d, stats.getThroughput(), DELTA);
+    WorkerStatistics[] all = tracker.getWorkerStatistics();
+    assertEquals(3, all.length);
+    assertSame(stats, all[1]);
+    assertEquals(WorkTracker.UNKNOWN_WORKER, all[2].getWorkerKey());
+  }
+
+  /**
+   * @since 3.7
+   */
+  public void testConstruct_0() {
+    try {
+      new WorkTracker( -1);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+}
@@ -0,0 +1,408 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.grid.wire;
+
+import java.io.*;
+import java.util.zip.*;
+
+import org.homedns.dade.jcgrid.client.*;
+import org.jgap.*;
+import org.jgap.distr.grid.*;
+import org.jgap.distr.grid.gp.*;
+import org.jgap.gp.*;
+import org.jgap.gp.function.*;
+import org.jgap.gp.impl.*;
+import org.jgap.gp.terminal.*;
+import org.jgap.impl.*;
+
+import junit.framework.*;
+
+/**
+ * Tests the WireSession and PopulationCodec classes.
+ *
+ * @since 3.7
+ */
+public class WireSessionTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(WireSessionTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+    Configuration.reset("wire");
+  }
+
+  /**
+   * A GP request and its result are transferred with their population. The
+   * configuration is only sent with the first message, in both directions.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testRequestGP_0()
+      throws Exception {
+    GridConfigurationGP config = createGridConfiguration();
+    GPPopulation pop = createPopulation(config);
+    JGAPRequestGP req = new JGAPRequestGP("session", "id", 3, config, pop);
+    req.setTitle("title");
+    req.setMinFitness(1.5d);
+    WireSession client = new WireSession();
+    WireSession worker = new WireSession();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    client.writeRequest(bytes, req);
+    int sizeFirst = bytes.size();
+    client.writeRequest(bytes, req);
+    int sizeSecond = bytes.size() - sizeFirst;
+    assertTrue(sizeSecond < sizeFirst / 2);
+    InputStream in = new ByteArrayInputStream(bytes.toByteArray());
+    JGAPRequestGP req1 = worker.readRequestGP(in);
+    JGAPRequestGP req2 = worker.readRequestGP(in);
+    assertEquals( -1, in.read());
+    assertSame(req1.getGridConfiguration(), req2.getGridConfiguration());
+    assertEquals("session", req2.getSessionName());
+    assertEquals("id", req2.getID());
+    assertEquals(3, req2.getChunk());
+    assertEquals("title", req2.getTitle());
+    assertNull(req2.getDescription());
+    assertEquals(1.5d, req2.getMinFitness(), DELTA);
+    assertPopulationEquals(pop, req2.getPopulation());
+    // Send the population back as result.
+    // -----------------------------------
+    JGAPResultGP res = new JGAPResultGP("session", "id", 3,
+                                        req2.getPopulation(), 5);
+    bytes.reset();
+    worker.writeResult(bytes, res, req2.getGridConfiguration());
+    JGAPResultGP res2 = client.readResultGP(new ByteArrayInputStream(bytes.
+        toByteArray()));
+    assertTrue(bytes.size() < sizeSecond * 2);
+    assertEquals(5, res2.getUnitDone());
+    assertPopulationEquals(pop, res2.getPopulation());
+  }
+
+  /**
+   * A GP result carrying only the fittest program is transferred as a
+   * population holding that program, encoded without its configuration and
+   * without sharing nodes with the function set.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testResultGP_0()
+      throws Exception {
+    GridConfigurationGP config = createGridConfiguration();
+    GPPopulation pop = createPopulation(config);
+    IGPProgram fittest = pop.determineFittestProgram();
+    JGAPResultGP res = new JGAPResultGP("session", "id", 3, fittest, 5);
+    WireSession worker = new WireSession();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    worker.writeResult(bytes, res, config);
+    int sizeFirst = bytes.size();
+    worker.writeResult(bytes, res, config);
+    // Without the configuration, only the nodes and a few header fields remain.
+    // -------------------------------------------------------------------------
+    assertTrue(bytes.size() - sizeFirst < 1000);
+    InputStream in = new ByteArrayInputStream(bytes.toByteArray());
+    WireSession client = new WireSession();
+    client.readResultGP(in);
+    JGAPResultGP res2 = client.readResultGP(in);
+    assertEquals( -1, in.read());
+    assertEquals(5, res2.getUnitDone());
+    assertEquals(1, res2.getPopulation().size());
+    IGPProgram fittest2 = res2.getPopulation().getGPProgram(0);
+    assertEquals(fittest.toStringNorm(0), fittest2.toStringNorm(0));
+    assertEquals(fittest.getFitnessValue(), fittest2.getFitnessValue(), DELTA);
+    // The decoded nodes are not the instances of the function set.
+    // ------------------------------------------------------------
+    GPProgram template = new GPProgram(config.getConfiguration(),
+                                       config.getTypes(), config.getArgTypes(),
+                                       config.getNodeSets(),
+                                       config.getMinDepths(),
+                                       config.getMaxDepths(),
+                                       config.getMaxNodes());
+    bytes.reset();
+    DataOutputStream out = new DataOutputStream(bytes);
+    PopulationCodec.writeGPProgram(out, fittest, template);
+    IGPProgram fittest3 = PopulationCodec.readGPProgram(new DataInputStream(
+        new ByteArrayInputStream(bytes.toByteArray())), template);
+    assertEquals(fittest.toStringNorm(0), fittest3.toStringNorm(0));
+    CommandGene[] functions = fittest3.getChromosome(0).getFunctions();
+    CommandGene[] nodeSet = config.getNodeSets()[0];
+    for (int i = 0; i < functions.length && functions[i] != null; i++) {
+      for (int j = 0; j < nodeSet.length; j++) {
+        assertNotSame(nodeSet[j], functions[i]);
+      }
+    }
+  }
+
+  /**
+   * A node not contained in the function set of the template is rejected
+   * instead of being serialized with its configuration.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testWriteGPProgram_0()
+      throws Exception {
+    GridConfigurationGP config = createGridConfiguration();
+    GPPopulation pop = createPopulation(config);
+    GPConfiguration conf = config.getConfiguration();
+    CommandGene[][] nodeSets = new CommandGene[][] { {
+        new Constant(conf, CommandGene.DoubleClass, new Double(1.0d))}
+    };
+    GPProgram template = new GPProgram(conf, config.getTypes(),
+                                       config.getArgTypes(), nodeSets,
+                                       config.getMinDepths(),
+                                       config.getMaxDepths(),
+                                       config.getMaxNodes());
+    DataOutputStream out = new DataOutputStream(new ByteArrayOutputStream());
+    try {
+      PopulationCodec.writeGPProgram(out, pop.determineFittestProgram(),
+                                     template);
+      fail();
+    } catch (IOException iex) {
+      ; //this is OK
+    }
+  }
+
+  private GridConfigurationGP createGridConfiguration()
+      throws Exception {
+    GridConfigurationGP config = new GridConfigurationGP();
+    GPConfiguration conf = new GPConfiguration("wire", "noname");
+    conf.setPopulationSize(20);
+    conf.setGPFitnessEvaluator(new DeltaGPFitnessEvaluator());
+    conf.setFitnessFunction(new TargetValue());
+    config.setConfiguration(conf);
+    config.setTypes(new Class[] {CommandGene.DoubleClass});
+    config.setArgTypes(new Class[][] { {}
+    });
+    config.setNodeSets(new CommandGene[][] { {
+                       new Add(conf, CommandGene.DoubleClass),
+                       new Multiply(conf, CommandGene.DoubleClass),
+                       new Terminal(conf, CommandGene.DoubleClass, 1.0d, 10.0d),
+    }
+    });
+    config.setMinDepths(new int[] {2});
+    config.setMaxDepths(new int[] {4});
+    config.setMaxNodes(20);
+    return config;
+  }
+
+  private GPPopulation createPopulation(GridConfigurationGP a_config)
+      throws Exception {
+    GPGenotype gen = GPGenotype.randomInitialGenotype(a_config.
+        getConfiguration(), a_config.getTypes(), a_config.getArgTypes(),
+        a_config.getNodeSets(), 20, false);
+    gen.calcFitness();
+    return gen.getGPPopulation();
+  }
+
+  private void assertPopulationEquals(GPPopulation a_expected,
+                                      GPPopulation a_actual) {
+    assertEquals(a_expected.getPopSize(), a_actual.getPopSize());
+    for (int i = 0; i < a_expected.getPopSize(); i++) {
+      IGPProgram expected = a_expected.getGPProgram(i);
+      IGPProgram actual = a_actual.getGPProgram(i);
+      assertEquals(expected.toStringNorm(0), actual.toStringNorm(0));
+      assertEquals(expected.getFitnessValue(), actual.getFitnessValue(),
+                   DELTA);
+      assertTrue(expected.getChromosome(0).isSameStructure(actual.
+          getChromosome(0)));
+      assertEquals(expected.getChromosome(0).getDepth(0),
+                   actual.getChromosome(0).getDepth(0));
+    }
+  }
+
+  /**
+   * A GA request is transferred compressed, with the alleles of chromosomes
+   * matching the sample chromosome as well as array chromosomes.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testRequest_0()
+      throws Exception {
+    Configuration conf = new DefaultConfiguration();
+    conf.setFitnessFunction(new StaticFitnessFunction(2.5d));
+    Gene[] genes = new Gene[] {
+        new IntegerGene(conf, -5, 5), new DoubleGene(conf, 0, 1),
+        new BooleanGene(conf), new StringGene(conf, 1, 3, "abc")};
+    conf.setSampleChromosome(new Chromosome(conf, genes));
+    conf.setPopulationSize(10);
+    Population pop = new Population(conf, 3);
+    Chromosome chrom = (Chromosome) conf.getSampleChromosome().clone();
+    chrom.getGene(0).setAllele(new Integer( -3));
+    chrom.getGene(1).setAllele(new Double(0.25d));
+    chrom.getGene(2).setAllele(Boolean.TRUE);
+    chrom.getGene(3).setAllele("ba");
+    chrom.setFitnessValueDirectly(7.0d);
+    pop.addChromosome(chrom);
+    IntArrayChromosome ints = new IntArrayChromosome(conf, new int[] {
+        -2, 0, 7}, -2, 7);
+    pop.addChromosome(ints);
+    BitArrayChromosome bits = new BitArrayChromosome(conf, 70);
+    bits.setBit(3, true);
+    bits.setBit(69, true);
+    pop.addChromosome(bits);
+    JGAPRequest req = new JGAPRequest("session", 4, conf, pop);
+    WireSession client = new WireSession(Deflater.BEST_SPEED);
+    WireSession worker = new WireSession();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    client.writeRequest(bytes, req);
+    InputStream in = new ByteArrayInputStream(bytes.toByteArray());
+    JGAPRequest req2 = worker.readRequest(in);
+    assertEquals( -1, in.read());
+    assertEquals("session", req2.getSessionName());
+    assertEquals(4, req2.getRID());
+    Population pop2 = req2.getPopulation();
+    assertEquals(3, pop2.size());
+    IChromosome chrom2 = pop2.getChromosome(0);
+    assertEquals(new Integer( -3), chrom2.getGene(0).getAllele());
+    assertEquals(new Double(0.25d), chrom2.getGene(1).getAllele());
+    assertEquals(Boolean.TRUE, chrom2.getGene(2).getAllele());
+    assertEquals("ba", chrom2.getGene(3).getAllele());
+    assertEquals(7.0d, chrom2.getFitnessValueDirectly(), DELTA);
+    assertSame(req2.getConfiguration(), chrom2.getConfiguration());
+    assertEquals(ints.toIntArray(), ( (IntArrayChromosome) pop2.
+        getChromosome(1)).toIntArray());
+    assertEquals(bits.toLongArray(), ( (BitArrayChromosome) pop2.
+        getChromosome(2)).toLongArray());
+  }
+
+  private void assertEquals(int[] a_expected, int[] a_actual) {
+    assertEquals(a_expected.length, a_actual.length);
+    for (int i = 0; i < a_expected.length; i++) {
+      assertEquals(a_expected[i], a_actual[i]);
+    }
+  }
+
+  private void assertEquals(long[] a_expected, long[] a_actual) {
+    assertEquals(a_expected.length, a_actual.length);
+    for (int i = 0; i < a_expected.length; i++) {
+      assertEquals(a_expected[i], a_actual[i]);
+    }
+  }
+
+  /**
+   * A reference only known to the writing side is rejected.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testReadReference_0()
+      throws Exception {
+    WireSession writer = new WireSession();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    writer.writeReference(out, "config");
+    int sizeFirst = bytes.size();
+    writer.writeReference(out, "config");
+    assertEquals(21, bytes.size() - sizeFirst);
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.
+        toByteArray(), sizeFirst, 21));
+    try {
+      new WireSession().readReference(in);
+      fail();
+    } catch (IOException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * A size read from the stream exceeding the maximum reference size is
+   * rejected before allocating a buffer for it.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testReadReference_1()
+      throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeByte(WireSession.REF_NEW);
+    out.write(new byte[20]);
+    PopulationCodec.writeVarLong(out, Integer.MAX_VALUE);
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.
+        toByteArray()));
+    try {
+      new WireSession().readReference(in);
+      fail();
+    } catch (IOException iex) {
+      ; //this is OK
+    }
+    // Objects up to the maximum size are read.
+    // ----------------------------------------
+    WireSession writer = new WireSession();
+    bytes = new ByteArrayOutputStream();
+    writer.writeReference(new DataOutputStream(bytes), "config");
+    WireSession reader = new WireSession();
+    reader.setMaxReferenceSize(bytes.size() - 22);
+    assertEquals("config", reader.readReference(new DataInputStream(
+        new ByteArrayInputStream(bytes.toByteArray()))));
+    reader = new WireSession();
+    reader.setMaxReferenceSize(bytes.size() - 23);
+    try {
+      reader.readReference(new DataInputStream(new ByteArrayInputStream(
+          bytes.toByteArray())));
+      fail();
+    } catch (IOException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testVarLong_0()
+      throws Exception {
+    long[] values = {0, 1, 127, 128, -1, Long.MIN_VALUE, Long.MAX_VALUE,
+        123456789012L};
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    for (int i = 0; i < values.length; i++) {
+      PopulationCodec.writeVarLong(out, values[i]);
+      PopulationCodec.writeSignedVarLong(out, values[i]);
+    }
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.
+        toByteArray()));
+    for (int i = 0; i < values.length; i++) {
+      assertEquals(values[i], PopulationCodec.readVarLong(in));
+      assertEquals(values[i], PopulationCodec.readSignedVarLong(in));
+    }
+    assertEquals( -1, in.read());
+  }
+
+  public static class GridConfigurationGP
+      extends GridConfigurationGPBase {
+    public void initialize(GridNodeClientConfig a_gridconfig) {
+    }
+
+    public void validate() {
+    }
+  }
+
+  public static class TargetValue
+      extends GPFitnessFunction {
+    protected double evaluate(IGPProgram a_subject) {
+      Object[] noargs = new Object[0];
+      return Math.abs(a_subject.execute_double(0, noargs) - 20.0d);
+    }
+  }
+}
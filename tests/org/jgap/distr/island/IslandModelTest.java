@@ -0,0 +1,310 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.distr.island;
+
+import java.util.*;
+
+import org.jgap.*;
+import org.jgap.gp.*;
+import org.jgap.gp.function.*;
+import org.jgap.gp.impl.*;
+import org.jgap.gp.terminal.*;
+import org.jgap.impl.*;
+import junit.framework.*;
+
+/**
+ * Tests the IslandModel class and the migration topologies.
+ *
+ * @since 3.7
+ */
+public class IslandModelTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(IslandModelTest.class);
+    return suite;
+  }
+
+  /**
+   * @since 3.7
+   */
+  public void testTopology_0() {
+    IMigrationTopology ring = new RingTopology();
+    assertEquals(1, ring.getTargets(0, 3)[0]);
+    assertEquals(0, ring.getTargets(2, 3)[0]);
+    assertEquals(0, ring.getTargets(0, 1).length);
+    int[] targets = new FullyConnectedTopology().getTargets(1, 4);
+    assertEquals(3, targets.length);
+    assertEquals(0, targets[0]);
+    assertEquals(2, targets[1]);
+    assertEquals(3, targets[2]);
+    RandomTopology random = new RandomTopology(new StockRandomGenerator(), 2);
+    for (int i = 0; i < 50; i++) {
+      targets = random.getTargets(2, 5);
+      assertEquals(2, targets.length);
+      assertTrue(targets[0] != 2 && targets[1] != 2);
+      assertTrue(targets[0] != targets[1]);
+    }
+    assertEquals(1, random.getTargets(0, 2).length);
+  }
+
+  /**
+   * Islands evolve the requested number of generations and exchange
+   * migrants.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testEvolve_0()
+      throws Exception {
+    CountingIsland[] islands = new CountingIsland[5];
+    for (int i = 0; i < islands.length; i++) {
+      islands[i] = new CountingIsland();
+    }
+    IslandModel model = new IslandModel(islands, 2);
+    try {
+      model.setMigrationInterval(3);
+      model.setMigrationSize(2);
+      model.setTopology(new FullyConnectedTopology());
+      model.evolve(10);
+    } finally {
+      model.shutdown();
+    }
+    int received = 0;
+    for (int i = 0; i < islands.length; i++) {
+      assertEquals(10, islands[i].m_generations);
+      received += islands[i].m_immigrants;
+    }
+    // 3 migrations per island, 4 targets each, 2 migrants per target.
+    assertEquals(5 * 3 * 4 * 2, model.getNumberOfMigrants());
+    assertTrue(received <= model.getNumberOfMigrants());
+  }
+
+  /**
+   * Exceptions thrown by an island are passed to the caller.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testEvolve_1()
+      throws Exception {
+    IIsland[] islands = new IIsland[] {
+        new CountingIsland(), new CountingIsland() {
+      public void evolve(int a_generations) {
+        throw new IllegalStateException("test");
+      }
+    }
+    };
+    IslandModel model = new IslandModel(islands, 2);
+    try {
+      model.evolve(5);
+      fail();
+    } catch (IllegalStateException iex) {
+      assertEquals("test", iex.getMessage());
+    } finally {
+      model.shutdown();
+    }
+  }
+
+  /**
+   * Island model with genotypes.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testEvolve_2()
+      throws Exception {
+    IIsland[] islands = new IIsland[3];
+    for (int i = 0; i < islands.length; i++) {
+      Configuration config = new DefaultConfiguration("island" + i,
+          "island" + i);
+      config.setFitnessFunction(new FitnessFunction() {
+        protected double evaluate(IChromosome a_subject) {
+          double sum = 1;
+          for (int j = 0; j < a_subject.size(); j++) {
+            sum += ( (Integer) a_subject.getGene(j).getAllele()).intValue();
+          }
+          return sum;
+        }
+      });
+      config.setSampleChromosome(new Chromosome(config,
+          new IntegerGene(config, 0, 20), 5));
+      config.setPopulationSize(20);
+      islands[i] = new GenotypeIsland(Genotype.randomInitialGenotype(config));
+    }
+    IslandModel model = new IslandModel(islands, 3);
+    try {
+      model.setMigrationInterval(2);
+      model.setTopology(new RandomTopology());
+      model.evolve(6);
+    } finally {
+      model.shutdown();
+    }
+    assertEquals(3 * 2 * 2, model.getNumberOfMigrants());
+    for (int i = 0; i < islands.length; i++) {
+      Genotype genotype = ( (GenotypeIsland) islands[i]).getGenotype();
+      assertEquals(20, genotype.getPopulation().size());
+      assertNotNull(genotype.getFittestChromosome());
+    }
+  }
+
+  /**
+   * Immigrants are rebuilt on the configuration of the receiving island.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testImmigrate_0()
+      throws Exception {
+    GenotypeIsland[] islands = new GenotypeIsland[2];
+    for (int i = 0; i < islands.length; i++) {
+      Configuration config = new DefaultConfiguration("immigrate" + i,
+          "immigrate" + i);
+      config.setFitnessFunction(new StaticFitnessFunction(1.0d + i));
+      config.setSampleChromosome(new Chromosome(config,
+          new IntegerGene(config, 0, 20), 5));
+      config.setPopulationSize(10);
+      islands[i] = new GenotypeIsland(Genotype.randomInitialGenotype(config));
+    }
+    List emigrants = islands[0].getEmigrants(3);
+    IChromosome emigrant = (IChromosome) emigrants.get(0);
+    islands[1].immigrate(emigrants);
+    Configuration config = islands[1].getGenotype().getConfiguration();
+    Population pop = islands[1].getGenotype().getPopulation();
+    assertEquals(10, pop.size());
+    boolean found = false;
+    for (int i = 0; i < pop.size(); i++) {
+      IChromosome chrom = pop.getChromosome(i);
+      assertSame(config, chrom.getConfiguration());
+      for (int j = 0; j < chrom.size(); j++) {
+        assertSame(config, chrom.getGene(j).getConfiguration());
+      }
+      boolean same = true;
+      for (int j = 0; j < chrom.size(); j++) {
+        same &= chrom.getGene(j).getAllele().equals(emigrant.getGene(j).
+            getAllele());
+      }
+      found |= same;
+    }
+    assertTrue(found);
+  }
+
+  /**
+   * GP immigrants are rebuilt on the configuration and node sets of the
+   * receiving island.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testImmigrate_1()
+      throws Exception {
+    GPGenotypeIsland[] islands = new GPGenotypeIsland[2];
+    for (int i = 0; i < islands.length; i++) {
+      GPConfiguration config = new GPConfiguration("gpimmigrate" + i,
+          "gpimmigrate" + i);
+      config.setPopulationSize(10);
+      config.setGPFitnessEvaluator(new DeltaGPFitnessEvaluator());
+      config.setFitnessFunction(new TargetValue());
+      CommandGene[][] nodeSets = new CommandGene[][] { {
+          new Add(config, CommandGene.DoubleClass),
+          new Multiply(config, CommandGene.DoubleClass),
+          new Terminal(config, CommandGene.DoubleClass, 1.0d, 10.0d),
+      }
+      };
+      GPGenotype gen = GPGenotype.randomInitialGenotype(config,
+          new Class[] {CommandGene.DoubleClass}, new Class[][] { {}
+      }, nodeSets, 20, false);
+      gen.calcFitness();
+      islands[i] = new GPGenotypeIsland(gen);
+    }
+    List emigrants = islands[0].getEmigrants(3);
+    IGPProgram emigrant = (IGPProgram) emigrants.get(0);
+    islands[1].immigrate(emigrants);
+    GPConfiguration config = islands[1].getGPGenotype().getGPConfiguration();
+    GPPopulation pop = islands[1].getGPGenotype().getGPPopulation();
+    assertEquals(10, pop.size());
+    boolean found = false;
+    for (int i = 0; i < pop.size(); i++) {
+      IGPProgram prog = pop.getGPProgram(i);
+      assertSame(config, prog.getGPConfiguration());
+      CommandGene[] nodes = prog.getChromosome(0).getFunctions();
+      for (int j = 0; j < nodes.length && nodes[j] != null; j++) {
+        assertSame(config, nodes[j].getGPConfiguration());
+      }
+      if (prog.toStringNorm(0).equals(emigrant.toStringNorm(0))) {
+        found = true;
+      }
+    }
+    assertTrue(found);
+  }
+
+  /**
+   * @since 3.7
+   */
+  public void testSetters_0() {
+    IslandModel model = new IslandModel(new IIsland[] {new CountingIsland()},
+                                        1);
+    try {
+      model.setMigrationInterval(0);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+    try {
+      model.setTopology(null);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+    model.setMigrationSize(0);
+    assertEquals(0, model.getMigrationSize());
+    assertEquals(1, model.getIslands().length);
+    model.shutdown();
+    assertTrue(model.getExecutor().isShutdown());
+  }
+
+  public static class TargetValue
+      extends GPFitnessFunction {
+    protected double evaluate(IGPProgram a_subject) {
+      Object[] noargs = new Object[0];
+      return Math.abs(a_subject.execute_double(0, noargs) - 20.0d);
+    }
+  }
+
+  /**
+   * Island counting generations and immigrants.
+   */
+  class CountingIsland
+      implements IIsland {
+    int m_generations;
+
+    int m_immigrants;
+
+    public void evolve(int a_generations) {
+      m_generations += a_generations;
+    }
+
+    public List getEmigrants(int a_count) {
+      List result = new Vector();
+      for (int i = 0; i < a_count; i++) {
+        result.add(new Integer(i));
+      }
+      return result;
+    }
+
+    public void immigrate(List a_immigrants) {
+      m_immigrants += a_immigrants.size();
+    }
+  }
+}
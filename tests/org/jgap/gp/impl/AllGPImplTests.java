@@ -26,9 +26,11 @@ public class AllGPImplTests
     suite.addTest(DefaultGPFitnessEvaluatorTest.suite());
     suite.addTest(DeltaGPFitnessEvaluatorTest.suite());
     suite.addTest(GPConfigurationTest.suite());
+    suite.addTest(GPExecutionContextTest.suite());
     suite.addTest(GPGenotypeTest.suite());
     suite.addTest(GPPopulationTest.suite());
     suite.addTest(GPProgramTest.suite());
+    suite.addTest(NodeTableTest.suite());
     suite.addTest(ProgramChromosomeTest.suite());
     return suite;
   }
@@ -11,6 +11,7 @@ package org.jgap.gp.impl;
 
 import org.jgap.gp.*;
 import org.jgap.gp.function.*;
+import org.jgap.gp.terminal.*;
 
 import junit.framework.*;
 
@@ -243,6 +244,88 @@ public class BranchTypingCrossTest
     assertSame(CMD_CONST2, chrom2.getGene(6));
   }
 
+  /**
+   * Cross over a terminal with a terminal and mutate both terminals. The
+   * mutation must only affect the offspring, the parents and their nodes stay
+   * unchanged.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testOperate_3()
+      throws Exception {
+    BranchTypingCross btc = new BranchTypingCross(m_gpconf);
+    Class[] types = new Class[]{Add.class};//needed for init. only
+    CommandGene add = new Add(m_gpconf, CommandGene.DoubleClass);
+    Terminal t1 = new Terminal(m_gpconf, CommandGene.DoubleClass, 0d, 10d);
+    t1.setValue(1.0d);
+    Terminal t2 = new Terminal(m_gpconf, CommandGene.DoubleClass, 0d, 10d);
+    t2.setValue(2.0d);
+    Terminal t3 = new Terminal(m_gpconf, CommandGene.DoubleClass, 0d, 10d);
+    t3.setValue(3.0d);
+    Terminal t4 = new Terminal(m_gpconf, CommandGene.DoubleClass, 0d, 10d);
+    t4.setValue(4.0d);
+    // First program.
+    // --------------
+    GPProgram prog1 = new GPProgram(m_gpconf, 1);
+    ProgramChromosome pc1 = new ProgramChromosome(m_gpconf, 50, prog1);
+    pc1.setGene(0, add);
+    pc1.setGene(1, t1);
+    pc1.setGene(2, t2);
+    pc1.redepth();
+    prog1.setChromosome(0, pc1);
+    prog1.setTypes(types);
+    // Second program.
+    // ---------------
+    GPProgram prog2 = new GPProgram(m_gpconf, 1);
+    ProgramChromosome pc2 = new ProgramChromosome(m_gpconf, 50, prog2);
+    pc2.setGene(0, add);
+    pc2.setGene(1, t3);
+    pc2.setGene(2, t4);
+    pc2.redepth();
+    prog2.setChromosome(0, pc2);
+    prog2.setTypes(types);
+    // Do crossing over.
+    // -----------------
+    rn.setNextIntSequence(new int[] {
+                          0, // a node in pc1
+                          1, // index of terminal to choose (p0 => t2)
+                          0 // index of terminal to choose (p1 => t3)
+    });
+    rn.setNextFloatSequence(new float[] {
+                            0.95f, // Choose a terminal when crossing over
+                            0.5f, // Amount of mutation of t2
+                            0.95f, // Choose a terminal when crossing over
+                            0.5f // Amount of mutation of t3
+    });
+    // Always mutate the chosen terminals.
+    // -----------------------------------
+    rn.setNextDouble(0.0d);
+    IGPProgram[] result = btc.operate(prog1, prog2);
+    assertEquals(2, result.length);
+    ProgramChromosome chrom1 = result[0].getChromosome(0);
+    ProgramChromosome chrom2 = result[1].getChromosome(0);
+    assertSame(add, chrom1.getGene(0));
+    assertSame(t1, chrom1.getGene(1));
+    assertNotSame(t3, chrom1.getGene(2));
+    assertEquals(4.5d, chrom1.getGene(2).execute_double(chrom1, 2, null),
+                 DELTA);
+    assertSame(add, chrom2.getGene(0));
+    assertNotSame(t2, chrom2.getGene(1));
+    assertEquals(3.5d, chrom2.getGene(1).execute_double(chrom2, 1, null),
+                 DELTA);
+    assertSame(t4, chrom2.getGene(2));
+    // The parents are unchanged.
+    // --------------------------
+    assertSame(t1, pc1.getGene(1));
+    assertSame(t2, pc1.getGene(2));
+    assertSame(t3, pc2.getGene(1));
+    assertSame(t4, pc2.getGene(2));
+    assertEquals(2.0d, t2.execute_double(pc1, 2, null), DELTA);
+    assertEquals(3.0d, t3.execute_double(pc2, 1, null), DELTA);
+  }
+
   /**
    * @throws Exception
    *
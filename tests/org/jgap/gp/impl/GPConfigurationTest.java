@@ -368,4 +368,45 @@ public class GPConfigurationTest
     Variable vy2 = clone.getVariable("YZA");
     assertEquals(vy, vy2);
   }
+
+  /**
+   * Programs are found by structure, the cache is bounded.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testProgramCache_0()
+      throws Exception {
+    m_gpconf.setProgramCacheSize(2);
+    GPProgram prog1 = createProgram(1);
+    GPProgram prog2 = createProgram(1);
+    assertNull(m_gpconf.readProgramCache(prog2));
+    assertNull(m_gpconf.putToProgramCache(prog1));
+    GPProgramInfo info = m_gpconf.readProgramCache(prog2);
+    assertNotNull(info);
+    assertEquals(prog1.toStringNorm(0), info.getToStringNorm());
+    prog1.setFitnessValue(3.5d);
+    assertEquals(3.5d, info.getFitnessValue(), DELTA);
+    assertSame(info, m_gpconf.putToProgramCache(prog2));
+    // Exceed the capacity, evicting the least recently used program.
+    // --------------------------------------------------------------
+    m_gpconf.putToProgramCache(createProgram(2));
+    m_gpconf.putToProgramCache(createProgram(3));
+    assertNull(m_gpconf.readProgramCache(prog1));
+    assertNotNull(m_gpconf.readProgramCache(createProgram(3)));
+  }
+
+  private GPProgram createProgram(int a_value)
+      throws Exception {
+    GPProgram prog = new GPProgram(m_gpconf, 1);
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf, 3, prog);
+    pc.setGene(0, new Add(m_gpconf, CommandGene.IntegerClass));
+    pc.setGene(1, new Variable(m_gpconf, "X", CommandGene.IntegerClass));
+    pc.setGene(2, new Constant(m_gpconf, CommandGene.IntegerClass,
+                               new Integer(a_value)));
+    pc.redepth();
+    prog.setChromosome(0, pc);
+    return prog;
+  }
 }
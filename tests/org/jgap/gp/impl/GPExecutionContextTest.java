@@ -0,0 +1,262 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.gp.impl;
+
+import org.jgap.gp.*;
+import org.jgap.gp.function.*;
+import org.jgap.gp.terminal.*;
+import junit.framework.*;
+
+/**
+ * Tests the GPExecutionContext class.
+ *
+ * @since 3.7
+ */
+public class GPExecutionContextTest
+    extends GPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(GPExecutionContextTest.class);
+    return suite;
+  }
+
+  /**
+   * Contexts can be nested, exit restores the previous one.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testEnter_0()
+      throws Exception {
+    GPExecutionContext outer = new GPExecutionContext(m_gpconf);
+    GPExecutionContext inner = new GPExecutionContext(m_gpconf);
+    assertNull(GPExecutionContext.getCurrent());
+    outer.enter();
+    assertSame(outer, GPExecutionContext.getCurrent());
+    assertSame(m_gpconf, GPGenotype.getStaticGPConfiguration());
+    try {
+      outer.enter();
+      fail();
+    } catch (IllegalStateException iex) {
+      ; //this is OK
+    }
+    inner.enter();
+    assertSame(inner, GPExecutionContext.getCurrent());
+    try {
+      outer.exit();
+      fail();
+    } catch (IllegalStateException iex) {
+      ; //this is OK
+    }
+    inner.exit();
+    assertSame(outer, GPExecutionContext.getCurrent());
+    outer.exit();
+    assertNull(GPExecutionContext.getCurrent());
+  }
+
+  /**
+   * Variable values, stack and memory are bound to the context.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testBinding_0()
+      throws Exception {
+    Variable x = Variable.create(m_gpconf, "X", CommandGene.DoubleClass);
+    x.set(new Double(1.0d));
+    m_gpconf.storeInMemory("m", "outside");
+    GPExecutionContext context = new GPExecutionContext(m_gpconf);
+    context.enter();
+    try {
+      assertEquals(1.0d, ( (Double) x.getValue()).doubleValue(), DELTA);
+      x.set(new Double(2.0d));
+      assertEquals(2.0d, ( (Double) x.getValue()).doubleValue(), DELTA);
+      assertSame(x, Variable.getVariable("X"));
+      assertNull(m_gpconf.readFromMemoryIfExists("m"));
+      m_gpconf.storeInMemory("m", "inside");
+      m_gpconf.pushToStack("s");
+      assertEquals(1, m_gpconf.stackSize());
+    } finally {
+      context.exit();
+    }
+    assertEquals(1.0d, ( (Double) x.getValue()).doubleValue(), DELTA);
+    assertEquals("outside", m_gpconf.readFromMemory("m"));
+    assertEquals(0, m_gpconf.stackSize());
+    assertTrue(context.isBound(x));
+    context.reset();
+    assertFalse(context.isBound(x));
+  }
+
+  /**
+   * Values bound via the context directly and null values are seen by the
+   * variable, which keeps its own value outside of the context.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testBinding_1()
+      throws Exception {
+    Variable x = Variable.create(m_gpconf, "X", CommandGene.DoubleClass);
+    x.set(new Double(1.0d));
+    GPExecutionContext context = new GPExecutionContext(m_gpconf);
+    context.enter();
+    try {
+      assertEquals(1.0d, ( (Double) x.getValue()).doubleValue(), DELTA);
+      context.setValue(x, new Double(3.0d));
+      assertEquals(3.0d, ( (Double) x.getValue()).doubleValue(), DELTA);
+      x.set(null);
+      assertNull(x.getValue());
+    } finally {
+      context.exit();
+    }
+    assertEquals(1.0d, ( (Double) x.getValue()).doubleValue(), DELTA);
+  }
+
+  /**
+   * The same program can be evaluated concurrently with different variable
+   * values.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testConcurrentExecution_0()
+      throws Exception {
+    final Variable x = Variable.create(m_gpconf, "X", CommandGene.DoubleClass);
+    final GPProgram prog = new GPProgram(m_gpconf, 1);
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf, 5, prog);
+    pc.setGene(0, new Multiply(m_gpconf, CommandGene.DoubleClass));
+    pc.setGene(1, x);
+    pc.setGene(2, x);
+    pc.redepth();
+    prog.setChromosome(0, pc);
+    final boolean[] ok = new boolean[4];
+    Thread[] threads = new Thread[ok.length];
+    for (int t = 0; t < threads.length; t++) {
+      final int index = t;
+      threads[t] = new Thread() {
+        public void run() {
+          GPExecutionContext context = new GPExecutionContext(m_gpconf);
+          boolean result = true;
+          context.enter();
+          try {
+            for (int i = 0; i < 2000; i++) {
+              double value = index * 10000 + i;
+              x.set(new Double(value));
+              if (prog.execute_double(0, new Object[0]) != value * value) {
+                result = false;
+              }
+            }
+          } finally {
+            context.exit();
+          }
+          ok[index] = result;
+        }
+      };
+      threads[t].start();
+    }
+    for (int t = 0; t < threads.length; t++) {
+      threads[t].join();
+      assertTrue(ok[t]);
+    }
+  }
+
+  /**
+   * The same chromosome can be evaluated concurrently in batches interpreted
+   * row by row: the current row is held by the context, not the chromosome.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testConcurrentExecution_1()
+      throws Exception {
+    Variable x = new Variable(m_gpconf, "X", CommandGene.DoubleClass);
+    x.setColumn(0);
+    final ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    pc.setGene(0, new ProgramChromosomeTest.Twice(m_gpconf));
+    pc.setGene(1, x);
+    pc.redepth();
+    final boolean[] ok = new boolean[4];
+    Thread[] threads = new Thread[ok.length];
+    for (int t = 0; t < threads.length; t++) {
+      final int index = t;
+      threads[t] = new Thread() {
+        public void run() {
+          GPExecutionContext context = new GPExecutionContext(m_gpconf);
+          double[][] columns = new double[1][100];
+          double[] out = new double[100];
+          for (int i = 0; i < columns[0].length; i++) {
+            columns[0][i] = index * 1000 + i;
+          }
+          boolean result = true;
+          context.enter();
+          try {
+            for (int i = 0; i < 200; i++) {
+              pc.execute_double_batch(columns, out);
+              for (int j = 0; j < out.length; j++) {
+                if (out[j] != 2 * columns[0][j]) {
+                  result = false;
+                }
+              }
+            }
+          } finally {
+            context.exit();
+          }
+          ok[index] = result;
+        }
+      };
+      threads[t].start();
+    }
+    for (int t = 0; t < threads.length; t++) {
+      threads[t].join();
+      assertTrue(ok[t]);
+    }
+  }
+
+  /**
+   * The current row is held by the entered context, or outside of any
+   * context by one kept per thread. It is reset after row interpretation.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testRowContext_0()
+      throws Exception {
+    Variable x = new Variable(m_gpconf, "X", CommandGene.DoubleClass);
+    x.setColumn(0);
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    pc.setGene(0, new ProgramChromosomeTest.Twice(m_gpconf));
+    pc.setGene(1, x);
+    pc.redepth();
+    double[][] columns = new double[][] { {1.0d, 3.0d}
+    };
+    double[] out = new double[2];
+    pc.execute_double_batch(columns, out);
+    assertEquals(6.0d, out[1], DELTA);
+    GPExecutionContext rows = GPExecutionContext.getRowContext();
+    assertNotNull(rows);
+    assertNull(rows.getRowColumns());
+    GPExecutionContext context = new GPExecutionContext(m_gpconf);
+    context.enter();
+    try {
+      assertSame(context, GPExecutionContext.getRowContext());
+      pc.execute_double_batch(columns, out);
+      assertEquals(2.0d, out[0], DELTA);
+      assertNull(context.getRowColumns());
+    } finally {
+      context.exit();
+    }
+    assertSame(rows, GPExecutionContext.getRowContext());
+  }
+}
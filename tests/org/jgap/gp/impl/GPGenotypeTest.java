@@ -317,6 +317,95 @@ public class GPGenotypeTest
     gen.outputSolution(null);
   }
 
+  /**
+   * Parallel evolution is reproducible for a given seed and number of threads,
+   * also if the breeding threads are shut down in between.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testEvolveParallel_0()
+      throws Exception {
+    String[] run1 = evolveParallel("_p1");
+    String[] run2 = evolveParallel("_p2");
+    assertEquals(30, run1.length);
+    for (int i = 0; i < run1.length; i++) {
+      assertNotNull(run1[i]);
+      assertEquals(run1[i], run2[i]);
+    }
+  }
+
+  /**
+   * Parallel evolution is reproducible also when crossover mutates terminals:
+   * the mutation must not change the programs of the previous population,
+   * which other breeding threads read at the same time.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testEvolveParallel_1()
+      throws Exception {
+    String[] run1 = evolveParallel("_m1", 300, 8, 0.9f, 15);
+    String[] run2 = evolveParallel("_m2", 300, 8, 0.9f, 15);
+    assertEquals(300, run1.length);
+    for (int i = 0; i < run1.length; i++) {
+      assertNotNull(run1[i]);
+      assertEquals(run1[i], run2[i]);
+    }
+  }
+
+  private String[] evolveParallel(String a_id)
+      throws Exception {
+    return evolveParallel(a_id, 30, 3, 0.1f, 2);
+  }
+
+  private String[] evolveParallel(String a_id, int a_popSize, int a_threads,
+                                  float a_mutationProb, int a_generations)
+      throws Exception {
+    GPConfiguration conf = new GPConfiguration(m_gpconf.getId() + a_id,
+                                               "noname");
+    StockRandomGenerator random = new StockRandomGenerator();
+    random.setSeed(4711);
+    conf.setRandomGenerator(random);
+    conf.setPopulationSize(a_popSize);
+    conf.setGPFitnessEvaluator(new DeltaGPFitnessEvaluator());
+    conf.setFitnessFunction(new TargetValue());
+    conf.setBreedingThreads(a_threads);
+    conf.setMutationProb(a_mutationProb);
+    Class[] types = {
+        CommandGene.DoubleClass};
+    Class[][] argTypes = { {}
+    };
+    CommandGene[][] nodeSets = { {
+        new Add(conf, CommandGene.DoubleClass),
+        new Multiply(conf, CommandGene.DoubleClass),
+        new Terminal(conf, CommandGene.DoubleClass, 1.0d, 10.0d),
+    }
+    };
+    GPGenotype gen = GPGenotype.randomInitialGenotype(conf, types, argTypes,
+        nodeSets, 20, false);
+    gen.evolve(a_generations);
+    gen.shutdown();
+    gen.evolve(1);
+    gen.shutdown();
+    GPPopulation pop = gen.getGPPopulation();
+    String[] result = new String[pop.size()];
+    for (int i = 0; i < result.length; i++) {
+      IGPProgram prog = pop.getGPProgram(i);
+      result[i] = prog.toStringNorm(0) + " / " + prog.getFitnessValue();
+    }
+    return result;
+  }
+
+  class TargetValue
+      extends GPFitnessFunction {
+    protected double evaluate(IGPProgram a_subject) {
+      return Math.abs(a_subject.execute_double(0, new Object[0]) - 42.0d);
+    }
+  }
+
   class TerminalsOnly
       extends GPFitnessFunction {
     protected double evaluate(IGPProgram a_subject) {
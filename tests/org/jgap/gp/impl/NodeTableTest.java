@@ -0,0 +1,87 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.gp.impl;
+
+import org.jgap.gp.*;
+import org.jgap.gp.function.*;
+import org.jgap.gp.terminal.*;
+import junit.framework.*;
+
+/**
+ * Tests the NodeTable class.
+ *
+ * @since 3.7
+ */
+public class NodeTableTest
+    extends GPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(NodeTableTest.class);
+    return suite;
+  }
+
+  /**
+   * Nodes are split by type and arity, keeping the order of the function set.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testGetBucket_0()
+      throws Exception {
+    CommandGene add = new Add(m_gpconf, CommandGene.DoubleClass);
+    CommandGene term = new Terminal(m_gpconf, CommandGene.DoubleClass);
+    CommandGene mult = new Multiply(m_gpconf, CommandGene.DoubleClass);
+    CommandGene intTerm = new Terminal(m_gpconf, CommandGene.IntegerClass);
+    CommandGene cons = new Constant(m_gpconf, CommandGene.DoubleClass,
+                                    new Double(1));
+    NodeTable table = new NodeTable(new CommandGene[] {add, term, mult,
+                                    intTerm, cons});
+    NodeTable.Bucket bucket = table.getBucket(CommandGene.DoubleClass, 0);
+    assertFalse(bucket.m_dynamic);
+    assertEquals(4, bucket.m_all.length);
+    assertSame(add, bucket.m_all[0]);
+    assertSame(term, bucket.m_all[1]);
+    assertSame(mult, bucket.m_all[2]);
+    assertSame(cons, bucket.m_all[3]);
+    CommandGene[] terminals = bucket.getCandidates(false, false);
+    assertEquals(2, terminals.length);
+    assertSame(term, terminals[0]);
+    assertSame(cons, terminals[1]);
+    CommandGene[] functions = bucket.getCandidates(true, false);
+    assertEquals(2, functions.length);
+    assertSame(add, functions[0]);
+    assertSame(mult, functions[1]);
+    assertSame(bucket.m_all, bucket.getCandidates(true, true));
+    assertSame(bucket, table.getBucket(CommandGene.DoubleClass, 0));
+    assertEquals(1, table.getBucket(CommandGene.IntegerClass, 0).m_all.length);
+    assertEquals(0, table.getBucket(CommandGene.BooleanClass, 0).m_all.length);
+  }
+
+  /**
+   * Function sets with the same nodes share one table.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testGetNodeTable_0()
+      throws Exception {
+    CommandGene add = new Add(m_gpconf, CommandGene.DoubleClass);
+    CommandGene term = new Terminal(m_gpconf, CommandGene.DoubleClass);
+    CommandGene[] set1 = new CommandGene[] {add, term};
+    CommandGene[] set2 = new CommandGene[] {add, term};
+    NodeTable table = m_gpconf.getNodeTable(set1);
+    assertSame(table, m_gpconf.getNodeTable(set2));
+    set1[1] = add;
+    assertSame(table, m_gpconf.getNodeTable(set2));
+    assertNotSame(table, m_gpconf.getNodeTable(set1));
+    assertNotSame(table, m_gpconf.getNodeTable(new CommandGene[] {term, add}));
+  }
+}
@@ -9,6 +9,7 @@
  */
 package org.jgap.gp.impl;
 
+import org.jgap.*;
 import org.jgap.gp.*;
 import org.jgap.gp.function.*;
 import org.jgap.gp.terminal.*;
@@ -740,4 +741,317 @@ public class ProgramChromosomeTest
     ProgramChromosome pc2 = (ProgramChromosome) doSerialize(pc);
     assertEquals(pc, pc2);
   }
+
+  /**
+   * The child index table yields the same children as the scan over depths.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testGetChild_0()
+      throws Exception {
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    pc.setGene(0, new Add(m_gpconf, CommandGene.DoubleClass));
+    pc.setGene(1, new Multiply(m_gpconf, CommandGene.DoubleClass));
+    pc.setGene(2, new Variable(m_gpconf, "X", CommandGene.DoubleClass));
+    pc.setGene(3, new Constant(m_gpconf, CommandGene.DoubleClass,
+                               new Double(2.0d)));
+    pc.setGene(4, new Sine(m_gpconf, CommandGene.DoubleClass));
+    pc.setGene(5, new Variable(m_gpconf, "Y", CommandGene.DoubleClass));
+    pc.redepth();
+    assertEquals(1, pc.getChild(0, 0));
+    assertEquals(4, pc.getChild(0, 1));
+    assertEquals(2, pc.getChild(1, 0));
+    assertEquals(3, pc.getChild(1, 1));
+    assertEquals(5, pc.getChild(4, 0));
+    assertEquals( -1, pc.getChild(1, 2));
+    assertEquals( -1, pc.getChild(2, 0));
+  }
+
+  /**
+   * The compiled program returns the same as the interpreted one, also with
+   * nodes that are not compileable. Changing a gene invalidates the compiled
+   * program.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testExecuteDoubleCompiled_0()
+      throws Exception {
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    Variable x = new Variable(m_gpconf, "X", CommandGene.DoubleClass);
+    Variable y = new Variable(m_gpconf, "Y", CommandGene.DoubleClass);
+    pc.setGene(0, new Add(m_gpconf, CommandGene.DoubleClass));
+    pc.setGene(1, new Divide(m_gpconf, CommandGene.DoubleClass));
+    pc.setGene(2, new Exp(m_gpconf, CommandGene.DoubleClass));
+    pc.setGene(3, x);
+    pc.setGene(4, new Constant(m_gpconf, CommandGene.DoubleClass,
+                               new Double(3.0d)));
+    // Not compileable as only execute_double is overridden.
+    // -----------------------------------------------------
+    pc.setGene(5, new Subtract(m_gpconf, CommandGene.DoubleClass) {
+      public double execute_double(ProgramChromosome c, int n, Object[] args) {
+        return 2 * super.execute_double(c, n, args);
+      }
+    });
+    pc.setGene(6, new Cosine(m_gpconf, CommandGene.DoubleClass));
+    pc.setGene(7, y);
+    pc.setGene(8, x);
+    pc.redepth();
+    for (int i = 0; i < 5; i++) {
+      x.set(new Double(i * 0.7d));
+      y.set(new Double(5 - i));
+      double expected = Math.exp(i * 0.7d) / 3.0d
+          + 2 * (Math.cos(5 - i) - i * 0.7d);
+      assertEquals(expected, pc.execute_double(new Object[0]), DELTA);
+      assertEquals(expected, pc.execute_double_compiled(new Object[0]), DELTA);
+    }
+    assertSame(pc.getCompiledDouble(), pc.getCompiledDouble());
+    pc.setGene(0, new Multiply(m_gpconf, CommandGene.DoubleClass));
+    x.set(new Double(1.0d));
+    y.set(new Double(0.0d));
+    assertEquals(Math.E / 3.0d * 2 * (1.0d - 1.0d),
+                 pc.execute_double_compiled(new Object[0]), DELTA);
+    assertEquals(pc.execute_double(new Object[0]),
+                 pc.execute_double_compiled(new Object[0]), DELTA);
+  }
+
+  /**
+   * Structurally equal chromosomes have the same hash, subtrees are hashed
+   * independently of their position.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testGetStructuralHash_0()
+      throws Exception {
+    ProgramChromosome pc1 = createSum(1.0d, 2.0d);
+    ProgramChromosome pc2 = createSum(1.0d, 2.0d);
+    assertEquals(pc1.getStructuralHash(), pc2.getStructuralHash());
+    assertTrue(pc1.isSameStructure(pc2));
+    assertEquals(pc1.toStringNorm(0), pc2.toStringNorm(0));
+    ProgramChromosome pc3 = createSum(1.0d, 3.0d);
+    assertFalse(pc1.getStructuralHash() == pc3.getStructuralHash());
+    assertFalse(pc1.isSameStructure(pc3));
+    // Subtree "1.0 * X" at index 1 in both.
+    // -------------------------------------
+    assertEquals(pc1.getStructuralHash(1), pc3.getStructuralHash(1));
+    assertFalse(pc1.getStructuralHash(1) == pc1.getStructuralHash(0));
+    // Hash follows modifications.
+    // ---------------------------
+    pc3.setGene(4, new Terminal(m_gpconf, CommandGene.DoubleClass, 2.0d, 2.0d));
+    assertEquals(pc1.getStructuralHash(), pc3.getStructuralHash());
+    assertTrue(pc1.isSameStructure(pc3));
+  }
+
+  /**
+   * Nodes with colliding hash codes lead to the same structural hash, but
+   * isSameStructure still tells the programs apart by their node values.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testIsSameStructure_0()
+      throws Exception {
+    ProgramChromosome pc1 = createCollidingSum(1.0d);
+    ProgramChromosome pc2 = createCollidingSum(2.0d);
+    assertEquals(pc1.getStructuralHash(), pc2.getStructuralHash());
+    assertFalse(pc1.isSameStructure(pc2));
+    assertTrue(pc1.isSameStructure(createCollidingSum(1.0d)));
+  }
+
+  /**
+   * Field based node identity of constants, arguments, ADFs, sub programs and
+   * loops.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testIsSameNode_0()
+      throws Exception {
+    assertSameNode(new Constant(m_gpconf, CommandGene.DoubleClass,
+                                new Double(1.0d)),
+                   new Constant(m_gpconf, CommandGene.DoubleClass,
+                                new Double(1.0d)),
+                   new Constant(m_gpconf, CommandGene.DoubleClass,
+                                new Double(2.0d)));
+    assertSameNode(new Argument(m_gpconf, 0, CommandGene.DoubleClass),
+                   new Argument(m_gpconf, 0, CommandGene.DoubleClass),
+                   new Argument(m_gpconf, 1, CommandGene.DoubleClass));
+    assertSameNode(new ADF(m_gpconf, 1, 2), new ADF(m_gpconf, 1, 2),
+                   new ADF(m_gpconf, 0, 2));
+    Class[] types = new Class[] {CommandGene.VoidClass,
+        CommandGene.DoubleClass};
+    SubProgram sub = new SubProgram(m_gpconf, types);
+    assertSameNode(sub, (SubProgram) sub.clone(),
+                   new SubProgram(m_gpconf, new Class[] {CommandGene.VoidClass,
+                                  CommandGene.VoidClass,
+                                  CommandGene.DoubleClass}));
+    assertSameNode(new ForLoop(m_gpconf, CommandGene.IntegerClass, 0, 10),
+                   new ForLoop(m_gpconf, CommandGene.IntegerClass, 0, 10),
+                   new ForLoop(m_gpconf, CommandGene.IntegerClass, 0, 20));
+  }
+
+  private void assertSameNode(CommandGene a_node, CommandGene a_same,
+                              CommandGene a_other) {
+    assertTrue(a_node.isSameNode(a_same));
+    assertEquals(a_node.nodeHashCode(), a_same.nodeHashCode());
+    assertFalse(a_node.isSameNode(a_other));
+    assertFalse(a_other.isSameNode(a_node));
+  }
+
+  private ProgramChromosome createCollidingSum(double a_value)
+      throws Exception {
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    pc.setGene(0, new Add(m_gpconf, CommandGene.DoubleClass));
+    pc.setGene(1, new CollidingConstant(m_gpconf, a_value));
+    pc.setGene(2, new CollidingConstant(m_gpconf, 3.0d));
+    pc.redepth();
+    return pc;
+  }
+
+  private ProgramChromosome createSum(double a_value1, double a_value2)
+      throws Exception {
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    Variable x = Variable.create(m_gpconf, "X", CommandGene.DoubleClass);
+    pc.setGene(0, new Add(m_gpconf, CommandGene.DoubleClass));
+    pc.setGene(1, new Multiply(m_gpconf, CommandGene.DoubleClass));
+    pc.setGene(2, new Terminal(m_gpconf, CommandGene.DoubleClass, a_value1,
+                               a_value1));
+    pc.setGene(3, x);
+    pc.setGene(4, new Terminal(m_gpconf, CommandGene.DoubleClass, a_value2,
+                               a_value2));
+    pc.redepth();
+    return pc;
+  }
+
+  /**
+   * Batch evaluation returns the same as row-wise interpretation, also with
+   * nodes that only support row-wise interpretation and with a variable not
+   * bound to a column.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testExecuteDoubleBatch_0()
+      throws Exception {
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    Variable x = new Variable(m_gpconf, "X", CommandGene.DoubleClass);
+    Variable y = new Variable(m_gpconf, "Y", CommandGene.DoubleClass);
+    Variable z = new Variable(m_gpconf, "Z", CommandGene.DoubleClass);
+    x.setColumn(1);
+    y.setColumn(0);
+    z.set(new Double(0.5d));
+    pc.setGene(0, new Add3(m_gpconf, CommandGene.DoubleClass));
+    pc.setGene(1, new Pow(m_gpconf, CommandGene.DoubleClass));
+    pc.setGene(2, x);
+    pc.setGene(3, new Constant(m_gpconf, CommandGene.DoubleClass,
+                               new Double(2.0d)));
+    // Only supports row-wise interpretation as only execute_double is
+    // overridden.
+    // ---------------------------------------------------------------
+    pc.setGene(4, new Multiply(m_gpconf, CommandGene.DoubleClass) {
+      public double execute_double(ProgramChromosome c, int n, Object[] args) {
+        return -super.execute_double(c, n, args);
+      }
+    });
+    pc.setGene(5, y);
+    pc.setGene(6, new Log(m_gpconf, CommandGene.DoubleClass));
+    pc.setGene(7, x);
+    pc.setGene(8, z);
+    pc.redepth();
+    double[][] columns = new double[][] { {1.0d, 2.0d, 3.0d, 4.0d},
+        {0.5d, 1.5d, 2.5d, 3.5d}
+    };
+    double[] out = new double[4];
+    x.set(new Double(7.0d));
+    pc.execute_double_batch(columns, out);
+    // Row-wise interpretation does not change the values of the variables.
+    // --------------------------------------------------------------------
+    assertEquals(new Double(7.0d), x.getValue());
+    assertNull(y.getValue());
+    for (int i = 0; i < out.length; i++) {
+      double xv = columns[1][i];
+      double yv = columns[0][i];
+      assertEquals(xv * xv - yv * Math.log(xv) + 0.5d, out[i], DELTA);
+      x.set(new Double(xv));
+      y.set(new Double(yv));
+      assertEquals(pc.execute_double(new Object[0]), out[i], DELTA);
+    }
+  }
+
+  /**
+   * The default of compute_double_batch interprets the subtree row by row.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testExecuteDoubleBatch_1()
+      throws Exception {
+    ProgramChromosome pc = new ProgramChromosome(m_gpconf);
+    Variable x = new Variable(m_gpconf, "X", CommandGene.DoubleClass);
+    x.setColumn(0);
+    pc.setGene(0, new Twice(m_gpconf));
+    pc.setGene(1, new Subtract(m_gpconf, CommandGene.DoubleClass));
+    pc.setGene(2, x);
+    pc.setGene(3, new Constant(m_gpconf, CommandGene.DoubleClass,
+                               new Double(1.0d)));
+    pc.redepth();
+    double[][] columns = new double[][] { {1.0d, 2.0d, 4.0d}
+    };
+    double[] out = new double[3];
+    pc.execute_double_batch(columns, out);
+    assertEquals(0.0d, out[0], DELTA);
+    assertEquals(2.0d, out[1], DELTA);
+    assertEquals(6.0d, out[2], DELTA);
+  }
+
+  /**
+   * Constant whose node hash code is the same for all values.
+   */
+  public static class CollidingConstant
+      extends Constant {
+    public CollidingConstant(GPConfiguration a_conf, double a_value)
+        throws InvalidConfigurationException {
+      super(a_conf, CommandGene.DoubleClass, new Double(a_value));
+    }
+
+    public int nodeHashCode() {
+      return 0;
+    }
+  }
+
+  /**
+   * Doubles its child, batch evaluation via the default of
+   * compute_double_batch.
+   */
+  public static class Twice
+      extends MathCommand {
+    public Twice(GPConfiguration a_conf)
+        throws InvalidConfigurationException {
+      super(a_conf, 1, CommandGene.DoubleClass);
+    }
+
+    public String toString() {
+      return "twice &1";
+    }
+
+    public double execute_double(ProgramChromosome c, int n, Object[] args) {
+      return 2 * c.execute_double(n, 0, args);
+    }
+
+    protected void compute_double_batch(ProgramChromosome c, int n,
+                                        double[][] a_columns,
+                                        double[][] a_children,
+                                        double[] a_out) {
+      super.compute_double_batch(c, n, a_columns, a_children, a_out);
+    }
+  }
 }
@@ -43,6 +43,7 @@ public class AllImplTests
     suite.addTest(DefaultInitializerTest.suite());
     suite.addTest(DefaultMutationRateCalculatorTest.suite());
     suite.addTest(DoubleGeneTest.suite());
+    suite.addTest(DuplicateFilterTest.suite());
     suite.addTest(FixedBinaryGeneTest.suite());
     suite.addTest(FittestPopulationMergerTest.suite());
     suite.addTest(GaussianMutationOperatorTest.suite());
@@ -55,15 +56,21 @@ public class AllImplTests
     suite.addTest(MutationOperatorTest.suite());
     suite.addTest(SwappingMutationOperatorTest.suite());
     suite.addTest(NumberGeneTest.suite());
+    suite.addTest(ParallelPopulationEvaluatorTest.suite());
+    suite.addTest(ArrayChromosomeTest.suite());
+    suite.addTest(PCGRandomGeneratorTest.suite());
     suite.addTest(PoolTest.suite());
     suite.addTest(SeededRandomGeneratorTest.suite());
     suite.addTest(SetGeneTest.suite());
+    suite.addTest(SplitMix64RandomGeneratorTest.suite());
     suite.addTest(StockRandomGeneratorTest.suite());
     suite.addTest(StringGeneTest.suite());
+    suite.addTest(ThreadLocalRandomGeneratorTest.suite());
     suite.addTest(ThresholdSelectorTest.suite());
     suite.addTest(TournamentSelectorTest.suite());
     suite.addTest(TwoWayMutationOperatorTest.suite());
     suite.addTest(WeightedRouletteSelectorTest.suite());
+    suite.addTest(XoshiroRandomGeneratorTest.suite());
 
     suite.addTest(AllFitnessTests.suite());
 
@@ -0,0 +1,285 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+
+import org.jgap.*;
+import junit.framework.*;
+
+/**
+ * Tests the ArrayChromosome implementations and the corresponding genetic
+ * operators.
+ *
+ * @since 3.7
+ */
+public class ArrayChromosomeTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(ArrayChromosomeTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testConstruct_0()
+      throws Exception {
+    try {
+      new IntArrayChromosome(conf, 0, 0, 10);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+    try {
+      new DoubleArrayChromosome(conf, 3, 2.0d, 1.0d);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * Clones are equal but independent of the original.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testClone_0()
+      throws Exception {
+    IntArrayChromosome chrom = new IntArrayChromosome(conf,
+        new int[] {1, 2, 3}, 0, 10);
+    chrom.setFitnessValueDirectly(5.0d);
+    IntArrayChromosome clone = (IntArrayChromosome) chrom.clone();
+    assertEquals(chrom, clone);
+    assertEquals(chrom.hashCode(), clone.hashCode());
+    assertEquals(5.0d, clone.getFitnessValueDirectly(), DELTA);
+    clone.setInt(1, 7);
+    assertEquals(2, chrom.getInt(1));
+    assertFalse(chrom.equals(clone));
+  }
+
+  /**
+   * Gene views reflect the alleles and write through.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testGetGenes_0()
+      throws Exception {
+    IntArrayChromosome chrom = new IntArrayChromosome(conf,
+        new int[] {1, 2, 3}, 0, 10);
+    Gene[] genes = chrom.getGenes();
+    assertEquals(3, genes.length);
+    assertSame(genes, chrom.getGenes());
+    assertEquals(new Integer(2), genes[1].getAllele());
+    genes[1].setAllele(new Integer(9));
+    assertEquals(9, chrom.getInt(1));
+    chrom.setInt(2, 4);
+    assertEquals(new Integer(4), genes[2].getAllele());
+    // Out of bounds values are mapped into the bounds.
+    chrom.setInt(0, 11);
+    assertTrue(chrom.getInt(0) >= 0 && chrom.getInt(0) <= 10);
+  }
+
+  /**
+   * Fingerprinting reads the alleles without attaching genes and matches the
+   * fingerprint of a Chromosome with equal alleles.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testFingerprint_0()
+      throws Exception {
+    IntArrayChromosome chrom = new IntArrayChromosome(conf,
+        new int[] {1, 2, 3}, 0, 10);
+    Gene[] genes = new Gene[3];
+    for (int i = 0; i < genes.length; i++) {
+      genes[i] = new IntegerGene(conf, 0, 10);
+      genes[i].setAllele(new Integer(i + 1));
+    }
+    long expected = DuplicateFilter.fingerprint(new Chromosome(conf, genes));
+    assertEquals(expected, DuplicateFilter.fingerprint(chrom));
+    assertNull(chrom.getAttachedGenes());
+    DoubleArrayChromosome d = new DoubleArrayChromosome(conf,
+        new double[] {0.5d, 1.5d}, 0, 2);
+    Gene[] dgenes = new Gene[] {new DoubleGene(conf, 0, 2),
+        new DoubleGene(conf, 0, 2)};
+    dgenes[0].setAllele(new Double(0.5d));
+    dgenes[1].setAllele(new Double(1.5d));
+    assertEquals(DuplicateFilter.fingerprint(new Chromosome(conf, dgenes)),
+                 DuplicateFilter.fingerprint(d));
+    BitArrayChromosome b = new BitArrayChromosome(conf, 2);
+    b.setBit(1, true);
+    Gene[] bgenes = new Gene[] {new BooleanGene(conf, false),
+        new BooleanGene(conf, true)};
+    assertEquals(DuplicateFilter.fingerprint(new Chromosome(conf, bgenes)),
+                 DuplicateFilter.fingerprint(b));
+    // Changes made to attached genes are considered.
+    // ----------------------------------------------
+    chrom.getGene(0).setAllele(new Integer(5));
+    genes[0].setAllele(new Integer(5));
+    assertEquals(DuplicateFilter.fingerprint(new Chromosome(conf, genes)),
+                 DuplicateFilter.fingerprint(chrom));
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testBits_0()
+      throws Exception {
+    BitArrayChromosome chrom = new BitArrayChromosome(conf, 130);
+    chrom.setBit(0, true);
+    chrom.setBit(64, true);
+    chrom.setBit(129, true);
+    assertEquals(3, chrom.cardinality());
+    assertTrue(chrom.getBit(64));
+    assertFalse(chrom.getBit(65));
+    assertEquals(Boolean.TRUE, chrom.getGene(129).getAllele());
+    chrom.getGene(1).setAllele(Boolean.TRUE);
+    assertTrue(chrom.getBit(1));
+    chrom.applyMutation(1, -0.5d);
+    assertFalse(chrom.getBit(1));
+  }
+
+  /**
+   * Crossover swaps the tails, also across word boundaries of bit arrays.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testCrossover_0()
+      throws Exception {
+    BitArrayChromosome chrom1 = new BitArrayChromosome(conf, 100);
+    BitArrayChromosome chrom2 = new BitArrayChromosome(conf, 100);
+    chrom1.setToRandomValues(new StockRandomGenerator());
+    boolean[] before = new boolean[100];
+    for (int i = 0; i < 100; i++) {
+      before[i] = chrom1.getBit(i);
+    }
+    chrom1.crossover(chrom2, 40);
+    for (int i = 0; i < 100; i++) {
+      if (i < 40) {
+        assertEquals(before[i], chrom1.getBit(i));
+        assertFalse(chrom2.getBit(i));
+      }
+      else {
+        assertFalse(chrom1.getBit(i));
+        assertEquals(before[i], chrom2.getBit(i));
+      }
+    }
+    DoubleArrayChromosome d1 = new DoubleArrayChromosome(conf,
+        new double[] {1, 2, 3}, 0, 10);
+    DoubleArrayChromosome d2 = new DoubleArrayChromosome(conf,
+        new double[] {4, 5, 6}, 0, 10);
+    d1.crossover(d2, 1);
+    assertEquals(1.0d, d1.getDouble(0), DELTA);
+    assertEquals(5.0d, d1.getDouble(1), DELTA);
+    assertEquals(2.0d, d2.getDouble(1), DELTA);
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testPersistentRepresentation_0()
+      throws Exception {
+    DoubleArrayChromosome chrom = new DoubleArrayChromosome(conf,
+        new double[] {1.5d, 2.25d}, 0, 10);
+    chrom.setFitnessValueDirectly(3.0d);
+    String repr = chrom.getPersistentRepresentation();
+    DoubleArrayChromosome chrom2 = new DoubleArrayChromosome(conf, 1, 0, 10);
+    chrom2.setValueFromPersistentRepresentation(repr);
+    assertEquals(chrom, chrom2);
+    assertEquals(3.0d, chrom2.getFitnessValueDirectly(), DELTA);
+    try {
+      chrom2.setValueFromPersistentRepresentation("1.0" + BaseChromosome.
+          CHROM_DELIMITER + "3" + BaseChromosome.CHROM_DELIMITER + "1:2");
+      fail();
+    } catch (UnsupportedRepresentationException uex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * The mutation operator clones mutated chromosomes and leaves the originals
+   * untouched.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testOperate_0()
+      throws Exception {
+    conf.setSampleChromosome(new IntArrayChromosome(conf, 5, 0, 100));
+    conf.setPopulationSize(10);
+    Population pop = new Population(conf);
+    for (int i = 0; i < 10; i++) {
+      pop.addChromosome(new IntArrayChromosome(conf, 5, 0, 100));
+    }
+    List candidates = new Vector();
+    new ArrayMutationOperator(conf, 1).operate(pop, candidates);
+    assertEquals(10, candidates.size());
+    for (int i = 0; i < 10; i++) {
+      IntArrayChromosome orig = (IntArrayChromosome) pop.getChromosome(i);
+      assertEquals(0, orig.getInt(0));
+      assertNotSame(orig, candidates.get(i));
+    }
+    candidates.clear();
+    new ArrayCrossoverOperator(conf, 1).operate(pop, candidates);
+    assertEquals(0, candidates.size());
+  }
+
+  /**
+   * Evolution with array chromosomes and array operators works.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testEvolve_0()
+      throws Exception {
+    conf.getGeneticOperators().clear();
+    conf.addGeneticOperator(new ArrayCrossoverOperator(conf, 0.35d));
+    conf.addGeneticOperator(new ArrayMutationOperator(conf, 12));
+    conf.setFitnessFunction(new FitnessFunction() {
+      protected double evaluate(IChromosome a_subject) {
+        IntArrayChromosome chrom = (IntArrayChromosome) a_subject;
+        double sum = 0;
+        for (int i = 0; i < chrom.size(); i++) {
+          sum += chrom.getInt(i);
+        }
+        return sum;
+      }
+    });
+    conf.setSampleChromosome(new IntArrayChromosome(conf, 10, 0, 50));
+    conf.setPopulationSize(30);
+    Genotype genotype = Genotype.randomInitialGenotype(conf);
+    double initial = genotype.getFittestChromosome().getFitnessValue();
+    genotype.evolve(20);
+    IChromosome best = genotype.getFittestChromosome();
+    assertTrue(best instanceof IntArrayChromosome);
+    assertTrue(best.getFitnessValue() >= initial);
+  }
+}
@@ -466,6 +466,60 @@ public class CrossoverOperatorTest
     assertEquals(8, ( (Integer) target.getGene(0).getAllele()).intValue());
   }
 
+  /**
+   * With copy-on-write, only the genes swapped are copied and the parents
+   * stay untouched.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testOperate_4()
+      throws Exception {
+    DefaultConfiguration conf = new DefaultConfiguration();
+    conf.setCopyOnWriteChromosomes(true);
+    RandomGeneratorForTesting rand = new RandomGeneratorForTesting();
+    rand.setNextIntSequence(new int[] {
+                            0, 1, 2});
+    conf.setRandomGenerator(rand);
+    conf.setFitnessFunction(new TestFitnessFunction());
+    Gene sampleGene = new IntegerGene(conf, 1, 10);
+    conf.setSampleChromosome(new Chromosome(conf, sampleGene, 4));
+    conf.setPopulationSize(2);
+    Chromosome[] population = new Chromosome[2];
+    for (int i = 0; i < population.length; i++) {
+      Gene[] genes = new Gene[4];
+      for (int j = 0; j < genes.length; j++) {
+        genes[j] = new IntegerGene(conf, 1, 10);
+        genes[j].setAllele(new Integer(i * 4 + j + 1));
+      }
+      population[i] = new Chromosome(conf, genes);
+      population[i].increaseAge();
+    }
+    List chroms = new Vector();
+    CrossoverOperator op = new CrossoverOperator(conf, 2);
+    op.operate(new Population(conf, population), chroms);
+    assertEquals(2, chroms.size());
+    Chromosome first = (Chromosome) chroms.get(0);
+    Chromosome second = (Chromosome) chroms.get(1);
+    for (int j = 0; j < 2; j++) {
+      assertSame(population[0].getGene(j), first.getGene(j));
+      assertSame(population[1].getGene(j), second.getGene(j));
+    }
+    int[] expected1 = {1, 2, 7, 8};
+    int[] expected2 = {5, 6, 3, 4};
+    for (int j = 0; j < 4; j++) {
+      assertEquals(expected1[j], ( (Integer) first.getGene(j).getAllele()).
+                   intValue());
+      assertEquals(expected2[j], ( (Integer) second.getGene(j).getAllele()).
+                   intValue());
+      assertEquals(j + 1, ( (Integer) population[0].getGene(j).getAllele()).
+                   intValue());
+      assertEquals(j + 5, ( (Integer) population[1].getGene(j).getAllele()).
+                   intValue());
+    }
+  }
+
   /**
    * Ensures the operator is implementing Serializable.
    * @throws Exception
@@ -0,0 +1,225 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.*;
+
+import org.jgap.*;
+
+import junit.framework.*;
+
+/**
+ * Tests the DuplicateFilter class.
+ *
+ * @since 3.7
+ */
+public class DuplicateFilterTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(DuplicateFilterTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+  }
+
+  /**
+   * @since 3.7
+   */
+  public void testConstruct_0() {
+    try {
+      new DuplicateFilter(0);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+    try {
+      new DuplicateFilter(10, 1.0d);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+    assertFalse(new DuplicateFilter().isBloomFilter());
+    assertTrue(new DuplicateFilter(10, 0.01d).isBloomFilter());
+  }
+
+  /**
+   * Chromosomes with the same alleles have the same fingerprint, regardless
+   * of their fitness value.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testFingerprint_0()
+      throws Exception {
+    Chromosome c1 = new Chromosome(conf, new Gene[] {
+        new IntegerGene(conf, 0, 10), new DoubleGene(conf, 0, 10)});
+    c1.getGene(0).setAllele(new Integer(3));
+    c1.getGene(1).setAllele(new Double(2.5d));
+    Chromosome c2 = (Chromosome) c1.clone();
+    c2.setFitnessValueDirectly(17);
+    assertEquals(DuplicateFilter.fingerprint(c1),
+                 DuplicateFilter.fingerprint(c2));
+    c2.getGene(1).setAllele(new Double(2.6d));
+    assertTrue(DuplicateFilter.fingerprint(c1)
+               != DuplicateFilter.fingerprint(c2));
+    DuplicateFilter filter = new DuplicateFilter();
+    assertTrue(filter.add(c1));
+    assertFalse(filter.add(c1));
+    assertTrue(filter.contains(c1));
+    assertFalse(filter.contains(c2));
+    assertEquals(1, filter.size());
+    filter.clear();
+    assertFalse(filter.contains(c1));
+    assertEquals(0, filter.size());
+  }
+
+  /**
+   * Array, string and composite alleles are fingerprinted by content.
+   * "Aa" and "BB" have the same String.hashCode().
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testFingerprint_1()
+      throws Exception {
+    FixedBinaryGene bits = new FixedBinaryGene(conf, 8);
+    bits.setBit(3, true);
+    Chromosome c1 = new Chromosome(conf, new Gene[] {bits});
+    Chromosome c2 = new Chromosome(conf, new Gene[] {bits.newGene()});
+    c2.getGene(0).setAllele(bits.getAllele());
+    assertEquals(DuplicateFilter.fingerprint(c1),
+                 DuplicateFilter.fingerprint(c2));
+    ( (FixedBinaryGene) c2.getGene(0)).setBit(4, true);
+    assertTrue(DuplicateFilter.fingerprint(c1)
+               != DuplicateFilter.fingerprint(c2));
+    assertEquals("Aa".hashCode(), "BB".hashCode());
+    Chromosome c3 = new Chromosome(conf, new Gene[] {
+        new StringGene(conf, 2, 2, "ABab")});
+    Chromosome c4 = (Chromosome) c3.clone();
+    c3.getGene(0).setAllele("Aa");
+    c4.getGene(0).setAllele("BB");
+    assertTrue(DuplicateFilter.fingerprint(c3)
+               != DuplicateFilter.fingerprint(c4));
+    CompositeGene comp1 = new CompositeGene(conf);
+    comp1.addGene(new StringGene(conf, 2, 2, "ABab"));
+    comp1.addGene(new IntegerGene(conf, 0, 10));
+    CompositeGene comp2 = (CompositeGene) comp1.newGene();
+    Vector alleles = new Vector();
+    alleles.add("Aa");
+    alleles.add(new Integer(5));
+    comp1.setAllele(alleles);
+    alleles.set(0, "BB");
+    comp2.setAllele(alleles);
+    Chromosome c5 = new Chromosome(conf, new Gene[] {comp1});
+    Chromosome c6 = new Chromosome(conf, new Gene[] {comp2});
+    assertTrue(DuplicateFilter.fingerprint(c5)
+               != DuplicateFilter.fingerprint(c6));
+    alleles.set(0, "Aa");
+    comp2.setAllele(alleles);
+    assertEquals(DuplicateFilter.fingerprint(c5),
+                 DuplicateFilter.fingerprint(c6));
+  }
+
+  /**
+   * The least recently seen fingerprint is forgotten first.
+   *
+   * @since 3.7
+   */
+  public void testAdd_0() {
+    DuplicateFilter filter = new DuplicateFilter(3);
+    filter.add(1L);
+    filter.add(2L);
+    filter.add(3L);
+    assertTrue(filter.contains(1L));
+    filter.add(4L);
+    assertTrue(filter.contains(1L));
+    assertFalse(filter.contains(2L));
+    assertTrue(filter.contains(3L));
+    assertTrue(filter.contains(4L));
+    assertEquals(3, filter.size());
+  }
+
+  /**
+   * Compares the LRU mode with a LinkedHashMap in access order.
+   *
+   * @since 3.7
+   */
+  public void testAdd_1() {
+    final int capacity = 50;
+    DuplicateFilter filter = new DuplicateFilter(capacity);
+    Map<Long, Boolean> lru = new LinkedHashMap<Long, Boolean>(16, 0.75f, true) {
+      protected boolean removeEldestEntry(Map.Entry a_eldest) {
+        return size() > capacity;
+      }
+    };
+    Random rand = new Random(4711);
+    for (int i = 0; i < 20000; i++) {
+      // Few distinct values with colliding hash table positions.
+      // --------------------------------------------------------
+      Long value = new Long( (rand.nextInt(120)) << 8);
+      if (rand.nextBoolean()) {
+        assertEquals(!lru.containsKey(value), filter.add(value.longValue()));
+        lru.put(value, Boolean.TRUE);
+      }
+      else {
+        boolean expected = lru.get(value) != null;
+        assertEquals(expected, filter.contains(value.longValue()));
+      }
+      assertEquals(lru.size(), filter.size());
+    }
+  }
+
+  /**
+   * The Bloom filter never forgets the last chromosomes added and rarely
+   * reports false positives.
+   *
+   * @since 3.7
+   */
+  public void testBloom_0() {
+    DuplicateFilter filter = new DuplicateFilter(1000, 0.01d);
+    Random rand = new Random(4712);
+    long[] added = new long[2500];
+    for (int i = 0; i < added.length; i++) {
+      added[i] = rand.nextLong();
+      filter.add(added[i]);
+    }
+    for (int i = added.length - 1000; i < added.length; i++) {
+      assertTrue(filter.contains(added[i]));
+    }
+    int falsePositives = 0;
+    for (int i = 0; i < 10000; i++) {
+      if (filter.contains(rand.nextLong())) {
+        falsePositives++;
+      }
+    }
+    // Two filters, each with a false positive rate of at most 0.01.
+    // -------------------------------------------------------------
+    assertTrue(falsePositives < 400);
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testSerialize_0()
+      throws Exception {
+    DuplicateFilter filter = new DuplicateFilter(10);
+    filter.add(4711L);
+    DuplicateFilter filter2 = (DuplicateFilter) doSerialize(filter);
+    assertTrue(filter2.contains(4711L));
+    assertFalse(filter2.contains(4712L));
+  }
+}
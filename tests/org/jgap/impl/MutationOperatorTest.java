@@ -501,6 +501,101 @@ public class MutationOperatorTest
                  ( (IntegerGene) pop.getChromosome(2).getGene(0)).intValue());
   }
 
+  /**
+   * Geometric sampling with a rate calculator returning 1 mutates every gene.
+   * The calculator must not be asked per gene.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testOperate_9()
+      throws Exception {
+    Configuration conf = new DefaultConfiguration();
+    conf.setPopulationSize(3);
+    IUniversalRateCalculator calc = new DefaultMutationRateCalculator(conf) {
+      public int calculateCurrentRate() {
+        return 1;
+      }
+
+      public boolean toBePermutated(IChromosome a_chrom, int a_geneIndex) {
+        throw new IllegalStateException();
+      }
+    };
+    MutationOperator mutOp = new MutationOperator(conf, calc);
+    mutOp.setGeometricSkip(true);
+    assertTrue(mutOp.isGeometricSkip());
+    Chromosome[] chroms = new Chromosome[3];
+    for (int i = 0; i < chroms.length; i++) {
+      chroms[i] = new Chromosome(conf, new DoubleGene(conf, 0, 1000), 4);
+      for (int j = 0; j < 4; j++) {
+        chroms[i].getGene(j).setAllele(new Double(500));
+      }
+    }
+    Population pop = new Population(conf, chroms);
+    List candidates = new Vector();
+    mutOp.operate(pop, candidates);
+    assertEquals(3, candidates.size());
+    for (int i = 0; i < candidates.size(); i++) {
+      IChromosome chrom = (IChromosome) candidates.get(i);
+      for (int j = 0; j < 4; j++) {
+        assertEquals(500, ( (DoubleGene) chroms[i].getGene(j)).doubleValue(),
+                     DELTA);
+        assertTrue(Math.abs(500 - ( (DoubleGene) chrom.getGene(j)).
+                            doubleValue()) > DELTA);
+      }
+    }
+  }
+
+  /**
+   * Geometric sampling mutates genes with the given rate on average.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testOperate_10()
+      throws Exception {
+    Configuration conf = new DefaultConfiguration();
+    conf.setPopulationSize(200);
+    conf.setRandomGenerator(new StockRandomGenerator());
+    MutationOperator mutOp = new MutationOperator(conf, 50);
+    mutOp.setGeometricSkip(true);
+    Chromosome[] chroms = new Chromosome[200];
+    for (int i = 0; i < chroms.length; i++) {
+      // Chromosomes of different length.
+      // --------------------------------
+      chroms[i] = new Chromosome(conf, new DoubleGene(conf, 0, 1000),
+                                 20 + i % 41);
+      for (int j = 0; j < chroms[i].size(); j++) {
+        chroms[i].getGene(j).setAllele(new Double(500));
+      }
+    }
+    Population pop = new Population(conf, chroms);
+    List candidates = new Vector();
+    mutOp.operate(pop, candidates);
+    int mutated = 0;
+    for (int i = 0; i < candidates.size(); i++) {
+      IChromosome chrom = (IChromosome) candidates.get(i);
+      for (int j = 0; j < chrom.size(); j++) {
+        if (Math.abs(500 - ( (DoubleGene) chrom.getGene(j)).doubleValue())
+            > DELTA) {
+          mutated++;
+        }
+      }
+    }
+    // 8000 genes, 160 mutations expected.
+    // -----------------------------------
+    assertTrue(mutated > 100);
+    assertTrue(mutated < 220);
+    // A rate of zero disables mutation.
+    // ---------------------------------
+    candidates.clear();
+    mutOp.setMutationRate(0);
+    mutOp.operate(pop, candidates);
+    assertEquals(0, candidates.size());
+  }
+
   /**
    * Ensures operator is implementing Serializable
    * @throws Exception
@@ -573,5 +668,25 @@ public class MutationOperatorTest
     op2 = new MutationOperator(conf, 4);
     assertEquals( -1, op.compareTo(op2));
     assertEquals(1, op2.compareTo(op));
+    op2 = new MutationOperator(conf, 3);
+    op2.setGeometricSkip(true);
+    assertEquals( -1, op.compareTo(op2));
+    assertEquals(1, op2.compareTo(op));
+  }
+
+  /**
+   * Only MutationOperator itself is applied concurrently, subclasses have to
+   * opt in.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testIsConcurrent_0()
+      throws Exception {
+    assertTrue(new MutationOperator(conf).isConcurrent());
+    assertFalse(new SwappingMutationOperator(conf).isConcurrent());
+    assertFalse(new MutationOperator(conf) {
+    }.isConcurrent());
   }
 }
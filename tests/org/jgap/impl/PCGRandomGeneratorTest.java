@@ -0,0 +1,75 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import org.jgap.*;
+
+import junit.framework.*;
+
+/**
+ * Tests the PCGRandomGenerator class.
+ *
+ * @since 3.7
+ */
+public class PCGRandomGeneratorTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(PCGRandomGeneratorTest.class);
+    return suite;
+  }
+
+  /**
+   * Compares with the output of the reference implementation.
+   *
+   * @since 3.7
+   */
+  public void testNextInt_0() {
+    PCGRandomGenerator gen = new PCGRandomGenerator(42, 54);
+    assertEquals(0xA15C02B7, gen.nextInt());
+    assertEquals(0x7B47F409, gen.nextInt());
+    assertEquals(0xBA1D3330, gen.nextInt());
+    assertEquals(0x83D2F293, gen.nextInt());
+    assertEquals(0xBFA4784B, gen.nextInt());
+    assertEquals(0xCBED606E, gen.nextInt());
+  }
+
+  /**
+   * Advancing gives the same values as stepping.
+   *
+   * @since 3.7
+   */
+  public void testAdvance_0() {
+    PCGRandomGenerator gen1 = new PCGRandomGenerator(4711);
+    PCGRandomGenerator gen2 = new PCGRandomGenerator(4711);
+    for (int i = 0; i < 1000; i++) {
+      gen1.nextInt();
+    }
+    gen2.advance(1000);
+    assertEquals(gen1.nextInt(), gen2.nextInt());
+    assertEquals(gen1.nextLong(), gen2.nextLong());
+  }
+
+  /**
+   * Different streams give different values.
+   *
+   * @since 3.7
+   */
+  public void testSplit_0() {
+    PCGRandomGenerator gen1 = new PCGRandomGenerator(4712, 1);
+    PCGRandomGenerator gen2 = new PCGRandomGenerator(4712, 2);
+    assertTrue(gen1.nextLong() != gen2.nextLong());
+    ISplittableRandomGenerator split1 = gen1.split();
+    PCGRandomGenerator gen3 = new PCGRandomGenerator(4712, 1);
+    gen3.nextLong();
+    ISplittableRandomGenerator split3 = gen3.split();
+    assertEquals(split1.nextLong(), split3.nextLong());
+    assertTrue(split1.nextLong() != gen1.nextLong());
+  }
+}
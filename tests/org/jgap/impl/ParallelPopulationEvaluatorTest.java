@@ -0,0 +1,189 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import java.util.concurrent.atomic.*;
+
+import org.jgap.*;
+import junit.framework.*;
+
+/**
+ * Tests the ParallelPopulationEvaluator class.
+ *
+ * @since 3.7
+ */
+public class ParallelPopulationEvaluatorTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(ParallelPopulationEvaluatorTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testConstruct_0()
+      throws Exception {
+    try {
+      new ParallelPopulationEvaluator(0);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+    try {
+      new ParallelPopulationEvaluator(null, 4);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * All chromosomes without fitness value are evaluated, each exactly once.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testEvaluate_0()
+      throws Exception {
+    CountingFitnessFunction fitFunc = new CountingFitnessFunction();
+    Population pop = createPopulation(fitFunc, 50);
+    pop.getChromosome(3).setFitnessValueDirectly(77.0d);
+    // Same instance twice.
+    pop.addChromosome(pop.getChromosome(5));
+    ParallelPopulationEvaluator evaluator = new ParallelPopulationEvaluator(4);
+    try {
+      evaluator.evaluate(pop, conf);
+    } finally {
+      evaluator.shutdown();
+    }
+    assertEquals(49, fitFunc.m_calls.get());
+    assertEquals(77.0d, pop.getChromosome(3).getFitnessValueDirectly(), DELTA);
+    for (int i = 0; i < pop.size(); i++) {
+      IChromosome chrom = pop.getChromosome(i);
+      if (i != 3) {
+        assertEquals(sum(chrom), chrom.getFitnessValueDirectly(), DELTA);
+      }
+    }
+  }
+
+  /**
+   * Exceptions thrown by the fitness function are passed to the caller.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testEvaluate_1()
+      throws Exception {
+    Population pop = createPopulation(new FitnessFunction() {
+      protected double evaluate(IChromosome a_subject) {
+        return -1;
+      }
+    }, 10);
+    ParallelPopulationEvaluator evaluator = new ParallelPopulationEvaluator(3);
+    try {
+      evaluator.evaluate(pop, conf);
+      fail();
+    } catch (RuntimeException rex) {
+      ; //this is OK
+    } finally {
+      evaluator.shutdown();
+    }
+  }
+
+  /**
+   * Evolution with parallel evaluation gives the same result as sequential
+   * evaluation.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testEvolve_0()
+      throws Exception {
+    IChromosome best1 = evolve(null);
+    Configuration.reset();
+    ParallelPopulationEvaluator evaluator = new ParallelPopulationEvaluator(5);
+    IChromosome best2;
+    try {
+      best2 = evolve(evaluator);
+    } finally {
+      evaluator.shutdown();
+    }
+    assertEquals(best1.getFitnessValue(), best2.getFitnessValue(), DELTA);
+    for (int i = 0; i < best1.size(); i++) {
+      assertEquals(best1.getGene(i).getAllele(), best2.getGene(i).getAllele());
+    }
+  }
+
+  private IChromosome evolve(IPopulationEvaluator a_evaluator)
+      throws Exception {
+    Configuration config = new DefaultConfiguration();
+    StockRandomGenerator rand = new StockRandomGenerator();
+    rand.setSeed(4711);
+    config.setRandomGenerator(rand);
+    config.setFitnessFunction(new CountingFitnessFunction());
+    config.setPopulationEvaluator(a_evaluator);
+    config.setSampleChromosome(new Chromosome(config,
+        new IntegerGene(config, 0, 100), 8));
+    config.setPopulationSize(40);
+    Genotype genotype = Genotype.randomInitialGenotype(config);
+    genotype.evolve(10);
+    return genotype.getFittestChromosome();
+  }
+
+  private Population createPopulation(FitnessFunction a_fitFunc, int a_size)
+      throws Exception {
+    conf.setFitnessFunction(a_fitFunc);
+    Gene[] genes = new Gene[] {
+        new IntegerGene(conf, 0, 100), new IntegerGene(conf, 0, 100)};
+    conf.setSampleChromosome(new Chromosome(conf, genes));
+    conf.setPopulationSize(a_size);
+    Population pop = new Population(conf);
+    for (int i = 0; i < a_size; i++) {
+      Gene[] newGenes = new Gene[] {
+          new IntegerGene(conf, 0, 100), new IntegerGene(conf, 0, 100)};
+      newGenes[0].setAllele(new Integer(i));
+      newGenes[1].setAllele(new Integer(i * 2));
+      pop.addChromosome(new Chromosome(conf, newGenes));
+    }
+    return pop;
+  }
+
+  private static double sum(IChromosome a_chrom) {
+    double result = 0;
+    for (int i = 0; i < a_chrom.size(); i++) {
+      result += ( (Integer) a_chrom.getGene(i).getAllele()).intValue();
+    }
+    return result;
+  }
+
+  /**
+   * Thread-safe fitness function counting its invocations.
+   */
+  class CountingFitnessFunction
+      extends FitnessFunction {
+    AtomicInteger m_calls = new AtomicInteger();
+
+    protected double evaluate(IChromosome a_subject) {
+      m_calls.incrementAndGet();
+      return sum(a_subject);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import org.jgap.*;
+
+import junit.framework.*;
+
+/**
+ * Tests the SplitMix64RandomGenerator class.
+ *
+ * @since 3.7
+ */
+public class SplitMix64RandomGeneratorTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(SplitMix64RandomGeneratorTest.class);
+    return suite;
+  }
+
+  /**
+   * Compares with the output of the reference implementation.
+   *
+   * @since 3.7
+   */
+  public void testNextLong_0() {
+    SplitMix64RandomGenerator gen = new SplitMix64RandomGenerator(0);
+    assertEquals(0xE220A8397B1DCDAFL, gen.nextLong());
+    assertEquals(0x6E789E6AA1B965F4L, gen.nextLong());
+    assertEquals(0x06C45D188009454FL, gen.nextLong());
+  }
+
+  /**
+   * Split streams are reproducible and differ from the original one.
+   *
+   * @since 3.7
+   */
+  public void testSplit_0() {
+    SplitMix64RandomGenerator gen1 = new SplitMix64RandomGenerator(4711);
+    SplitMix64RandomGenerator gen2 = new SplitMix64RandomGenerator(4711);
+    ISplittableRandomGenerator split1 = gen1.split();
+    ISplittableRandomGenerator split2 = gen2.split();
+    ISplittableRandomGenerator split3 = split1.split();
+    split2.split();
+    for (int i = 0; i < 10; i++) {
+      long value = split1.nextLong();
+      assertEquals(value, split2.nextLong());
+      assertTrue(value != gen1.nextLong());
+      assertTrue(value != split3.nextLong());
+    }
+  }
+
+  /**
+   * @since 3.7
+   */
+  public void testNextDouble_0() {
+    SplitMix64RandomGenerator gen = new SplitMix64RandomGenerator();
+    for (int i = 0; i < 100; i++) {
+      double res = gen.nextDouble();
+      assertTrue(res >= 0.0d);
+      assertTrue(res < 1.0d);
+    }
+  }
+}
@@ -326,6 +326,54 @@ public class SwappingMutationOperatorTest
     assertEquals(0, op.getStartOffset());
   }
 
+  /**
+   * With copy-on-write and monitoring, the swapped genes are copied before
+   * their templates are set, the genes of the parent stay untouched.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testOperate_6()
+      throws Exception {
+    DefaultConfiguration conf = new DefaultConfiguration();
+    conf.setCopyOnWriteChromosomes(true);
+    conf.setUniqueKeysActive(true);
+    RandomGeneratorForTesting rand = new RandomGeneratorForTesting();
+    rand.setNextIntSequence(new int[] {0, 2, 1, 1});
+    conf.setRandomGenerator(rand);
+    conf.setFitnessFunction(new TestFitnessFunction());
+    Gene[] genes = new Gene[4];
+    for (int j = 0; j < genes.length; j++) {
+      genes[j] = new IntegerGene(conf, 1, 10);
+      genes[j].setAllele(new Integer(j + 1));
+    }
+    Chromosome parent = new Chromosome(conf, genes);
+    conf.setSampleChromosome(parent);
+    SwappingMutationOperator op = new SwappingMutationOperator(conf, 2) {
+      {
+        m_monitorActive = true;
+      }
+    };
+    IChromosome child = op.operate(parent, 2, rand);
+    int[] expected = {1, 4, 3, 2};
+    for (int j = 0; j < expected.length; j++) {
+      assertEquals(expected[j], ( (Integer) child.getGene(j).getAllele()).
+                   intValue());
+      assertEquals(j + 1, ( (Integer) parent.getGene(j).getAllele()).
+                   intValue());
+      assertNull(parent.getGene(j).getUniqueIDTemplate(1));
+    }
+    assertSame(parent.getGene(0), child.getGene(0));
+    assertSame(parent.getGene(2), child.getGene(2));
+    assertNotSame(parent.getGene(3), child.getGene(1));
+    assertNotSame(parent.getGene(1), child.getGene(3));
+    assertEquals(parent.getGene(1).getUniqueID(),
+                 child.getGene(1).getUniqueIDTemplate(1));
+    assertEquals(parent.getGene(3).getUniqueID(),
+                 child.getGene(3).getUniqueIDTemplate(1));
+  }
+
   /**
    * Ensures the operator is implementing Serializable
    * @throws Exception
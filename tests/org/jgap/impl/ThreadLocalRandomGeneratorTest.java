@@ -0,0 +1,113 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import org.jgap.*;
+
+import junit.framework.*;
+
+/**
+ * Tests the ThreadLocalRandomGenerator class.
+ *
+ * @since 3.7
+ */
+public class ThreadLocalRandomGeneratorTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(ThreadLocalRandomGeneratorTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+  }
+
+  /**
+   * @since 3.7
+   */
+  public void testConstruct_0() {
+    try {
+      new ThreadLocalRandomGenerator(null);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * Each thread gets a stream of its own, split off the root.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testCurrent_0()
+      throws Exception {
+    final ThreadLocalRandomGenerator gen = new ThreadLocalRandomGenerator(
+        new XoshiroRandomGenerator(4711));
+    ISplittableRandomGenerator mine = gen.current();
+    assertSame(mine, gen.current());
+    XoshiroRandomGenerator root = new XoshiroRandomGenerator(4711);
+    assertEquals(root.split().nextLong(), gen.nextLong());
+    final ISplittableRandomGenerator[] other = new ISplittableRandomGenerator[1];
+    Thread t = new Thread() {
+      public void run() {
+        other[0] = gen.current();
+      }
+    };
+    t.start();
+    t.join();
+    assertNotNull(other[0]);
+    assertNotSame(mine, other[0]);
+    assertEquals(root.split().nextLong(), other[0].nextLong());
+    double[] values = new double[10];
+    gen.nextDoubles(values);
+    assertTrue(values[0] >= 0.0d);
+    assertTrue(values[0] < 1.0d);
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testDoSerialize_0()
+      throws Exception {
+    ThreadLocalRandomGenerator gen = new ThreadLocalRandomGenerator(
+        new PCGRandomGenerator(4712));
+    gen.nextInt();
+    ThreadLocalRandomGenerator gen2 = (ThreadLocalRandomGenerator)
+        doSerialize(gen);
+    PCGRandomGenerator root = new PCGRandomGenerator(4712);
+    root.split();
+    assertEquals(root.split().nextInt(), gen2.nextInt());
+  }
+
+  /**
+   * Usable as random generator of a configuration.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testConfiguration_0()
+      throws Exception {
+    Configuration conf = new DefaultConfiguration();
+    conf.setRandomGenerator(new ThreadLocalRandomGenerator());
+    conf.setFitnessFunction(new RandomFitnessFunction());
+    conf.setSampleChromosome(new Chromosome(conf, new IntegerGene(conf, 0, 10),
+                                            3));
+    conf.setPopulationSize(20);
+    Genotype genotype = Genotype.randomInitialGenotype(conf);
+    genotype.evolve(3);
+    assertNotNull(genotype.getFittestChromosome());
+  }
+}
@@ -404,6 +404,182 @@ public class WeightedRouletteSelectorTest
     assertEquals(o, selector);
   }
 
+  /**
+   * Fast wheel mode selects proportionally to the fitness values.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testSelectFast_0()
+      throws Exception {
+    StockRandomGenerator rand = new StockRandomGenerator();
+    rand.setSeed(123);
+    conf.setRandomGenerator(rand);
+    WeightedRouletteSelector selector = new WeightedRouletteSelector(conf);
+    selector.setFastWheel(true);
+    assertTrue(selector.isFastWheel());
+    Chromosome[] chroms = new Chromosome[4];
+    for (int i = 0; i < chroms.length; i++) {
+      Gene gene = new IntegerGene(conf);
+      gene.setAllele(new Integer(i));
+      chroms[i] = new Chromosome(conf, new Gene[] {gene});
+      chroms[i].setFitnessValueDirectly(i + 1);
+    }
+    int[] counts = new int[chroms.length];
+    for (int n = 0; n < 4000; n++) {
+      for (int i = 0; i < chroms.length; i++) {
+        selector.add(chroms[i]);
+      }
+      Population p = new Population(conf);
+      selector.select(1, null, p);
+      counts[ ( (Integer) p.getChromosome(0).getGene(0).getAllele()).
+          intValue()]++;
+      selector.empty();
+    }
+    // Expected: 400, 800, 1200, 1600.
+    for (int i = 0; i < chroms.length; i++) {
+      assertEquals(400 * (i + 1), counts[i], 120);
+    }
+  }
+
+  /**
+   * Fast wheel mode: each instance is selected at most once, a chromosome
+   * selected a second time is cloned. Without doublettes, each chromosome is
+   * selected at most once.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testSelectFast_1()
+      throws Exception {
+    WeightedRouletteSelector selector = new WeightedRouletteSelector(conf);
+    selector.setFastWheel(true);
+    Gene gene = new BooleanGene(conf);
+    gene.setAllele(Boolean.valueOf(true));
+    Chromosome chrom1 = new Chromosome(conf, gene, 3);
+    chrom1.setFitnessValueDirectly(5);
+    gene = new IntegerGene(conf);
+    gene.setAllele(new Integer(7));
+    Chromosome chrom2 = new Chromosome(conf, gene, 3);
+    chrom2.setFitnessValueDirectly(0);
+    selector.add(chrom1);
+    selector.add(chrom1);
+    selector.add(chrom2);
+    Population p = new Population(conf);
+    selector.select(2, null, p);
+    assertEquals(2, p.size());
+    assertSame(chrom1, p.getChromosome(0));
+    assertNotSame(chrom1, p.getChromosome(1));
+    assertEquals(chrom1, p.getChromosome(1));
+    // No slots left: selection is uniform, no error occurs.
+    selector.select(4, null, p);
+    assertEquals(6, p.size());
+  }
+
+  /**
+   * Fast wheel mode without doublettes: each chromosome is selected once
+   * before any is selected again, also when no slots are left. Selecting more
+   * chromosomes than available adds clones, as in the standard mode.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testSelectFast_2()
+      throws Exception {
+    Gene gene = new BooleanGene(conf);
+    gene.setAllele(Boolean.valueOf(true));
+    Chromosome chrom1 = new Chromosome(conf, gene, 3);
+    chrom1.setFitnessValueDirectly(5);
+    gene = new IntegerGene(conf);
+    gene.setAllele(new Integer(7));
+    Chromosome chrom2 = new Chromosome(conf, gene, 3);
+    chrom2.setFitnessValueDirectly(0);
+    WeightedRouletteSelector selector = new WeightedRouletteSelector(conf) {
+      public boolean getDoubletteChromosomesAllowed() {
+        return false;
+      }
+    };
+    selector.setFastWheel(true);
+    Chromosome chrom3 = new Chromosome(conf, new DoubleGene(conf), 3);
+    chrom3.setFitnessValueDirectly(0);
+    selector.add(chrom1);
+    selector.add(chrom1);
+    selector.add(chrom2);
+    selector.add(chrom3);
+    Population p = new Population(conf);
+    selector.select(5, null, p);
+    assertEquals(5, p.size());
+    assertSame(chrom1, p.getChromosome(0));
+    Map unique = new IdentityHashMap();
+    for (int i = 0; i < 3; i++) {
+      assertNull(unique.put(p.getChromosome(i), Boolean.TRUE));
+    }
+    assertTrue(unique.containsKey(chrom2));
+    assertTrue(unique.containsKey(chrom3));
+    for (int i = 3; i < p.size(); i++) {
+      IChromosome clone = p.getChromosome(i);
+      assertFalse(unique.containsKey(clone));
+      assertTrue(clone.equals(chrom1) || clone.equals(chrom2)
+                 || clone.equals(chrom3));
+    }
+  }
+
+  /**
+   * Fast wheel mode without doublettes and all fitness values zero: the
+   * selection is uniform among the chromosomes not selected yet, each one is
+   * selected exactly once.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testSelectFast_3()
+      throws Exception {
+    WeightedRouletteSelector selector = new WeightedRouletteSelector(conf) {
+      public boolean getDoubletteChromosomesAllowed() {
+        return false;
+      }
+    };
+    selector.setFastWheel(true);
+    Map chroms = new IdentityHashMap();
+    for (int i = 0; i < 500; i++) {
+      Gene gene = new IntegerGene(conf);
+      gene.setAllele(new Integer(i));
+      Chromosome chrom = new Chromosome(conf, new Gene[] {gene});
+      chrom.setFitnessValueDirectly(0);
+      selector.add(chrom);
+      chroms.put(chrom, Boolean.TRUE);
+    }
+    Population p = new Population(conf);
+    selector.select(500, null, p);
+    assertEquals(500, p.size());
+    for (int i = 0; i < p.size(); i++) {
+      assertNotNull(chroms.remove(p.getChromosome(i)));
+    }
+    assertTrue(chroms.isEmpty());
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testSetFastWheel_0()
+      throws Exception {
+    WeightedRouletteSelector selector = new WeightedRouletteSelector(conf);
+    assertFalse(selector.isFastWheel());
+    selector.setFastWheel(true);
+    WeightedRouletteSelector clone = (WeightedRouletteSelector) selector.
+        clone();
+    assertTrue(clone.isFastWheel());
+    assertEquals(selector, clone);
+    clone.setFastWheel(false);
+    assertFalse(selector.equals(clone));
+  }
+
   /**@todo add test*/
 //  public void test_WeightedSelection_0() {
 //    WeightedRouletteSelector ws = new WeightedRouletteSelector();
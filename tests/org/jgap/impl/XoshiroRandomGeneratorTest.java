@@ -0,0 +1,173 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl;
+
+import org.jgap.*;
+
+import junit.framework.*;
+
+/**
+ * Tests the XoshiroRandomGenerator class and the methods inherited from
+ * BaseSplittableRandomGenerator.
+ *
+ * @since 3.7
+ */
+public class XoshiroRandomGeneratorTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(XoshiroRandomGeneratorTest.class);
+    return suite;
+  }
+
+  /**
+   * Compares with the output of the reference implementation.
+   *
+   * @since 3.7
+   */
+  public void testNextLong_0() {
+    XoshiroRandomGenerator gen = new XoshiroRandomGenerator(1, 2, 3, 4);
+    assertEquals(11520L, gen.nextLong());
+    assertEquals(0L, gen.nextLong());
+    assertEquals(1509978240L, gen.nextLong());
+    assertEquals(1215971899390074240L, gen.nextLong());
+  }
+
+  /**
+   * @since 3.7
+   */
+  public void testConstruct_0() {
+    try {
+      new XoshiroRandomGenerator(0, 0, 0, 0);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+    XoshiroRandomGenerator gen1 = new XoshiroRandomGenerator(4711);
+    XoshiroRandomGenerator gen2 = new XoshiroRandomGenerator(4711);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(gen1.nextLong(), gen2.nextLong());
+    }
+  }
+
+  /**
+   * Jumping is reproducible and leaves the original sequence.
+   *
+   * @since 3.7
+   */
+  public void testJump_0() {
+    XoshiroRandomGenerator gen1 = new XoshiroRandomGenerator(4712);
+    XoshiroRandomGenerator gen2 = gen1.copy();
+    gen2.jump();
+    XoshiroRandomGenerator gen3 = gen1.copy();
+    gen3.jump();
+    long first = gen1.copy().nextLong();
+    assertEquals(gen2.nextLong(), gen3.nextLong());
+    assertTrue(first != gen3.nextLong());
+    XoshiroRandomGenerator gen4 = gen1.copy();
+    gen4.longJump();
+    assertTrue(gen4.nextLong() != gen2.nextLong());
+  }
+
+  /**
+   * Split streams are reproducible and differ from the original one.
+   *
+   * @since 3.7
+   */
+  public void testSplit_0() {
+    XoshiroRandomGenerator gen1 = new XoshiroRandomGenerator(4713);
+    XoshiroRandomGenerator gen2 = new XoshiroRandomGenerator(4713);
+    ISplittableRandomGenerator split1 = gen1.split();
+    ISplittableRandomGenerator split2 = gen2.split();
+    for (int i = 0; i < 10; i++) {
+      assertEquals(split1.nextLong(), split2.nextLong());
+    }
+    assertTrue(gen1.nextLong() != split1.nextLong());
+    RandomGenerator clone = (RandomGenerator) gen1.clone();
+    assertTrue(clone.nextLong() != gen1.nextLong());
+  }
+
+  /**
+   * @since 3.7
+   */
+  public void testNextInt_0() {
+    XoshiroRandomGenerator gen = new XoshiroRandomGenerator(4714);
+    int[] counts = new int[7];
+    for (int i = 0; i < 7000; i++) {
+      counts[gen.nextInt(7)]++;
+    }
+    for (int i = 0; i < counts.length; i++) {
+      assertTrue(counts[i] > 800);
+      assertTrue(counts[i] < 1200);
+    }
+    assertEquals(0, gen.nextInt(1));
+    int res = gen.nextInt(Integer.MAX_VALUE);
+    assertTrue(res >= 0);
+    try {
+      gen.nextInt(0);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * @since 3.7
+   */
+  public void testNextDoubles_0() {
+    XoshiroRandomGenerator gen1 = new XoshiroRandomGenerator(4715);
+    XoshiroRandomGenerator gen2 = gen1.copy();
+    double[] values = new double[100];
+    gen1.nextDoubles(values);
+    double sum = 0;
+    for (int i = 0; i < values.length; i++) {
+      assertTrue(values[i] >= 0.0d);
+      assertTrue(values[i] < 1.0d);
+      assertEquals(gen2.nextDouble(), values[i], 0.0d);
+      sum += values[i];
+    }
+    assertEquals(50.0d, sum, 15.0d);
+    int[] ints = new int[100];
+    gen1.nextInts(ints, 3);
+    for (int i = 0; i < ints.length; i++) {
+      assertTrue(ints[i] >= 0);
+      assertTrue(ints[i] < 3);
+    }
+  }
+
+  /**
+   * @since 3.7
+   */
+  public void testNextFloat_0() {
+    XoshiroRandomGenerator gen = new XoshiroRandomGenerator(4716);
+    int trues = 0;
+    for (int i = 0; i < 1000; i++) {
+      float res = gen.nextFloat();
+      assertTrue(res >= 0.0f);
+      assertTrue(res < 1.0f);
+      if (gen.nextBoolean()) {
+        trues++;
+      }
+    }
+    assertTrue(trues > 400);
+    assertTrue(trues < 600);
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testDoSerialize_0()
+      throws Exception {
+    XoshiroRandomGenerator gen = new XoshiroRandomGenerator(4717);
+    XoshiroRandomGenerator gen2 = (XoshiroRandomGenerator) doSerialize(gen);
+    assertEquals(gen.nextLong(), gen2.nextLong());
+  }
+}
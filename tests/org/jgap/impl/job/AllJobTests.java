@@ -23,6 +23,8 @@ public class AllJobTests
   public static Test suite() {
     TestSuite suite = new TestSuite("AllJobTests");
     suite.addTest(EvolveDataTest.suite());
+    suite.addTest(LocalJobExecutorTest.suite());
+    suite.addTest(SimpleJobConsumerTest.suite());
     return suite;
   }
 }
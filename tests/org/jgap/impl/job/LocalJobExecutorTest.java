@@ -0,0 +1,249 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl.job;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import org.jgap.*;
+
+import junit.framework.*;
+
+/**
+ * Tests the LocalJobExecutor class.
+ *
+ * @since 3.7
+ */
+public class LocalJobExecutorTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    return new TestSuite(LocalJobExecutorTest.class);
+  }
+
+  /**
+   * @since 3.7
+   */
+  public void testConstruct_0() {
+    try {
+      new LocalJobExecutor(0, 5);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+    try {
+      new LocalJobExecutor(2, 0);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * Results are delivered in job order, listeners are notified.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testInvokeAll_0()
+      throws Exception {
+    LocalJobExecutor executor = new LocalJobExecutor(3, 2);
+    try {
+      List<IJob> jobs = new ArrayList<IJob> ();
+      for (int i = 0; i < 10; i++) {
+        jobs.add(new NumberJob(i));
+      }
+      List<JobResult> results = executor.invokeAll(jobs);
+      assertEquals(10, results.size());
+      for (int i = 0; i < 10; i++) {
+        assertEquals(i, ( (NumberResult) results.get(i)).m_number);
+        assertTrue(jobs.get(i).isFinished());
+      }
+      // Permits are released after the jobs have returned.
+      // --------------------------------------------------
+      executor.shutdown();
+      executor.getExecutor().awaitTermination(10, TimeUnit.SECONDS);
+      assertEquals(0, executor.getPendingJobs());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Listener is notified of success and failure.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testSubmit_0()
+      throws Exception {
+    LocalJobExecutor executor = new LocalJobExecutor(2, 10);
+    final AtomicInteger finished = new AtomicInteger();
+    final AtomicInteger failed = new AtomicInteger();
+    IJobListener listener = new IJobListener() {
+      public void jobFinished(IJob a_job, JobResult a_result) {
+        finished.incrementAndGet();
+      }
+
+      public void jobFailed(IJob a_job, Throwable a_cause) {
+        failed.incrementAndGet();
+      }
+    };
+    try {
+      Future<JobResult> ok = executor.submit(new NumberJob(1), listener);
+      Future<JobResult> bad = executor.submit(new NumberJob( -1), listener);
+      assertEquals(1, ( (NumberResult) ok.get()).m_number);
+      try {
+        bad.get();
+        fail();
+      } catch (ExecutionException eex) {
+        ; //this is OK
+      }
+      executor.shutdown();
+      executor.getExecutor().awaitTermination(10, TimeUnit.SECONDS);
+      assertEquals(1, finished.get());
+      assertEquals(1, failed.get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Submitting blocks while the maximum number of pending jobs is reached,
+   * cancelling a job frees its slot once the job has returned.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testSubmit_1()
+      throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final LocalJobExecutor executor = new LocalJobExecutor(1, 1);
+    try {
+      Future<JobResult> blocking = executor.submit(new NumberJob(0) {
+        public JobResult execute(JobData a_data)
+            throws Exception {
+          release.await();
+          return super.execute(a_data);
+        }
+      });
+      assertEquals(1, executor.getPendingJobs());
+      final AtomicBoolean submitted = new AtomicBoolean();
+      Thread producer = new Thread() {
+        public void run() {
+          try {
+            executor.submit(new NumberJob(1));
+            submitted.set(true);
+          } catch (InterruptedException iex) {
+            ;
+          }
+        }
+      };
+      producer.start();
+      Thread.sleep(100);
+      assertFalse(submitted.get());
+      assertTrue(blocking.cancel(true));
+      producer.join(5000);
+      assertTrue(submitted.get());
+    } finally {
+      release.countDown();
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * A job cancelled while running keeps its slot until it actually returns,
+   * so the maximum number of pending jobs is never exceeded.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testSubmit_2()
+      throws Exception {
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final LocalJobExecutor executor = new LocalJobExecutor(2, 1);
+    try {
+      Future<JobResult> running = executor.submit(new NumberJob(0) {
+        public JobResult execute(JobData a_data)
+            throws Exception {
+          started.countDown();
+          // Ignore interruption, as jobs not checking for it do.
+          // -----------------------------------------------------
+          while (true) {
+            try {
+              release.await();
+              break;
+            } catch (InterruptedException iex) {
+              ;
+            }
+          }
+          return super.execute(a_data);
+        }
+      });
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      assertTrue(running.cancel(true));
+      assertTrue(running.isDone());
+      assertEquals(1, executor.getPendingJobs());
+      final AtomicBoolean submitted = new AtomicBoolean();
+      Thread producer = new Thread() {
+        public void run() {
+          try {
+            executor.submit(new NumberJob(1));
+            submitted.set(true);
+          } catch (InterruptedException iex) {
+            ;
+          }
+        }
+      };
+      producer.start();
+      Thread.sleep(100);
+      assertFalse(submitted.get());
+      release.countDown();
+      producer.join(5000);
+      assertTrue(submitted.get());
+    } finally {
+      release.countDown();
+      executor.shutdown();
+    }
+  }
+
+  class NumberResult
+      extends JobResult {
+    int m_number;
+  }
+
+  /**
+   * Job returning its number, failing for negative numbers.
+   */
+  class NumberJob
+      extends JobBase {
+    private int m_number;
+
+    NumberJob(int a_number) {
+      super(null);
+      m_number = a_number;
+    }
+
+    public JobResult execute(JobData a_data)
+        throws Exception {
+      if (m_number < 0) {
+        throw new Exception("negative");
+      }
+      NumberResult result = new NumberResult();
+      result.m_number = m_number;
+      return result;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl.job;
+
+import java.util.concurrent.*;
+
+import org.jgap.*;
+
+import junit.framework.*;
+
+/**
+ * Tests the SimpleJobConsumer class.
+ *
+ * @since 3.7
+ */
+public class SimpleJobConsumerTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    return new TestSuite(SimpleJobConsumerTest.class);
+  }
+
+  /**
+   * The executor created by the consumer is stopped on shutdown.
+   *
+   * @since 3.7
+   */
+  public void testShutdown_0() {
+    SimpleJobConsumer consumer = new SimpleJobConsumer();
+    consumer.pushJobToGrid(new EmptyJob());
+    consumer.waitForAllJobs();
+    consumer.shutdown();
+    try {
+      consumer.pushJobToGrid(new EmptyJob());
+      fail();
+    } catch (RejectedExecutionException rex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * An executor given to the consumer is not stopped on shutdown.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testShutdown_1()
+      throws Exception {
+    LocalJobExecutor executor = new LocalJobExecutor(1, 5);
+    try {
+      SimpleJobConsumer consumer = new SimpleJobConsumer(executor);
+      consumer.shutdown();
+      consumer.pushJobToGrid(new EmptyJob());
+      consumer.waitForAllJobs();
+      assertFalse(executor.getExecutor().isShutdown());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Job without a result.
+   */
+  class EmptyJob
+      extends JobBase {
+    EmptyJob() {
+      super(null);
+    }
+
+    public JobResult execute(JobData a_data) {
+      return new JobResult() {
+      };
+    }
+  }
+}
@@ -23,6 +23,7 @@ public class AllSalesmanTests
   public static Test suite() {
     TestSuite suite = new TestSuite("AllSalesmanTests");
     suite.addTestSuite(TravellingSalesmanTest.class);
+    suite.addTestSuite(PermutationChromosomeTest.class);
     return suite;
   }
 }
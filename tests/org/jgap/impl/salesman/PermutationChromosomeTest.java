@@ -0,0 +1,335 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.impl.salesman;
+
+import java.util.*;
+
+import org.jgap.*;
+import org.jgap.impl.*;
+import junit.framework.*;
+
+/**
+ * Tests the PermutationChromosome class and the operators working on it.
+ *
+ * @since 3.7
+ */
+public class PermutationChromosomeTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(PermutationChromosomeTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+  }
+
+  /**
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testConstruct_0()
+      throws Exception {
+    try {
+      new PermutationChromosome(conf, 0);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+    try {
+      new PermutationChromosome(conf, 3, 4);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+    try {
+      new PermutationChromosome(conf, new int[] {0, 2, 2}, 1);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+    PermutationChromosome chrom = new PermutationChromosome(conf,
+        new int[] {2, 0, 1}, 1);
+    assertEquals(3, chrom.size());
+    assertEquals(1, chrom.getStartOffset());
+    assertEquals(2, chrom.getCity(0));
+    assertEquals(2, chrom.getPosition(1));
+  }
+
+  /**
+   * Swapping and reversing keep the position index up to date and do not
+   * touch loci before the start offset.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testSwap_0()
+      throws Exception {
+    PermutationChromosome chrom = new PermutationChromosome(conf, 6);
+    chrom.swap(1, 4);
+    chrom.reverse(2, 5);
+    int[] expected = {0, 4, 5, 1, 3, 2};
+    assertTrue(Arrays.equals(expected, chrom.toIntArray()));
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(i, chrom.getPosition(expected[i]));
+    }
+    try {
+      chrom.swap(0, 3);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+    try {
+      chrom.reverse(0, 3);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * Gene views reflect the tour and write through, also for the position
+   * index.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testGetGenes_0()
+      throws Exception {
+    PermutationChromosome chrom = new PermutationChromosome(conf, 4);
+    Gene[] genes = chrom.getGenes();
+    assertEquals(new Integer(2), genes[2].getAllele());
+    chrom.swap(1, 3);
+    assertEquals(new Integer(3), genes[1].getAllele());
+    genes[2].setAllele(new Integer(1));
+    genes[3].setAllele(new Integer(2));
+    assertEquals(3, chrom.getPosition(2));
+    assertEquals(2, chrom.getPosition(1));
+    // The Gene-based operators can be applied as well.
+    // ------------------------------------------------
+    Gene[] swapped = new Gene[] {genes[0], genes[2], genes[1], genes[3]};
+    chrom.setGenes(swapped);
+    assertTrue(Arrays.equals(new int[] {0, 1, 3, 2}, chrom.toIntArray()));
+    assertEquals(1, chrom.getPosition(1));
+  }
+
+  /**
+   * Random tours, clones and persistent representations are permutations
+   * keeping the start.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testSetToRandomValues_0()
+      throws Exception {
+    PermutationChromosome chrom = new PermutationChromosome(conf,
+        new int[] {3, 0, 1, 2, 4, 5, 6, 7}, 1);
+    chrom.setToRandomValues(new StockRandomGenerator());
+    assertTrue(PermutationChromosome.isPermutation(chrom.toIntArray()));
+    assertEquals(3, chrom.getCity(0));
+    PermutationChromosome clone = (PermutationChromosome) chrom.clone();
+    assertEquals(chrom, clone);
+    clone.swap(1, 2);
+    assertFalse(chrom.equals(clone));
+    PermutationChromosome restored = new PermutationChromosome(conf, 3);
+    restored.setValueFromPersistentRepresentation(
+        chrom.getPersistentRepresentation());
+    assertTrue(Arrays.equals(chrom.toIntArray(), restored.toIntArray()));
+    assertEquals(chrom.getPosition(5), restored.getPosition(5));
+  }
+
+  /**
+   * All crossovers create permutations that keep the start of the first
+   * parent.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testCrossover_0()
+      throws Exception {
+    RandomGenerator random = new StockRandomGenerator();
+    IDistanceMatrix distances = circle(50);
+    PermutationCrossover[] ops = {
+        new GreedyPermutationCrossover(conf, distances),
+        new OrderCrossover(conf), new EdgeRecombinationCrossover(conf)};
+    for (int n = 0; n < 20; n++) {
+      PermutationChromosome first = new PermutationChromosome(conf, 50, 2);
+      PermutationChromosome second = new PermutationChromosome(conf, 50, 2);
+      first.setToRandomValues(random);
+      second.setToRandomValues(random);
+      for (int i = 0; i < ops.length; i++) {
+        int[] child = ops[i].crossover(first, second, random);
+        assertTrue(PermutationChromosome.isPermutation(child));
+        assertEquals(0, child[0]);
+        assertEquals(1, child[1]);
+      }
+      first.crossover(second, 10);
+      assertTrue(PermutationChromosome.isPermutation(first.toIntArray()));
+      assertTrue(PermutationChromosome.isPermutation(second.toIntArray()));
+    }
+  }
+
+  /**
+   * Crossing a tour with itself reproduces it for greedy crossover and OX.
+   * Edge recombination takes over the edges common to both parents.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testCrossover_1()
+      throws Exception {
+    RandomGenerator random = new StockRandomGenerator();
+    PermutationChromosome parent = new PermutationChromosome(conf, 30);
+    parent.setToRandomValues(random);
+    int[] tour = parent.toIntArray();
+    assertTrue(Arrays.equals(tour, new GreedyPermutationCrossover(conf,
+        circle(30)).crossover(parent, parent, random)));
+    assertTrue(Arrays.equals(tour, new OrderCrossover(conf).crossover(parent,
+        parent, random)));
+    assertTrue(Arrays.equals(tour, new EdgeRecombinationCrossover(conf).
+                             crossover(parent, parent, random)));
+  }
+
+  /**
+   * The operator adds two children per crossover and leaves the parents
+   * untouched.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testOperate_0()
+      throws Exception {
+    conf.setSampleChromosome(new PermutationChromosome(conf, 10));
+    conf.setPopulationSize(10);
+    Population pop = new Population(conf);
+    for (int i = 0; i < 10; i++) {
+      PermutationChromosome chrom = new PermutationChromosome(conf, 10);
+      chrom.setToRandomValues(conf.getRandomGenerator());
+      pop.addChromosome(chrom);
+    }
+    List copies = new Vector();
+    for (int i = 0; i < 10; i++) {
+      copies.add(pop.getChromosome(i).clone());
+    }
+    List candidates = new Vector();
+    new EdgeRecombinationCrossover(conf).operate(pop, candidates);
+    assertEquals(10, candidates.size());
+    for (int i = 0; i < 10; i++) {
+      assertEquals(copies.get(i), pop.getChromosome(i));
+      PermutationChromosome child = (PermutationChromosome) candidates.get(i);
+      assertTrue(PermutationChromosome.isPermutation(child.toIntArray()));
+    }
+  }
+
+  /**
+   * 2-opt with all neighbours finds the optimal tour for cities on a circle,
+   * keeping the start.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testTwoOpt_0()
+      throws Exception {
+    IDistanceMatrix distances = new DistanceMatrix(circle(40));
+    TwoOptOperator op = new TwoOptOperator(conf, distances, 1, 100);
+    assertEquals(39, op.getNeighbourCount());
+    double optimum = 40 * 2 * Math.sin(Math.PI / 40);
+    RandomGenerator random = new StockRandomGenerator();
+    for (int n = 0; n < 5; n++) {
+      PermutationChromosome chrom = new PermutationChromosome(conf,
+          new int[] {7, 0, 1, 2, 3, 4, 5, 6, 8, 9, 10, 11, 12, 13, 14, 15, 16,
+          17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32, 33,
+          34, 35, 36, 37, 38, 39}, 1);
+      chrom.setToRandomValues(random);
+      Gene[] genes = chrom.getGenes();
+      assertTrue(op.improve(chrom));
+      assertEquals(optimum, chrom.getTourLength(distances), 1e-4);
+      assertEquals(7, chrom.getCity(0));
+      assertTrue(PermutationChromosome.isPermutation(chrom.toIntArray()));
+      for (int i = 0; i < genes.length; i++) {
+        assertEquals(chrom.getCity(i), ( (Integer) genes[i].getAllele()).
+                     intValue());
+      }
+      assertFalse(op.improve(chrom));
+    }
+  }
+
+  /**
+   * The cached matrix returns the distances of its source.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testDistanceMatrix_0()
+      throws Exception {
+    IDistanceMatrix source = new EuclideanDistances(new double[] {0, 3, 0},
+        new double[] {0, 4, 1});
+    DistanceMatrix matrix = new DistanceMatrix(source);
+    assertEquals(3, matrix.size());
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        assertEquals(source.distance(i, j), matrix.distance(i, j), 1e-6);
+      }
+    }
+    assertEquals(5.0d, matrix.distance(0, 1), DELTA);
+    PermutationChromosome chrom = new PermutationChromosome(conf, 3);
+    assertEquals(Integer.MAX_VALUE / 2 - 5 - Math.sqrt(18) - 1,
+                 new PermutationFitnessFunction(matrix).evaluate(chrom),
+                 1e-5);
+  }
+
+  /**
+   * Evolution with the permutation operators improves the tour.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testEvolve_0()
+      throws Exception {
+    IDistanceMatrix distances = new DistanceMatrix(circle(60));
+    conf.getGeneticOperators().clear();
+    conf.addGeneticOperator(new EdgeRecombinationCrossover(conf));
+    conf.addGeneticOperator(new ArrayMutationOperator(conf, 30));
+    conf.addGeneticOperator(new TwoOptOperator(conf, distances, 5, 6));
+    conf.setFitnessFunction(new PermutationFitnessFunction(distances));
+    conf.setSampleChromosome(new PermutationChromosome(conf, 60));
+    conf.setPopulationSize(20);
+    Genotype genotype = Genotype.randomInitialGenotype(conf);
+    double initial = genotype.getFittestChromosome().getFitnessValue();
+    genotype.evolve(10);
+    IChromosome best = genotype.getFittestChromosome();
+    assertTrue(best instanceof PermutationChromosome);
+    assertTrue(best.getFitnessValue() > initial);
+    PermutationChromosome tour = (PermutationChromosome) best;
+    assertTrue(PermutationChromosome.isPermutation(tour.toIntArray()));
+    assertEquals(0, tour.getCity(0));
+  }
+
+  private IDistanceMatrix circle(int a_cities) {
+    double[] x = new double[a_cities];
+    double[] y = new double[a_cities];
+    for (int i = 0; i < a_cities; i++) {
+      x[i] = Math.cos(2 * Math.PI * i / a_cities);
+      y[i] = Math.sin(2 * Math.PI * i / a_cities);
+    }
+    return new EuclideanDistances(x, y);
+  }
+}
@@ -23,8 +23,12 @@ public class AllUtilTests
   public static Test suite() {
     TestSuite suite = new TestSuite("AllUtilTests");
     suite.addTest(FileKitTest.suite());
+    suite.addTest(JournaledObjectTest.suite());
+    suite.addTest(LineageIDTest.suite());
     suite.addTest(NumberKitTest.suite());
     suite.addTest(PluginDiscovererTest.suite());
+    suite.addTest(SelectionKitTest.suite());
+    suite.addTest(StripedLRUCacheTest.suite());
     return suite;
   }
 }
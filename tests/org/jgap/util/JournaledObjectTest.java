@@ -0,0 +1,213 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.util;
+
+import java.io.*;
+import java.util.*;
+
+import org.jgap.*;
+import junit.framework.*;
+
+/**
+ * Tests the JournaledObject class.
+ *
+ * @since 3.7
+ */
+public class JournaledObjectTest
+    extends JGAPTestCase {
+  private File m_file;
+
+  public static Test suite() {
+    TestSuite suite = new TestSuite(JournaledObjectTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    try {
+      m_file = File.createTempFile("jgapjournal", ".jgap");
+      m_file.delete();
+    } catch (IOException iex) {
+      throw new RuntimeException(iex);
+    }
+  }
+
+  public void tearDown()
+      throws Exception {
+    m_file.delete();
+    new File(m_file.getPath() + JournaledObject.JOURNAL_SUFFIX).delete();
+    new File(m_file.getPath() + ".tmp").delete();
+    super.tearDown();
+  }
+
+  /**
+   * Entries are replayed onto the initial object if there is no snapshot.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testRecord_0()
+      throws Exception {
+    JournaledObject store = new JournaledObject(m_file);
+    List list = (List) store.load(new ArrayList());
+    assertEquals(0, list.size());
+    store.record(new AddEntry("a"));
+    store.record(new AddEntry("b"));
+    assertEquals(2, list.size());
+    assertEquals(2, store.getJournalSize());
+    store.close();
+    assertFalse(m_file.exists());
+    JournaledObject store2 = new JournaledObject(m_file);
+    List list2 = (List) store2.load(new ArrayList());
+    assertEquals(list, list2);
+    assertEquals(2, store2.getJournalSize());
+    store2.record(new AddEntry("c"));
+    store2.close();
+    assertEquals(3, ( (List)new JournaledObject(m_file).load(new ArrayList())).
+                 size());
+  }
+
+  /**
+   * Compaction writes a snapshot and empties the journal.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testCompact_0()
+      throws Exception {
+    JournaledObject store = new JournaledObject(m_file);
+    store.setCompactionThreshold(3);
+    store.load(new ArrayList());
+    for (int i = 0; i < 4; i++) {
+      store.record(new AddEntry("e" + i));
+    }
+    assertEquals(1, store.getJournalSize());
+    assertTrue(m_file.exists());
+    store.close();
+    JournaledObject store2 = new JournaledObject(m_file);
+    List list = (List) store2.load();
+    assertEquals(4, list.size());
+    assertEquals("e3", list.get(3));
+    store2.save();
+    assertEquals(0, store2.getJournalSize());
+    assertEquals(4, ( (List)new JournaledObject(m_file).load()).size());
+  }
+
+  /**
+   * A torn entry at the end of the journal is cut off.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testLoad_0()
+      throws Exception {
+    JournaledObject store = new JournaledObject(m_file);
+    store.load(new ArrayList());
+    store.record(new AddEntry("a"));
+    store.record(new AddEntry("b"));
+    store.close();
+    File journal = new File(m_file.getPath() + JournaledObject.JOURNAL_SUFFIX);
+    long length = journal.length();
+    RandomAccessFile raf = new RandomAccessFile(journal, "rw");
+    raf.setLength(length - 3);
+    raf.close();
+    JournaledObject store2 = new JournaledObject(m_file);
+    List list = (List) store2.load(new ArrayList());
+    assertEquals(1, list.size());
+    assertEquals("a", list.get(0));
+    assertTrue(journal.length() < length - 3);
+    store2.record(new AddEntry("c"));
+    store2.close();
+    list = (List)new JournaledObject(m_file).load(new ArrayList());
+    assertEquals(2, list.size());
+    assertEquals("c", list.get(1));
+  }
+
+  /**
+   * A snapshot is recovered from the temporary file if compaction was
+   * interrupted after deleting the old snapshot. An incomplete temporary
+   * file is ignored if there was no snapshot before.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testLoad_2()
+      throws Exception {
+    JournaledObject store = new JournaledObject(m_file);
+    store.load(new ArrayList());
+    store.record(new AddEntry("a"));
+    store.record(new AddEntry("b"));
+    store.compact();
+    store.record(new AddEntry("c"));
+    store.close();
+    File tmp = new File(m_file.getPath() + ".tmp");
+    assertTrue(m_file.renameTo(tmp));
+    List list = (List)new JournaledObject(m_file).load(new ArrayList());
+    assertEquals(3, list.size());
+    assertEquals("c", list.get(2));
+    assertTrue(m_file.exists());
+    assertFalse(tmp.exists());
+    // Torn temporary file without a snapshot before.
+    // ----------------------------------------------
+    m_file.delete();
+    new File(m_file.getPath() + JournaledObject.JOURNAL_SUFFIX).delete();
+    store = new JournaledObject(m_file);
+    store.load(new ArrayList());
+    store.record(new AddEntry("d"));
+    store.close();
+    Writer writer = new FileWriter(tmp);
+    writer.write("<org.jgap.util.JournaledObject_-Snapshot><m_seq");
+    writer.close();
+    list = (List)new JournaledObject(m_file).load(new ArrayList());
+    assertEquals(1, list.size());
+    assertEquals("d", list.get(0));
+  }
+
+  /**
+   * Files written by PersistableObject can be read.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testLoad_1()
+      throws Exception {
+    PersistableObject po = new PersistableObject(m_file);
+    List list = new ArrayList();
+    list.add("x");
+    po.setObject(list);
+    po.save();
+    JournaledObject store = new JournaledObject(m_file);
+    assertEquals(list, store.load());
+    store.record(new AddEntry("y"));
+    store.close();
+    assertEquals(2, ( (List)new JournaledObject(m_file).load()).size());
+  }
+
+  public static class AddEntry
+      implements IJournalEntry {
+    private String m_value;
+
+    public AddEntry() {
+    }
+
+    public AddEntry(String a_value) {
+      m_value = a_value;
+    }
+
+    public void apply(Object a_object) {
+      ( (List) a_object).add(m_value);
+    }
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.util;
+
+import java.util.*;
+
+import org.jgap.*;
+import org.jgap.impl.*;
+import junit.framework.*;
+
+/**
+ * Tests the LineageID class.
+ *
+ * @since 3.7
+ */
+public class LineageIDTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(LineageIDTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+  }
+
+  /**
+   * IDs are unique across threads.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testNext_0()
+      throws Exception {
+    final int count = LineageID.BLOCK_SIZE * 3 + 7;
+    final long[][] ids = new long[4][count];
+    Thread[] threads = new Thread[ids.length];
+    for (int i = 0; i < threads.length; i++) {
+      final long[] mine = ids[i];
+      threads[i] = new Thread() {
+        public void run() {
+          for (int j = 0; j < count; j++) {
+            mine[j] = LineageID.next();
+          }
+        }
+      };
+      threads[i].start();
+    }
+    Set<Long> all = new HashSet<Long>();
+    for (int i = 0; i < threads.length; i++) {
+      threads[i].join();
+      for (int j = 0; j < count; j++) {
+        assertTrue(ids[i][j] != LineageID.NONE);
+        assertTrue(all.add(new Long(ids[i][j])));
+      }
+    }
+  }
+
+  /**
+   * @since 3.7
+   */
+  public void testParse_0() {
+    long id = LineageID.next();
+    String run = LineageID.getRunPrefix();
+    String s = LineageID.toString(id);
+    assertTrue(s.startsWith(run));
+    assertEquals(id, LineageID.parse(s, run));
+    assertEquals(LineageID.NONE, LineageID.parse(s, "other_"));
+    assertEquals(LineageID.NONE, LineageID.parse("new", run));
+    assertEquals(LineageID.NONE, LineageID.parse(run, run));
+    assertEquals(LineageID.NONE, LineageID.parse(run + "12a", run));
+    assertEquals(LineageID.NONE, LineageID.parse(null, run));
+    assertNull(LineageID.toString(LineageID.NONE));
+  }
+
+  /**
+   * @since 3.7
+   */
+  public void testSetTemplate_0() {
+    long[] templates = LineageID.setTemplate(null, 1, LineageID.NONE);
+    assertNull(templates);
+    templates = LineageID.setTemplate(null, 1, 5);
+    assertEquals(2, templates.length);
+    templates = LineageID.setTemplate(templates, 3, 7);
+    assertEquals(3, templates.length);
+    assertEquals(5, LineageID.getTemplate(templates, 1));
+    assertEquals(LineageID.NONE, LineageID.getTemplate(templates, 2));
+    assertEquals(7, LineageID.getTemplate(templates, 3));
+    assertEquals(LineageID.NONE, LineageID.getTemplate(templates, 4));
+    try {
+      LineageID.setTemplate(templates, 0, 1);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * Chromosomes render their IDs on demand and keep templates of other runs
+   * as they are.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testChromosome_0()
+      throws Exception {
+    Configuration conf = new DefaultConfiguration();
+    conf.setUniqueKeysActive(true);
+    Chromosome c1 = new Chromosome(conf, new Gene[] {new IntegerGene(conf)});
+    Chromosome c2 = new Chromosome(conf, new Gene[] {new IntegerGene(conf)});
+    assertTrue(c1.getLineageID() != c2.getLineageID());
+    assertEquals(LineageID.toString(c1.getLineageID()), c1.getUniqueID());
+    assertNull(c2.getUniqueIDTemplate(1));
+    c2.setUniqueIDTemplate(c1.getUniqueID(), 1);
+    c2.setUniqueIDTemplate("new", 2);
+    assertEquals(c1.getUniqueID(), c2.getUniqueIDTemplate(1));
+    assertEquals("new", c2.getUniqueIDTemplate(2));
+    assertNull(c2.getUniqueIDTemplate(3));
+    c2.setUniqueIDTemplate(c1.getUniqueID(), 2);
+    assertEquals(c1.getUniqueID(), c2.getUniqueIDTemplate(2));
+    Gene gene = c2.getGene(0);
+    gene.setUniqueIDTemplate(c1.getGene(0).getUniqueID(), 1);
+    assertEquals(c1.getGene(0).getUniqueID(), gene.getUniqueIDTemplate(1));
+    conf.setUniqueKeysActive(false);
+    Chromosome c3 = new Chromosome(conf, new Gene[] {new IntegerGene(conf)});
+    assertNull(c3.getUniqueID());
+    assertEquals(LineageID.NONE, c3.getLineageID());
+  }
+}
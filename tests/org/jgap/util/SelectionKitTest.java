@@ -0,0 +1,157 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.util;
+
+import java.util.*;
+
+import org.jgap.*;
+import org.jgap.impl.*;
+import junit.framework.*;
+
+/**
+ * Tests the SelectionKit class.
+ *
+ * @since 3.7
+ */
+public class SelectionKitTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(SelectionKitTest.class);
+    return suite;
+  }
+
+  public void setUp() {
+    super.setUp();
+    Configuration.reset();
+  }
+
+  /**
+   * The first n elements are the same as after a stable sort, for many
+   * equal elements as well.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testSelect_0()
+      throws Exception {
+    Random random = new Random(11);
+    Comparator byValue = new Comparator() {
+      public int compare(Object a_first, Object a_second) {
+        return ( (int[]) a_first)[0] - ( (int[]) a_second)[0];
+      }
+    };
+    int[] sizes = {0, 1, 2, 15, 17, 100, 1000};
+    for (int s = 0; s < sizes.length; s++) {
+      int size = sizes[s];
+      List list = new ArrayList();
+      for (int i = 0; i < size; i++) {
+        list.add(new int[] {random.nextInt(10)});
+      }
+      List expected = new ArrayList(list);
+      Collections.sort(expected, byValue);
+      int[] counts = {0, 1, size / 3, size - 1, size, size + 5};
+      for (int c = 0; c < counts.length; c++) {
+        Collections.shuffle(list, random);
+        expected = new ArrayList(list);
+        Collections.sort(expected, byValue);
+        List all = new ArrayList(list);
+        SelectionKit.select(list, counts[c], byValue);
+        int count = Math.max(0, Math.min(counts[c], size));
+        for (int i = 0; i < count; i++) {
+          assertSame(expected.get(i), list.get(i));
+        }
+        assertEquals(new HashSet(all), new HashSet(list));
+      }
+    }
+  }
+
+  /**
+   * NaN comes last, ties decide between equal keys.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testSelect_1()
+      throws Exception {
+    List list = new ArrayList();
+    list.addAll(Arrays.asList(new String[] {"a", "b", "c", "d", "e", "f"}));
+    double[] keys = {Double.NaN, 2, 1, 2, Double.NEGATIVE_INFINITY, 5};
+    int[] ties = {0, 3, 0, 1, 0, 0};
+    SelectionKit.select(list, 6, keys, ties);
+    assertEquals(Arrays.asList(new String[] {"e", "c", "d", "b", "f", "a"}),
+                 list);
+    assertEquals(1, keys[1], DELTA);
+    assertTrue(Double.isNaN(keys[5]));
+    assertEquals(3, ties[3]);
+  }
+
+  /**
+   * Fittest chromosomes with both evaluators of JGAP and a custom one.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testSelectFittest_0()
+      throws Exception {
+    double[] fitness = {3, 7, 0.5, 7, 12, 1};
+    List chroms = new ArrayList();
+    for (int i = 0; i < fitness.length; i++) {
+      IChromosome chrom = new Chromosome(conf, new IntegerGene(conf), 1);
+      chrom.setFitnessValueDirectly(fitness[i]);
+      chrom.setAge(10 - i);
+      chroms.add(chrom);
+    }
+    List list = new ArrayList(chroms);
+    SelectionKit.selectFittest(list, 3, new DefaultFitnessEvaluator());
+    assertSame(chroms.get(4), list.get(0));
+    assertSame(chroms.get(1), list.get(1));
+    assertSame(chroms.get(3), list.get(2));
+    list = new ArrayList(chroms);
+    SelectionKit.selectFittest(list, 3, new DefaultFitnessEvaluator(), true);
+    assertSame(chroms.get(4), list.get(0));
+    assertSame(chroms.get(3), list.get(1));
+    assertSame(chroms.get(1), list.get(2));
+    list = new ArrayList(chroms);
+    SelectionKit.selectFittest(list, 2, new DeltaFitnessEvaluator());
+    assertSame(chroms.get(2), list.get(0));
+    assertSame(chroms.get(5), list.get(1));
+    // Custom evaluators go through a comparator.
+    // ------------------------------------------
+    FitnessEvaluator custom = new DefaultFitnessEvaluator() {
+      public boolean isFitter(double a_fitness_value1,
+                              double a_fitness_value2) {
+        return a_fitness_value1 % 2 > a_fitness_value2 % 2;
+      }
+    };
+    assertFalse(SelectionKit.hasFitnessKeys(custom));
+    list = new ArrayList(chroms);
+    SelectionKit.selectFittest(list, 2, custom);
+    assertSame(chroms.get(0), list.get(0));
+    assertSame(chroms.get(1), list.get(1));
+  }
+
+  /**
+   * Negative values and NaN are never fitter with DeltaFitnessEvaluator.
+   *
+   * @since 3.7
+   */
+  public void testFitnessKey_0() {
+    FitnessEvaluator delta = new DeltaFitnessEvaluator();
+    assertEquals(2.0d, SelectionKit.fitnessKey(2.0d, delta), DELTA);
+    assertTrue(Double.isNaN(SelectionKit.fitnessKey( -2.0d, delta)));
+    assertTrue(Double.isNaN(SelectionKit.fitnessKey(Double.NaN, delta)));
+    FitnessEvaluator def = new DefaultFitnessEvaluator();
+    assertEquals( -2.0d, SelectionKit.fitnessKey(2.0d, def), DELTA);
+    assertTrue(Double.isNaN(SelectionKit.fitnessKey(Double.NaN, def)));
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * This file is part of JGAP.
+ *
+ * JGAP offers a dual license model containing the LGPL as well as the MPL.
+ *
+ * For licensing information please see the file license.txt included with JGAP
+ * or have a look at the top of class org.jgap.Chromosome which representatively
+ * includes the JGAP license policy applicable for any file delivered with JGAP.
+ */
+package org.jgap.util;
+
+import java.util.*;
+
+import org.jgap.*;
+import junit.framework.*;
+
+/**
+ * Tests the StripedLRUCache class.
+ *
+ * @since 3.7
+ */
+public class StripedLRUCacheTest
+    extends JGAPTestCase {
+  public static Test suite() {
+    TestSuite suite = new TestSuite(StripedLRUCacheTest.class);
+    return suite;
+  }
+
+  /**
+   * @since 3.7
+   */
+  public void testConstruct_0() {
+    try {
+      new StripedLRUCache<String, Double> (0);
+      fail();
+    } catch (IllegalArgumentException iex) {
+      ; //this is OK
+    }
+  }
+
+  /**
+   * Least recently used entry is evicted, statistics are counted.
+   *
+   * @since 3.7
+   */
+  public void testPut_0() {
+    StripedLRUCache<String, Double> cache =
+        new StripedLRUCache<String, Double> (2, 1);
+    cache.put("a", new Double(1));
+    cache.put("b", new Double(2));
+    assertEquals(1.0d, cache.get("a").doubleValue(), DELTA);
+    cache.put("c", new Double(3));
+    assertEquals(2, cache.size());
+    assertNull(cache.get("b"));
+    assertNotNull(cache.get("a"));
+    assertNotNull(cache.get("c"));
+    assertEquals(3, cache.getHits());
+    assertEquals(1, cache.getMisses());
+    assertEquals(1, cache.getEvictions());
+    cache.resetStatistics();
+    assertEquals(0, cache.getHits());
+  }
+
+  /**
+   * The maximum size is never exceeded, also with many segments.
+   *
+   * @since 3.7
+   */
+  public void testPut_1() {
+    StripedLRUCache<Integer, Integer> cache =
+        new StripedLRUCache<Integer, Integer> (100, 16);
+    for (int i = 0; i < 1000; i++) {
+      cache.put(new Integer(i), new Integer(i));
+    }
+    assertTrue(cache.size() <= 100);
+    assertEquals(1000 - cache.size(), cache.getEvictions());
+    assertEquals(100, cache.getMaxEntries());
+    Set<Map.Entry<Integer, Integer>> entries = cache.entrySet();
+    assertEquals(cache.size(), entries.size());
+    cache.clear();
+    assertEquals(0, cache.size());
+  }
+
+  /**
+   * Concurrent access does not corrupt the cache.
+   *
+   * @throws Exception
+   *
+   * @since 3.7
+   */
+  public void testConcurrentAccess_0()
+      throws Exception {
+    final StripedLRUCache<Integer, Integer> cache =
+        new StripedLRUCache<Integer, Integer> (500, 8);
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      final int offset = t;
+      threads[t] = new Thread() {
+        public void run() {
+          for (int i = 0; i < 5000; i++) {
+            Integer key = new Integer( (i * 7 + offset) % 800);
+            if (cache.get(key) == null) {
+              cache.put(key, key);
+            }
+          }
+        }
+      };
+      threads[t].start();
+    }
+    for (int t = 0; t < threads.length; t++) {
+      threads[t].join();
+    }
+    assertTrue(cache.size() <= 500);
+    assertEquals(4 * 5000, cache.getHits() + cache.getMisses());
+  }
+}